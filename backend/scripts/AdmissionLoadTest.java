@@ -0,0 +1,123 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Floods the expensive endpoints while timing cheap lookups, to check that admission control keeps
+ * cheap requests fast.
+ *
+ * <pre>
+ * java scripts/AdmissionLoadTest.java [baseUrl] [seconds] [floodClients] [probeClients] [maxEmployeeId]
+ * java scripts/AdmissionLoadTest.java http://localhost:8080 60 64 4 10000
+ * </pre>
+ *
+ * Flood clients alternate between the CSV skill matrix export and the unpaged employee skill grade list.
+ * Probe clients fetch random employees by ID. Prints latency percentiles of the probes and the status
+ * codes of the flood.
+ */
+public class AdmissionLoadTest {
+
+    private static final List<String> FLOOD_PATHS = List.of(
+            "/api/exports/skill-matrix?format=csv",
+            "/api/employee-skill-grades");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int floodClients = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int probeClients = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int maxEmployeeId = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        Map<Integer, LongAdder> floodStatuses = new ConcurrentHashMap<>();
+        Map<Integer, LongAdder> probeStatuses = new ConcurrentHashMap<>();
+        List<Long> probeLatencies = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < floodClients; i++) {
+                String path = FLOOD_PATHS.get(i % FLOOD_PATHS.size());
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int status = send(client, baseUrl + path, HttpResponse.BodyHandlers.discarding());
+                        floodStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        if (status == 503) {
+                            // A well-behaved client honours Retry-After; a short pause keeps the flood heavy
+                            sleep(50);
+                        }
+                    }
+                    return null;
+                });
+            }
+            // Let the flood build up before measuring
+            sleep(2_000);
+            for (int i = 0; i < probeClients; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long id = ThreadLocalRandom.current().nextLong(1, maxEmployeeId + 1);
+                        long start = System.nanoTime();
+                        int status = send(client, baseUrl + "/api/employees/" + id, HttpResponse.BodyHandlers.discarding());
+                        probeLatencies.add(System.nanoTime() - start);
+                        probeStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        sleep(20);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        List<Long> latencies = new ArrayList<>(probeLatencies);
+        Collections.sort(latencies);
+        System.out.printf("cheap lookups: %d requests, statuses %s%n", latencies.size(), counts(probeStatuses));
+        System.out.printf("  p50 %d ms, p95 %d ms, p99 %d ms, max %d ms%n",
+                percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                percentile(latencies, 100));
+        System.out.printf("flood: statuses %s%n", counts(floodStatuses));
+    }
+
+    private static <T> int send(HttpClient client, String url, HttpResponse.BodyHandler<T> handler) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(120)).GET().build();
+            return client.send(request, handler).statusCode();
+        } catch (Exception ex) {
+            return -1;
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000;
+    }
+
+    private static Map<Integer, Long> counts(Map<Integer, LongAdder> statuses) {
+        Map<Integer, Long> counts = new java.util.TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+#!/usr/bin/env bash
+#
+# Trains the CDS archive of the fast-start build and measures time to first request.
+#
+#   scripts/startup-benchmark.sh archive   start once with -XX:ArchiveClassesAtExit to write target/skills.jsa
+#   scripts/startup-benchmark.sh measure   time the plain JVM start against the fast start
+#   scripts/startup-benchmark.sh all       both (default)
+#   scripts/startup-benchmark.sh native    time the native executable target/skills
+#
+# Needs the output of "./mvnw -Pfast-start package", or of "./mvnw -Pnative native:compile" for native,
+# and a migrated database. The database is configured
+# with the usual SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME and SPRING_DATASOURCE_PASSWORD.
+# Every measurement appends "timestamp,mode,run,time_to_first_request_ms,rss_kb" to target/startup-benchmark.csv.
+
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR=${JAR:-target/skills-0.0.1-SNAPSHOT.jar}
+NATIVE=${NATIVE:-target/skills}
+ARCHIVE=target/skills.jsa
+RESULTS=target/startup-benchmark.csv
+RUNS=${BENCHMARK_RUNS:-3}
+PORT=${BENCHMARK_PORT:-18081}
+URL="http://localhost:${PORT}/api/skills?paginated=true&size=1"
+TIMEOUT_SECONDS=${BENCHMARK_TIMEOUT_SECONDS:-180}
+
+FAST_START=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast-start)
+
+pid=""
+elapsed_ms=""
+
+stop() {
+    if [[ -n "$pid" ]]; then
+        kill -TERM "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        pid=""
+    fi
+}
+trap stop EXIT
+
+# Run the given command with the server port; sets elapsed_ms to the time until the first successful request
+start_and_wait() {
+    local started
+    started=$(date +%s%N)
+    "$@" --server.port="$PORT" > target/startup-benchmark.log 2>&1 &
+    pid=$!
+    local deadline=$((SECONDS + TIMEOUT_SECONDS))
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null || ((SECONDS > deadline)); then
+            echo "Application did not answer $URL, see target/startup-benchmark.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    elapsed_ms=$((($(date +%s%N) - started) / 1000000))
+}
+
+rss_kb() {
+    awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status" 2>/dev/null || echo ""
+}
+
+archive() {
+    rm -f "$ARCHIVE"
+    # The training run also serves a request, so request handling classes are archived as well
+    start_and_wait java -XX:ArchiveClassesAtExit="$ARCHIVE" "${FAST_START[@]}" -jar "$JAR"
+    stop
+    echo "Wrote $ARCHIVE"
+}
+
+measure_mode() {
+    local mode=$1
+    shift
+    for run in $(seq "$RUNS"); do
+        local rss
+        start_and_wait "$@"
+        rss=$(rss_kb)
+        stop
+        echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),${mode},${run},${elapsed_ms},${rss}" >> "$RESULTS"
+        echo "${mode} run ${run}: first request after ${elapsed_ms} ms, RSS ${rss} kB"
+    done
+}
+
+measure() {
+    if [[ ! -f "$RESULTS" ]]; then
+        echo "timestamp,mode,run,time_to_first_request_ms,rss_kb" > "$RESULTS"
+    fi
+    measure_mode jvm java -jar "$JAR"
+    measure_mode fast-start java -XX:SharedArchiveFile="$ARCHIVE" "${FAST_START[@]}" -jar "$JAR"
+}
+
+measure_native() {
+    if [[ ! -x "$NATIVE" ]]; then
+        echo "No native executable $NATIVE, build it with ./mvnw -Pnative native:compile" >&2
+        exit 1
+    fi
+    if [[ ! -f "$RESULTS" ]]; then
+        echo "timestamp,mode,run,time_to_first_request_ms,rss_kb" > "$RESULTS"
+    fi
+    measure_mode native "$NATIVE"
+}
+
+case "${1:-all}" in
+    archive) archive ;;
+    measure) measure ;;
+    all) archive; measure ;;
+    native) measure_native ;;
+    *) echo "Usage: $0 [archive|measure|all|native]" >&2; exit 2 ;;
+esac
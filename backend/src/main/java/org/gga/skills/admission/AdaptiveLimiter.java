@@ -0,0 +1,138 @@
+package org.gga.skills.admission;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows the latency gradient, in the style of TCP Vegas.
+ * <p>
+ * The limiter tracks the latency without load as the smallest latency seen. Each completed request
+ * moves the limit towards {@code limit * gradient + sqrt(limit)}, where the gradient
+ * {@code min(1, 2 * rttNoLoad / rtt)} is at least {@code 0.5}. While latency stays within twice the
+ * no-load latency, the limit grows by the square-root headroom. Beyond that it settles where the
+ * queueing delay is balanced, at {@code 1 / (1 - gradient)^2}. Failed requests cut the limit
+ * multiplicatively, like AIMD.
+ * <p>
+ * The no-load latency is re-learned periodically, so a slower database doesn't pin the limit at its
+ * minimum forever. Samples taken while less than half the limit was in use say nothing about the
+ * limit and are ignored.
+ */
+public class AdaptiveLimiter {
+
+    private static final double RTT_TOLERANCE = 2.0;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private long rttNoLoad;
+    private long samplesUntilProbe;
+
+    /**
+     * @throws IllegalArgumentException unless {@code 1 <= minLimit <= initialLimit <= maxLimit}
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max, got min " +
+                    minLimit + ", initial " + initialLimit + ", max " + maxLimit);
+        }
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.samplesUntilProbe = (long) initialLimit * PROBE_MULTIPLIER;
+    }
+
+    /**
+     * Admit a request if fewer requests than the limit are in flight.
+     *
+     * @return the permit to release when the request completes, or empty if the request is rejected
+     */
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(System.nanoTime(), current + 1));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long rtt, int inFlightAtStart, boolean failed) {
+        if (rtt <= 0) {
+            return;
+        }
+        if (rttNoLoad == 0 || rtt < rttNoLoad) {
+            rttNoLoad = rtt;
+        }
+        if (--samplesUntilProbe <= 0) {
+            rttNoLoad = rtt;
+            samplesUntilProbe = (long) limit * PROBE_MULTIPLIER;
+        }
+
+        double newLimit;
+        if (failed) {
+            newLimit = estimatedLimit * BACKOFF_RATIO;
+        } else if (inFlightAtStart * 2 < limit) {
+            return;
+        } else {
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * rttNoLoad / rtt));
+            double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * An admitted request. Release it exactly once, when the request has completed.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * @param failed whether the request failed, e.g. with a server error or timeout
+         */
+        public synchronized void release(boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, failed);
+        }
+    }
+}
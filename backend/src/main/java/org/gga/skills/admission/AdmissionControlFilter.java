@@ -0,0 +1,141 @@
+package org.gga.skills.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.gga.skills.dto.ErrorResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Admits requests of each {@link EndpointClass} under its own {@link AdaptiveLimiter}. Requests over the
+ * limit are rejected at once with 503 and {@code Retry-After}, instead of waiting for a Tomcat thread and
+ * a database connection that cheap lookups need too.
+ * <p>
+ * Limits are configured per class as {@code skills.admission.<class>.initial-limit}, {@code min-limit}
+ * and {@code max-limit}. The limit, in-flight and rejected counts are published as the
+ * {@code skills.admission.*} metrics tagged with the class.
+ */
+@Component
+@ConditionalOnProperty(name = "skills.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${skills.admission.retry-after:1s}") Duration retryAfter) {
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "skills.admission." + endpointClass.key() + ".";
+            AdaptiveLimiter limiter = new AdaptiveLimiter(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, endpointClass.getInitialLimit()),
+                    environment.getProperty(prefix + "min-limit", Integer.class, endpointClass.getMinLimit()),
+                    environment.getProperty(prefix + "max-limit", Integer.class, endpointClass.getMaxLimit()));
+            limiters.put(endpointClass, limiter);
+            registerMetrics(meterRegistry, endpointClass, limiter);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<AdaptiveLimiter.Permit> acquired = limiters.get(endpointClass).tryAcquire();
+        if (acquired.isEmpty()) {
+            reject(endpointClass, response);
+            return;
+        }
+        AdaptiveLimiter.Permit permit = acquired.get();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                // Streaming responses hold on to their resources until the async request completes
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(permit));
+            } else {
+                permit.release(!completed || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+
+    private void reject(EndpointClass endpointClass, HttpServletResponse response) throws IOException {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Too many concurrent " + endpointClass.key() + " requests, retry later"
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static void registerMetrics(MeterRegistry registry, EndpointClass endpointClass, AdaptiveLimiter limiter) {
+        Gauge.builder("skills.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                .description("Current concurrency limit")
+                .tag("class", endpointClass.key())
+                .register(registry);
+        Gauge.builder("skills.admission.inflight", limiter, AdaptiveLimiter::getInFlight)
+                .description("Admitted requests that have not completed")
+                .tag("class", endpointClass.key())
+                .register(registry);
+        FunctionCounter.builder("skills.admission.rejected", limiter, AdaptiveLimiter::getRejected)
+                .description("Requests rejected over the concurrency limit")
+                .tag("class", endpointClass.key())
+                .register(registry);
+    }
+
+    private record ReleaseOnCompletion(AdaptiveLimiter.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            permit.release(response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nothing to do, the listener stays registered until the request completes
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.gga.skills.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Classes of expensive endpoints that are admitted under their own concurrency limit. Requests outside
+ * these classes are cheap lookups and are never limited, so they stay fast while expensive ones queue up.
+ */
+public enum EndpointClass {
+
+    /**
+     * Streaming exports, which hold a connection for the whole export.
+     */
+    EXPORT(2, 1, 4),
+
+    /**
+     * Unpaged collection reads, aggregations, searches and GraphQL queries, whose cost grows with the table
+     * or the query.
+     */
+    BULK(4, 1, 8);
+
+    private static final String EXPORTS = "/api/exports/";
+
+    /**
+     * The {@code spring.graphql.path}. A query fans out into a batch per nested list, up to the
+     * {@code skills.graphql.max-complexity}, so it is limited like a bulk read.
+     */
+    private static final String GRAPHQL = "/graphql";
+
+    /**
+     * Collections that can return every row. {@code /api/employees} is not one of them: it always returns a
+     * {@code Page} of at most {@code spring.data.web.pageable.max-page-size} rows.
+     */
+    private static final Set<String> COLLECTIONS = Set.of(
+            "/api/skills",
+            "/api/skill-grades",
+            "/api/employee-skill-grades",
+            "/api/job-profiles");
+
+    private static final Set<String> AGGREGATIONS = Set.of(
+            "/api/skills/grade-distribution",
+            "/api/job-profiles/team");
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    EndpointClass(int initialLimit, int minLimit, int maxLimit) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Lower-case name used in configuration keys and metric tags.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the class of the request, or {@code null} if it is not limited
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("POST".equals(request.getMethod()) && path.equals(GRAPHQL)) {
+            return BULK;
+        }
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        if (path.startsWith(EXPORTS)) {
+            return EXPORT;
+        }
+        if (AGGREGATIONS.contains(path)) {
+            return BULK;
+        }
+        if (COLLECTIONS.contains(path) && isUnbounded(request)) {
+            return BULK;
+        }
+        return null;
+    }
+
+    /**
+     * Pages, multi-gets and the per-employee, per-grade or per-skill filters are bounded; anything else reads
+     * the whole table.
+     */
+    private static boolean isUnbounded(HttpServletRequest request) {
+        return !"true".equalsIgnoreCase(request.getParameter("paginated"))
+                && request.getParameter("page") == null
+                && request.getParameter("size") == null
+                && request.getParameter("ids") == null
+                && request.getParameter("skillId") == null
+                && request.getParameter("employeeId") == null
+                && request.getParameter("skillGradeId") == null;
+    }
+}
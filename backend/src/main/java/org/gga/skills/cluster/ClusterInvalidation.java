@@ -0,0 +1,250 @@
+package org.gga.skills.cluster;
+
+import jakarta.annotation.PreDestroy;
+import org.gga.skills.event.AllResourcesChangedEvent;
+import org.gga.skills.event.EmployeeChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Forwards the {@link EmployeeChangedEvent}s and {@link ResourceChangedEvent}s of committed writes to
+ * the other instances sharing the database, through PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * The events of a transaction are collected and sent as one notification before it commits, so
+ * PostgreSQL delivers it only if the transaction commits. Received notifications are published as
+ * events again, outside any transaction, which keeps them from being sent on. Notifications sent while
+ * the listening connection is down are lost, so after reconnecting an {@link AllResourcesChangedEvent}
+ * makes the local caches and indexes start over.
+ */
+@Component
+@ConditionalOnProperty(name = "skills.cluster-invalidation.enabled", matchIfMissing = true)
+public class ClusterInvalidation {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterInvalidation.class);
+
+    /**
+     * PostgreSQL rejects payloads of 8000 bytes or more; larger messages invalidate everything instead.
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final String origin = UUID.randomUUID().toString();
+
+    private volatile boolean running = true;
+    private volatile Connection connection;
+    private boolean missed;
+    private Thread listener;
+
+    public ClusterInvalidation(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${skills.cluster-invalidation.channel:skills_invalidation}") String channel,
+                               @Value("${skills.cluster-invalidation.poll-timeout:10s}") Duration pollTimeout,
+                               @Value("${skills.cluster-invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        // Listen before the indexes are built at startup, so no write committed after the build is missed.
+        // Notifications received until the application is ready stay queued on the connection.
+        try {
+            connection = listen();
+        } catch (SQLException ex) {
+            log.warn("Failed to listen for cluster invalidations, retrying once the application is ready", ex);
+            missed = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener = Thread.ofPlatform().name("cluster-invalidation").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        closeQuietly(connection);
+        if (listener != null) {
+            listener.join(reconnectDelay.plus(pollTimeout).toMillis());
+        }
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Pending pending = pending();
+        if (pending != null) {
+            pending.employeeIds.addAll(event.employeeIds());
+        }
+    }
+
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        Pending pending = pending();
+        if (pending != null) {
+            pending.resourceIds.computeIfAbsent(event.resource(), resource -> new HashSet<>()).addAll(event.ids());
+        }
+    }
+
+    /**
+     * @return the changes collected for the current transaction, or {@code null} outside a transaction,
+     * where the events were received from another instance
+     */
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Connection current = connection != null ? connection : (connection = listen());
+                if (missed) {
+                    log.warn("Reconnected to cluster invalidation channel {}, invalidating all local state", channel);
+                    missed = false;
+                    eventPublisher.publishEvent(new AllResourcesChangedEvent());
+                }
+                receive(current);
+            } catch (SQLException | RuntimeException ex) {
+                closeQuietly(connection);
+                connection = null;
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost cluster invalidation channel {}, reconnecting in {}", channel, reconnectDelay, ex);
+                missed = true;
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection listen() throws SQLException {
+        Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + listening.unwrap(PGConnection.class).escapeIdentifier(channel));
+        } catch (SQLException ex) {
+            closeQuietly(listening);
+            throw ex;
+        }
+        return listening;
+    }
+
+    private void receive(Connection current) throws SQLException {
+        PGConnection pgConnection = current.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+            if (notifications == null || notifications.length == 0) {
+                // getNotifications doesn't notice a dead server; a round trip does
+                try (Statement statement = current.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                apply(InvalidationMessage.decode(notification.getParameter()));
+            }
+        }
+    }
+
+    private void apply(InvalidationMessage message) {
+        if (message.origin().equals(origin)) {
+            return;
+        }
+        try {
+            if (message.all()) {
+                eventPublisher.publishEvent(new AllResourcesChangedEvent());
+                return;
+            }
+            if (!message.employeeIds().isEmpty()) {
+                eventPublisher.publishEvent(EmployeeChangedEvent.of(message.employeeIds()));
+            }
+            message.resourceIds().forEach((resource, ids) ->
+                    eventPublisher.publishEvent(ResourceChangedEvent.of(resource, ids)));
+        } catch (RuntimeException ex) {
+            // The listeners log their own failures; keep receiving the messages after this one
+            log.error("Failed to apply cluster invalidation {}", message, ex);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Failed to close cluster invalidation connection", ex);
+        }
+    }
+
+    /**
+     * The changes of one transaction, sent as a single notification before it commits.
+     */
+    private class Pending implements TransactionSynchronization {
+
+        private final Set<Long> employeeIds = new HashSet<>();
+        private final Map<Resource, Set<Long>> resourceIds = new EnumMap<>(Resource.class);
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            InvalidationMessage message = new InvalidationMessage(origin, employeeIds, resourceIds, false);
+            if (message.isEmpty()) {
+                return;
+            }
+            String payload = message.encode();
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                payload = InvalidationMessage.all(origin).encode();
+            }
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, channel, payload);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ClusterInvalidation.this);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.gga.skills.cluster;
+
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * The changes of one committed transaction, as sent between instances.
+ * <p>
+ * Messages are encoded as {@code origin;employees:1,2;SKILL:3}, where {@code employees} lists the
+ * employees of {@code EmployeeChangedEvent}s and each resource section the IDs of
+ * {@code ResourceChangedEvent}s. {@code origin;*} invalidates everything. A payload this version
+ * doesn't understand, e.g. from a newer instance during a rolling deployment, decodes as invalidating
+ * everything.
+ *
+ * @param origin the instance that sent the message
+ * @param employeeIds the changed employees
+ * @param resourceIds the changed resources by kind
+ * @param all whether everything should be invalidated instead
+ */
+record InvalidationMessage(String origin, Set<Long> employeeIds, Map<Resource, Set<Long>> resourceIds,
+                           boolean all) {
+
+    private static final String ALL = "*";
+    private static final String EMPLOYEES = "employees";
+
+    static InvalidationMessage all(String origin) {
+        return new InvalidationMessage(origin, Set.of(), Map.of(), true);
+    }
+
+    boolean isEmpty() {
+        return !all && employeeIds.isEmpty() && resourceIds.values().stream().allMatch(Set::isEmpty);
+    }
+
+    String encode() {
+        StringJoiner payload = new StringJoiner(";").add(origin);
+        if (all) {
+            return payload.add(ALL).toString();
+        }
+        if (!employeeIds.isEmpty()) {
+            payload.add(section(EMPLOYEES, employeeIds));
+        }
+        resourceIds.forEach((resource, ids) -> {
+            if (!ids.isEmpty()) {
+                payload.add(section(resource.name(), ids));
+            }
+        });
+        return payload.toString();
+    }
+
+    static InvalidationMessage decode(String payload) {
+        String[] sections = payload.split(";");
+        String origin = sections[0];
+        Set<Long> employeeIds = new HashSet<>();
+        Map<Resource, Set<Long>> resourceIds = new EnumMap<>(Resource.class);
+        try {
+            for (int i = 1; i < sections.length; i++) {
+                int colon = sections[i].indexOf(':');
+                if (colon < 0) {
+                    return all(origin);
+                }
+                String name = sections[i].substring(0, colon);
+                Set<Long> ids = name.equals(EMPLOYEES)
+                        ? employeeIds
+                        : resourceIds.computeIfAbsent(Resource.valueOf(name), resource -> new HashSet<>());
+                for (String id : sections[i].substring(colon + 1).split(",")) {
+                    ids.add(Long.parseLong(id));
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            return all(origin);
+        }
+        return new InvalidationMessage(origin, employeeIds, resourceIds, false);
+    }
+
+    private static String section(String name, Collection<Long> ids) {
+        StringJoiner section = new StringJoiner(",", name + ":", "");
+        ids.forEach(id -> section.add(id.toString()));
+        return section.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package org.gga.skills.config;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.gga.skills.controller.GraphQLController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Guards the GraphQL endpoint against deeply nested or overly wide queries. Complexity counts the
+ * values a query can resolve, so it grows with the page sizes of nested lists.
+ */
+@Configuration
+public class GraphQLConfig {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${skills.graphql.max-depth:8}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${skills.graphql.max-complexity:5000}") int maxComplexity,
+            @Value("${skills.graphql.list-size-estimate:10}") int listSizeEstimate) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity,
+                new ListSizeComplexityCalculator(GraphQLController.MAX_PAGE_SIZE, listSizeEstimate));
+    }
+}
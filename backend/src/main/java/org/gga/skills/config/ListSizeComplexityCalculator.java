@@ -0,0 +1,40 @@
+package org.gga.skills.config;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Estimates the number of values a GraphQL query resolves rather than the number of fields it selects.
+ * <p>
+ * A list field costs one plus its selection times the number of entries it can return: its page
+ * {@code size} or {@code first} argument, clamped like the resolvers clamp it, or a fixed estimate for
+ * lists without one. Other fields cost one plus their selection.
+ */
+class ListSizeComplexityCalculator implements FieldComplexityCalculator {
+
+    private final int maxPageSize;
+    private final int listSizeEstimate;
+
+    ListSizeComplexityCalculator(int maxPageSize, int listSizeEstimate) {
+        this.maxPageSize = maxPageSize;
+        this.listSizeEstimate = listSizeEstimate;
+    }
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        int entries = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()))
+                ? listSize(environment)
+                : 1;
+        long complexity = 1 + (long) entries * childComplexity;
+        return (int) Math.min(complexity, Integer.MAX_VALUE);
+    }
+
+    private int listSize(FieldComplexityEnvironment environment) {
+        Object size = environment.getArguments().getOrDefault("size", environment.getArguments().get("first"));
+        if (size instanceof Integer requested) {
+            return Math.min(Math.max(requested, 1), maxPageSize);
+        }
+        return listSizeEstimate;
+    }
+}
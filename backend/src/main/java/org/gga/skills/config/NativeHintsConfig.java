@@ -0,0 +1,67 @@
+package org.gga.skills.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runtime hints for the native image built with the {@code native} Maven profile.
+ * <p>
+ * Spring AOT derives hints for controller signatures and repositories, but not for types that are
+ * only reached reflectively at runtime: GraphQL property fetchers and Jackson read entities and DTO
+ * records through their accessors, Hibernate and bean validation read entity fields, Flyway lists
+ * its migrations and springdoc serves the Swagger UI webjar.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    private static final String MODEL_PACKAGE = "org.gga.skills.model";
+    private static final String DTO_PACKAGE = "org.gga.skills.dto";
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> entity : classesIn(MODEL_PACKAGE, classLoader)) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+                bindingHints.registerReflectionHints(hints.reflection(), entity);
+            }
+            for (Class<?> dto : classesIn(DTO_PACKAGE, classLoader)) {
+                bindingHints.registerReflectionHints(hints.reflection(), dto);
+            }
+
+            hints.resources().registerPattern("db/migration/*.sql");
+            hints.resources().registerPattern("graphql/*.graphqls");
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+            hints.resources().registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+        }
+
+        /**
+         * Runs at build time, during AOT processing, where the package can still be scanned.
+         */
+        private static List<Class<?>> classesIn(String basePackage, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+            List<Class<?>> classes = new ArrayList<>();
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                classes.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+            return classes;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.gga.skills.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.gga.skills.dto.AutocompleteResponse;
+import org.gga.skills.service.AutocompleteService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+@Tag(name = "Autocomplete", description = "Prefix completion of skill, job profile and employee names")
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    public AutocompleteController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Complete a name", description = "Complete a prefix of a skill, job profile or employee name (type skill, jobProfile or employee) from memory. Matching ignores case and accents and starts at any word of a name. Completions are ranked by popularity: holders of a skill, assignees of a job profile, or skills held by an employee")
+    public List<AutocompleteResponse> complete(@RequestParam String type,
+                                               @RequestParam(defaultValue = "") String prefix,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.complete(type, prefix, limit);
+    }
+}
@@ -0,0 +1,49 @@
+package org.gga.skills.controller;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Decides when a response may be served as the serialized JSON held by the
+ * {@link org.gga.skills.service.ResponseCache}. Other formats are still written by their message converters.
+ */
+final class CachedResponses {
+
+    /**
+     * The formats of the response records, in the order of their message converters.
+     */
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType("application/cbor"), MediaType.parseMediaType("application/x-jackson-smile"));
+
+    private CachedResponses() {
+    }
+
+    /**
+     * @return whether content negotiation picks JSON for the {@code Accept} header: the header is absent, or its
+     * most preferred type that a converter produces is compatible with JSON before any binary format
+     */
+    static boolean negotiatesJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> requested;
+        try {
+            requested = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            // Left to the regular content negotiation, which rejects it
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(requested);
+        for (MediaType type : requested) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (type.getQualityValue() > 0 && type.isCompatibleWith(producible)) {
+                    return producible.equals(MediaType.APPLICATION_JSON);
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package org.gga.skills.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.gga.skills.dto.CapabilityCellResponse;
+import org.gga.skills.dto.CapabilityCubeStatsResponse;
+import org.gga.skills.service.CapabilityCubeService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/capability-cube")
+@Tag(name = "Capability Cube", description = "Skill capability reports sliced by department, position, job profile, skill, grade level and certification")
+public class CapabilityCubeController {
+
+    private final CapabilityCubeService capabilityCubeService;
+
+    public CapabilityCubeController(CapabilityCubeService capabilityCubeService) {
+        this.capabilityCubeService = capabilityCubeService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Slice the capability cube", description = "Count employee skill grades grouped by the comma-separated groupBy dimensions (department, position, jobProfileId, skillId, level, certified), restricted by the filters of the same names; repeated values of one filter are alternatives. Without groupBy, returns the grand total. When job profiles are grouped or filtered, a grade counts once per matching job profile of its employee")
+    public List<CapabilityCellResponse> queryCube(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) List<String> department,
+            @RequestParam(required = false) List<String> position,
+            @RequestParam(required = false) List<Long> jobProfileId,
+            @RequestParam(required = false) List<Long> skillId,
+            @RequestParam(required = false) List<Integer> level,
+            @RequestParam(required = false) Boolean certified) {
+        return capabilityCubeService.query(groupBy, department, position, jobProfileId, skillId, level, certified);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get capability cube size", description = "Number of employees, precomputed groupings and cells of the in-memory cube, and its approximate memory in bytes")
+    public CapabilityCubeStatsResponse getCubeStats() {
+        return capabilityCubeService.getStats();
+    }
+}
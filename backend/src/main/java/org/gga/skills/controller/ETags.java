@@ -0,0 +1,55 @@
+package org.gga.skills.controller;
+
+import org.gga.skills.service.PreconditionFailedException;
+import org.gga.skills.service.PreconditionRequiredException;
+
+/**
+ * Maps entity versions to entity tags and back. The entity tag of a resource is its quoted version.
+ */
+final class ETags {
+
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Read the version from an optional {@code If-Match} header.
+     *
+     * @return the expected version, or {@code null} if the header is absent or {@code *}
+     * @throws PreconditionFailedException if the header is not a single entity tag of this API
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ex) {
+                // Falls through: a tag this API never issued cannot match
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current version");
+    }
+
+    /**
+     * Read the version from the {@code If-Match} header that conditional updates require.
+     *
+     * @throws PreconditionRequiredException if the header is absent
+     */
+    static Long requiredExpectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new PreconditionRequiredException("If-Match header with the resource's ETag is required");
+        }
+        return expectedVersion(ifMatch);
+    }
+}
@@ -1,19 +1,39 @@
 package org.gga.skills.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.gga.skills.dto.EmployeeProfileResponse;
 import org.gga.skills.dto.EmployeeRequest;
 import org.gga.skills.dto.EmployeeResponse;
+import org.gga.skills.dto.EmployeeSearchResponse;
+import org.gga.skills.dto.EmployeeSkillGradeResponse;
 import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.dto.SimilarEmployeeResponse;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+import org.gga.skills.service.EmployeeProfileService;
+import org.gga.skills.service.EmployeeSearchService;
 import org.gga.skills.service.EmployeeService;
 import org.gga.skills.service.EmployeeJobProfileService;
+import org.gga.skills.service.EmployeeSkillGradeService;
+import org.gga.skills.service.ResponseCache;
+import org.gga.skills.service.SkillGradeHistoryService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/employees")
@@ -22,11 +42,26 @@ public class EmployeeController {
 
     private final EmployeeService employeeService;
     private final EmployeeJobProfileService employeeJobProfileService;
+    private final EmployeeProfileService employeeProfileService;
+    private final EmployeeSearchService employeeSearchService;
+    private final EmployeeSkillGradeService employeeSkillGradeService;
+    private final SkillGradeHistoryService skillGradeHistoryService;
+    private final ResponseCache responseCache;
 
     public EmployeeController(EmployeeService employeeService,
-                               EmployeeJobProfileService employeeJobProfileService) {
+                               EmployeeJobProfileService employeeJobProfileService,
+                               EmployeeProfileService employeeProfileService,
+                               EmployeeSearchService employeeSearchService,
+                               EmployeeSkillGradeService employeeSkillGradeService,
+                               SkillGradeHistoryService skillGradeHistoryService,
+                               ResponseCache responseCache) {
         this.employeeService = employeeService;
         this.employeeJobProfileService = employeeJobProfileService;
+        this.employeeProfileService = employeeProfileService;
+        this.employeeSearchService = employeeSearchService;
+        this.employeeSkillGradeService = employeeSkillGradeService;
+        this.skillGradeHistoryService = skillGradeHistoryService;
+        this.responseCache = responseCache;
     }
 
     @GetMapping
@@ -40,10 +75,73 @@ public class EmployeeController {
         return employeeService.getAllEmployees(pageable);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get employees by IDs", description = "Retrieve several employees in one request, in the order of the comma-separated IDs; unknown IDs are skipped")
+    public List<EmployeeResponse> getEmployeesByIds(@RequestParam List<Long> ids) {
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Get selected fields of all employees or search", description = "Retrieve a paginated list of employees containing only the comma-separated fields; only the selected columns are read")
+    public Page<Map<String, Object>> getEmployeeFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String search,
+            Pageable pageable) {
+        return employeeService.getEmployeeFields(fields, search, pageable);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Faceted employee search", description = "Filter employees by department, position, assigned job profile, skill with optional minimum grade level and certified flag; repeated values of one filter are alternatives. Returns one page ordered by ID plus the count of every facet value under the other filters")
+    public EmployeeSearchResponse searchEmployeesByFacets(
+            @RequestParam(required = false) List<String> department,
+            @RequestParam(required = false) List<String> position,
+            @RequestParam(required = false) List<Long> jobProfileId,
+            @RequestParam(required = false) Long skillId,
+            @RequestParam(required = false) Integer minLevel,
+            @RequestParam(required = false) Boolean certified,
+            Pageable pageable) {
+        return employeeSearchService.searchEmployees(department, position, jobProfileId, skillId, minLevel,
+                certified, pageable);
+    }
+
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Find employees with similar skills", description = "Return up to limit other employees ordered by cosine similarity of their skill vectors, weighted by grade level, years of experience and certification; employees without a skill in common are left out")
+    public List<SimilarEmployeeResponse> findSimilarEmployees(@PathVariable Long id,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return employeeSearchService.findSimilarEmployees(id, limit);
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get employee by ID", description = "Retrieve a single employee by their ID")
-    public EmployeeResponse getEmployeeById(@PathVariable Long id) {
-        return employeeService.getEmployeeById(id);
+    @Operation(summary = "Get employee by ID", description = "Retrieve a single employee by their ID; the ETag carries its version. JSON is served from a cache of serialized responses that writes invalidate")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = EmployeeResponse.class)))
+    public ResponseEntity<?> getEmployeeById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (!CachedResponses.negotiatesJson(accept)) {
+            return withETag(employeeService.getEmployeeById(id));
+        }
+        ResponseCache.Entry entry = responseCache.get(Resource.EMPLOYEE, id,
+                () -> employeeService.getEmployeeById(id), EmployeeResponse::version);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(entry.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json());
+    }
+
+    @GetMapping("/{id}/profile")
+    @Operation(summary = "Get employee profile", description = "Retrieve an employee with assigned job profiles, skill grades and skill gaps against those job profiles in one request")
+    public EmployeeProfileResponse getEmployeeProfile(@PathVariable Long id) {
+        return employeeProfileService.getEmployeeProfile(id);
+    }
+
+    @GetMapping("/{id}/skill-grades")
+    @Operation(summary = "Get employee's skill grades", description = "Get the skill grades of an employee, or with asOf (ISO date-time) the grades they held at that point in time")
+    public List<EmployeeSkillGradeResponse> getEmployeeSkillGrades(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        if (asOf != null) {
+            return skillGradeHistoryService.getEmployeeSkillGradesAsOf(id, asOf);
+        }
+        return employeeSkillGradeService.getEmployeeSkillGradesByEmployeeId(id);
     }
 
     @PostMapping
@@ -54,10 +152,19 @@ public class EmployeeController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update an employee", description = "Update an existing employee record")
-    public EmployeeResponse updateEmployee(@PathVariable Long id,
-                                            @Valid @RequestBody EmployeeRequest request) {
-        return employeeService.updateEmployee(id, request);
+    @Operation(summary = "Update an employee", description = "Update an existing employee record. With If-Match the update only succeeds if the employee still has that ETag")
+    public ResponseEntity<EmployeeResponse> updateEmployee(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody EmployeeRequest request) {
+        return withETag(employeeService.updateEmployee(id, ETags.expectedVersion(ifMatch), request));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {ETags.MERGE_PATCH_JSON, "application/json"})
+    @Operation(summary = "Patch an employee", description = "Apply a JSON Merge Patch: only the given fields change and null clears a field. Requires If-Match with the employee's ETag and is written as one conditional update")
+    public ResponseEntity<EmployeeResponse> patchEmployee(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        return withETag(employeeService.patchEmployee(id, ETags.requiredExpectedVersion(ifMatch), patch));
     }
 
     @DeleteMapping("/{id}")
@@ -86,4 +193,8 @@ public class EmployeeController {
     public void removeJobProfile(@PathVariable Long employeeId, @PathVariable Long jobProfileId) {
         employeeJobProfileService.removeJobProfileFromEmployee(employeeId, jobProfileId);
     }
+
+    private static ResponseEntity<EmployeeResponse> withETag(EmployeeResponse response) {
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
+    }
 }
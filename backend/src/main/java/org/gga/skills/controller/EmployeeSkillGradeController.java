@@ -1,5 +1,6 @@
 package org.gga.skills.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -8,10 +9,13 @@ import org.gga.skills.dto.EmployeeSkillGradeResponse;
 import org.gga.skills.service.EmployeeSkillGradeService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/employee-skill-grades")
@@ -25,7 +29,7 @@ public class EmployeeSkillGradeController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all employee skill grades", description = "Retrieve employee skill grades with optional filtering")
+    @Operation(summary = "Get all employee skill grades", description = "Retrieve employee skill grades with optional filtering. Comments are omitted; select them with the fields parameter or fetch a single grade")
     public List<EmployeeSkillGradeResponse> getAllEmployeeSkillGrades(
             @RequestParam(required = false) Long employeeId,
             @RequestParam(required = false) Long skillGradeId,
@@ -41,13 +45,25 @@ public class EmployeeSkillGradeController {
         if (Boolean.TRUE.equals(paginated)) {
             return employeeSkillGradeService.getAllEmployeeSkillGrades(pageable).getContent();
         }
-        return employeeSkillGradeService.getAllEmployeeSkillGrades(Pageable.unpaged()).getContent();
+        return employeeSkillGradeService.getAllEmployeeSkillGrades();
+    }
+
+    @GetMapping(params = "fields")
+    @Operation(summary = "Get selected fields of employee skill grades", description = "Retrieve employee skill grades containing only the comma-separated fields; unselected columns and joins are not read")
+    public List<Map<String, Object>> getEmployeeSkillGradeFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) Long skillGradeId,
+            @RequestParam(required = false) Boolean paginated,
+            Pageable pageable) {
+        return employeeSkillGradeService.getEmployeeSkillGradeFields(fields, employeeId, skillGradeId,
+                Boolean.TRUE.equals(paginated) ? pageable : Pageable.unpaged());
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get employee skill grade by ID", description = "Retrieve a single employee skill grade by its ID")
-    public EmployeeSkillGradeResponse getEmployeeSkillGradeById(@PathVariable Long id) {
-        return employeeSkillGradeService.getEmployeeSkillGradeById(id);
+    @Operation(summary = "Get employee skill grade by ID", description = "Retrieve a single employee skill grade by its ID; the ETag carries its version")
+    public ResponseEntity<EmployeeSkillGradeResponse> getEmployeeSkillGradeById(@PathVariable Long id) {
+        return withETag(employeeSkillGradeService.getEmployeeSkillGradeById(id));
     }
 
     @PostMapping
@@ -58,10 +74,19 @@ public class EmployeeSkillGradeController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update an employee skill grade", description = "Update an existing employee skill grade")
-    public EmployeeSkillGradeResponse updateEmployeeSkillGrade(@PathVariable Long id,
-                                                                 @Valid @RequestBody EmployeeSkillGradeRequest request) {
-        return employeeSkillGradeService.updateEmployeeSkillGrade(id, request);
+    @Operation(summary = "Update an employee skill grade", description = "Update an existing employee skill grade. With If-Match the update only succeeds if the employee skill grade still has that ETag")
+    public ResponseEntity<EmployeeSkillGradeResponse> updateEmployeeSkillGrade(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody EmployeeSkillGradeRequest request) {
+        return withETag(employeeSkillGradeService.updateEmployeeSkillGrade(id, ETags.expectedVersion(ifMatch), request));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {ETags.MERGE_PATCH_JSON, "application/json"})
+    @Operation(summary = "Patch an employee skill grade", description = "Apply a JSON Merge Patch: only the given fields change and null clears a field. Requires If-Match with the employee skill grade's ETag and is written as one conditional update")
+    public ResponseEntity<EmployeeSkillGradeResponse> patchEmployeeSkillGrade(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        return withETag(employeeSkillGradeService.patchEmployeeSkillGrade(id, ETags.requiredExpectedVersion(ifMatch), patch));
     }
 
     @DeleteMapping("/{id}")
@@ -70,4 +95,8 @@ public class EmployeeSkillGradeController {
     public void deleteEmployeeSkillGrade(@PathVariable Long id) {
         employeeSkillGradeService.deleteEmployeeSkillGrade(id);
     }
+
+    private static ResponseEntity<EmployeeSkillGradeResponse> withETag(EmployeeSkillGradeResponse response) {
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
+    }
 }
@@ -0,0 +1,41 @@
+package org.gga.skills.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.gga.skills.export.ExportFormat;
+import org.gga.skills.service.SkillMatrixExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/exports")
+@Tag(name = "Exports", description = "Bulk export APIs")
+public class ExportController {
+
+    private final SkillMatrixExportService skillMatrixExportService;
+
+    public ExportController(SkillMatrixExportService skillMatrixExportService) {
+        this.skillMatrixExportService = skillMatrixExportService;
+    }
+
+    @GetMapping("/skill-matrix")
+    @Operation(summary = "Export the skill matrix", description = "Stream one row per employee and one column per skill holding the skill grade code, as csv or xlsx, optionally filtered by department and assigned job profile")
+    public ResponseEntity<StreamingResponseBody> exportSkillMatrix(@RequestParam(defaultValue = "csv") String format,
+                                                                   @RequestParam(required = false) String department,
+                                                                   @RequestParam(required = false) Long jobProfileId) {
+        ExportFormat exportFormat = skillMatrixExportService.prepareExport(format, jobProfileId);
+        StreamingResponseBody body = out ->
+                skillMatrixExportService.exportSkillMatrix(exportFormat, department, jobProfileId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("skill-matrix." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,244 @@
+package org.gga.skills.controller;
+
+import org.dataloader.DataLoader;
+import org.gga.skills.dto.EmployeeResponse;
+import org.gga.skills.dto.EmployeeSkillGradeResponse;
+import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.dto.SkillGradeResponse;
+import org.gga.skills.dto.SkillResponse;
+import org.gga.skills.repository.EmployeeSkillGradeRepository.EmployeeSkillGradeComments;
+import org.gga.skills.service.GraphQueryService;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL read API. Every association and lazily loaded text field is resolved through a per-request
+ * batch loader, so each nesting level is served by one query for all parents in the response rather
+ * than one query per parent.
+ * <p>
+ * Every list is bounded: top-level lists are paged, and associations that grow with the data return
+ * the {@code first} entries of each parent, trimmed in the query.
+ */
+@Controller
+public class GraphQLController {
+
+    /**
+     * Largest page size and {@code first} argument; larger values are clamped.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String EMPLOYEE_SKILL_GRADES = "employeeSkillGrades";
+    private static final String SKILL_HOLDERS = "skillHolders";
+    private static final String JOB_PROFILE_EMPLOYEES = "jobProfileEmployees";
+
+    private final GraphQueryService graphQueryService;
+
+    public GraphQLController(GraphQueryService graphQueryService, BatchLoaderRegistry batchLoaderRegistry) {
+        this.graphQueryService = graphQueryService;
+        // Both comment fields share one loader, so selecting both still costs a single query
+        batchLoaderRegistry.forTypePair(Long.class, EmployeeSkillGradeComments.class)
+                .registerMappedBatchLoader((ids, environment) ->
+                        Mono.fromCallable(() -> graphQueryService.getEmployeeSkillGradeComments(ids)));
+        registerFirstLoader(batchLoaderRegistry, EMPLOYEE_SKILL_GRADES,
+                graphQueryService::getEmployeeSkillGradesByEmployeeIds);
+        registerFirstLoader(batchLoaderRegistry, SKILL_HOLDERS, graphQueryService::getEmployeeSkillGradesBySkillIds);
+        registerFirstLoader(batchLoaderRegistry, JOB_PROFILE_EMPLOYEES, graphQueryService::getEmployeesByJobProfileIds);
+    }
+
+    @QueryMapping
+    public List<EmployeeResponse> employees(@Argument int page, @Argument int size) {
+        return graphQueryService.getEmployees(Math.max(page, 0), pageSize(size));
+    }
+
+    @QueryMapping
+    public EmployeeResponse employee(@Argument Long id) {
+        return graphQueryService.getEmployee(id);
+    }
+
+    @QueryMapping
+    public List<SkillResponse> skills(@Argument int page, @Argument int size) {
+        return graphQueryService.getSkills(Math.max(page, 0), pageSize(size));
+    }
+
+    @QueryMapping
+    public SkillResponse skill(@Argument Long id) {
+        return graphQueryService.getSkill(id);
+    }
+
+    @QueryMapping
+    public List<JobProfileResponse> jobProfiles(@Argument int page, @Argument int size) {
+        return graphQueryService.getJobProfiles(Math.max(page, 0), pageSize(size));
+    }
+
+    @QueryMapping
+    public JobProfileResponse jobProfile(@Argument Long id) {
+        return graphQueryService.getJobProfile(id);
+    }
+
+    @SchemaMapping(typeName = "Employee", field = "skillGrades")
+    public CompletableFuture<List<EmployeeSkillGradeResponse>> employeeSkillGrades(EmployeeResponse employee,
+                                                                                   @Argument int first,
+                                                                                   DataFetchingEnvironment environment) {
+        return loadFirst(environment, EMPLOYEE_SKILL_GRADES, employee.id(), first);
+    }
+
+    @BatchMapping(typeName = "Employee", field = "jobProfiles")
+    public Map<EmployeeResponse, List<JobProfileResponse>> employeeJobProfiles(List<EmployeeResponse> employees) {
+        return toMany(employees, EmployeeResponse::id, graphQueryService::getJobProfilesByEmployeeIds);
+    }
+
+    @BatchMapping(typeName = "EmployeeSkillGrade", field = "employee")
+    public Map<EmployeeSkillGradeResponse, EmployeeResponse> employeeSkillGradeEmployee(
+            List<EmployeeSkillGradeResponse> grades) {
+        return toOne(grades, EmployeeSkillGradeResponse::employeeId, graphQueryService::getEmployeesByIds);
+    }
+
+    @BatchMapping(typeName = "EmployeeSkillGrade", field = "reviewedBy")
+    public Map<EmployeeSkillGradeResponse, EmployeeResponse> employeeSkillGradeReviewedBy(
+            List<EmployeeSkillGradeResponse> grades) {
+        return toOne(grades, EmployeeSkillGradeResponse::reviewedByEmployeeId, graphQueryService::getEmployeesByIds);
+    }
+
+    @BatchMapping(typeName = "EmployeeSkillGrade", field = "skillGrade")
+    public Map<EmployeeSkillGradeResponse, SkillGradeResponse> employeeSkillGradeSkillGrade(
+            List<EmployeeSkillGradeResponse> grades) {
+        return toOne(grades, EmployeeSkillGradeResponse::skillGradeId, graphQueryService::getSkillGradesByIds);
+    }
+
+    @SchemaMapping(typeName = "EmployeeSkillGrade", field = "employeeComment")
+    public CompletableFuture<String> employeeComment(EmployeeSkillGradeResponse grade,
+                                                     DataLoader<Long, EmployeeSkillGradeComments> comments) {
+        return comments.load(grade.id()).thenApply(row -> row != null ? row.getEmployeeComment() : null);
+    }
+
+    @SchemaMapping(typeName = "EmployeeSkillGrade", field = "reviewerComment")
+    public CompletableFuture<String> reviewerComment(EmployeeSkillGradeResponse grade,
+                                                     DataLoader<Long, EmployeeSkillGradeComments> comments) {
+        return comments.load(grade.id()).thenApply(row -> row != null ? row.getReviewerComment() : null);
+    }
+
+    @BatchMapping(typeName = "Skill", field = "description")
+    public Map<SkillResponse, String> skillDescription(List<SkillResponse> skills) {
+        return toOne(skills, SkillResponse::id, graphQueryService::getSkillDescriptions);
+    }
+
+    @BatchMapping(typeName = "Skill", field = "grades")
+    public Map<SkillResponse, List<SkillGradeResponse>> skillGrades(List<SkillResponse> skills) {
+        return toMany(skills, SkillResponse::id, graphQueryService::getSkillGradesBySkillIds);
+    }
+
+    @BatchMapping(typeName = "Skill", field = "jobProfiles")
+    public Map<SkillResponse, List<JobProfileResponse>> skillJobProfiles(List<SkillResponse> skills) {
+        return toMany(skills, SkillResponse::id, graphQueryService::getJobProfilesBySkillIds);
+    }
+
+    @SchemaMapping(typeName = "Skill", field = "holders")
+    public CompletableFuture<List<EmployeeSkillGradeResponse>> skillHolders(SkillResponse skill, @Argument int first,
+                                                                            DataFetchingEnvironment environment) {
+        return loadFirst(environment, SKILL_HOLDERS, skill.id(), first);
+    }
+
+    @BatchMapping(typeName = "SkillGrade", field = "skill")
+    public Map<SkillGradeResponse, SkillResponse> skillGradeSkill(List<SkillGradeResponse> grades) {
+        return toOne(grades, SkillGradeResponse::skillId, graphQueryService::getSkillsByIds);
+    }
+
+    @BatchMapping(typeName = "JobProfile", field = "description")
+    public Map<JobProfileResponse, String> jobProfileDescription(List<JobProfileResponse> jobProfiles) {
+        return toOne(jobProfiles, JobProfileResponse::id, graphQueryService::getJobProfileDescriptions);
+    }
+
+    @BatchMapping(typeName = "JobProfile", field = "skills")
+    public Map<JobProfileResponse, List<SkillResponse>> jobProfileSkills(List<JobProfileResponse> jobProfiles) {
+        return toMany(jobProfiles, JobProfileResponse::id, graphQueryService::getSkillsByJobProfileIds);
+    }
+
+    @SchemaMapping(typeName = "JobProfile", field = "employees")
+    public CompletableFuture<List<EmployeeResponse>> jobProfileEmployees(JobProfileResponse jobProfile,
+                                                                         @Argument int first,
+                                                                         DataFetchingEnvironment environment) {
+        return loadFirst(environment, JOB_PROFILE_EMPLOYEES, jobProfile.id(), first);
+    }
+
+    private static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * The first entries of a parent's association. Parents asking for the same number are loaded together.
+     */
+    private record FirstKey(Long id, int first) {
+    }
+
+    private static <V> CompletableFuture<List<V>> loadFirst(DataFetchingEnvironment environment, String loader,
+                                                            Long id, int first) {
+        DataLoader<FirstKey, List<V>> dataLoader = environment.getDataLoader(loader);
+        return dataLoader.load(new FirstKey(id, pageSize(first)));
+    }
+
+    private static <V> void registerFirstLoader(BatchLoaderRegistry batchLoaderRegistry, String name,
+                                                BiFunction<Collection<Long>, Integer, Map<Long, List<V>>> loader) {
+        batchLoaderRegistry.<FirstKey, List<V>>forName(name).registerMappedBatchLoader((keys, environment) ->
+                Mono.fromCallable(() -> {
+                    Map<FirstKey, List<V>> result = new HashMap<>();
+                    keys.stream().collect(Collectors.groupingBy(FirstKey::first)).forEach((first, group) -> {
+                        Map<Long, List<V>> loaded = loader.apply(group.stream().map(FirstKey::id).toList(), first);
+                        group.forEach(key -> result.put(key, loaded.getOrDefault(key.id(), List.of())));
+                    });
+                    return result;
+                }));
+    }
+
+    private static <S> List<Long> ids(Collection<S> sources, Function<S, Long> idFn) {
+        return sources.stream().map(idFn).filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static <S, V> Map<S, V> toOne(List<S> sources, Function<S, Long> keyFn,
+                                          Function<Collection<Long>, Map<Long, V>> loader) {
+        List<Long> keys = ids(sources, keyFn);
+        Map<Long, V> loaded = keys.isEmpty() ? Map.of() : loader.apply(keys);
+        return toValues(sources, source -> {
+            Long key = keyFn.apply(source);
+            return key != null ? loaded.get(key) : null;
+        });
+    }
+
+    private static <S, V> Map<S, List<V>> toMany(List<S> sources, Function<S, Long> keyFn,
+                                                 Function<Collection<Long>, Map<Long, List<V>>> loader) {
+        Map<Long, List<V>> loaded = loader.apply(ids(sources, keyFn));
+        Map<S, List<V>> result = new LinkedHashMap<>();
+        for (S source : sources) {
+            result.put(source, loaded.getOrDefault(keyFn.apply(source), List.of()));
+        }
+        return result;
+    }
+
+    private static <S, V> Map<S, V> toValues(List<S> sources, Function<S, V> valueFn) {
+        // Null values are left out: a missing key resolves the field to null
+        Map<S, V> result = new LinkedHashMap<>();
+        for (S source : sources) {
+            V value = valueFn.apply(source);
+            if (value != null) {
+                result.put(source, value);
+            }
+        }
+        return result;
+    }
+}
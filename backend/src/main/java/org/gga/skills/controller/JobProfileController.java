@@ -3,14 +3,24 @@ package org.gga.skills.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.gga.skills.dto.AssociationSyncResponse;
+import org.gga.skills.dto.JobProfileEmployeesRequest;
 import org.gga.skills.dto.JobProfileRequest;
 import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.dto.JobProfileSkillsRequest;
+import org.gga.skills.dto.SkillSuggestionResponse;
+import org.gga.skills.dto.TeamResponse;
+import org.gga.skills.service.EmployeeJobProfileService;
 import org.gga.skills.service.JobProfileService;
+import org.gga.skills.service.JobProfileSkillService;
+import org.gga.skills.service.SkillSuggestionService;
+import org.gga.skills.service.TeamBuilderService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/job-profiles")
@@ -18,13 +28,25 @@ import java.util.List;
 public class JobProfileController {
 
     private final JobProfileService jobProfileService;
+    private final JobProfileSkillService jobProfileSkillService;
+    private final EmployeeJobProfileService employeeJobProfileService;
+    private final TeamBuilderService teamBuilderService;
+    private final SkillSuggestionService skillSuggestionService;
 
-    public JobProfileController(JobProfileService jobProfileService) {
+    public JobProfileController(JobProfileService jobProfileService,
+                                JobProfileSkillService jobProfileSkillService,
+                                EmployeeJobProfileService employeeJobProfileService,
+                                TeamBuilderService teamBuilderService,
+                                SkillSuggestionService skillSuggestionService) {
         this.jobProfileService = jobProfileService;
+        this.jobProfileSkillService = jobProfileSkillService;
+        this.employeeJobProfileService = employeeJobProfileService;
+        this.teamBuilderService = teamBuilderService;
+        this.skillSuggestionService = skillSuggestionService;
     }
 
     @GetMapping
-    @Operation(summary = "Get all job profiles", description = "Retrieve all job profiles")
+    @Operation(summary = "Get all job profiles", description = "Retrieve all job profiles. Descriptions are omitted; select them with the fields parameter or fetch a single job profile")
     public List<JobProfileResponse> getAllJobProfiles(@RequestParam(required = false) Boolean paginated,
                                                        Pageable pageable) {
         if (Boolean.TRUE.equals(paginated)) {
@@ -33,12 +55,42 @@ public class JobProfileController {
         return jobProfileService.getAllJobProfiles();
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get job profiles by IDs", description = "Retrieve several job profiles in one request, in the order of the comma-separated IDs; unknown IDs are skipped")
+    public List<JobProfileResponse> getJobProfilesByIds(@RequestParam List<Long> ids) {
+        return jobProfileService.getJobProfilesByIds(ids);
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Get selected fields of all job profiles", description = "Retrieve job profiles containing only the comma-separated fields")
+    public List<Map<String, Object>> getJobProfileFields(@RequestParam String fields,
+                                                         @RequestParam(required = false) Boolean paginated,
+                                                         Pageable pageable) {
+        return jobProfileService.getJobProfileFields(fields, Boolean.TRUE.equals(paginated) ? pageable : Pageable.unpaged());
+    }
+
+    @GetMapping("/team")
+    @Operation(summary = "Build a minimal team for job profiles", description = "Find the fewest employees who together hold every skill required by the given job profiles, optionally at a minimum grade level and without the excluded employees. Lists the skills each member covers and the members covering each skill; optimal is false if the search ran out of its time budget")
+    public TeamResponse buildTeam(@RequestParam List<Long> jobProfileId,
+                                  @RequestParam(required = false) Integer minLevel,
+                                  @RequestParam(required = false) List<Long> excludeEmployeeId) {
+        return teamBuilderService.buildTeam(jobProfileId, minLevel, excludeEmployeeId);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get job profile by ID", description = "Retrieve a single job profile by its ID")
     public JobProfileResponse getJobProfileById(@PathVariable Long id) {
         return jobProfileService.getJobProfileById(id);
     }
 
+    @GetMapping("/{id}/skill-suggestions")
+    @Operation(summary = "Suggest skills for a job profile", description = "Retrieve skills the profile doesn't require yet that employees most often hold together with its required skills, by descending lift. Each suggestion names the required skill it relates to most")
+    public List<SkillSuggestionResponse> getSkillSuggestions(@PathVariable Long id,
+                                                             @RequestParam(defaultValue = "10") int limit,
+                                                             @RequestParam(required = false) Integer minCoHolders) {
+        return skillSuggestionService.getJobProfileSuggestions(id, limit, minCoHolders);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create a new job profile", description = "Create a new job profile")
@@ -53,6 +105,20 @@ public class JobProfileController {
         return jobProfileService.updateJobProfile(id, request);
     }
 
+    @PutMapping("/{id}/skills")
+    @Operation(summary = "Set the skills of a job profile", description = "Replace the skills required by a job profile with the given set. Only the difference is written, in one transaction")
+    public AssociationSyncResponse setJobProfileSkills(@PathVariable Long id,
+                                                       @Valid @RequestBody JobProfileSkillsRequest request) {
+        return jobProfileSkillService.syncSkillsOfJobProfile(id, request.skillIds());
+    }
+
+    @PutMapping("/{id}/employees")
+    @Operation(summary = "Set the employees of a job profile", description = "Replace the employees assigned to a job profile with the given set. Only the difference is written, in one transaction")
+    public AssociationSyncResponse setJobProfileEmployees(@PathVariable Long id,
+                                                          @Valid @RequestBody JobProfileEmployeesRequest request) {
+        return employeeJobProfileService.syncEmployeesOfJobProfile(id, request.employeeIds());
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Delete a job profile", description = "Delete a job profile by its ID")
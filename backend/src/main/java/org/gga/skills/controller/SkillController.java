@@ -1,18 +1,33 @@
 package org.gga.skills.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.dto.SkillGradeDistributionResponse;
 import org.gga.skills.dto.SkillRequest;
 import org.gga.skills.dto.SkillResponse;
+import org.gga.skills.dto.SkillSuggestionResponse;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
 import org.gga.skills.service.JobProfileSkillService;
+import org.gga.skills.service.ResponseCache;
+import org.gga.skills.service.SkillGradeHistoryService;
 import org.gga.skills.service.SkillService;
+import org.gga.skills.service.SkillSuggestionService;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/skills")
@@ -21,27 +36,84 @@ public class SkillController {
 
     private final SkillService skillService;
     private final JobProfileSkillService jobProfileSkillService;
+    private final SkillGradeHistoryService skillGradeHistoryService;
+    private final SkillSuggestionService skillSuggestionService;
+    private final ResponseCache responseCache;
 
     public SkillController(SkillService skillService,
-                          JobProfileSkillService jobProfileSkillService) {
+                          JobProfileSkillService jobProfileSkillService,
+                          SkillGradeHistoryService skillGradeHistoryService,
+                          SkillSuggestionService skillSuggestionService,
+                          ResponseCache responseCache) {
         this.skillService = skillService;
         this.jobProfileSkillService = jobProfileSkillService;
+        this.skillGradeHistoryService = skillGradeHistoryService;
+        this.skillSuggestionService = skillSuggestionService;
+        this.responseCache = responseCache;
     }
 
     @GetMapping
-    @Operation(summary = "Get all skills", description = "Retrieve all skills with optional pagination")
+    @Operation(summary = "Get all skills", description = "Retrieve all skills with optional pagination. Descriptions are omitted unless includeDescription is set")
     public List<SkillResponse> getAllSkills(@RequestParam(required = false) Boolean paginated,
+                                            @RequestParam(defaultValue = "false") boolean includeDescription,
                                             Pageable pageable) {
         if (Boolean.TRUE.equals(paginated)) {
-            return skillService.getAllSkills(pageable).getContent();
+            return skillService.getAllSkills(pageable, includeDescription).getContent();
         }
-        return skillService.getAllSkills();
+        return skillService.getAllSkills(includeDescription);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get skills by IDs", description = "Retrieve several skills in one request, in the order of the comma-separated IDs; unknown IDs are skipped")
+    public List<SkillResponse> getSkillsByIds(@RequestParam List<Long> ids) {
+        return skillService.getSkillsByIds(ids);
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Get selected fields of all skills", description = "Retrieve skills containing only the comma-separated scalar fields")
+    public List<Map<String, Object>> getSkillFields(@RequestParam String fields,
+                                                    @RequestParam(required = false) Boolean paginated,
+                                                    Pageable pageable) {
+        return skillService.getSkillFields(fields, Boolean.TRUE.equals(paginated) ? pageable : Pageable.unpaged());
+    }
+
+    @GetMapping("/grade-distribution")
+    @Operation(summary = "Get skill grade distribution", description = "Count the employees holding each skill grade, optionally for one skill, as of a point in time (ISO date-time, default now)")
+    public List<SkillGradeDistributionResponse> getSkillGradeDistribution(
+            @RequestParam(required = false) Long skillId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return skillGradeHistoryService.getSkillGradeDistributionAsOf(skillId,
+                asOf != null ? asOf : LocalDateTime.now());
+    }
+
+    @PostMapping("/co-occurrence/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Rebuild skill co-occurrence counts", description = "Recount which skills employees hold together from the database. The counts follow grade changes made through the API, so this is only needed after direct database changes")
+    public void rebuildCooccurrence() {
+        skillSuggestionService.rebuild();
+    }
+
+    @GetMapping("/{id}/related")
+    @Operation(summary = "Get related skills", description = "Retrieve the skills employees most often hold together with this skill, by descending lift. Pairs held by fewer than minCoHolders employees are ignored")
+    public List<SkillSuggestionResponse> getRelatedSkills(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "10") int limit,
+                                                          @RequestParam(required = false) Integer minCoHolders) {
+        return skillSuggestionService.getRelatedSkills(id, limit, minCoHolders);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get skill by ID", description = "Retrieve a single skill by its ID")
-    public SkillResponse getSkillById(@PathVariable Long id) {
-        return skillService.getSkillById(id);
+    @Operation(summary = "Get skill by ID", description = "Retrieve a single skill by its ID. JSON is served from a cache of serialized responses that writes invalidate")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = SkillResponse.class)))
+    public ResponseEntity<?> getSkillById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (!CachedResponses.negotiatesJson(accept)) {
+            return ResponseEntity.ok(skillService.getSkillById(id));
+        }
+        ResponseCache.Entry entry = responseCache.get(Resource.SKILL, id,
+                () -> skillService.getSkillById(id), response -> null);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json());
     }
 
     @PostMapping
@@ -85,7 +157,7 @@ public class SkillController {
     @Operation(summary = "Get job profiles for skill", description = "Retrieve all job profiles associated with a skill")
     public List<JobProfileResponse> getJobProfilesForSkill(@PathVariable Long skillId) {
         return jobProfileSkillService.getJobProfilesBySkillId(skillId).stream()
-                .map(JobProfileResponse::fromEntity)
+                .map(JobProfileResponse::summaryFromEntity)
                 .toList();
     }
 }
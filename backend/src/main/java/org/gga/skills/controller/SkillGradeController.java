@@ -1,5 +1,6 @@
 package org.gga.skills.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -8,10 +9,13 @@ import org.gga.skills.dto.SkillGradeResponse;
 import org.gga.skills.service.SkillGradeService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/skill-grades")
@@ -38,10 +42,26 @@ public class SkillGradeController {
         return skillGradeService.getAllSkillGrades();
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get skill grades by IDs", description = "Retrieve several skill grades in one request, in the order of the comma-separated IDs; unknown IDs are skipped")
+    public List<SkillGradeResponse> getSkillGradesByIds(@RequestParam List<Long> ids) {
+        return skillGradeService.getSkillGradesByIds(ids);
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Get selected fields of skill grades", description = "Retrieve skill grades containing only the comma-separated fields")
+    public List<Map<String, Object>> getSkillGradeFields(@RequestParam String fields,
+                                                         @RequestParam(required = false) Long skillId,
+                                                         @RequestParam(required = false) Boolean paginated,
+                                                         Pageable pageable) {
+        return skillGradeService.getSkillGradeFields(fields, skillId,
+                Boolean.TRUE.equals(paginated) ? pageable : Pageable.unpaged());
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get skill grade by ID", description = "Retrieve a single skill grade by its ID")
-    public SkillGradeResponse getSkillGradeById(@PathVariable Long id) {
-        return skillGradeService.getSkillGradeById(id);
+    @Operation(summary = "Get skill grade by ID", description = "Retrieve a single skill grade by its ID; the ETag carries its version")
+    public ResponseEntity<SkillGradeResponse> getSkillGradeById(@PathVariable Long id) {
+        return withETag(skillGradeService.getSkillGradeById(id));
     }
 
     @PostMapping
@@ -52,10 +72,19 @@ public class SkillGradeController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update a skill grade", description = "Update an existing skill grade")
-    public SkillGradeResponse updateSkillGrade(@PathVariable Long id,
-                                                 @Valid @RequestBody SkillGradeRequest request) {
-        return skillGradeService.updateSkillGrade(id, request);
+    @Operation(summary = "Update a skill grade", description = "Update an existing skill grade. With If-Match the update only succeeds if the skill grade still has that ETag")
+    public ResponseEntity<SkillGradeResponse> updateSkillGrade(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody SkillGradeRequest request) {
+        return withETag(skillGradeService.updateSkillGrade(id, ETags.expectedVersion(ifMatch), request));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {ETags.MERGE_PATCH_JSON, "application/json"})
+    @Operation(summary = "Patch a skill grade", description = "Apply a JSON Merge Patch: only the given fields change and null clears a field. Requires If-Match with the skill grade's ETag and is written as one conditional update")
+    public ResponseEntity<SkillGradeResponse> patchSkillGrade(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        return withETag(skillGradeService.patchSkillGrade(id, ETags.requiredExpectedVersion(ifMatch), patch));
     }
 
     @DeleteMapping("/{id}")
@@ -64,4 +93,8 @@ public class SkillGradeController {
     public void deleteSkillGrade(@PathVariable Long id) {
         skillGradeService.deleteSkillGrade(id);
     }
+
+    private static ResponseEntity<SkillGradeResponse> withETag(SkillGradeResponse response) {
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
+    }
 }
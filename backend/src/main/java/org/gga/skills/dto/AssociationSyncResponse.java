@@ -0,0 +1,16 @@
+package org.gga.skills.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of replacing the members of an association with a desired set.
+ *
+ * @param added members that were associated by this request
+ * @param removed members that were disassociated by this request
+ * @param unchanged number of members that were already associated and were kept
+ */
+public record AssociationSyncResponse(
+    List<Long> added,
+    List<Long> removed,
+    int unchanged
+) {}
@@ -0,0 +1,15 @@
+package org.gga.skills.dto;
+
+/**
+ * A name completing a typed prefix.
+ *
+ * @param id the ID of the skill, job profile or employee
+ * @param label the full name
+ * @param weight the popularity completions are ranked by: holders of a skill, assignees of a job profile,
+ *               or skills held by an employee
+ */
+public record AutocompleteResponse(
+    Long id,
+    String label,
+    int weight
+) {}
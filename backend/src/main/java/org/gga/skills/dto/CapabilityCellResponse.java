@@ -0,0 +1,28 @@
+package org.gga.skills.dto;
+
+/**
+ * Grade counts of one cell of the capability cube. Dimensions that were not grouped by are {@code null}.
+ *
+ * @param department the department; also {@code null} for employees without one
+ * @param position the position; also {@code null} for employees without one
+ * @param jobProfileId the assigned job profile
+ * @param jobProfileName name of the job profile
+ * @param skillId the skill
+ * @param skillName name of the skill
+ * @param level the grade level
+ * @param certified whether the grades are certified
+ * @param grades number of employee skill grades in the cell
+ * @param averageYearsOfExperience mean years of experience of the grades that have them, {@code null} if none do
+ */
+public record CapabilityCellResponse(
+    String department,
+    String position,
+    Long jobProfileId,
+    String jobProfileName,
+    Long skillId,
+    String skillName,
+    Integer level,
+    Boolean certified,
+    long grades,
+    Double averageYearsOfExperience
+) {}
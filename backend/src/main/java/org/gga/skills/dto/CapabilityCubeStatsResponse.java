@@ -0,0 +1,16 @@
+package org.gga.skills.dto;
+
+/**
+ * Size of the in-memory capability cube.
+ *
+ * @param employees number of employees counted
+ * @param cuboids number of precomputed groupings, one per subset of the dimensions
+ * @param cells number of cells over all groupings
+ * @param bytes approximate memory of the cell tables and value dictionaries
+ */
+public record CapabilityCubeStatsResponse(
+    int employees,
+    int cuboids,
+    long cells,
+    long bytes
+) {}
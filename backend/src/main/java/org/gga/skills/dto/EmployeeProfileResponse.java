@@ -0,0 +1,10 @@
+package org.gga.skills.dto;
+
+import java.util.List;
+
+public record EmployeeProfileResponse(
+    EmployeeResponse employee,
+    List<JobProfileResponse> jobProfiles,
+    List<EmployeeSkillGradeResponse> skillGrades,
+    List<JobProfileSkillResponse> skillGaps
+) {}
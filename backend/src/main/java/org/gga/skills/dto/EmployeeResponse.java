@@ -12,7 +12,8 @@ public record EmployeeResponse(
     String department,
     String position,
     LocalDateTime createdAt,
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+    Long version
 ) {
     public static EmployeeResponse fromEntity(Employee employee) {
         return new EmployeeResponse(
@@ -23,7 +24,8 @@ public record EmployeeResponse(
             employee.getDepartment(),
             employee.getPosition(),
             employee.getCreatedAt(),
-            employee.getUpdatedAt()
+            employee.getUpdatedAt(),
+            employee.getVersion()
         );
     }
 }
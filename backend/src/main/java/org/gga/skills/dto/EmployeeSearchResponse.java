@@ -0,0 +1,12 @@
+package org.gga.skills.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record EmployeeSearchResponse(
+    List<EmployeeResponse> content,
+    long totalElements,
+    int page,
+    int size,
+    Map<String, List<FacetCount>> facets
+) {}
@@ -21,9 +21,21 @@ public record EmployeeSkillGradeResponse(
     String reviewedByEmployeeName,
     String reviewerComment,
     LocalDateTime createdAt,
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+    Long version
 ) {
     public static EmployeeSkillGradeResponse fromEntity(EmployeeSkillGrade esg) {
+        return fromEntity(esg, true);
+    }
+
+    /**
+     * Map an entity for list responses without touching its lazily loaded comment columns.
+     */
+    public static EmployeeSkillGradeResponse summaryFromEntity(EmployeeSkillGrade esg) {
+        return fromEntity(esg, false);
+    }
+
+    private static EmployeeSkillGradeResponse fromEntity(EmployeeSkillGrade esg, boolean withComments) {
         return new EmployeeSkillGradeResponse(
             esg.getId(),
             esg.getEmployee().getId(),
@@ -35,13 +47,14 @@ public record EmployeeSkillGradeResponse(
             esg.getYearsOfExperience(),
             esg.getLastUsedDate(),
             esg.getCertified(),
-            esg.getEmployeeComment(),
+            withComments ? esg.getEmployeeComment() : null,
             esg.getReviewedBy() != null ? esg.getReviewedBy().getId() : null,
             esg.getReviewedBy() != null ?
                 esg.getReviewedBy().getFirstName() + " " + esg.getReviewedBy().getLastName() : null,
-            esg.getReviewerComment(),
+            withComments ? esg.getReviewerComment() : null,
             esg.getCreatedAt(),
-            esg.getUpdatedAt()
+            esg.getUpdatedAt(),
+            esg.getVersion()
         );
     }
 }
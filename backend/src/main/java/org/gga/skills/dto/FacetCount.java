@@ -0,0 +1,14 @@
+package org.gga.skills.dto;
+
+/**
+ * Number of employees a facet value would match given the other active filters.
+ *
+ * @param value the filter value to send back, e.g. a department name or a skill ID
+ * @param label display name of the value
+ * @param count the number of matching employees
+ */
+public record FacetCount(
+    String value,
+    String label,
+    long count
+) {}
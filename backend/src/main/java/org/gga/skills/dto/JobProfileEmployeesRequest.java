@@ -0,0 +1,10 @@
+package org.gga.skills.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record JobProfileEmployeesRequest(
+    @NotNull(message = "Employee IDs are required")
+    List<@NotNull(message = "Employee IDs must not be null") Long> employeeIds
+) {}
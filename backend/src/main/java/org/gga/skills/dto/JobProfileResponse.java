@@ -12,10 +12,21 @@ public record JobProfileResponse(
     LocalDateTime updatedAt
 ) {
     public static JobProfileResponse fromEntity(JobProfile jobProfile) {
+        return fromEntity(jobProfile, jobProfile.getDescription());
+    }
+
+    /**
+     * Map an entity for list responses without touching its lazily loaded description.
+     */
+    public static JobProfileResponse summaryFromEntity(JobProfile jobProfile) {
+        return fromEntity(jobProfile, null);
+    }
+
+    private static JobProfileResponse fromEntity(JobProfile jobProfile, String description) {
         return new JobProfileResponse(
             jobProfile.getId(),
             jobProfile.getName(),
-            jobProfile.getDescription(),
+            description,
             jobProfile.getCreatedAt(),
             jobProfile.getUpdatedAt()
         );
@@ -0,0 +1,19 @@
+package org.gga.skills.dto;
+
+import org.gga.skills.model.JobProfileSkill;
+
+public record JobProfileSkillResponse(
+    Long jobProfileId,
+    String jobProfileName,
+    Long skillId,
+    String skillName
+) {
+    public static JobProfileSkillResponse fromEntity(JobProfileSkill jobProfileSkill) {
+        return new JobProfileSkillResponse(
+            jobProfileSkill.getJobProfile().getId(),
+            jobProfileSkill.getJobProfile().getName(),
+            jobProfileSkill.getSkill().getId(),
+            jobProfileSkill.getSkill().getName()
+        );
+    }
+}
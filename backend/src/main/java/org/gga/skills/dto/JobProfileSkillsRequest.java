@@ -0,0 +1,10 @@
+package org.gga.skills.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record JobProfileSkillsRequest(
+    @NotNull(message = "Skill IDs are required")
+    List<@NotNull(message = "Skill IDs must not be null") Long> skillIds
+) {}
@@ -0,0 +1,12 @@
+package org.gga.skills.dto;
+
+/**
+ * An employee with skills similar to another employee's.
+ *
+ * @param employee the similar employee
+ * @param similarity cosine similarity of the weighted skill vectors, between 0 and 1
+ */
+public record SimilarEmployeeResponse(
+    EmployeeResponse employee,
+    double similarity
+) {}
@@ -0,0 +1,22 @@
+package org.gga.skills.dto;
+
+/**
+ * Number of employees holding a skill grade at a point in time.
+ *
+ * @param skillId the skill the grade belonged to at that time
+ * @param skillName current name of the skill, {@code null} if it has since been deleted
+ * @param skillGradeId the skill grade
+ * @param skillGradeCode current code of the grade, {@code null} if it has since been deleted
+ * @param level level of the grade at that time
+ * @param holders employees holding the grade
+ * @param certifiedHolders holders certified for the grade
+ */
+public record SkillGradeDistributionResponse(
+    Long skillId,
+    String skillName,
+    Long skillGradeId,
+    String skillGradeCode,
+    Integer level,
+    long holders,
+    long certifiedHolders
+) {}
@@ -1,5 +1,6 @@
 package org.gga.skills.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -13,5 +14,8 @@ public record SkillGradeRequest(
     String code,
 
     @Size(max = 255, message = "Description must not exceed 255 characters")
-    String description
+    String description,
+
+    @Min(value = 0, message = "Level must not be negative")
+    Integer level
 ) {}
@@ -10,8 +10,10 @@ public record SkillGradeResponse(
     String skillName,
     String code,
     String description,
+    Integer level,
     LocalDateTime createdAt,
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+    Long version
 ) {
     public static SkillGradeResponse fromEntity(SkillGrade skillGrade) {
         return new SkillGradeResponse(
@@ -20,8 +22,10 @@ public record SkillGradeResponse(
             skillGrade.getSkill().getName(),
             skillGrade.getCode(),
             skillGrade.getDescription(),
+            skillGrade.getLevel(),
             skillGrade.getCreatedAt(),
-            skillGrade.getUpdatedAt()
+            skillGrade.getUpdatedAt(),
+            skillGrade.getVersion()
         );
     }
 }
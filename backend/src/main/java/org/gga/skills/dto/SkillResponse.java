@@ -15,11 +15,18 @@ public record SkillResponse(
     LocalDateTime updatedAt
 ) {
     public static SkillResponse fromEntity(Skill skill, List<JobProfile> jobProfiles) {
+        return fromEntity(skill, jobProfiles, skill.getDescription());
+    }
+
+    /**
+     * Map an entity using a description that was loaded separately from the entity.
+     */
+    public static SkillResponse fromEntity(Skill skill, List<JobProfile> jobProfiles, String description) {
         return new SkillResponse(
             skill.getId(),
             skill.getName(),
-            jobProfiles.stream().map(JobProfileResponse::fromEntity).toList(),
-            skill.getDescription(),
+            jobProfiles.stream().map(JobProfileResponse::summaryFromEntity).toList(),
+            description,
             skill.getCreatedAt(),
             skill.getUpdatedAt()
         );
@@ -0,0 +1,22 @@
+package org.gga.skills.dto;
+
+/**
+ * A skill that employees often hold together with a given skill.
+ *
+ * @param skillId the suggested skill
+ * @param skillName name of the suggested skill
+ * @param relatedSkillId the given skill the suggestion is most strongly related to
+ * @param holders employees holding the suggested skill
+ * @param coHolders employees holding both skills
+ * @param lift how many times more often both skills are held than if they were independent
+ * @param pmi pointwise mutual information of the two skills in bits, {@code log2(lift)}
+ */
+public record SkillSuggestionResponse(
+    Long skillId,
+    String skillName,
+    Long relatedSkillId,
+    int holders,
+    int coHolders,
+    double lift,
+    double pmi
+) {}
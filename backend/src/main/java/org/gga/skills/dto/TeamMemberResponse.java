@@ -0,0 +1,14 @@
+package org.gga.skills.dto;
+
+import java.util.List;
+
+/**
+ * A team member and the required skills they cover.
+ *
+ * @param employee the employee
+ * @param skillIds the required skills the employee holds at the requested grade
+ */
+public record TeamMemberResponse(
+    EmployeeResponse employee,
+    List<Long> skillIds
+) {}
@@ -0,0 +1,16 @@
+package org.gga.skills.dto;
+
+import java.util.List;
+
+/**
+ * A team that covers the skills required by a set of job profiles.
+ *
+ * @param members the team members, by ascending employee ID
+ * @param skills every required skill and the members covering it
+ * @param optimal whether the team is known to be the smallest; {@code false} if the search ran out of time
+ */
+public record TeamResponse(
+    List<TeamMemberResponse> members,
+    List<TeamSkillResponse> skills,
+    boolean optimal
+) {}
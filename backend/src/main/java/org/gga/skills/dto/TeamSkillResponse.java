@@ -0,0 +1,18 @@
+package org.gga.skills.dto;
+
+import java.util.List;
+
+/**
+ * A skill required for a team and who covers it.
+ *
+ * @param skillId the skill
+ * @param skillName name of the skill
+ * @param jobProfileIds the requested job profiles that require the skill
+ * @param coveredBy IDs of the team members holding the skill; empty if no available employee holds it
+ */
+public record TeamSkillResponse(
+    Long skillId,
+    String skillName,
+    List<Long> jobProfileIds,
+    List<Long> coveredBy
+) {}
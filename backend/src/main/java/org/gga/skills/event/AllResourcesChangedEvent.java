@@ -0,0 +1,9 @@
+package org.gga.skills.event;
+
+/**
+ * Published when any resource may have changed without more specific events, for example after this
+ * instance missed invalidations from other instances. Listeners should discard or rebuild all state
+ * they derive from the database.
+ */
+public record AllResourcesChangedEvent() {
+}
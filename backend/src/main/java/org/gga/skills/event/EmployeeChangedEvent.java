@@ -0,0 +1,31 @@
+package org.gga.skills.event;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published when a write may have changed what is known about the given employees: their own
+ * attributes, skill grades or job profile assignments. Listeners that keep derived state in sync
+ * should react after the surrounding transaction has committed.
+ *
+ * @param employeeIds the affected employees, including deleted ones
+ */
+public record EmployeeChangedEvent(Set<Long> employeeIds) {
+
+    public EmployeeChangedEvent {
+        employeeIds = Set.copyOf(employeeIds);
+    }
+
+    public static EmployeeChangedEvent of(Long... employeeIds) {
+        return of(Arrays.asList(employeeIds));
+    }
+
+    public static EmployeeChangedEvent of(Collection<Long> employeeIds) {
+        return new EmployeeChangedEvent(employeeIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,41 @@
+package org.gga.skills.event;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published when a write may have created, changed or deleted the single-resource representation of the
+ * given resources, including through related resources embedded in it. Listeners that cache or index
+ * representations should react after the surrounding transaction has committed.
+ *
+ * @param resource the kind of resource
+ * @param ids the affected resources, including deleted ones
+ */
+public record ResourceChangedEvent(Resource resource, Set<Long> ids) {
+
+    public ResourceChangedEvent {
+        ids = Set.copyOf(ids);
+    }
+
+    public static ResourceChangedEvent of(Resource resource, Long... ids) {
+        return of(resource, Arrays.asList(ids));
+    }
+
+    public static ResourceChangedEvent of(Resource resource, Collection<Long> ids) {
+        return new ResourceChangedEvent(resource, ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Resources whose representations are cached or indexed.
+     */
+    public enum Resource {
+        EMPLOYEE,
+        SKILL,
+        JOB_PROFILE
+    }
+}
@@ -0,0 +1,77 @@
+package org.gga.skills.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV writer. Starts with a UTF-8 byte order mark so spreadsheet applications detect the encoding.
+ * <p>
+ * Names and comments are user input, so fields a spreadsheet would evaluate as a formula are prefixed with
+ * {@code '} and quoted, which makes them text.
+ */
+class CsvSkillMatrixWriter implements SkillMatrixWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+
+    CsvSkillMatrixWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) throws IOException {
+        out.write('\uFEFF');
+        writeRow(headers.toArray(String[]::new));
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (cells[i] != null) {
+                writeField(cells[i]);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean formula = isFormula(value);
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static boolean isFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
@@ -0,0 +1,50 @@
+package org.gga.skills.export;
+
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Supported skill matrix export formats.
+ */
+public enum ExportFormat {
+
+    CSV("text/csv", "csv", CsvSkillMatrixWriter::new),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx", XlsxSkillMatrixWriter::new);
+
+    private final String contentType;
+    private final String extension;
+    private final Function<OutputStream, SkillMatrixWriter> writerFactory;
+
+    ExportFormat(String contentType, String extension, Function<OutputStream, SkillMatrixWriter> writerFactory) {
+        this.contentType = contentType;
+        this.extension = extension;
+        this.writerFactory = writerFactory;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public SkillMatrixWriter newWriter(OutputStream out) {
+        return writerFactory.apply(out);
+    }
+
+    /**
+     * Resolve a format from its file extension, ignoring case.
+     *
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static ExportFormat fromExtension(String extension) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(extension.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format '" + extension + "'. Supported formats: csv, xlsx");
+    }
+}
@@ -0,0 +1,25 @@
+package org.gga.skills.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the skill matrix row by row, so an export never holds more than one row in memory.
+ */
+public interface SkillMatrixWriter {
+
+    /**
+     * Write the header row. Must be called once, before any data row.
+     */
+    void writeHeader(List<String> headers) throws IOException;
+
+    /**
+     * Write one data row. {@code null} cells are left empty.
+     */
+    void writeRow(String[] cells) throws IOException;
+
+    /**
+     * Complete the document and flush it, without closing the underlying stream.
+     */
+    void finish() throws IOException;
+}
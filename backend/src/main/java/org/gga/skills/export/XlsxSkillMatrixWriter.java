@@ -0,0 +1,164 @@
+package org.gga.skills.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming SpreadsheetML (XLSX) writer with a single worksheet.
+ * <p>
+ * The worksheet XML is written straight into the zip stream with inline strings, so no shared string
+ * table or in-memory sheet model is built. Empty cells are omitted, which keeps sparse matrices small.
+ */
+public class XlsxSkillMatrixWriter implements SkillMatrixWriter {
+
+    /** Excel's hard column limit. */
+    public static final int MAX_COLUMNS = 16_384;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+            <Default Extension="xml" ContentType="application/xml"/>\
+            <Override PartName="/xl/workbook.xml" \
+            ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+            <Override PartName="/xl/worksheets/sheet1.xml" \
+            ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+            </Types>""";
+
+    private static final String ROOT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" \
+            Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" \
+            Target="xl/workbook.xml"/>\
+            </Relationships>""";
+
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+            xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+            <sheets><sheet name="Skill matrix" sheetId="1" r:id="rId1"/></sheets>\
+            </workbook>""";
+
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" \
+            Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" \
+            Target="worksheets/sheet1.xml"/>\
+            </Relationships>""";
+
+    private static final String SHEET_START = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">\
+            <sheetViews><sheetView workbookViewId="0">\
+            <pane ySplit="1" topLeftCell="A2" activePane="bottomLeft" state="frozen"/>\
+            </sheetView></sheetViews>\
+            <sheetData>""";
+
+    private static final String SHEET_END = "</sheetData></worksheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private String[] columnNames;
+    private int rowNumber;
+
+    XlsxSkillMatrixWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) throws IOException {
+        if (headers.size() > MAX_COLUMNS) {
+            throw new IllegalArgumentException("XLSX supports at most " + MAX_COLUMNS + " columns, got " + headers.size());
+        }
+        columnNames = new String[headers.size()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = columnName(i);
+        }
+
+        writeEntry("[Content_Types].xml", CONTENT_TYPES);
+        writeEntry("_rels/.rels", ROOT_RELS);
+        writeEntry("xl/workbook.xml", WORKBOOK);
+        writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        out.write(SHEET_START);
+        writeRow(headers.toArray(String[]::new));
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        rowNumber++;
+        out.write("<row r=\"");
+        out.write(Integer.toString(rowNumber));
+        out.write("\">");
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == null || cells[i].isEmpty()) {
+                continue;
+            }
+            out.write("<c r=\"");
+            out.write(columnNames[i]);
+            out.write(Integer.toString(rowNumber));
+            out.write("\" t=\"inlineStr\"><is><t>");
+            writeEscaped(cells[i]);
+            out.write("</t></is></c>");
+        }
+        out.write("</row>");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.write(SHEET_END);
+        out.flush();
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.write("&amp;");
+                case '<' -> out.write("&lt;");
+                case '>' -> out.write("&gt;");
+                case '"' -> out.write("&quot;");
+                default -> {
+                    // Control characters other than tab and line breaks are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert a zero-based column index to its spreadsheet letters (0 → A, 26 → AA).
+     */
+    static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int n = index + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,304 @@
+package org.gga.skills.index;
+
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+import org.gga.skills.model.JobProfile;
+import org.gga.skills.model.Skill;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix completion of skill, job profile and employee names, answered from memory.
+ * <p>
+ * Each kind has a {@link PrefixTrie} holding every name under the keys starting at each of its words, so
+ * {@code "boot"} completes "Spring Boot" and {@code "lee"} completes "Ann Lee". Keys are lower case
+ * without accents. Names are weighted by popularity: skills by their holders, job profiles by their
+ * assignees and employees by the number of skills they hold. Weights and employee names follow the
+ * {@link EmployeeFacts}; skill and job profile names are reloaded by ID on {@link ResourceChangedEvent}s.
+ * Those events arrive on the writing thread, so a rebuild remembers the IDs relabelled while it loads the
+ * names and copies their labels over from the replaced state.
+ */
+@Component
+public class AutocompleteIndex implements EmployeeIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SkillRepository skillRepository;
+    private final JobProfileRepository jobProfileRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    /**
+     * IDs of each kind relabelled since the committing rebuild started loading names, or {@code null}.
+     */
+    private Map<Kind, Set<Long>> relabelled;
+
+    public AutocompleteIndex(SkillRepository skillRepository, JobProfileRepository jobProfileRepository) {
+        this.skillRepository = skillRepository;
+        this.jobProfileRepository = jobProfileRepository;
+    }
+
+    /**
+     * Kinds of names that can be completed.
+     */
+    public enum Kind {
+        SKILL,
+        JOB_PROFILE,
+        EMPLOYEE
+    }
+
+    @Override
+    public Rebuild startRebuild() {
+        State next = new State();
+        return new Rebuild() {
+            @Override
+            public void add(EmployeeFacts facts) {
+                next.update(facts.id(), facts);
+            }
+
+            @Override
+            public void commit() {
+                lock.writeLock().lock();
+                try {
+                    relabelled = new EnumMap<>(Kind.class);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                for (Skill skill : skillRepository.findAll()) {
+                    next.names(Kind.SKILL).label(skill.getId(), skill.getName());
+                }
+                for (JobProfile jobProfile : jobProfileRepository.findAll()) {
+                    next.names(Kind.JOB_PROFILE).label(jobProfile.getId(), jobProfile.getName());
+                }
+                lock.writeLock().lock();
+                try {
+                    // Labels loaded after ours were only applied to the replaced state
+                    relabelled.forEach((kind, ids) -> ids.forEach(id ->
+                            next.names(kind).label(id, state.names(kind).labels.get(id))));
+                    relabelled = null;
+                    state = next;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void update(long employeeId, EmployeeFacts facts) {
+        lock.writeLock().lock();
+        try {
+            state.update(employeeId, facts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        if (event.resource() == Resource.EMPLOYEE || event.ids().isEmpty()) {
+            return;
+        }
+        Map<Long, String> labels = new HashMap<>();
+        if (event.resource() == Resource.SKILL) {
+            skillRepository.findAllById(event.ids()).forEach(skill -> labels.put(skill.getId(), skill.getName()));
+        } else {
+            jobProfileRepository.findAllById(event.ids())
+                    .forEach(jobProfile -> labels.put(jobProfile.getId(), jobProfile.getName()));
+        }
+        Kind kind = event.resource() == Resource.SKILL ? Kind.SKILL : Kind.JOB_PROFILE;
+        lock.writeLock().lock();
+        try {
+            for (Long id : event.ids()) {
+                state.names(kind).label(id, labels.get(id));
+            }
+            if (relabelled != null) {
+                relabelled.computeIfAbsent(kind, k -> new HashSet<>()).addAll(event.ids());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Complete a prefix of a name. Matching ignores case and accents, and starts at any word of a name.
+     *
+     * @param kind the kind of names to complete
+     * @param prefix the typed prefix; an empty prefix returns the most popular names
+     * @param limit maximum number of completions
+     * @return completions by descending weight, ties by ascending ID
+     */
+    public List<Completion> complete(Kind kind, String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Names names = state.names(kind);
+            long[] ids = names.trie.top(key, limit);
+            List<Completion> completions = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                completions.add(new Completion(id, names.labels.get(id), names.weight(id)));
+            }
+            return completions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A completed name.
+     *
+     * @param id the ID of the skill, job profile or employee
+     * @param label the full name
+     * @param weight the popularity the completions are ranked by
+     */
+    public record Completion(long id, String label, int weight) {
+    }
+
+    /**
+     * Lower case without accents and with single spaces, keeping a trailing space that ends a word.
+     */
+    static String normalize(String text) {
+        String stripped = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").stripLeading();
+    }
+
+    /**
+     * The keys of a name: the normalized name from each of its words to the end.
+     */
+    static List<String> keys(String label) {
+        String normalized = normalize(label).strip();
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        for (int space = normalized.indexOf(' '); space >= 0; space = normalized.indexOf(' ', space + 1)) {
+            keys.add(normalized.substring(space + 1));
+        }
+        return keys;
+    }
+
+    private static final class State {
+
+        final Map<Kind, Names> names = new EnumMap<>(Kind.class);
+        final Map<Long, Counted> employees = new HashMap<>();
+
+        State() {
+            for (Kind kind : Kind.values()) {
+                names.put(kind, new Names());
+            }
+        }
+
+        Names names(Kind kind) {
+            return names.get(kind);
+        }
+
+        void update(long employeeId, EmployeeFacts facts) {
+            Counted current = facts != null ? Counted.of(facts) : null;
+            Counted previous = current != null ? employees.put(employeeId, current) : employees.remove(employeeId);
+            if (previous != null) {
+                count(previous, -1);
+            }
+            Names employeeNames = names(Kind.EMPLOYEE);
+            if (current == null) {
+                employeeNames.setWeight(employeeId, 0);
+                employeeNames.label(employeeId, null);
+                return;
+            }
+            count(current, 1);
+            employeeNames.setWeight(employeeId, current.skillIds().length);
+            employeeNames.label(employeeId, facts.firstName() + " " + facts.lastName());
+        }
+
+        private void count(Counted counted, int delta) {
+            for (long skillId : counted.skillIds()) {
+                names(Kind.SKILL).addWeight(skillId, delta);
+            }
+            for (long jobProfileId : counted.jobProfileIds()) {
+                names(Kind.JOB_PROFILE).addWeight(jobProfileId, delta);
+            }
+        }
+    }
+
+    /**
+     * What an employee adds to the weights of skills and job profiles.
+     *
+     * @param skillIds the distinct skills held
+     * @param jobProfileIds the distinct job profiles assigned
+     */
+    private record Counted(long[] skillIds, long[] jobProfileIds) {
+
+        static Counted of(EmployeeFacts facts) {
+            return new Counted(
+                    facts.grades().stream().mapToLong(EmployeeFacts.Grade::skillId).distinct().toArray(),
+                    facts.jobProfileIds().stream().mapToLong(Long::longValue).distinct().toArray());
+        }
+    }
+
+    /**
+     * The names of one kind and their weights. Weights are kept independently of names, since the employee
+     * facts referring to a skill may be updated before or after its name.
+     */
+    private static final class Names {
+
+        final PrefixTrie trie = new PrefixTrie();
+        final Map<Long, String> labels = new HashMap<>();
+        final Map<Long, Integer> weights = new HashMap<>();
+
+        int weight(long id) {
+            return weights.getOrDefault(id, 0);
+        }
+
+        /**
+         * Set or, with {@code null}, remove the name of an ID.
+         */
+        void label(long id, String label) {
+            String previous = labels.get(id);
+            if (previous != null && previous.equals(label)) {
+                return;
+            }
+            if (previous != null) {
+                keys(previous).forEach(key -> trie.remove(key, id));
+                labels.remove(id);
+            }
+            if (label != null) {
+                labels.put(id, label);
+                keys(label).forEach(key -> trie.add(key, id, weight(id)));
+            }
+        }
+
+        void addWeight(long id, int delta) {
+            setWeight(id, weight(id) + delta);
+        }
+
+        void setWeight(long id, int weight) {
+            if (weight == weight(id)) {
+                return;
+            }
+            String label = labels.get(id);
+            if (label != null) {
+                keys(label).forEach(key -> trie.remove(key, id));
+            }
+            if (weight == 0) {
+                weights.remove(id);
+            } else {
+                weights.put(id, weight);
+            }
+            if (label != null) {
+                keys(label).forEach(key -> trie.add(key, id, weight));
+            }
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package org.gga.skills.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Data cube of employee skill grades by department, position, job profile, skill, grade level and
+ * certified flag, with every rollup precomputed.
+ * <p>
+ * Dimension values are dictionary-encoded and packed into one {@code long} per cell. A cuboid holds the
+ * grade counts of one subset of the dimensions, summed over the dimensions left out. Cuboids with the job
+ * profile dimension count a grade once for each job profile of its employee; the others count it once.
+ * The cuboids of all dimensions, with and without job profile, are always kept. After a rebuild, each
+ * rollup of them is kept only if it has at most {@code rollupRatio} times the cells of the smallest kept
+ * cuboid it can be computed from, which bounds memory when dimensions have many values. A slice is
+ * answered from the smallest kept cuboid that has all grouped and filtered dimensions.
+ * <p>
+ * An update subtracts the employee's previous grades from every kept cuboid and adds the current ones.
+ * <p>
+ * Each rebuild sizes the bit range of every dimension from its number of values and shares the spare bits
+ * out as room for new values. An update with a value that no longer fits fails without changing the cube,
+ * so that the {@link EmployeeIndexMaintainer} rebuilds it. If the values do not fit even then, the cube is
+ * unavailable until the next rebuild.
+ */
+@Component
+public class CapabilityCube implements EmployeeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CapabilityCube.class);
+
+    private static final Dimension[] DIMENSION_VALUES = Dimension.values();
+    private static final int DIMENSIONS = DIMENSION_VALUES.length;
+    private static final int JOB_PROFILE_MASK = 1 << Dimension.JOB_PROFILE.ordinal();
+    private static final int ALL_DIMENSIONS = (1 << DIMENSIONS) - 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final double rollupRatio;
+    private State state = new State().layOut(Layout.fit(new int[DIMENSIONS]));
+
+    public CapabilityCube(@Value("${skills.capability-cube.rollup-ratio:0.25}") double rollupRatio) {
+        this.rollupRatio = rollupRatio;
+    }
+
+    @Override
+    public Rebuild startRebuild() {
+        State next = new State();
+        return new Rebuild() {
+            @Override
+            public void add(EmployeeFacts facts) {
+                next.facts.put(facts.id(), facts);
+                next.learn(facts);
+            }
+
+            @Override
+            public void commit() {
+                int[] valueCounts = next.valueCounts();
+                Layout layout = Layout.fit(valueCounts);
+                if (layout != null) {
+                    next.layOut(layout).materializeRollups(rollupRatio);
+                }
+                Stats stats = next.stats();
+                lock.writeLock().lock();
+                try {
+                    state = next;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (layout == null) {
+                    log.error("Capability cube is unavailable until the next rebuild: {} values of {} do not fit "
+                            + "in a {}-bit cell key", Arrays.toString(valueCounts), Arrays.toString(DIMENSION_VALUES),
+                            Layout.KEY_BITS);
+                } else {
+                    log.info("Capability cube holds {} cells in {} cuboids, {} KiB", stats.cells(), stats.cuboids(),
+                            stats.bytes() / 1024);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void update(long employeeId, EmployeeFacts facts) {
+        lock.writeLock().lock();
+        try {
+            if (state.layout == null) {
+                return;
+            }
+            // Adding first, since a value that does not fit fails before anything changes
+            if (facts != null) {
+                state.count(facts, 1);
+            }
+            EmployeeFacts previous = facts != null
+                    ? state.facts.put(employeeId, facts)
+                    : state.facts.remove(employeeId);
+            if (previous != null) {
+                state.count(previous, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count grades grouped by some dimensions, restricted to the given values of others. Dimensions that
+     * are neither grouped nor filtered are rolled up.
+     *
+     * @param groupBy the dimensions to group by, may be empty for a grand total
+     * @param filters per dimension, the values to keep; values must be of the dimension's type
+     * @return the non-empty cells, ordered by their values in dimension order with {@code null} first, or
+     *         empty if the values did not fit the cube at the last rebuild
+     */
+    public Optional<List<Cell>> query(Set<Dimension> groupBy, Map<Dimension, ? extends Collection<?>> filters) {
+        lock.readLock().lock();
+        try {
+            return state.layout != null ? Optional.of(state.query(groupBy, filters)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the size of the cube
+     */
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return state.stats();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A dimension of the cube, with the most bits its values can need in the packed cell key.
+     */
+    public enum Dimension {
+        DEPARTMENT(30),
+        POSITION(30),
+        JOB_PROFILE(30),
+        SKILL(30),
+        LEVEL(30),
+        CERTIFIED(1);
+
+        private final int maxBits;
+
+        Dimension(int maxBits) {
+            this.maxBits = maxBits;
+        }
+    }
+
+    /**
+     * One cell of a query result.
+     *
+     * @param coordinates the value of each grouped dimension; a department or position may be {@code null}
+     * @param grades number of employee skill grades
+     * @param yearsOfExperience sum of the years of experience of the grades that have them
+     * @param gradesWithYears number of grades with years of experience
+     */
+    public record Cell(Map<Dimension, Object> coordinates, long grades, long yearsOfExperience,
+                       long gradesWithYears) {
+    }
+
+    /**
+     * @param employees number of employees in the cube
+     * @param cuboids number of kept groupings, out of one per subset of the dimensions
+     * @param cells number of cells over all cuboids
+     * @param bytes approximate memory of the cuboid tables and dictionaries
+     */
+    public record Stats(int employees, int cuboids, long cells, long bytes) {
+    }
+
+    private static final class State {
+
+        final Map<Long, EmployeeFacts> facts = new HashMap<>();
+        final Dictionary[] dictionaries = new Dictionary[DIMENSIONS];
+        final Cuboid[] cuboids = new Cuboid[1 << DIMENSIONS];
+        /**
+         * The bit ranges of the cell key, or {@code null} while rebuilding or if the values do not fit.
+         */
+        Layout layout;
+
+        State() {
+            for (Dimension dimension : DIMENSION_VALUES) {
+                dictionaries[dimension.ordinal()] = new Dictionary(dimension);
+            }
+        }
+
+        /**
+         * Give the values added so far their codes, before the layout is known.
+         */
+        void learn(EmployeeFacts employee) {
+            dictionaries[Dimension.DEPARTMENT.ordinal()].code(employee.department());
+            dictionaries[Dimension.POSITION.ordinal()].code(employee.position());
+            employee.jobProfileIds().forEach(dictionaries[Dimension.JOB_PROFILE.ordinal()]::code);
+            for (EmployeeFacts.Grade grade : employee.grades()) {
+                dictionaries[Dimension.SKILL.ordinal()].code(grade.skillId());
+                dictionaries[Dimension.LEVEL.ordinal()].code(grade.level());
+                dictionaries[Dimension.CERTIFIED.ordinal()].code(grade.certified());
+            }
+        }
+
+        int[] valueCounts() {
+            return Arrays.stream(dictionaries).mapToInt(Dictionary::size).toArray();
+        }
+
+        /**
+         * Fix the layout and count the facts into the cuboids of all dimensions.
+         */
+        State layOut(Layout layout) {
+            this.layout = layout;
+            for (Dimension dimension : DIMENSION_VALUES) {
+                dictionaries[dimension.ordinal()].capacity = layout.capacity(dimension);
+            }
+            cuboids[ALL_DIMENSIONS] = new Cuboid(layout.keyMask(ALL_DIMENSIONS));
+            cuboids[ALL_DIMENSIONS & ~JOB_PROFILE_MASK] =
+                    new Cuboid(layout.keyMask(ALL_DIMENSIONS & ~JOB_PROFILE_MASK));
+            for (EmployeeFacts employee : facts.values()) {
+                count(employee, 1);
+            }
+            return this;
+        }
+
+        /**
+         * Add the grades of an employee to every kept cuboid, or subtract them. All values are encoded
+         * before any cell changes, so a value that does not fit the layout changes nothing.
+         */
+        void count(EmployeeFacts employee, int delta) {
+            long employeeKey = encode(Dimension.DEPARTMENT, employee.department())
+                    | encode(Dimension.POSITION, employee.position());
+            long[] profileKeys = employee.jobProfileIds().stream()
+                    .mapToLong(jobProfileId -> encode(Dimension.JOB_PROFILE, jobProfileId))
+                    .toArray();
+            long[] gradeKeys = new long[employee.grades().size()];
+            for (int i = 0; i < gradeKeys.length; i++) {
+                EmployeeFacts.Grade grade = employee.grades().get(i);
+                gradeKeys[i] = employeeKey
+                        | encode(Dimension.SKILL, grade.skillId())
+                        | encode(Dimension.LEVEL, grade.level())
+                        | encode(Dimension.CERTIFIED, grade.certified());
+            }
+            for (int i = 0; i < gradeKeys.length; i++) {
+                EmployeeFacts.Grade grade = employee.grades().get(i);
+                long key = gradeKeys[i];
+                int years = grade.yearsOfExperience() != null ? grade.yearsOfExperience() : 0;
+                int withYears = grade.yearsOfExperience() != null ? 1 : 0;
+                for (int cuboid = 0; cuboid < cuboids.length; cuboid++) {
+                    if (cuboids[cuboid] == null) {
+                        continue;
+                    }
+                    if ((cuboid & JOB_PROFILE_MASK) == 0) {
+                        cuboids[cuboid].add(key, delta, years * delta, withYears * delta);
+                    } else {
+                        for (long profileKey : profileKeys) {
+                            cuboids[cuboid].add(key | profileKey, delta, years * delta, withYears * delta);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Compute the rollups and keep those that are small enough, deciding the cuboids with more
+         * dimensions first so that every candidate's sources are settled.
+         */
+        void materializeRollups(double ratio) {
+            List<Integer> candidates = IntStream.range(0, cuboids.length).boxed()
+                    .sorted(Comparator.comparingInt(Integer::bitCount).reversed())
+                    .toList();
+            for (int mask : candidates) {
+                if (cuboids[mask] != null) {
+                    continue;
+                }
+                Cuboid source = cuboids[smallestCovering(mask)];
+                Cuboid rollup = new Cuboid(layout.keyMask(mask));
+                long limit = (long) (source.size * ratio);
+                for (int slot = 0; slot < source.keys.length && rollup.size <= limit; slot++) {
+                    if (source.keys[slot] != 0 && source.grades[slot] != 0) {
+                        rollup.add(source.keys[slot], source.grades[slot], source.years[slot],
+                                source.withYears[slot]);
+                    }
+                }
+                if (rollup.size <= limit) {
+                    cuboids[mask] = rollup;
+                }
+            }
+        }
+
+        List<Cell> query(Set<Dimension> groupBy, Map<Dimension, ? extends Collection<?>> filters) {
+            // Per filtered dimension, which codes pass
+            boolean[][] accepted = new boolean[DIMENSIONS][];
+            for (Map.Entry<Dimension, ? extends Collection<?>> filter : filters.entrySet()) {
+                Dictionary dictionary = dictionaries[filter.getKey().ordinal()];
+                boolean[] codes = new boolean[dictionary.size()];
+                for (Object value : filter.getValue()) {
+                    Integer code = dictionary.codes.get(value);
+                    if (code != null) {
+                        codes[code] = true;
+                    }
+                }
+                accepted[filter.getKey().ordinal()] = codes;
+            }
+            int groupMask = mask(groupBy);
+            Cuboid cuboid = cuboids[smallestCovering(groupMask | mask(filters.keySet()))];
+            long projection = layout.keyMask(groupMask);
+
+            // Roll the other dimensions up into the grouped cells
+            Cuboid totals = new Cuboid(projection);
+            for (int slot = 0; slot < cuboid.keys.length; slot++) {
+                long key = cuboid.keys[slot];
+                if (key != 0 && cuboid.grades[slot] != 0 && accepts(accepted, key)) {
+                    totals.add(key, cuboid.grades[slot], cuboid.years[slot], cuboid.withYears[slot]);
+                }
+            }
+
+            // Order the cells by value: pack the value ranks of the grouped dimensions, the first dimension
+            // most significant, and sort those
+            List<Dimension> grouped = Arrays.stream(DIMENSION_VALUES).filter(groupBy::contains).toList();
+            int[][] codesByRank = new int[DIMENSIONS][];
+            int[][] ranks = new int[DIMENSIONS][];
+            for (Dimension dimension : grouped) {
+                codesByRank[dimension.ordinal()] = dictionaries[dimension.ordinal()].codesInValueOrder();
+                ranks[dimension.ordinal()] = new int[codesByRank[dimension.ordinal()].length];
+                for (int rank = 0; rank < ranks[dimension.ordinal()].length; rank++) {
+                    ranks[dimension.ordinal()][codesByRank[dimension.ordinal()][rank]] = rank;
+                }
+            }
+            long[] packed = new long[totals.size];
+            int count = 0;
+            for (long key : totals.keys) {
+                if (key != 0) {
+                    long ranked = 0;
+                    for (Dimension dimension : grouped) {
+                        ranked = ranked << layout.bits(dimension) | ranks[dimension.ordinal()][layout.code(dimension, key)];
+                    }
+                    packed[count++] = ranked;
+                }
+            }
+            Arrays.sort(packed, 0, count);
+
+            List<Cell> cells = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long ranked = packed[i];
+                long key = 0;
+                Map<Dimension, Object> coordinates = new EnumMap<>(Dimension.class);
+                for (int j = grouped.size() - 1; j >= 0; j--) {
+                    Dimension dimension = grouped.get(j);
+                    int bits = layout.bits(dimension);
+                    int code = codesByRank[dimension.ordinal()][(int) (ranked & (1L << bits) - 1)];
+                    ranked >>>= bits;
+                    key |= layout.key(dimension, code);
+                    coordinates.put(dimension, dictionaries[dimension.ordinal()].values.get(code));
+                }
+                int slot = totals.slotOf(key);
+                cells.add(new Cell(coordinates, totals.grades[slot], totals.years[slot], totals.withYears[slot]));
+            }
+            return cells;
+        }
+
+        Stats stats() {
+            long cells = 0;
+            long bytes = 0;
+            int kept = 0;
+            for (Cuboid cuboid : cuboids) {
+                if (cuboid != null) {
+                    kept++;
+                    cells += cuboid.size;
+                    bytes += cuboid.bytes();
+                }
+            }
+            for (Dictionary dictionary : dictionaries) {
+                bytes += dictionary.bytes();
+            }
+            return new Stats(facts.size(), kept, cells, bytes);
+        }
+
+        /**
+         * @return the kept cuboid with the fewest cells that has all the given dimensions and counts job
+         *         profiles the same way
+         */
+        private int smallestCovering(int mask) {
+            int smallest = -1;
+            for (int cuboid = 0; cuboid < cuboids.length; cuboid++) {
+                if (cuboids[cuboid] != null && (cuboid & mask) == mask
+                        && (cuboid & JOB_PROFILE_MASK) == (mask & JOB_PROFILE_MASK)
+                        && (smallest < 0 || cuboids[cuboid].size < cuboids[smallest].size)) {
+                    smallest = cuboid;
+                }
+            }
+            return smallest;
+        }
+
+        private long encode(Dimension dimension, Object value) {
+            return layout.key(dimension, dictionaries[dimension.ordinal()].code(value));
+        }
+
+        private boolean accepts(boolean[][] accepted, long key) {
+            for (Dimension dimension : DIMENSION_VALUES) {
+                boolean[] codes = accepted[dimension.ordinal()];
+                if (codes != null) {
+                    int code = layout.code(dimension, key);
+                    if (code >= codes.length || !codes[code]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static int mask(Set<Dimension> dimensions) {
+            int mask = 0;
+            for (Dimension dimension : dimensions) {
+                mask |= 1 << dimension.ordinal();
+            }
+            return mask;
+        }
+    }
+
+    /**
+     * The bit range of each dimension in the packed cell key. Bit 63 is left to mark occupied slots.
+     */
+    private static final class Layout {
+
+        static final int KEY_BITS = 63;
+
+        private final int[] shifts = new int[DIMENSIONS];
+        private final int[] bits = new int[DIMENSIONS];
+
+        private Layout(int[] bits) {
+            int shift = 0;
+            for (int i = 0; i < DIMENSIONS; i++) {
+                this.bits[i] = bits[i];
+                shifts[i] = shift;
+                shift += bits[i];
+            }
+        }
+
+        /**
+         * Give every dimension the bits its values need, then share the spare bits out one at a time so
+         * that each dimension has room for new values.
+         *
+         * @param valueCounts number of values per dimension
+         * @return the layout, or {@code null} if the values do not fit in the key
+         */
+        static Layout fit(int[] valueCounts) {
+            int[] bits = new int[DIMENSIONS];
+            int total = 0;
+            for (int i = 0; i < DIMENSIONS; i++) {
+                bits[i] = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(valueCounts[i] - 1, 0)));
+                total += bits[i];
+            }
+            if (total > KEY_BITS) {
+                return null;
+            }
+            for (boolean grown = true; grown && total < KEY_BITS; ) {
+                grown = false;
+                for (Dimension dimension : DIMENSION_VALUES) {
+                    if (total < KEY_BITS && bits[dimension.ordinal()] < dimension.maxBits) {
+                        bits[dimension.ordinal()]++;
+                        total++;
+                        grown = true;
+                    }
+                }
+            }
+            return new Layout(bits);
+        }
+
+        int bits(Dimension dimension) {
+            return bits[dimension.ordinal()];
+        }
+
+        int capacity(Dimension dimension) {
+            return 1 << bits[dimension.ordinal()];
+        }
+
+        long key(Dimension dimension, int code) {
+            return (long) code << shifts[dimension.ordinal()];
+        }
+
+        int code(Dimension dimension, long key) {
+            return (int) (key >>> shifts[dimension.ordinal()] & (1L << bits[dimension.ordinal()]) - 1);
+        }
+
+        long keyMask(int cuboid) {
+            long mask = 0;
+            for (Dimension dimension : DIMENSION_VALUES) {
+                if ((cuboid & 1 << dimension.ordinal()) != 0) {
+                    mask |= ((1L << bits[dimension.ordinal()]) - 1) << shifts[dimension.ordinal()];
+                }
+            }
+            return mask;
+        }
+    }
+
+    /**
+     * Dense codes for the values of one dimension, in order of first appearance.
+     */
+    private static final class Dictionary {
+
+        final Dimension dimension;
+        final Map<Object, Integer> codes = new HashMap<>();
+        final List<Object> values = new ArrayList<>();
+        /**
+         * Number of codes the layout has room for; unlimited until the layout is fixed.
+         */
+        int capacity = Integer.MAX_VALUE;
+        private volatile int[] valueOrder = new int[0];
+
+        Dictionary(Dimension dimension) {
+            this.dimension = dimension;
+        }
+
+        int code(Object value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                if (code >= capacity) {
+                    throw new IllegalStateException("More than " + capacity + " values of " + dimension
+                            + " since the capability cube was rebuilt");
+                }
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        /**
+         * @return the codes ordered by their values, {@code null} first; cached until a value is added
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        int[] codesInValueOrder() {
+            int[] order = valueOrder;
+            if (order.length != values.size()) {
+                Comparator<Object> byValue = Comparator.nullsFirst((Comparator) Comparator.naturalOrder());
+                order = IntStream.range(0, values.size()).boxed()
+                        .sorted(Comparator.comparing(values::get, byValue))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                valueOrder = order;
+            }
+            return order;
+        }
+
+        long bytes() {
+            // Hash map entry, boxed code and list slot per value; the values themselves are shared
+            return values.size() * 64L;
+        }
+    }
+
+    /**
+     * Open-addressing table from packed cell key to the cell's sums. The key is stored with the top bit
+     * set, so zero marks an empty slot. Cells whose counts drop to zero stay until the next rebuild.
+     * <p>
+     * The hash is salted per cuboid: a rollup is filled in the slot order of its source, and with the same
+     * hash the keys would arrive in hash order and pile up in long probe runs.
+     */
+    private static final class Cuboid {
+
+        private static final long OCCUPIED = 1L << 63;
+
+        final long mask;
+        final long salt;
+        long[] keys = new long[4];
+        int[] grades = new int[4];
+        int[] years = new int[4];
+        int[] withYears = new int[4];
+        int size;
+
+        Cuboid(long mask) {
+            this.mask = mask;
+            this.salt = mask * 0x9E3779B97F4A7C15L;
+        }
+
+        void add(long key, int gradeDelta, int yearsDelta, int withYearsDelta) {
+            long stored = key & mask | OCCUPIED;
+            int slot = find(keys, stored, salt);
+            if (keys[slot] == 0) {
+                if (gradeDelta <= 0) {
+                    return;
+                }
+                if ((size + 1) * 4 > keys.length * 3) {
+                    grow();
+                    slot = find(keys, stored, salt);
+                }
+                keys[slot] = stored;
+                size++;
+            }
+            grades[slot] += gradeDelta;
+            years[slot] += yearsDelta;
+            withYears[slot] += withYearsDelta;
+        }
+
+        int slotOf(long key) {
+            return find(keys, key & mask | OCCUPIED, salt);
+        }
+
+        long bytes() {
+            return (long) keys.length * (Long.BYTES + 3 * Integer.BYTES);
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldGrades = grades;
+            int[] oldYears = years;
+            int[] oldWithYears = withYears;
+            keys = new long[oldKeys.length * 2];
+            grades = new int[oldKeys.length * 2];
+            years = new int[oldKeys.length * 2];
+            withYears = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = find(keys, oldKeys[i], salt);
+                    keys[slot] = oldKeys[i];
+                    grades[slot] = oldGrades[i];
+                    years[slot] = oldYears[i];
+                    withYears[slot] = oldWithYears[i];
+                }
+            }
+        }
+
+        private static int find(long[] keys, long key, long salt) {
+            int mask = keys.length - 1;
+            long hash = key ^ salt;
+            hash = (hash ^ hash >>> 33) * 0xFF51AFD7ED558CCDL;
+            hash = (hash ^ hash >>> 33) * 0xC4CEB9FE1A85EC53L;
+            int slot = (int) (hash ^ hash >>> 33) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package org.gga.skills.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Sparse symmetric matrix of how many employees hold each pair of skills, at any grade.
+ * <p>
+ * Skills get dense indexes, and each skill's row is a primitive hash map from the other skill's index to
+ * the pair count. An update subtracts the employee's previous skill pairs and adds the current ones.
+ * A rebuild computes the rows in parallel from the holders of each skill, so no two threads write the
+ * same row.
+ */
+@Component
+public class CooccurrenceIndex implements EmployeeIndex {
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingDouble(Suggestion::lift).reversed()
+            .thenComparing(Comparator.comparingInt(Suggestion::coHolders).reversed())
+            .thenComparingLong(Suggestion::skillId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+
+    @Override
+    public Rebuild startRebuild() {
+        Map<Long, int[]> skillsByEmployee = new HashMap<>();
+        State next = new State();
+        return new Rebuild() {
+            @Override
+            public void add(EmployeeFacts facts) {
+                skillsByEmployee.put(facts.id(), next.indexesOf(facts));
+            }
+
+            @Override
+            public void commit() {
+                next.fill(skillsByEmployee);
+                lock.writeLock().lock();
+                try {
+                    state = next;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void update(long employeeId, EmployeeFacts facts) {
+        lock.writeLock().lock();
+        try {
+            int[] previous = state.skillsByEmployee.remove(employeeId);
+            if (previous != null) {
+                state.count(previous, -1);
+            }
+            if (facts != null) {
+                int[] current = state.indexesOf(facts);
+                state.skillsByEmployee.put(employeeId, current);
+                state.count(current, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the skills most often held together with any of the given skills, relative to how common they
+     * are. A candidate is scored by its highest lift against one of the given skills,
+     * {@code P(both) / (P(skill) * P(candidate))}; ties go to more co-holders, then the lower ID.
+     *
+     * @param skillIds the skills to find related skills for; they are never suggested themselves
+     * @param limit maximum number of suggestions
+     * @param minCoHolders minimum number of employees holding both skills, to ignore chance pairs
+     * @return suggestions by descending lift
+     */
+    public List<Suggestion> suggest(Collection<Long> skillIds, int limit, int minCoHolders) {
+        lock.readLock().lock();
+        try {
+            return state.suggest(skillIds, limit, minCoHolders);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A skill related to one of the requested skills.
+     *
+     * @param skillId the suggested skill
+     * @param relatedSkillId the requested skill it has the highest lift with
+     * @param holders employees holding the suggested skill
+     * @param coHolders employees holding both skills
+     * @param lift how much more often the skills are held together than if they were independent
+     */
+    public record Suggestion(long skillId, long relatedSkillId, int holders, int coHolders, double lift) {
+    }
+
+    private static final class State {
+
+        final Map<Long, int[]> skillsByEmployee = new HashMap<>();
+        final Map<Long, Integer> indexes = new HashMap<>();
+        long[] skillIds = new long[64];
+        int[] holders = new int[64];
+        CountRow[] rows = new CountRow[64];
+
+        /**
+         * @return the distinct dense indexes of the employee's skills, assigning new ones as needed
+         */
+        int[] indexesOf(EmployeeFacts employee) {
+            return employee.grades().stream()
+                    .mapToLong(EmployeeFacts.Grade::skillId)
+                    .distinct()
+                    .mapToInt(this::indexOf)
+                    .toArray();
+        }
+
+        void count(int[] skills, int delta) {
+            for (int skill : skills) {
+                holders[skill] += delta;
+                for (int other : skills) {
+                    if (other != skill) {
+                        rows[skill].add(other, delta);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Count all pairs of a new state, one row per task.
+         */
+        void fill(Map<Long, int[]> employees) {
+            skillsByEmployee.putAll(employees);
+            List<List<int[]>> skillsOfHolders = new ArrayList<>(indexes.size());
+            for (int skill = 0; skill < indexes.size(); skill++) {
+                skillsOfHolders.add(new ArrayList<>());
+            }
+            for (int[] skills : employees.values()) {
+                for (int skill : skills) {
+                    skillsOfHolders.get(skill).add(skills);
+                }
+            }
+            IntStream.range(0, indexes.size()).parallel().forEach(skill -> {
+                List<int[]> holderSkills = skillsOfHolders.get(skill);
+                holders[skill] = holderSkills.size();
+                for (int[] skills : holderSkills) {
+                    for (int other : skills) {
+                        if (other != skill) {
+                            rows[skill].add(other, 1);
+                        }
+                    }
+                }
+            });
+        }
+
+        List<Suggestion> suggest(Collection<Long> requested, int limit, int minCoHolders) {
+            boolean[] isSeed = new boolean[indexes.size()];
+            for (Long skillId : requested) {
+                Integer index = indexes.get(skillId);
+                if (index != null) {
+                    isSeed[index] = true;
+                }
+            }
+
+            // Best lift of each candidate against any seed, densely by skill index
+            double employees = skillsByEmployee.size();
+            int[] related = new int[indexes.size()];
+            int[] coHolderCounts = new int[indexes.size()];
+            double[] lifts = new double[indexes.size()];
+            Arrays.fill(related, -1);
+            for (int seed = 0; seed < isSeed.length; seed++) {
+                if (!isSeed[seed]) {
+                    continue;
+                }
+                CountRow row = rows[seed];
+                for (int slot = 0; slot < row.keys.length; slot++) {
+                    int other = row.keys[slot] - 1;
+                    int coHolders = row.counts[slot];
+                    if (other < 0 || coHolders < Math.max(1, minCoHolders) || isSeed[other]) {
+                        continue;
+                    }
+                    double lift = coHolders * employees / ((double) holders[seed] * holders[other]);
+                    if (related[other] < 0 || lift > lifts[other] || lift == lifts[other]
+                            && (coHolders > coHolderCounts[other] || coHolders == coHolderCounts[other]
+                            && skillIds[seed] < skillIds[related[other]])) {
+                        related[other] = seed;
+                        coHolderCounts[other] = coHolders;
+                        lifts[other] = lift;
+                    }
+                }
+            }
+
+            // Keep the best candidates in a heap whose root is the worst of them
+            PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int other = 0; other < related.length; other++) {
+                if (related[other] < 0) {
+                    continue;
+                }
+                Suggestion suggestion = new Suggestion(skillIds[other], skillIds[related[other]], holders[other],
+                        coHolderCounts[other], lifts[other]);
+                if (top.size() < limit) {
+                    top.add(suggestion);
+                } else if (RANKING.compare(suggestion, top.peek()) < 0) {
+                    top.poll();
+                    top.add(suggestion);
+                }
+            }
+            List<Suggestion> suggestions = new ArrayList<>(top);
+            suggestions.sort(RANKING);
+            return suggestions;
+        }
+
+        private int indexOf(long skillId) {
+            Integer existing = indexes.get(skillId);
+            if (existing != null) {
+                return existing;
+            }
+            int index = indexes.size();
+            if (index == skillIds.length) {
+                skillIds = Arrays.copyOf(skillIds, index * 2);
+                holders = Arrays.copyOf(holders, index * 2);
+                rows = Arrays.copyOf(rows, index * 2);
+            }
+            indexes.put(skillId, index);
+            skillIds[index] = skillId;
+            rows[index] = new CountRow();
+            return index;
+        }
+    }
+
+    /**
+     * Open-addressing map from skill index to pair count. Keys are stored plus one so that zero marks an
+     * empty slot; counts that drop to zero stay in place until the next rebuild.
+     */
+    private static final class CountRow {
+
+        int[] keys = new int[8];
+        int[] counts = new int[8];
+        int size;
+
+        void add(int key, int delta) {
+            int slot = find(keys, key);
+            if (keys[slot] == 0) {
+                if (delta <= 0) {
+                    return;
+                }
+                if ((size + 1) * 2 > keys.length) {
+                    grow();
+                    slot = find(keys, key);
+                }
+                keys[slot] = key + 1;
+                size++;
+            }
+            counts[slot] += delta;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new int[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = find(keys, oldKeys[i] - 1);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int find(int[] keys, int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (keys[slot] != 0 && keys[slot] != key + 1) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
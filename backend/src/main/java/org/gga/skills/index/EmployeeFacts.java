@@ -0,0 +1,32 @@
+package org.gga.skills.index;
+
+import java.util.List;
+
+/**
+ * Everything the in-memory employee indexes know about one employee, loaded in one go so that all
+ * indexes see the same state.
+ *
+ * @param id the employee ID
+ * @param firstName the first name
+ * @param lastName the last name
+ * @param department the department, may be {@code null}
+ * @param position the position, may be {@code null}
+ * @param grades the employee's skill grades
+ * @param jobProfileIds the assigned job profiles
+ */
+public record EmployeeFacts(long id, String firstName, String lastName, String department, String position, List<Grade> grades,
+                            List<Long> jobProfileIds) {
+
+    public EmployeeFacts {
+        grades = List.copyOf(grades);
+        jobProfileIds = List.copyOf(jobProfileIds);
+    }
+
+    /**
+     * One skill grade held by the employee.
+     *
+     * @param yearsOfExperience the years of experience with the skill, may be {@code null}
+     */
+    public record Grade(long skillId, long skillGradeId, int level, boolean certified, Integer yearsOfExperience) {
+    }
+}
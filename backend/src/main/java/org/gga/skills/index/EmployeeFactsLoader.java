@@ -0,0 +1,200 @@
+package org.gga.skills.index;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Loads {@link EmployeeFacts} with plain SQL, either for a set of employees or for all employees
+ * in ID-ordered batches, and finds the employees that changed since facts were loaded.
+ * <p>
+ * Loads always run in their own read-only transaction: they are called after the writing
+ * transaction has committed and must see its result.
+ */
+@Component
+public class EmployeeFactsLoader {
+
+    private static final String EMPLOYEES_BY_ID =
+            "SELECT id, first_name, last_name, department, position FROM employee WHERE id IN (:ids)";
+
+    private static final String EMPLOYEES_AFTER =
+            "SELECT id, first_name, last_name, department, position FROM employee WHERE id > :after ORDER BY id LIMIT :limit";
+
+    private static final String GRADES = """
+            SELECT esg.employee_id, sg.skill_id, sg.id, sg.level, esg.certified, esg.years_of_experience
+            FROM employee_skill_grade esg
+            JOIN skill_grade sg ON sg.id = esg.skill_grade_id
+            WHERE esg.employee_id %s
+            """;
+
+    private static final String JOB_PROFILES =
+            "SELECT employee_id, job_profile_id FROM employee_job_profile WHERE employee_id %s";
+
+    private static final String EMPLOYEE_SKILL_GRADES_CHANGED_SINCE =
+            "SELECT DISTINCT employee_id FROM employee_skill_grade_history WHERE valid_from >= :since";
+
+    private static final String ALL_EMPLOYEES = "SELECT id, first_name, last_name, department, position FROM employee";
+
+    private static final String ALL_JOB_PROFILES = "SELECT employee_id, job_profile_id FROM employee_job_profile";
+
+    private static final String ALL_SKILL_GRADES = "SELECT id, skill_id, level FROM skill_grade";
+
+    private static final String IN_IDS = "IN (:ids)";
+    private static final String IN_RANGE = "BETWEEN :first AND :last";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public EmployeeFactsLoader(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load the facts of the given employees. Employees that don't exist are absent from the result.
+     *
+     * @param employeeIds the employee IDs
+     * @return facts keyed by employee ID
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public Map<Long, EmployeeFacts> load(Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return Map.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", employeeIds);
+        List<Row> rows = jdbcTemplate.query(EMPLOYEES_BY_ID, params, (rs, rowNum) ->
+                new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)));
+        Map<Long, EmployeeFacts> facts = new HashMap<>();
+        for (EmployeeFacts employee : assemble(rows, IN_IDS, params)) {
+            facts.put(employee.id(), employee);
+        }
+        return facts;
+    }
+
+    /**
+     * Stream the facts of all employees in ascending ID order.
+     *
+     * @param batchSize number of employees per batch
+     * @param consumer receives each batch
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void forEachBatch(int batchSize, Consumer<List<EmployeeFacts>> consumer) {
+        long after = 0;
+        while (true) {
+            MapSqlParameterSource page = new MapSqlParameterSource("after", after).addValue("limit", batchSize);
+            List<Row> rows = jdbcTemplate.query(EMPLOYEES_AFTER, page, (rs, rowNum) ->
+                    new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)));
+            if (rows.isEmpty()) {
+                return;
+            }
+            MapSqlParameterSource range = new MapSqlParameterSource("first", rows.get(0).id())
+                    .addValue("last", rows.get(rows.size() - 1).id());
+            consumer.accept(assemble(rows, IN_RANGE, range));
+            after = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    /**
+     * @return the current database time, which is the start time of the loading transaction
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+    }
+
+    /**
+     * Find the employees whose facts may differ from previously loaded ones. Skill grade changes are read
+     * from {@code employee_skill_grade_history}; employees, job profile assignments and skill grade levels
+     * carry no history and are compared in full, reading only their narrow key columns.
+     *
+     * @param since start of the skill grade history to read
+     * @param known the previously loaded facts
+     * @return IDs of employees that changed, were added or were deleted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public Set<Long> changedEmployeeIds(LocalDateTime since, Collection<EmployeeFacts> known) {
+        Map<Long, EmployeeFacts> knownById = new HashMap<>();
+        known.forEach(facts -> knownById.put(facts.id(), facts));
+        Set<Long> changed = new HashSet<>(jdbcTemplate.queryForList(EMPLOYEE_SKILL_GRADES_CHANGED_SINCE,
+                new MapSqlParameterSource("since", since), Long.class));
+
+        Set<Long> existing = new HashSet<>();
+        jdbcTemplate.getJdbcTemplate().query(ALL_EMPLOYEES, rs -> {
+            long id = rs.getLong(1);
+            existing.add(id);
+            EmployeeFacts facts = knownById.get(id);
+            if (facts == null || !Objects.equals(facts.firstName(), rs.getString(2))
+                    || !Objects.equals(facts.lastName(), rs.getString(3))
+                    || !Objects.equals(facts.department(), rs.getString(4))
+                    || !Objects.equals(facts.position(), rs.getString(5))) {
+                changed.add(id);
+            }
+        });
+        for (Long id : knownById.keySet()) {
+            if (!existing.contains(id)) {
+                changed.add(id);
+            }
+        }
+
+        Map<Long, Set<Long>> jobProfiles = new HashMap<>();
+        jdbcTemplate.getJdbcTemplate().query(ALL_JOB_PROFILES, rs -> {
+            jobProfiles.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getLong(2));
+        });
+        for (EmployeeFacts facts : knownById.values()) {
+            if (!jobProfiles.getOrDefault(facts.id(), Set.of()).equals(new HashSet<>(facts.jobProfileIds()))) {
+                changed.add(facts.id());
+            }
+        }
+
+        Map<Long, long[]> skillGrades = new HashMap<>();
+        jdbcTemplate.getJdbcTemplate().query(ALL_SKILL_GRADES, rs -> {
+            skillGrades.put(rs.getLong(1), new long[] {rs.getLong(2), rs.getInt(3)});
+        });
+        for (EmployeeFacts facts : knownById.values()) {
+            for (EmployeeFacts.Grade grade : facts.grades()) {
+                long[] current = skillGrades.get(grade.skillGradeId());
+                if (current == null || current[0] != grade.skillId() || current[1] != grade.level()) {
+                    changed.add(facts.id());
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private List<EmployeeFacts> assemble(List<Row> rows, String employeeFilter, MapSqlParameterSource params) {
+        Map<Long, List<EmployeeFacts.Grade>> grades = new HashMap<>();
+        jdbcTemplate.query(GRADES.formatted(employeeFilter), params, rs -> {
+            grades.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                    .add(new EmployeeFacts.Grade(rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getBoolean(5),
+                            rs.getObject(6, Integer.class)));
+        });
+        Map<Long, List<Long>> jobProfiles = new HashMap<>();
+        jdbcTemplate.query(JOB_PROFILES.formatted(employeeFilter), params, rs -> {
+            jobProfiles.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+        });
+
+        Map<Long, EmployeeFacts> facts = new LinkedHashMap<>();
+        for (Row row : rows) {
+            facts.put(row.id(), new EmployeeFacts(row.id(), row.firstName(), row.lastName(), row.department(),
+                    row.position(), grades.getOrDefault(row.id(), List.of()),
+                    jobProfiles.getOrDefault(row.id(), List.of())));
+        }
+        return new ArrayList<>(facts.values());
+    }
+
+    private record Row(long id, String firstName, String lastName, String department, String position) {
+    }
+}
@@ -0,0 +1,32 @@
+package org.gga.skills.index;
+
+/**
+ * An in-memory index derived from {@link EmployeeFacts}, kept up to date by {@link EmployeeIndexMaintainer}.
+ * Implementations must be safe for concurrent reads while an update or rebuild is applied.
+ */
+public interface EmployeeIndex {
+
+    /**
+     * Start building a replacement of the whole index. The current content stays visible
+     * until {@link Rebuild#commit()} is called.
+     */
+    Rebuild startRebuild();
+
+    /**
+     * Replace what the index knows about one employee.
+     *
+     * @param employeeId the employee ID
+     * @param facts the current facts, or {@code null} if the employee no longer exists
+     */
+    void update(long employeeId, EmployeeFacts facts);
+
+    interface Rebuild {
+
+        void add(EmployeeFacts facts);
+
+        /**
+         * Atomically replace the index content with everything added to this rebuild.
+         */
+        void commit();
+    }
+}
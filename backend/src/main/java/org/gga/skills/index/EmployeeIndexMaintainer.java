@@ -0,0 +1,253 @@
+package org.gga.skills.index;
+
+import jakarta.annotation.PreDestroy;
+import org.gga.skills.event.AllResourcesChangedEvent;
+import org.gga.skills.event.EmployeeChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds every {@link EmployeeIndex} at startup and applies committed employee changes to them.
+ * <p>
+ * The initial build runs before the web server accepts requests. It starts from the
+ * {@link EmployeeSnapshotStore snapshot} when there is one, and otherwise loads every employee from the
+ * database. Updates and rebuilds are serialized, and facts are loaded while holding the lock, so a later
+ * update can never be overwritten by the older state loaded for an earlier one.
+ * <p>
+ * Committed changes are applied shortly after the commit by a single applier thread, not by the
+ * committing thread, which still holds its connection. Employees changed while the applier is busy are
+ * coalesced into its next load. If a load fails, all indexes are rebuilt after {@code retry-delay}, and
+ * a failed rebuild is retried the same way, so the indexes never stay behind.
+ */
+@Component
+public class EmployeeIndexMaintainer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeIndexMaintainer.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1_000;
+
+    private final EmployeeFactsLoader factsLoader;
+    private final EmployeeSnapshotStore snapshots;
+    private final List<EmployeeIndex> indexes;
+    private final Duration retryDelay;
+    private final Object lock = new Object();
+    private final ScheduledExecutorService applier = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("employee-index-applier").daemon().factory());
+
+    // Guarded by itself
+    private final Set<Long> pendingIds = new LinkedHashSet<>();
+    private boolean applyScheduled;
+    private boolean rebuildScheduled;
+
+    public EmployeeIndexMaintainer(EmployeeFactsLoader factsLoader, EmployeeSnapshotStore snapshots,
+                                   List<EmployeeIndex> indexes,
+                                   @Value("${skills.employee-index.retry-delay:5s}") Duration retryDelay) {
+        this.factsLoader = factsLoader;
+        this.snapshots = snapshots;
+        this.indexes = indexes;
+        this.retryDelay = retryDelay;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!restoreFromSnapshot()) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Rebuild all indexes from the database, and write the snapshot if enabled.
+     */
+    public void rebuildAll() {
+        rebuild(indexes);
+    }
+
+    /**
+     * Rebuild one index from the database, leaving the others as they are.
+     */
+    public void rebuild(EmployeeIndex index) {
+        rebuild(List.of(index));
+    }
+
+    private void rebuild(List<EmployeeIndex> indexes) {
+        synchronized (lock) {
+            long start = System.nanoTime();
+            List<EmployeeIndex.Rebuild> rebuilds = new ArrayList<>(indexes.size() + 1);
+            for (EmployeeIndex index : indexes) {
+                rebuilds.add(index.startRebuild());
+            }
+            if (indexes == this.indexes && snapshots.isEnabled()) {
+                rebuilds.add(snapshots.writer(factsLoader.currentTimestamp()));
+            }
+            int[] count = {0};
+            factsLoader.forEachBatch(REBUILD_BATCH_SIZE, batch -> {
+                for (EmployeeFacts facts : batch) {
+                    for (EmployeeIndex.Rebuild rebuild : rebuilds) {
+                        rebuild.add(facts);
+                    }
+                }
+                count[0] += batch.size();
+            });
+            rebuilds.forEach(EmployeeIndex.Rebuild::commit);
+            log.info("Built {} employee indexes over {} employees in {} ms",
+                    indexes.size(), count[0], (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Build all indexes from the snapshot, after reloading the employees that changed since it was written.
+     *
+     * @return whether the indexes were built; {@code false} if there is no usable snapshot
+     */
+    private boolean restoreFromSnapshot() {
+        if (!snapshots.isEnabled()) {
+            return false;
+        }
+        synchronized (lock) {
+            long start = System.nanoTime();
+            LocalDateTime now = factsLoader.currentTimestamp();
+            Optional<EmployeeSnapshot> snapshot = snapshots.read(now);
+            if (snapshot.isEmpty()) {
+                return false;
+            }
+            long loaded = System.nanoTime();
+            Map<Long, EmployeeFacts> employees = new TreeMap<>();
+            try {
+                snapshot.get().employees().forEach(facts -> employees.put(facts.id(), facts));
+                List<Long> changed = new ArrayList<>(
+                        factsLoader.changedEmployeeIds(snapshots.replayFrom(snapshot.get()), employees.values()));
+                for (int from = 0; from < changed.size(); from += REBUILD_BATCH_SIZE) {
+                    List<Long> ids = changed.subList(from, Math.min(from + REBUILD_BATCH_SIZE, changed.size()));
+                    Map<Long, EmployeeFacts> facts = factsLoader.load(ids);
+                    for (Long id : ids) {
+                        if (facts.containsKey(id)) {
+                            employees.put(id, facts.get(id));
+                        } else {
+                            employees.remove(id);
+                        }
+                    }
+                }
+
+                List<EmployeeIndex.Rebuild> rebuilds = new ArrayList<>(indexes.size() + 1);
+                for (EmployeeIndex index : indexes) {
+                    rebuilds.add(index.startRebuild());
+                }
+                if (!changed.isEmpty()) {
+                    // Everything up to the time before the changes were looked up has been replayed
+                    rebuilds.add(snapshots.writer(now));
+                }
+                for (EmployeeFacts facts : employees.values()) {
+                    for (EmployeeIndex.Rebuild rebuild : rebuilds) {
+                        rebuild.add(facts);
+                    }
+                }
+                rebuilds.forEach(EmployeeIndex.Rebuild::commit);
+                log.info("Built {} employee indexes over {} employees from the snapshot as of {} in {} ms "
+                                + "({} ms reading it), replaying {} changed employees",
+                        indexes.size(), employees.size(), snapshot.get().watermark(),
+                        (System.nanoTime() - start) / 1_000_000, (loaded - start) / 1_000_000, changed.size());
+                return true;
+            } catch (RuntimeException ex) {
+                log.warn("Failed to build employee indexes from the snapshot, rebuilding from the database", ex);
+                return false;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.employeeIds().isEmpty()) {
+            return;
+        }
+        synchronized (pendingIds) {
+            if (rebuildScheduled) {
+                // The rebuild hasn't started, so it loads these changes too
+                return;
+            }
+            pendingIds.addAll(event.employeeIds());
+            if (!applyScheduled) {
+                applyScheduled = true;
+                applier.execute(this::applyPending);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAllResourcesChanged(AllResourcesChangedEvent event) {
+        scheduleRebuild(Duration.ZERO);
+    }
+
+    @PreDestroy
+    public void stop() {
+        applier.shutdownNow();
+    }
+
+    private void applyPending() {
+        List<Long> employeeIds;
+        synchronized (pendingIds) {
+            employeeIds = new ArrayList<>(pendingIds);
+            pendingIds.clear();
+            applyScheduled = false;
+        }
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (lock) {
+                Map<Long, EmployeeFacts> facts = factsLoader.load(employeeIds);
+                for (Long employeeId : employeeIds) {
+                    EmployeeFacts current = facts.get(employeeId);
+                    for (EmployeeIndex index : indexes) {
+                        index.update(employeeId, current);
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            // The writes themselves have committed; only the derived indexes are behind
+            log.error("Failed to update employee indexes for employees {}, rebuilding them in {}",
+                    employeeIds, retryDelay, ex);
+            scheduleRebuild(retryDelay);
+        }
+    }
+
+    private void scheduleRebuild(Duration delay) {
+        synchronized (pendingIds) {
+            if (rebuildScheduled) {
+                return;
+            }
+            rebuildScheduled = true;
+        }
+        applier.schedule(this::runScheduledRebuild, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduledRebuild() {
+        synchronized (pendingIds) {
+            // Everything committed so far is loaded by the rebuild
+            pendingIds.clear();
+            rebuildScheduled = false;
+        }
+        try {
+            rebuildAll();
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild employee indexes, retrying in {}", retryDelay, ex);
+            scheduleRebuild(retryDelay);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package org.gga.skills.index;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of the {@link EmployeeFacts} of all employees, read back by memory-mapping the file.
+ * <p>
+ * All numbers are little-endian. A 64-byte header holds the magic number, the format version, the
+ * watermark, the table sizes and a CRC32C of the payload. The payload consists of these sections, in order:
+ * <ol>
+ *     <li>strings: {@code int} end offsets, then the UTF-8 bytes of names, departments and positions</li>
+ *     <li>skill grades: {@code long} IDs, {@code long} skill IDs, {@code int} levels</li>
+ *     <li>job profiles: {@code long} IDs</li>
+ *     <li>employees: {@code long} IDs, {@code int} first name, last name, department and position string
+ *     indexes ({@code -1} for none), {@code int} end offsets into the job profile indexes, then those {@code int} indexes</li>
+ *     <li>postings: per skill grade, {@code int} end offsets, then per grade held the {@code int} employee
+ *     index with the certified flag in the top bit, and the {@code int} years of experience ({@code -1} for
+ *     none)</li>
+ * </ol>
+ * The watermark is the database time when the facts started to be read; every change committed after it
+ * may be missing.
+ */
+final class EmployeeSnapshot {
+
+    private static final int MAGIC = 0x534B4D58;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int CERTIFIED = 1 << 31;
+
+    private final LocalDateTime watermark;
+    private final List<EmployeeFacts> employees;
+
+    private EmployeeSnapshot(LocalDateTime watermark, List<EmployeeFacts> employees) {
+        this.watermark = watermark;
+        this.employees = employees;
+    }
+
+    /**
+     * @return the database time before which every committed change is included
+     */
+    LocalDateTime watermark() {
+        return watermark;
+    }
+
+    /**
+     * @return the facts of all employees, in the order they were written
+     */
+    List<EmployeeFacts> employees() {
+        return employees;
+    }
+
+    /**
+     * Start writing a snapshot. The file is only replaced once the snapshot is complete.
+     *
+     * @param path the snapshot file
+     * @param watermark the database time before reading the first facts
+     */
+    static Writer writer(Path path, LocalDateTime watermark) {
+        return new Writer(path, watermark);
+    }
+
+    /**
+     * Map a snapshot file and decode it.
+     *
+     * @throws IOException if the file can't be read, or it is not a complete snapshot of this version
+     */
+    static EmployeeSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an employee snapshot: " + path + " has " + size + " bytes");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an employee snapshot: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Employee snapshot " + path + " has version " + buffer.getInt(4)
+                        + ", expected " + VERSION);
+            }
+            long payloadBytes = buffer.getLong(40);
+            if (payloadBytes != size - HEADER_BYTES) {
+                throw new IOException("Employee snapshot " + path + " is truncated");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_BYTES, (int) payloadBytes));
+            if (crc.getValue() != buffer.getLong(48)) {
+                throw new IOException("Employee snapshot " + path + " has a wrong checksum");
+            }
+            return decode(buffer);
+        }
+    }
+
+    private static EmployeeSnapshot decode(ByteBuffer buffer) {
+        long watermarkMicros = buffer.getLong(8);
+        LocalDateTime watermark = LocalDateTime.ofEpochSecond(Math.floorDiv(watermarkMicros, 1_000_000), 0,
+                ZoneOffset.UTC).plus(Math.floorMod(watermarkMicros, 1_000_000), ChronoUnit.MICROS);
+        int employeeCount = buffer.getInt(16);
+        int stringCount = buffer.getInt(20);
+        int gradeCount = buffer.getInt(24);
+        int profileCount = buffer.getInt(28);
+        buffer.position(HEADER_BYTES);
+
+        int[] stringEnds = ints(buffer, stringCount);
+        byte[] bytes = new byte[stringCount == 0 ? 0 : stringEnds[stringCount - 1]];
+        buffer.get(bytes);
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            int start = i == 0 ? 0 : stringEnds[i - 1];
+            strings[i] = new String(bytes, start, stringEnds[i] - start, StandardCharsets.UTF_8);
+        }
+
+        long[] gradeIds = longs(buffer, gradeCount);
+        long[] gradeSkillIds = longs(buffer, gradeCount);
+        int[] gradeLevels = ints(buffer, gradeCount);
+        long[] profileIds = longs(buffer, profileCount);
+
+        long[] employeeIds = longs(buffer, employeeCount);
+        int[] firstNames = ints(buffer, employeeCount);
+        int[] lastNames = ints(buffer, employeeCount);
+        int[] departments = ints(buffer, employeeCount);
+        int[] positions = ints(buffer, employeeCount);
+        int[] profileEnds = ints(buffer, employeeCount);
+        int[] profiles = ints(buffer, employeeCount == 0 ? 0 : profileEnds[employeeCount - 1]);
+
+        int[] postingEnds = ints(buffer, gradeCount);
+        int postingCount = gradeCount == 0 ? 0 : postingEnds[gradeCount - 1];
+        int[] postingEmployees = ints(buffer, postingCount);
+        int[] postingYears = ints(buffer, postingCount);
+
+        // Invert the postings into the grades of each employee
+        int[] gradeCounts = new int[employeeCount];
+        for (int posting = 0; posting < postingCount; posting++) {
+            gradeCounts[postingEmployees[posting] & ~CERTIFIED]++;
+        }
+        List<List<EmployeeFacts.Grade>> grades = new ArrayList<>(employeeCount);
+        for (int employee = 0; employee < employeeCount; employee++) {
+            grades.add(new ArrayList<>(gradeCounts[employee]));
+        }
+        for (int grade = 0, posting = 0; grade < gradeCount; grade++) {
+            for (; posting < postingEnds[grade]; posting++) {
+                int employee = postingEmployees[posting] & ~CERTIFIED;
+                boolean certified = (postingEmployees[posting] & CERTIFIED) != 0;
+                Integer years = postingYears[posting] >= 0 ? postingYears[posting] : null;
+                grades.get(employee).add(new EmployeeFacts.Grade(gradeSkillIds[grade], gradeIds[grade],
+                        gradeLevels[grade], certified, years));
+            }
+        }
+
+        List<EmployeeFacts> employees = new ArrayList<>(employeeCount);
+        for (int employee = 0; employee < employeeCount; employee++) {
+            int first = employee == 0 ? 0 : profileEnds[employee - 1];
+            List<Long> jobProfileIds = new ArrayList<>(profileEnds[employee] - first);
+            for (int i = first; i < profileEnds[employee]; i++) {
+                jobProfileIds.add(profileIds[profiles[i]]);
+            }
+            employees.add(new EmployeeFacts(employeeIds[employee],
+                    firstNames[employee] >= 0 ? strings[firstNames[employee]] : null,
+                    lastNames[employee] >= 0 ? strings[lastNames[employee]] : null,
+                    departments[employee] >= 0 ? strings[departments[employee]] : null,
+                    positions[employee] >= 0 ? strings[positions[employee]] : null,
+                    grades.get(employee), jobProfileIds));
+        }
+        return new EmployeeSnapshot(watermark, employees);
+    }
+
+    private static int[] ints(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static long[] longs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        return values;
+    }
+
+    /**
+     * Collects facts into dense tables and writes them on commit, to a temporary file that then replaces
+     * the snapshot.
+     */
+    static final class Writer implements EmployeeIndex.Rebuild {
+
+        private final Path path;
+        private final LocalDateTime watermark;
+
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private final Map<Long, Integer> gradeIndexes = new HashMap<>();
+        private final LongArray gradeIds = new LongArray();
+        private final LongArray gradeSkillIds = new LongArray();
+        private final IntArray gradeLevels = new IntArray();
+        private final Map<Long, Integer> profileIndexes = new HashMap<>();
+        private final LongArray profileIds = new LongArray();
+
+        private final LongArray employeeIds = new LongArray();
+        private final IntArray firstNames = new IntArray();
+        private final IntArray lastNames = new IntArray();
+        private final IntArray departments = new IntArray();
+        private final IntArray positions = new IntArray();
+        private final IntArray profileEnds = new IntArray();
+        private final IntArray profiles = new IntArray();
+
+        private final IntArray postingGrades = new IntArray();
+        private final IntArray postingEmployees = new IntArray();
+        private final IntArray postingYears = new IntArray();
+
+        private Writer(Path path, LocalDateTime watermark) {
+            this.path = path;
+            this.watermark = watermark;
+        }
+
+        @Override
+        public void add(EmployeeFacts facts) {
+            int employee = employeeIds.size();
+            employeeIds.add(facts.id());
+            firstNames.add(stringIndex(facts.firstName()));
+            lastNames.add(stringIndex(facts.lastName()));
+            departments.add(stringIndex(facts.department()));
+            positions.add(stringIndex(facts.position()));
+            for (Long jobProfileId : facts.jobProfileIds()) {
+                profiles.add(profileIndexes.computeIfAbsent(jobProfileId, id -> {
+                    profileIds.add(id);
+                    return profileIds.size() - 1;
+                }));
+            }
+            profileEnds.add(profiles.size());
+            for (EmployeeFacts.Grade grade : facts.grades()) {
+                postingGrades.add(gradeIndexes.computeIfAbsent(grade.skillGradeId(), id -> {
+                    gradeIds.add(id);
+                    gradeSkillIds.add(grade.skillId());
+                    gradeLevels.add(grade.level());
+                    return gradeIds.size() - 1;
+                }));
+                postingEmployees.add(grade.certified() ? employee | CERTIFIED : employee);
+                postingYears.add(grade.yearsOfExperience() != null ? grade.yearsOfExperience() : -1);
+            }
+        }
+
+        /**
+         * Write the snapshot.
+         *
+         * @throws UncheckedIOException if the file can't be written
+         */
+        @Override
+        public void commit() {
+            try {
+                write();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to write employee snapshot " + path, ex);
+            }
+        }
+
+        private void write() throws IOException {
+            // Sort the postings by skill grade, keeping employee order within a grade
+            int gradeCount = gradeIds.size();
+            int postingCount = postingGrades.size();
+            int[] postingEnds = new int[gradeCount];
+            for (int i = 0; i < postingCount; i++) {
+                postingEnds[postingGrades.get(i)]++;
+            }
+            for (int grade = 1; grade < gradeCount; grade++) {
+                postingEnds[grade] += postingEnds[grade - 1];
+            }
+            int[] next = new int[gradeCount];
+            for (int grade = 1; grade < gradeCount; grade++) {
+                next[grade] = postingEnds[grade - 1];
+            }
+            int[] sortedEmployees = new int[postingCount];
+            int[] sortedYears = new int[postingCount];
+            for (int i = 0; i < postingCount; i++) {
+                int slot = next[postingGrades.get(i)]++;
+                sortedEmployees[slot] = postingEmployees.get(i);
+                sortedYears[slot] = postingYears.get(i);
+            }
+
+            int[] stringEnds = new int[strings.size()];
+            int stringBytes = 0;
+            for (int i = 0; i < strings.size(); i++) {
+                stringBytes += strings.get(i).length;
+                stringEnds[i] = stringBytes;
+            }
+            int employeeCount = employeeIds.size();
+            long payloadBytes = (long) strings.size() * Integer.BYTES + stringBytes
+                    + (long) gradeCount * (2 * Long.BYTES + Integer.BYTES)
+                    + (long) profileIds.size() * Long.BYTES
+                    + (long) employeeCount * (Long.BYTES + 5 * Integer.BYTES)
+                    + (long) profiles.size() * Integer.BYTES
+                    + (long) gradeCount * Integer.BYTES
+                    + (long) postingCount * 2 * Integer.BYTES;
+            if (HEADER_BYTES + payloadBytes > Integer.MAX_VALUE) {
+                throw new IOException("Employee snapshot would exceed 2 GiB");
+            }
+
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + payloadBytes);
+                ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+                buffer.position(HEADER_BYTES);
+                putInts(buffer, stringEnds);
+                strings.forEach(buffer::put);
+                putLongs(buffer, gradeIds.toArray());
+                putLongs(buffer, gradeSkillIds.toArray());
+                putInts(buffer, gradeLevels.toArray());
+                putLongs(buffer, profileIds.toArray());
+                putLongs(buffer, employeeIds.toArray());
+                putInts(buffer, firstNames.toArray());
+                putInts(buffer, lastNames.toArray());
+                putInts(buffer, departments.toArray());
+                putInts(buffer, positions.toArray());
+                putInts(buffer, profileEnds.toArray());
+                putInts(buffer, profiles.toArray());
+                putInts(buffer, postingEnds);
+                putInts(buffer, sortedEmployees);
+                putInts(buffer, sortedYears);
+
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.slice(HEADER_BYTES, (int) payloadBytes));
+                long watermarkMicros = watermark.toEpochSecond(ZoneOffset.UTC) * 1_000_000
+                        + watermark.getNano() / 1_000;
+                buffer.putInt(0, MAGIC)
+                        .putInt(4, VERSION)
+                        .putLong(8, watermarkMicros)
+                        .putInt(16, employeeCount)
+                        .putInt(20, strings.size())
+                        .putInt(24, gradeCount)
+                        .putInt(28, profileIds.size())
+                        .putLong(32, postingCount)
+                        .putLong(40, payloadBytes)
+                        .putLong(48, crc.getValue());
+                mapped.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private int stringIndex(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return stringIndexes.computeIfAbsent(value, v -> {
+                strings.add(v.getBytes(StandardCharsets.UTF_8));
+                return strings.size() - 1;
+            });
+        }
+
+        private static void putInts(ByteBuffer buffer, int[] values) {
+            buffer.asIntBuffer().put(values);
+            buffer.position(buffer.position() + values.length * Integer.BYTES);
+        }
+
+        private static void putLongs(ByteBuffer buffer, long[] values) {
+            buffer.asLongBuffer().put(values);
+            buffer.position(buffer.position() + values.length * Long.BYTES);
+        }
+    }
+
+    private static final class IntArray {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class LongArray {
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
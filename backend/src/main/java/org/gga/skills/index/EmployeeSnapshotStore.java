@@ -0,0 +1,129 @@
+package org.gga.skills.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps an {@link EmployeeSnapshot} on local disk so that {@link EmployeeIndexMaintainer} can build the
+ * indexes at startup without loading every employee from the database.
+ * <p>
+ * The snapshot is written after every full rebuild and periodically in between. Snapshots are disabled
+ * when no path is configured.
+ */
+@Component
+public class EmployeeSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSnapshotStore.class);
+
+    private static final int WRITE_BATCH_SIZE = 1_000;
+
+    private final EmployeeFactsLoader factsLoader;
+    private final Path path;
+    private final Duration replayOverlap;
+    private final Duration maxAge;
+    private final Object writeLock = new Object();
+
+    public EmployeeSnapshotStore(EmployeeFactsLoader factsLoader,
+                                 @Value("${skills.snapshot.path:}") String path,
+                                 @Value("${skills.snapshot.replay-overlap:10m}") Duration replayOverlap,
+                                 @Value("${skills.snapshot.max-age:7d}") Duration maxAge) {
+        this.factsLoader = factsLoader;
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.replayOverlap = replayOverlap;
+        this.maxAge = maxAge;
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Read the snapshot, unless it is missing, unreadable or older than the maximum age.
+     *
+     * @param now the current database time
+     */
+    Optional<EmployeeSnapshot> read(LocalDateTime now) {
+        if (path == null || !Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            EmployeeSnapshot snapshot = EmployeeSnapshot.read(path);
+            if (snapshot.watermark().isBefore(now.minus(maxAge))) {
+                log.info("Ignoring employee snapshot {} taken at {}, older than {}", path, snapshot.watermark(),
+                        maxAge);
+                return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable employee snapshot {}", path, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the start of the changes to replay on top of a snapshot; transactions that started before
+     * the watermark may have committed after it
+     */
+    LocalDateTime replayFrom(EmployeeSnapshot snapshot) {
+        return snapshot.watermark().minus(replayOverlap);
+    }
+
+    /**
+     * Start writing a snapshot of the facts added to the returned rebuild. Failures to write are logged.
+     *
+     * @param watermark the database time before the first facts were loaded
+     */
+    EmployeeIndex.Rebuild writer(LocalDateTime watermark) {
+        EmployeeSnapshot.Writer writer = EmployeeSnapshot.writer(path, watermark);
+        return new EmployeeIndex.Rebuild() {
+            @Override
+            public void add(EmployeeFacts facts) {
+                writer.add(facts);
+            }
+
+            @Override
+            public void commit() {
+                long start = System.nanoTime();
+                try {
+                    synchronized (writeLock) {
+                        writer.commit();
+                    }
+                    log.info("Wrote employee snapshot {} as of {} in {} ms", path, watermark,
+                            (System.nanoTime() - start) / 1_000_000);
+                } catch (RuntimeException ex) {
+                    // The previous snapshot stays in place and only makes startup replay more changes
+                    log.error("Failed to write employee snapshot {}", path, ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * Write a fresh snapshot from the database.
+     */
+    @Scheduled(fixedDelayString = "${skills.snapshot.interval:PT30M}",
+            initialDelayString = "${skills.snapshot.interval:PT30M}")
+    public void write() {
+        if (path == null) {
+            return;
+        }
+        try {
+            LocalDateTime watermark = factsLoader.currentTimestamp();
+            EmployeeIndex.Rebuild writer = writer(watermark);
+            factsLoader.forEachBatch(WRITE_BATCH_SIZE, batch -> batch.forEach(writer::add));
+            writer.commit();
+        } catch (RuntimeException ex) {
+            log.error("Failed to load employees for snapshot {}", path, ex);
+        }
+    }
+}
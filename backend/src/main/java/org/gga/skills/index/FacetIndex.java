@@ -0,0 +1,385 @@
+package org.gga.skills.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmap index over employees with one bitmap of employee IDs per facet value.
+ * <p>
+ * Filters are OR-ed within a facet and AND-ed across facets. Facet counts are disjunctive: the counts
+ * of one facet apply every filter except that facet's own, so selecting a department still shows how
+ * many employees the other departments would add.
+ */
+@Component
+public class FacetIndex implements EmployeeIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+
+    @Override
+    public Rebuild startRebuild() {
+        State next = new State();
+        return new Rebuild() {
+            @Override
+            public void add(EmployeeFacts facts) {
+                next.add(facts);
+            }
+
+            @Override
+            public void commit() {
+                next.optimize();
+                lock.writeLock().lock();
+                try {
+                    state = next;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void update(long employeeId, EmployeeFacts facts) {
+        lock.writeLock().lock();
+        try {
+            EmployeeFacts previous = state.facts.remove(toIndexId(employeeId));
+            if (previous != null) {
+                state.remove(previous);
+            }
+            if (facts != null) {
+                state.add(facts);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find matching employees and compute the facet counts for the query.
+     *
+     * @param query the filters, empty filters match everything
+     * @param offset index of the first employee ID to return
+     * @param limit maximum number of employee IDs to return
+     * @return the total match count, one page of matching employee IDs in ascending order and facet counts
+     */
+    public FacetSearchResult search(FacetQuery query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return state.search(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the holders of each of the given skills.
+     *
+     * @param skillIds the skills
+     * @param minLevel only grades of at least this level count, {@code null} for any grade
+     * @return a copy of the employee IDs holding each skill; skills without a holder are absent
+     */
+    public Map<Long, RoaringBitmap> holders(Collection<Long> skillIds, Integer minLevel) {
+        lock.readLock().lock();
+        try {
+            Map<Long, RoaringBitmap> holders = new HashMap<>();
+            for (Long skillId : skillIds) {
+                SkillPostings postings = state.skills.get(skillId);
+                if (postings != null) {
+                    RoaringBitmap atLeast = postings.atLeast(minLevel).clone();
+                    if (!atLeast.isEmpty()) {
+                        holders.put(skillId, atLeast);
+                    }
+                }
+            }
+            return holders;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int toIndexId(long employeeId) {
+        return Math.toIntExact(employeeId);
+    }
+
+    /**
+     * Filters of a faceted search. {@code null} or empty values leave a facet unfiltered.
+     *
+     * @param departments employees in any of these departments
+     * @param positions employees in any of these positions
+     * @param jobProfileIds employees assigned any of these job profiles
+     * @param skillId employees holding a grade of this skill
+     * @param minLevel with {@code skillId}, only grades of at least this level count
+     * @param certified whether the matching grade (or, without {@code skillId}, any grade) is certified
+     */
+    public record FacetQuery(Set<String> departments, Set<String> positions, Set<Long> jobProfileIds,
+                             Long skillId, Integer minLevel, Boolean certified) {
+    }
+
+    /**
+     * Result of a faceted search. Facet count maps contain every value with at least one match.
+     */
+    public record FacetSearchResult(int total, List<Long> employeeIds,
+                                    Map<String, Integer> departments, Map<String, Integer> positions,
+                                    Map<Long, Integer> jobProfiles, Map<Long, Integer> skills,
+                                    Map<Integer, Integer> levels, Map<Boolean, Integer> certified) {
+    }
+
+    private static final class State {
+
+        final Map<Integer, EmployeeFacts> facts = new HashMap<>();
+        final RoaringBitmap all = new RoaringBitmap();
+        final RoaringBitmap certified = new RoaringBitmap();
+        final Map<String, RoaringBitmap> departments = new HashMap<>();
+        final Map<String, RoaringBitmap> positions = new HashMap<>();
+        final Map<Long, RoaringBitmap> jobProfiles = new HashMap<>();
+        final Map<Long, SkillPostings> skills = new HashMap<>();
+
+        void add(EmployeeFacts employee) {
+            int id = toIndexId(employee.id());
+            facts.put(id, employee);
+            all.add(id);
+            if (employee.department() != null) {
+                departments.computeIfAbsent(employee.department(), key -> new RoaringBitmap()).add(id);
+            }
+            if (employee.position() != null) {
+                positions.computeIfAbsent(employee.position(), key -> new RoaringBitmap()).add(id);
+            }
+            for (Long jobProfileId : employee.jobProfileIds()) {
+                jobProfiles.computeIfAbsent(jobProfileId, key -> new RoaringBitmap()).add(id);
+            }
+            for (EmployeeFacts.Grade grade : employee.grades()) {
+                skills.computeIfAbsent(grade.skillId(), key -> new SkillPostings()).add(id, grade);
+                if (grade.certified()) {
+                    certified.add(id);
+                }
+            }
+        }
+
+        void remove(EmployeeFacts employee) {
+            int id = toIndexId(employee.id());
+            all.remove(id);
+            certified.remove(id);
+            removeFrom(departments, employee.department(), id);
+            removeFrom(positions, employee.position(), id);
+            for (Long jobProfileId : employee.jobProfileIds()) {
+                removeFrom(jobProfiles, jobProfileId, id);
+            }
+            for (EmployeeFacts.Grade grade : employee.grades()) {
+                SkillPostings postings = skills.get(grade.skillId());
+                if (postings != null && postings.remove(id)) {
+                    skills.remove(grade.skillId());
+                }
+            }
+        }
+
+        void optimize() {
+            all.runOptimize();
+            certified.runOptimize();
+            departments.values().forEach(RoaringBitmap::runOptimize);
+            positions.values().forEach(RoaringBitmap::runOptimize);
+            jobProfiles.values().forEach(RoaringBitmap::runOptimize);
+            skills.values().forEach(SkillPostings::optimize);
+        }
+
+        FacetSearchResult search(FacetQuery query, int offset, int limit) {
+            RoaringBitmap departmentFilter = union(departments, query.departments());
+            RoaringBitmap positionFilter = union(positions, query.positions());
+            RoaringBitmap jobProfileFilter = union(jobProfiles, query.jobProfileIds());
+
+            SkillPostings postings = query.skillId() != null ? skills.get(query.skillId()) : null;
+            // Employees in scope of the skill criterion, and the certified ones among them
+            RoaringBitmap skillScope;
+            RoaringBitmap certifiedScope;
+            if (query.skillId() != null) {
+                skillScope = postings != null ? postings.atLeast(query.minLevel()) : new RoaringBitmap();
+                certifiedScope = postings != null ? postings.certifiedAtLeast(query.minLevel()) : new RoaringBitmap();
+            } else {
+                skillScope = all;
+                certifiedScope = certified;
+            }
+            RoaringBitmap skillFilter = skillFilter(query, skillScope, certifiedScope);
+
+            RoaringBitmap attributes = intersect(departmentFilter, positionFilter, jobProfileFilter);
+            RoaringBitmap matches = intersect(attributes, skillFilter);
+
+            Map<String, Integer> departmentCounts = counts(departments,
+                    intersect(positionFilter, jobProfileFilter, skillFilter));
+            Map<String, Integer> positionCounts = counts(positions,
+                    intersect(departmentFilter, jobProfileFilter, skillFilter));
+            Map<Long, Integer> jobProfileCounts = counts(jobProfiles,
+                    intersect(departmentFilter, positionFilter, skillFilter));
+
+            Map<Long, Integer> skillCounts = new HashMap<>();
+            for (Map.Entry<Long, SkillPostings> entry : skills.entrySet()) {
+                putIfPositive(skillCounts, entry.getKey(), RoaringBitmap.andCardinality(entry.getValue().holders, attributes));
+            }
+
+            Map<Integer, Integer> levelCounts = new TreeMap<>();
+            if (postings != null) {
+                for (Map.Entry<Integer, RoaringBitmap> entry : postings.byLevel.entrySet()) {
+                    RoaringBitmap atLevel = entry.getValue();
+                    if (Boolean.TRUE.equals(query.certified())) {
+                        atLevel = postings.certifiedByLevel.getOrDefault(entry.getKey(), new RoaringBitmap());
+                    } else if (Boolean.FALSE.equals(query.certified())) {
+                        atLevel = RoaringBitmap.andNot(atLevel, postings.certifiedAtLeast(null));
+                    }
+                    putIfPositive(levelCounts, entry.getKey(), RoaringBitmap.andCardinality(atLevel, attributes));
+                }
+            }
+
+            Map<Boolean, Integer> certifiedCounts = new LinkedHashMap<>();
+            int certifiedCount = RoaringBitmap.andCardinality(certifiedScope, attributes);
+            putIfPositive(certifiedCounts, true, certifiedCount);
+            putIfPositive(certifiedCounts, false,
+                    RoaringBitmap.andNotCardinality(RoaringBitmap.and(skillScope, attributes), certifiedScope));
+
+            return new FacetSearchResult(matches.getCardinality(), page(matches, offset, limit),
+                    departmentCounts, positionCounts, jobProfileCounts, skillCounts, levelCounts, certifiedCounts);
+        }
+
+        private RoaringBitmap skillFilter(FacetQuery query, RoaringBitmap skillScope, RoaringBitmap certifiedScope) {
+            if (Boolean.TRUE.equals(query.certified())) {
+                return certifiedScope;
+            }
+            if (Boolean.FALSE.equals(query.certified())) {
+                return RoaringBitmap.andNot(skillScope, certifiedScope);
+            }
+            return query.skillId() != null ? skillScope : null;
+        }
+
+        /**
+         * Intersect the given filters with all employees; {@code null} filters are ignored.
+         */
+        private RoaringBitmap intersect(RoaringBitmap... filters) {
+            RoaringBitmap result = all;
+            for (RoaringBitmap filter : filters) {
+                if (filter != null) {
+                    result = RoaringBitmap.and(result, filter);
+                }
+            }
+            return result;
+        }
+
+        private static <K> RoaringBitmap union(Map<K, RoaringBitmap> bitmaps, Collection<K> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            List<RoaringBitmap> selected = new ArrayList<>(values.size());
+            for (K value : values) {
+                RoaringBitmap bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    selected.add(bitmap);
+                }
+            }
+            return selected.isEmpty() ? new RoaringBitmap() : FastAggregation.or(selected.iterator());
+        }
+
+        private static <K> Map<K, Integer> counts(Map<K, RoaringBitmap> bitmaps, RoaringBitmap base) {
+            Map<K, Integer> counts = new HashMap<>();
+            for (Map.Entry<K, RoaringBitmap> entry : bitmaps.entrySet()) {
+                putIfPositive(counts, entry.getKey(), RoaringBitmap.andCardinality(entry.getValue(), base));
+            }
+            return counts;
+        }
+
+        private static <K> void putIfPositive(Map<K, Integer> counts, K key, int count) {
+            if (count > 0) {
+                counts.put(key, count);
+            }
+        }
+
+        private static List<Long> page(RoaringBitmap matches, int offset, int limit) {
+            List<Long> ids = new ArrayList<>(Math.min(limit, Math.max(matches.getCardinality() - offset, 0)));
+            if (offset >= matches.getCardinality()) {
+                return ids;
+            }
+            PeekableIntIterator iterator = matches.getIntIterator();
+            iterator.advanceIfNeeded(matches.select(offset));
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add((long) iterator.next());
+            }
+            return ids;
+        }
+
+        private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+            if (key == null) {
+                return;
+            }
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Holders of one skill, overall and per grade level.
+     */
+    private static final class SkillPostings {
+
+        final RoaringBitmap holders = new RoaringBitmap();
+        final NavigableMap<Integer, RoaringBitmap> byLevel = new TreeMap<>();
+        final NavigableMap<Integer, RoaringBitmap> certifiedByLevel = new TreeMap<>();
+
+        void add(int id, EmployeeFacts.Grade grade) {
+            holders.add(id);
+            byLevel.computeIfAbsent(grade.level(), key -> new RoaringBitmap()).add(id);
+            if (grade.certified()) {
+                certifiedByLevel.computeIfAbsent(grade.level(), key -> new RoaringBitmap()).add(id);
+            }
+        }
+
+        /**
+         * Remove the employee from every posting of this skill.
+         *
+         * @return whether the skill no longer has any holder
+         */
+        boolean remove(int id) {
+            holders.remove(id);
+            byLevel.values().removeIf(bitmap -> {
+                bitmap.remove(id);
+                return bitmap.isEmpty();
+            });
+            certifiedByLevel.values().removeIf(bitmap -> {
+                bitmap.remove(id);
+                return bitmap.isEmpty();
+            });
+            return holders.isEmpty();
+        }
+
+        RoaringBitmap atLeast(Integer minLevel) {
+            return minLevel == null ? holders : or(byLevel.tailMap(minLevel, true).values());
+        }
+
+        RoaringBitmap certifiedAtLeast(Integer minLevel) {
+            return or(minLevel == null ? certifiedByLevel.values() : certifiedByLevel.tailMap(minLevel, true).values());
+        }
+
+        void optimize() {
+            holders.runOptimize();
+            byLevel.values().forEach(RoaringBitmap::runOptimize);
+            certifiedByLevel.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        private static RoaringBitmap or(Collection<RoaringBitmap> bitmaps) {
+            return bitmaps.isEmpty() ? new RoaringBitmap() : FastAggregation.or(bitmaps.iterator());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.gga.skills.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Compressed trie from keys to weighted IDs, answering the highest weighted IDs under a prefix.
+ * <p>
+ * Edges are labelled with whole key fragments, and nodes with a single child and no IDs are merged into
+ * it, so the trie has at most twice as many nodes as keys. Every node keeps its best entry below it: the
+ * highest weight, and the lowest ID with that weight. A query walks down to the prefix, then expands
+ * nodes best first by that entry and stops after {@code limit} distinct IDs, so it touches only a few
+ * nodes per result however many keys share the prefix.
+ * Not thread-safe.
+ */
+final class PrefixTrie {
+
+    private static final long[] NO_IDS = {};
+    private static final int[] NO_WEIGHTS = {};
+    private static final Node[] NO_CHILDREN = {};
+
+    private final Node root = new Node("");
+
+    /**
+     * Add an ID under a key. An ID may be added under several keys, but only once per key.
+     */
+    void add(String key, long id, int weight) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int depth = 0;
+        path.add(node);
+        while (depth < key.length()) {
+            int slot = node.childSlot(key.charAt(depth));
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(depth));
+                node.insertChild(-slot - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefix(child.edge, key, depth);
+            if (common < child.edge.length()) {
+                // Split the edge where the key leaves it
+                Node split = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                split.children = new Node[] {child};
+                split.max = child.max;
+                split.best = child.best;
+                node.children[slot] = split;
+                child = split;
+            }
+            node = child;
+            depth += common;
+            path.add(node);
+        }
+        node.addId(id, weight);
+        for (Node onPath : path) {
+            onPath.offer(weight, id);
+        }
+    }
+
+    /**
+     * Remove an ID from under a key, if it is there.
+     */
+    void remove(String key, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int depth = 0;
+        path.add(node);
+        while (depth < key.length()) {
+            int slot = node.childSlot(key.charAt(depth));
+            if (slot < 0 || !key.startsWith(node.children[slot].edge, depth)) {
+                return;
+            }
+            node = node.children[slot];
+            depth += node.edge.length();
+            path.add(node);
+        }
+        if (!node.removeId(id)) {
+            return;
+        }
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.ids.length == 0 && current.children.length == 0) {
+                parent.removeChild(current);
+            } else if (current.ids.length == 0 && current.children.length == 1) {
+                // Merge into the only child to keep the trie compressed
+                Node child = current.children[0];
+                child.edge = current.edge + child.edge;
+                parent.children[parent.childSlot(current.edge.charAt(0))] = child;
+            } else {
+                current.updateMax();
+            }
+        }
+        root.updateMax();
+    }
+
+    /**
+     * Find the highest weighted IDs under keys starting with a prefix. Ties go to the lower ID.
+     *
+     * @return up to {@code limit} distinct IDs by descending weight
+     */
+    long[] top(String prefix, int limit) {
+        Node node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int slot = node.childSlot(prefix.charAt(depth));
+            if (slot < 0) {
+                return NO_IDS;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefix(child.edge, prefix, depth);
+            if (common < child.edge.length() && depth + common < prefix.length()) {
+                return NO_IDS;
+            }
+            node = child;
+            depth += common;
+        }
+
+        // Candidates are single IDs, or nodes ranked by their best entry
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        Set<Long> seen = new HashSet<>();
+        long[] result = new long[limit];
+        int found = 0;
+        if (node.max >= 0) {
+            queue.add(new Candidate(node.max, node.best, node));
+        }
+        while (found < limit && !queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            if (candidate.node == null) {
+                if (seen.add(candidate.id)) {
+                    result[found++] = candidate.id;
+                }
+                continue;
+            }
+            for (int i = 0; i < candidate.node.ids.length; i++) {
+                queue.add(new Candidate(candidate.node.weights[i], candidate.node.ids[i], null));
+            }
+            for (Node child : candidate.node.children) {
+                queue.add(new Candidate(child.max, child.best, child));
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int length = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * An ID to return, or a node to expand ranked by its best entry.
+     */
+    private record Candidate(int weight, long id, Node node) implements Comparable<Candidate> {
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (weight != other.weight) {
+                return Integer.compare(other.weight, weight);
+            }
+            return Long.compare(id, other.id);
+        }
+    }
+
+    private static final class Node {
+
+        String edge;
+        Node[] children = NO_CHILDREN;
+        long[] ids = NO_IDS;
+        int[] weights = NO_WEIGHTS;
+        int max = -1;
+        long best;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        /**
+         * @return the slot of the child whose edge starts with the character, or
+         * {@code -(insertion slot) - 1}
+         */
+        int childSlot(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midFirst = children[mid].edge.charAt(0);
+                if (midFirst < first) {
+                    low = mid + 1;
+                } else if (midFirst > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+
+        void insertChild(int slot, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, slot);
+            grown[slot] = child;
+            System.arraycopy(children, slot, grown, slot + 1, children.length - slot);
+            children = grown;
+        }
+
+        void removeChild(Node child) {
+            int slot = childSlot(child.edge.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, slot);
+            System.arraycopy(children, slot + 1, shrunk, slot, children.length - slot - 1);
+            children = shrunk;
+        }
+
+        void addId(long id, int weight) {
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            weights = Arrays.copyOf(weights, weights.length + 1);
+            ids[ids.length - 1] = id;
+            weights[weights.length - 1] = weight;
+        }
+
+        boolean removeId(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    ids = remove(ids, i);
+                    int[] shrunk = new int[weights.length - 1];
+                    System.arraycopy(weights, 0, shrunk, 0, i);
+                    System.arraycopy(weights, i + 1, shrunk, i, weights.length - i - 1);
+                    weights = shrunk;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Make an entry below this node its best entry if it ranks higher.
+         */
+        void offer(int weight, long id) {
+            if (weight > max || weight == max && id < best) {
+                max = weight;
+                best = id;
+            }
+        }
+
+        void updateMax() {
+            max = -1;
+            for (int i = 0; i < ids.length; i++) {
+                offer(weights[i], ids[i]);
+            }
+            for (Node child : children) {
+                if (child.max >= 0) {
+                    offer(child.max, child.best);
+                }
+            }
+        }
+
+        private static long[] remove(long[] values, int index) {
+            long[] shrunk = new long[values.length - 1];
+            System.arraycopy(values, 0, shrunk, 0, index);
+            System.arraycopy(values, index + 1, shrunk, index, values.length - index - 1);
+            return shrunk;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.gga.skills.index;
+
+/**
+ * Plain loops, left to the JIT's auto-vectorization.
+ */
+final class ScalarSimilarityKernel implements SimilarityKernel {
+
+    @Override
+    public void accumulate(float[] scores, int[] slots, float[] weights, int length, float weight) {
+        for (int i = 0; i < length; i++) {
+            scores[slots[i]] += weight * weights[i];
+        }
+    }
+
+    @Override
+    public void scale(float[] scores, float[] factors, int length) {
+        for (int i = 0; i < length; i++) {
+            scores[i] *= factors[i];
+        }
+    }
+
+    @Override
+    public int nextAtLeast(float[] scores, int from, int length, float threshold) {
+        for (int i = from; i < length; i++) {
+            if (scores[i] >= threshold) {
+                return i;
+            }
+        }
+        return length;
+    }
+}
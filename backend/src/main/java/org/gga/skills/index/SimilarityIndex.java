@@ -0,0 +1,353 @@
+package org.gga.skills.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Skill vectors of all employees for cosine similarity search.
+ * <p>
+ * Each employee is a sparse vector over skills. The weight of a skill is
+ * {@code level * (1 + ln(1 + yearsOfExperience))}, multiplied by {@value #CERTIFIED_FACTOR} if the grade
+ * is certified. If an employee holds several grades of one skill, the highest weight counts.
+ * <p>
+ * Vectors are stored in primitive arrays by slot, and an inverted index holds the slots and weights of
+ * the holders of each skill. A search only walks the postings of the skills the employee holds, so
+ * employees without a common skill are never scored. The arithmetic uses the JDK Vector API when built
+ * with the {@code vector} Maven profile and started with {@code --add-modules jdk.incubator.vector}.
+ */
+@Component
+public class SimilarityIndex implements EmployeeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarityIndex.class);
+
+    private static final float CERTIFIED_FACTOR = 1.5f;
+
+    private final SimilarityKernel kernel = SimilarityKernel.create();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+
+    public SimilarityIndex() {
+        log.info("Similarity search uses the {} kernel", kernel instanceof ScalarSimilarityKernel ? "scalar" : "vector");
+    }
+
+    @Override
+    public Rebuild startRebuild() {
+        State next = new State();
+        return new Rebuild() {
+            @Override
+            public void add(EmployeeFacts facts) {
+                next.put(facts);
+            }
+
+            @Override
+            public void commit() {
+                lock.writeLock().lock();
+                try {
+                    state = next;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void update(long employeeId, EmployeeFacts facts) {
+        lock.writeLock().lock();
+        try {
+            if (facts != null) {
+                state.put(facts);
+            } else {
+                state.remove(employeeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the employees whose skill vectors are most similar to the given employee's.
+     *
+     * @param employeeId the employee to compare with
+     * @param limit maximum number of employees to return
+     * @return the most similar other employees, by descending similarity and then ascending ID, or empty
+     * if the employee is unknown. Employees without a skill in common are never returned.
+     */
+    public Optional<List<Match>> findSimilar(long employeeId, int limit) {
+        lock.readLock().lock();
+        try {
+            return state.findSimilar(employeeId, limit, kernel);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One similar employee.
+     *
+     * @param employeeId the employee ID
+     * @param similarity the cosine similarity, in {@code (0, 1]}
+     */
+    public record Match(long employeeId, double similarity) {
+    }
+
+    static float weight(EmployeeFacts.Grade grade) {
+        int years = grade.yearsOfExperience() != null ? Math.max(0, grade.yearsOfExperience()) : 0;
+        float weight = grade.level() * (float) (1 + Math.log1p(years));
+        return grade.certified() ? weight * CERTIFIED_FACTOR : weight;
+    }
+
+    private static final class State {
+
+        private static final int INITIAL_CAPACITY = 1_024;
+
+        final Map<Long, Integer> slots = new HashMap<>();
+        final Map<Long, Postings> postings = new HashMap<>();
+        // Free slots have ID 0 and an inverse norm of 0, so they never score
+        long[] employeeIds = new long[INITIAL_CAPACITY];
+        long[][] skillIds = new long[INITIAL_CAPACITY][];
+        float[][] weights = new float[INITIAL_CAPACITY][];
+        float[] inverseNorms = new float[INITIAL_CAPACITY];
+        int slotCount;
+        int[] freeSlots = new int[16];
+        int freeCount;
+
+        void put(EmployeeFacts employee) {
+            Integer existing = slots.get(employee.id());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unindex(slot);
+            } else {
+                slot = allocate();
+                slots.put(employee.id(), slot);
+            }
+
+            Map<Long, Float> vector = new TreeMap<>();
+            for (EmployeeFacts.Grade grade : employee.grades()) {
+                vector.merge(grade.skillId(), weight(grade), Math::max);
+            }
+            long[] skills = new long[vector.size()];
+            float[] values = new float[vector.size()];
+            double squares = 0;
+            int i = 0;
+            for (Map.Entry<Long, Float> entry : vector.entrySet()) {
+                skills[i] = entry.getKey();
+                values[i] = entry.getValue();
+                squares += (double) values[i] * values[i];
+                postings.computeIfAbsent(skills[i], key -> new Postings()).add(slot, values[i]);
+                i++;
+            }
+            employeeIds[slot] = employee.id();
+            skillIds[slot] = skills;
+            weights[slot] = values;
+            inverseNorms[slot] = squares > 0 ? (float) (1 / Math.sqrt(squares)) : 0;
+        }
+
+        void remove(long employeeId) {
+            Integer slot = slots.remove(employeeId);
+            if (slot == null) {
+                return;
+            }
+            unindex(slot);
+            employeeIds[slot] = 0;
+            skillIds[slot] = null;
+            weights[slot] = null;
+            inverseNorms[slot] = 0;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        Optional<List<Match>> findSimilar(long employeeId, int limit, SimilarityKernel kernel) {
+            Integer slot = slots.get(employeeId);
+            if (slot == null) {
+                return Optional.empty();
+            }
+            long[] skills = skillIds[slot];
+            float[] values = weights[slot];
+            if (skills.length == 0 || limit <= 0) {
+                return Optional.of(List.of());
+            }
+
+            float[] scores = new float[slotCount];
+            for (int i = 0; i < skills.length; i++) {
+                Postings holders = postings.get(skills[i]);
+                kernel.accumulate(scores, holders.slots, holders.weights, holders.size, values[i]);
+            }
+            kernel.scale(scores, inverseNorms, slotCount);
+            scores[slot] = 0;
+
+            TopK top = new TopK(limit);
+            // Once the heap is full, whole vectors of scores below its minimum are skipped
+            for (int candidate = kernel.nextAtLeast(scores, 0, slotCount, top.threshold());
+                 candidate < slotCount;
+                 candidate = kernel.nextAtLeast(scores, candidate + 1, slotCount, top.threshold())) {
+                top.offer(scores[candidate], employeeIds[candidate]);
+            }
+            return Optional.of(top.toMatches(inverseNorms[slot]));
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (slotCount == employeeIds.length) {
+                int capacity = slotCount * 2;
+                employeeIds = Arrays.copyOf(employeeIds, capacity);
+                skillIds = Arrays.copyOf(skillIds, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                inverseNorms = Arrays.copyOf(inverseNorms, capacity);
+            }
+            return slotCount++;
+        }
+
+        private void unindex(int slot) {
+            for (long skillId : skillIds[slot]) {
+                Postings holders = postings.get(skillId);
+                if (holders != null && holders.remove(slot)) {
+                    postings.remove(skillId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Slots and weights of the holders of one skill, in no particular order.
+     */
+    private static final class Postings {
+
+        int[] slots = new int[8];
+        float[] weights = new float[8];
+        int size;
+
+        void add(int slot, float weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * Remove the slot by moving the last posting into its place.
+         *
+         * @return whether no holder is left
+         */
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    weights[i] = weights[size];
+                    break;
+                }
+            }
+            return size == 0;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best scores so far. Ties are broken by ascending employee ID.
+     */
+    private static final class TopK {
+
+        final float[] scores;
+        final long[] ids;
+        int size;
+
+        TopK(int limit) {
+            scores = new float[limit];
+            ids = new long[limit];
+        }
+
+        void offer(float score, long id) {
+            if (size < scores.length) {
+                set(size, score, id);
+                siftUp(size++);
+            } else if (worse(0, score, id)) {
+                set(0, score, id);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * @return the smallest score that can still enter the heap
+         */
+        float threshold() {
+            return size < scores.length ? Float.MIN_VALUE : scores[0];
+        }
+
+        List<Match> toMatches(float queryInverseNorm) {
+            List<Match> matches = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                // Rounding can push identical vectors just over 1
+                matches.add(new Match(ids[i], Math.min(1.0, (double) scores[i] * queryInverseNorm)));
+            }
+            matches.sort((a, b) -> a.similarity() != b.similarity()
+                    ? Double.compare(b.similarity(), a.similarity())
+                    : Long.compare(a.employeeId(), b.employeeId()));
+            return matches;
+        }
+
+        /**
+         * @return whether the entry at {@code index} ranks below the given score and ID
+         */
+        private boolean worse(int index, float score, long id) {
+            return scores[index] < score || (scores[index] == score && ids[index] > id);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!worse(index, scores[parent], ids[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    if (worse(child, scores[smallest], ids[smallest])) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void set(int index, float score, long id) {
+            scores[index] = score;
+            ids[index] = id;
+        }
+
+        private void swap(int a, int b) {
+            float score = scores[a];
+            long id = ids[a];
+            set(a, scores[b], ids[b]);
+            set(b, score, id);
+        }
+    }
+}
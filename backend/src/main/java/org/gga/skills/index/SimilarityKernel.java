@@ -0,0 +1,46 @@
+package org.gga.skills.index;
+
+/**
+ * The arithmetic of {@link SimilarityIndex} over primitive arrays, with a scalar implementation and one
+ * that uses the JDK Vector API. The vector kernel is only compiled by the {@code vector} Maven profile,
+ * from {@code src/vector/java}, and only used when the {@code jdk.incubator.vector} module is present.
+ */
+interface SimilarityKernel {
+
+    String VECTOR_KERNEL = "org.gga.skills.index.VectorSimilarityKernel";
+
+    /**
+     * Add {@code weight * weights[i]} to {@code scores[slots[i]]} for every {@code i < length}.
+     * The slots must be distinct.
+     */
+    void accumulate(float[] scores, int[] slots, float[] weights, int length, float weight);
+
+    /**
+     * Multiply {@code scores[i]} by {@code factors[i]} for every {@code i < length}.
+     */
+    void scale(float[] scores, float[] factors, int length);
+
+    /**
+     * @return the smallest {@code i} with {@code from <= i < length} and {@code scores[i] >= threshold},
+     * or {@code length} if there is none
+     */
+    int nextAtLeast(float[] scores, int from, int length, float threshold);
+
+    /**
+     * @return the vectorized kernel if it was built and the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}, the scalar one otherwise
+     */
+    static SimilarityKernel create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new ScalarSimilarityKernel();
+        }
+        try {
+            return (SimilarityKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException ex) {
+            // Built without the vector profile
+            return new ScalarSimilarityKernel();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create " + VECTOR_KERNEL, ex);
+        }
+    }
+}
@@ -3,12 +3,15 @@ package org.gga.skills.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@DynamicUpdate
 @Table(name = "employee_skill_grade", uniqueConstraints = {
     @UniqueConstraint(name = "uk_employee_skill_grade", columnNames = {"employee_id", "skill_grade_id"})
 })
@@ -39,6 +42,9 @@ public class EmployeeSkillGrade {
     @Column(name = "certified", nullable = false)
     private Boolean certified = false;
 
+    // Comments are only read when accessed, both in one select (requires bytecode enhancement)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("comments")
     @Column(name = "employee_comment", columnDefinition = "TEXT")
     private String employeeComment;
 
@@ -46,6 +52,8 @@ public class EmployeeSkillGrade {
     @JoinColumn(name = "reviewed_by_employee_id")
     private Employee reviewedBy;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("comments")
     @Column(name = "reviewer_comment", columnDefinition = "TEXT")
     private String reviewerComment;
 
@@ -55,6 +63,10 @@ public class EmployeeSkillGrade {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -158,6 +170,10 @@ public class EmployeeSkillGrade {
         return updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
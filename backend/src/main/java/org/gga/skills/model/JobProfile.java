@@ -20,6 +20,8 @@ public class JobProfile {
     @Column(name = "name", nullable = false, unique = true, length = 100)
     private String name;
 
+    // Only read when accessed, keeps list queries narrow (requires bytecode enhancement)
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
@@ -98,7 +100,6 @@ public class JobProfile {
         return "JobProfile{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
-                ", description='" + description + '\'' +
                 '}';
     }
 }
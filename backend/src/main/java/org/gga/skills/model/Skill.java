@@ -20,6 +20,8 @@ public class Skill {
     @Column(name = "name", nullable = false, unique = true, length = 100)
     private String name;
 
+    // Only read when accessed, keeps list queries narrow (requires bytecode enhancement)
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
@@ -97,7 +99,6 @@ public class Skill {
         return "Skill{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
-                ", description='" + description + '\'' +
                 '}';
     }
 }
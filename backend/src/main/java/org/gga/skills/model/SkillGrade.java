@@ -1,14 +1,17 @@
 package org.gga.skills.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@DynamicUpdate
 @Table(name = "skill_grade", uniqueConstraints = {
     @UniqueConstraint(name = "uk_skill_grade_skill_code", columnNames = {"skill_id", "code"})
 })
@@ -32,12 +35,21 @@ public class SkillGrade {
     @Column(name = "description", length = 255)
     private String description;
 
+    @NotNull
+    @Min(0)
+    @Column(name = "level", nullable = false)
+    private Integer level;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -52,10 +64,11 @@ public class SkillGrade {
     public SkillGrade() {
     }
 
-    public SkillGrade(Skill skill, String code, String description) {
+    public SkillGrade(Skill skill, String code, String description, Integer level) {
         this.skill = skill;
         this.code = code;
         this.description = description;
+        this.level = level;
     }
 
     public Long getId() {
@@ -90,6 +103,14 @@ public class SkillGrade {
         this.description = description;
     }
 
+    public Integer getLevel() {
+        return level;
+    }
+
+    public void setLevel(Integer level) {
+        this.level = level;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -98,6 +119,10 @@ public class SkillGrade {
         return updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -117,6 +142,7 @@ public class SkillGrade {
                 "id=" + id +
                 ", code='" + code + '\'' +
                 ", description='" + description + '\'' +
+                ", level=" + level +
                 '}';
     }
 }
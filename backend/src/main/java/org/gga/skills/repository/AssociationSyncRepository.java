@@ -0,0 +1,127 @@
+package org.gga.skills.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based statements for replacing the members of a many-to-many association: each call is a
+ * single statement, whatever the number of members. The statements use PostgreSQL arrays.
+ */
+@Repository
+public class AssociationSyncRepository {
+
+    /**
+     * Association tables that can be synchronized, described by their owner and member columns.
+     */
+    public enum Association {
+        JOB_PROFILE_SKILLS("job_profile", "job_profile_skill", "job_profile_id", "skill", "skill_id"),
+        JOB_PROFILE_EMPLOYEES("job_profile", "employee_job_profile", "job_profile_id", "employee", "employee_id");
+
+        private final String ownerTable;
+        private final String table;
+        private final String ownerColumn;
+        private final String memberTable;
+        private final String memberColumn;
+
+        Association(String ownerTable, String table, String ownerColumn, String memberTable, String memberColumn) {
+            this.ownerTable = ownerTable;
+            this.table = table;
+            this.ownerColumn = ownerColumn;
+            this.memberTable = memberTable;
+            this.memberColumn = memberColumn;
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AssociationSyncRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lock the owner row until the end of the transaction, so concurrent syncs of the same owner
+     * don't interleave. The lock doesn't block foreign key checks of other writers.
+     *
+     * @return whether the owner exists
+     */
+    public boolean lockOwner(Association association, Long ownerId) {
+        return !jdbcTemplate.queryForList(
+                "SELECT id FROM " + association.ownerTable + " WHERE id = :id FOR NO KEY UPDATE",
+                new MapSqlParameterSource("id", ownerId), Long.class).isEmpty();
+    }
+
+    /**
+     * @return the association row IDs of the owner, keyed by member ID
+     */
+    public Map<Long, Long> findRowIdsByMember(Association association, Long ownerId) {
+        Map<Long, Long> rowIds = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT " + association.memberColumn + ", id FROM " + association.table +
+                        " WHERE " + association.ownerColumn + " = :ownerId",
+                new MapSqlParameterSource("ownerId", ownerId),
+                rs -> {
+                    rowIds.put(rs.getLong(1), rs.getLong(2));
+                });
+        return rowIds;
+    }
+
+    /**
+     * @return the given member IDs that exist
+     */
+    public Set<Long> findExistingMembers(Association association, Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + association.memberTable + " WHERE id = ANY(:ids)",
+                new MapSqlParameterSource("ids", toArray(memberIds)), Long.class));
+    }
+
+    /**
+     * Delete association rows by ID.
+     *
+     * @return the number of deleted rows
+     */
+    public int deleteRows(Association association, Collection<Long> rowIds) {
+        if (rowIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM " + association.table + " WHERE id = ANY(:ids)",
+                new MapSqlParameterSource("ids", toArray(rowIds)));
+    }
+
+    /**
+     * Add members to the owner. Members that are already associated are skipped.
+     *
+     * @return the IDs of the members that were added
+     */
+    public List<Long> insertMembers(Association association, Long ownerId, Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ownerId", ownerId)
+                .addValue("memberIds", toArray(memberIds))
+                .addValue("createdAt", LocalDateTime.now());
+        return jdbcTemplate.queryForList(
+                "INSERT INTO " + association.table +
+                        " (" + association.ownerColumn + ", " + association.memberColumn + ", created_at)" +
+                        " SELECT :ownerId, member_id, :createdAt FROM unnest(CAST(:memberIds AS bigint[])) AS member_id" +
+                        " ON CONFLICT DO NOTHING RETURNING " + association.memberColumn,
+                params, Long.class);
+    }
+
+    private static Long[] toArray(Collection<Long> ids) {
+        return ids.toArray(Long[]::new);
+    }
+}
@@ -1,19 +1,43 @@
 package org.gga.skills.repository;
 
 import org.gga.skills.model.EmployeeJobProfile;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EmployeeJobProfileRepository extends JpaRepository<EmployeeJobProfile, Long> {
 
+    @EntityGraph(attributePaths = "jobProfile")
     List<EmployeeJobProfile> findByEmployeeId(Long employeeId);
 
     List<EmployeeJobProfile> findByJobProfileId(Long jobProfileId);
 
+    @Query("SELECT ejp.employee.id FROM EmployeeJobProfile ejp WHERE ejp.jobProfile.id = :jobProfileId")
+    List<Long> findEmployeeIdsByJobProfileId(@Param("jobProfileId") Long jobProfileId);
+
+    @EntityGraph(attributePaths = "jobProfile")
+    List<EmployeeJobProfile> findByEmployeeIdIn(Collection<Long> employeeIds);
+
+    /**
+     * Find the first assignments by employee ID of each of the given job profiles. Each profile's are read
+     * from the start of its {@code (job_profile_id, employee_id)} index without ranking all of them.
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT ejp FROM EmployeeJobProfile ejp WHERE ejp.id IN (" +
+           "SELECT assigned.id FROM JobProfile jp JOIN LATERAL (" +
+           "SELECT a.id AS id FROM EmployeeJobProfile a WHERE a.jobProfile = jp " +
+           "ORDER BY a.employee.id LIMIT :first) assigned " +
+           "WHERE jp.id IN :jobProfileIds) ORDER BY ejp.employee.id")
+    List<EmployeeJobProfile> findFirstByJobProfileIdIn(@Param("jobProfileIds") Collection<Long> jobProfileIds,
+                                                       @Param("first") int first);
+
     Optional<EmployeeJobProfile> findByEmployeeIdAndJobProfileId(Long employeeId, Long jobProfileId);
 
     boolean existsByEmployeeIdAndJobProfileId(Long employeeId, Long jobProfileId);
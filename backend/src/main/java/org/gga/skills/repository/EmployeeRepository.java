@@ -17,6 +17,8 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     boolean existsByEmail(String email);
 
+    boolean existsByEmailAndIdNot(String email, Long id);
+
     Page<Employee> findByDepartment(String department, Pageable pageable);
 
     Page<Employee> findByPosition(String position, Pageable pageable);
@@ -1,28 +1,126 @@
 package org.gga.skills.repository;
 
+import jakarta.persistence.QueryHint;
 import org.gga.skills.model.EmployeeSkillGrade;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmployeeSkillGradeRepository extends JpaRepository<EmployeeSkillGrade, Long> {
 
+    @EntityGraph(attributePaths = {"employee", "skillGrade.skill", "reviewedBy"})
     List<EmployeeSkillGrade> findByEmployeeId(Long employeeId);
 
     List<EmployeeSkillGrade> findBySkillGradeId(Long skillGradeId);
 
+    /**
+     * Stream all employee skill grades with the associations of their summaries, as read-only entities.
+     * The caller must close the stream within the surrounding transaction.
+     */
+    @Query("SELECT esg FROM EmployeeSkillGrade esg JOIN FETCH esg.employee JOIN FETCH esg.skillGrade sg " +
+           "JOIN FETCH sg.skill LEFT JOIN FETCH esg.reviewedBy ORDER BY esg.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    Stream<EmployeeSkillGrade> streamAll();
+
+    /**
+     * Stream the employee skill grades of a skill grade like {@link #streamAll()}.
+     */
+    @Query("SELECT esg FROM EmployeeSkillGrade esg JOIN FETCH esg.employee JOIN FETCH esg.skillGrade sg " +
+           "JOIN FETCH sg.skill LEFT JOIN FETCH esg.reviewedBy WHERE sg.id = :skillGradeId ORDER BY esg.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    Stream<EmployeeSkillGrade> streamBySkillGradeId(@Param("skillGradeId") Long skillGradeId);
+
+    /**
+     * Find the first employee skill grades by ID of each of the given employees.
+     */
+    @EntityGraph(attributePaths = {"employee", "skillGrade.skill", "reviewedBy"})
+    @Query("SELECT esg FROM EmployeeSkillGrade esg WHERE esg.id IN (" +
+           "SELECT ranked.id FROM (" +
+           "SELECT e.id AS id, ROW_NUMBER() OVER (PARTITION BY e.employee.id ORDER BY e.id) AS position " +
+           "FROM EmployeeSkillGrade e WHERE e.employee.id IN :employeeIds) ranked " +
+           "WHERE ranked.position <= :first) ORDER BY esg.id")
+    List<EmployeeSkillGrade> findFirstByEmployeeIdIn(@Param("employeeIds") Collection<Long> employeeIds,
+                                                     @Param("first") int first);
+
+    /**
+     * Find the first employee skill grades by employee ID of each grade of the given skills. Each grade's
+     * are read from the start of its {@code (skill_grade_id, employee_id)} index, so the skills' first
+     * holders are among them without ranking all of their holders.
+     */
+    @EntityGraph(attributePaths = {"employee", "skillGrade.skill", "reviewedBy"})
+    @Query("SELECT esg FROM EmployeeSkillGrade esg WHERE esg.id IN (" +
+           "SELECT holder.id FROM SkillGrade sg JOIN LATERAL (" +
+           "SELECT e.id AS id FROM EmployeeSkillGrade e WHERE e.skillGrade = sg " +
+           "ORDER BY e.employee.id LIMIT :first) holder " +
+           "WHERE sg.skill.id IN :skillIds)")
+    List<EmployeeSkillGrade> findFirstBySkillGradeSkillIdIn(@Param("skillIds") Collection<Long> skillIds,
+                                                            @Param("first") int first);
+
     Optional<EmployeeSkillGrade> findByEmployeeIdAndSkillGradeId(Long employeeId, Long skillGradeId);
 
     boolean existsByEmployeeIdAndSkillGradeId(Long employeeId, Long skillGradeId);
 
+    /**
+     * Check whether patching an employee skill grade would duplicate another one's employee and skill grade.
+     *
+     * @param id the patched employee skill grade
+     * @param employeeId the new employee ID, or {@code null} to keep the current one
+     * @param skillGradeId the new skill grade ID, or {@code null} to keep the current one
+     */
+    @Query("SELECT COUNT(esg) > 0 FROM EmployeeSkillGrade esg, EmployeeSkillGrade patched " +
+           "WHERE patched.id = :id AND esg.id <> :id " +
+           "AND esg.employee.id = COALESCE(:employeeId, patched.employee.id) " +
+           "AND esg.skillGrade.id = COALESCE(:skillGradeId, patched.skillGrade.id)")
+    boolean existsOtherByEmployeeIdAndSkillGradeId(@Param("id") Long id, @Param("employeeId") Long employeeId,
+                                                   @Param("skillGradeId") Long skillGradeId);
+
+    @Query("SELECT esg.employee.id FROM EmployeeSkillGrade esg WHERE esg.id = :id")
+    Optional<Long> findEmployeeIdById(@Param("id") Long id);
+
     void deleteByEmployeeIdAndSkillGradeId(Long employeeId, Long skillGradeId);
 
     List<EmployeeSkillGrade> findByCertified(Boolean certified);
 
     @Query("SELECT esg FROM EmployeeSkillGrade esg WHERE esg.reviewedBy.id = :reviewerId")
     List<EmployeeSkillGrade> findByReviewerId(Long reviewerId);
+
+    @Query("SELECT DISTINCT esg.employee.id FROM EmployeeSkillGrade esg WHERE esg.skillGrade.id = :skillGradeId")
+    List<Long> findEmployeeIdsBySkillGradeId(@Param("skillGradeId") Long skillGradeId);
+
+    @Query("SELECT DISTINCT esg.employee.id FROM EmployeeSkillGrade esg WHERE esg.skillGrade.skill.id = :skillId")
+    List<Long> findEmployeeIdsBySkillId(@Param("skillId") Long skillId);
+
+    /**
+     * Find the lazily loaded comments of the given employee skill grades in a single query.
+     *
+     * @param ids the employee skill grade IDs
+     * @return id and comment triples
+     */
+    @Query("SELECT esg.id AS id, esg.employeeComment AS employeeComment, esg.reviewerComment AS reviewerComment " +
+           "FROM EmployeeSkillGrade esg WHERE esg.id IN :ids")
+    List<EmployeeSkillGradeComments> findCommentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface EmployeeSkillGradeComments {
+        Long getId();
+
+        String getEmployeeComment();
+
+        String getReviewerComment();
+    }
 }
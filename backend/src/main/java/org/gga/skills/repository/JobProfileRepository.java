@@ -2,8 +2,12 @@ package org.gga.skills.repository;
 
 import org.gga.skills.model.JobProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,19 @@ public interface JobProfileRepository extends JpaRepository<JobProfile, Long> {
     Optional<JobProfile> findByName(String name);
 
     boolean existsByName(String name);
+
+    /**
+     * Find the lazily loaded descriptions of the given job profiles in a single query.
+     *
+     * @param ids the job profile IDs
+     * @return id and description pairs
+     */
+    @Query("SELECT jp.id AS id, jp.description AS description FROM JobProfile jp WHERE jp.id IN :ids")
+    List<JobProfileDescription> findDescriptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface JobProfileDescription {
+        Long getId();
+
+        String getDescription();
+    }
 }
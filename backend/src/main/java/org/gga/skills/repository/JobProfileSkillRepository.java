@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +21,9 @@ public interface JobProfileSkillRepository extends JpaRepository<JobProfileSkill
     @Query("SELECT jps FROM JobProfileSkill jps JOIN FETCH jps.skill WHERE jps.jobProfile.id = :jobProfileId")
     List<JobProfileSkill> findByJobProfileId(@Param("jobProfileId") Long jobProfileId);
 
+    @Query("SELECT jps.skill.id FROM JobProfileSkill jps WHERE jps.jobProfile.id = :jobProfileId")
+    List<Long> findSkillIdsByJobProfileId(@Param("jobProfileId") Long jobProfileId);
+
     /**
      * Find all job profile-skill associations for a given skill.
      *
@@ -29,6 +33,43 @@ public interface JobProfileSkillRepository extends JpaRepository<JobProfileSkill
     @Query("SELECT jps FROM JobProfileSkill jps JOIN FETCH jps.jobProfile WHERE jps.skill.id = :skillId")
     List<JobProfileSkill> findBySkillId(@Param("skillId") Long skillId);
 
+    /**
+     * Find all job profile-skill associations for the given job profiles.
+     *
+     * @param jobProfileIds the job profile IDs
+     * @return list of associations with their skills loaded
+     */
+    @Query("SELECT jps FROM JobProfileSkill jps JOIN FETCH jps.skill WHERE jps.jobProfile.id IN :jobProfileIds")
+    List<JobProfileSkill> findByJobProfileIdIn(@Param("jobProfileIds") Collection<Long> jobProfileIds);
+
+    /**
+     * Find all job profile-skill associations for the given skills.
+     *
+     * @param skillIds the skill IDs
+     * @return list of associations with their job profiles loaded
+     */
+    @Query("SELECT jps FROM JobProfileSkill jps JOIN FETCH jps.jobProfile WHERE jps.skill.id IN :skillIds")
+    List<JobProfileSkill> findBySkillIdIn(@Param("skillIds") Collection<Long> skillIds);
+
+    /**
+     * Find all job profile-skill associations, for lists of skills too long to pass their IDs as bind parameters.
+     *
+     * @return list of associations with their job profiles loaded
+     */
+    @Query("SELECT jps FROM JobProfileSkill jps JOIN FETCH jps.jobProfile")
+    List<JobProfileSkill> findAllWithJobProfile();
+
+    /**
+     * Find the skill requirements of all job profiles assigned to an employee.
+     *
+     * @param employeeId the employee ID
+     * @return list of associations with their job profiles and skills loaded
+     */
+    @Query("SELECT jps FROM JobProfileSkill jps JOIN FETCH jps.jobProfile JOIN FETCH jps.skill " +
+           "WHERE jps.jobProfile.id IN " +
+           "(SELECT ejp.jobProfile.id FROM EmployeeJobProfile ejp WHERE ejp.employee.id = :employeeId)")
+    List<JobProfileSkill> findByEmployeeAssignedJobProfiles(@Param("employeeId") Long employeeId);
+
     /**
      * Check if an association exists between a job profile and a skill.
      *
@@ -0,0 +1,94 @@
+package org.gga.skills.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Applies resolved merge patches as a single conditional {@code UPDATE} without loading the entity.
+ * <p>
+ * Only the patched columns are written, together with {@code updated_at} and the incremented
+ * {@code version}. Patched entities must therefore have {@code id}, {@code version} and
+ * {@code updatedAt} attributes.
+ */
+@Repository
+public class MergePatchRepository {
+
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+    private static final String UPDATED_AT = "updatedAt";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Update the given fields of one row if it still has the expected version.
+     *
+     * @param fieldset the patchable fields of the entity
+     * @param id the entity ID
+     * @param expectedVersion the version the patch was based on, or {@code null} to update unconditionally
+     * @param values resolved field values keyed by field name; references are given by ID
+     * @return whether the row was updated; {@code false} if it doesn't exist or has another version
+     */
+    public <T> boolean update(PatchableFieldset<T> fieldset, Long id, Long expectedVersion, Map<String, Object> values) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(fieldset.getEntityType());
+        Root<T> root = update.from(fieldset.getEntityType());
+
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            PatchableFieldset.Field field = fieldset.field(entry.getKey());
+            Path<Object> path = root.get(field.attribute());
+            Object value = entry.getValue();
+            if (value == null) {
+                Expression<Object> nullValue = cb.nullLiteral(nullableType(field));
+                update.<Object>set(path, nullValue);
+            } else if (field.isReference()) {
+                // A reference proxy only carries the foreign key, the referenced row is not read
+                update.set(path, entityManager.getReference(field.referenceType(), value));
+            } else {
+                update.set(path, value);
+            }
+        }
+        Path<Long> version = root.get(VERSION);
+        update.set(version, cb.sum(version, 1L));
+        update.set(root.<LocalDateTime>get(UPDATED_AT), LocalDateTime.now());
+
+        update.where(expectedVersion != null
+                ? cb.and(cb.equal(root.get(ID), id), cb.equal(version, expectedVersion))
+                : cb.equal(root.get(ID), id));
+
+        // Same as a @Modifying(flushAutomatically = true, clearAutomatically = true) query
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Object> nullableType(PatchableFieldset.Field field) {
+        return (Class<Object>) (field.isReference() ? field.referenceType() : field.type());
+    }
+
+    /**
+     * Read the current version of one row.
+     *
+     * @return the version, or empty if the row doesn't exist
+     */
+    public Optional<Long> findVersion(Class<?> entityType, Long id) {
+        List<Long> versions = entityManager.createQuery(
+                        "SELECT e.version FROM " + entityType.getSimpleName() + " e WHERE e.id = :id", Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        return versions.stream().findFirst();
+    }
+}
@@ -0,0 +1,113 @@
+package org.gga.skills.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Whitelist of the fields a JSON Merge Patch may change on one entity type.
+ * <p>
+ * Each field name matches a component of the corresponding request record and maps either to a basic
+ * attribute of the entity or, for {@code ...Id} fields, to a to-one association set by reference.
+ *
+ * @param <T> the patched entity type
+ */
+public final class PatchableFieldset<T> {
+
+    private final Class<T> entityType;
+    private final Map<String, Field> fields;
+
+    private PatchableFieldset(Class<T> entityType, Map<String, Field> fields) {
+        this.entityType = entityType;
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    public static <T> Builder<T> of(Class<T> entityType) {
+        return new Builder<>(entityType);
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public Set<String> getFieldNames() {
+        return fields.keySet();
+    }
+
+    /**
+     * Look up a patchable field.
+     *
+     * @throws IllegalArgumentException if the field is not part of the whitelist
+     */
+    public Field field(String name) {
+        Field field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Field '" + name + "' cannot be patched. Patchable fields: " +
+                    String.join(", ", fields.keySet()));
+        }
+        return field;
+    }
+
+    /**
+     * One patchable field.
+     *
+     * @param name the field name in the patch document
+     * @param attribute the entity attribute it is written to
+     * @param type the Java type of the patch value; the referenced entity's ID type for references
+     * @param referenceType the referenced entity type, or {@code null} for a basic attribute
+     * @param required whether the field may not be removed by a {@code null} value
+     */
+    public record Field(String name, String attribute, Class<?> type, Class<?> referenceType, boolean required) {
+
+        public boolean isReference() {
+            return referenceType != null;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final Class<T> entityType;
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+
+        private Builder(Class<T> entityType) {
+            this.entityType = entityType;
+        }
+
+        /**
+         * Map a field to a basic attribute that must keep a value.
+         */
+        public Builder<T> required(String field, String attribute, Class<?> type) {
+            fields.put(field, new Field(field, attribute, type, null, true));
+            return this;
+        }
+
+        /**
+         * Map a field to a basic attribute that a {@code null} value clears.
+         */
+        public Builder<T> optional(String field, String attribute, Class<?> type) {
+            fields.put(field, new Field(field, attribute, type, null, false));
+            return this;
+        }
+
+        /**
+         * Map an ID field to a mandatory to-one association.
+         */
+        public Builder<T> requiredReference(String field, String attribute, Class<?> referenceType) {
+            fields.put(field, new Field(field, attribute, Long.class, referenceType, true));
+            return this;
+        }
+
+        /**
+         * Map an ID field to an optional to-one association that a {@code null} value clears.
+         */
+        public Builder<T> optionalReference(String field, String attribute, Class<?> referenceType) {
+            fields.put(field, new Field(field, attribute, Long.class, referenceType, false));
+            return this;
+        }
+
+        public PatchableFieldset<T> build() {
+            return new PatchableFieldset<>(entityType, new LinkedHashMap<>(fields));
+        }
+    }
+}
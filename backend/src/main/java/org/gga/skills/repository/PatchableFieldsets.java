@@ -0,0 +1,44 @@
+package org.gga.skills.repository;
+
+import org.gga.skills.model.Employee;
+import org.gga.skills.model.EmployeeSkillGrade;
+import org.gga.skills.model.Skill;
+import org.gga.skills.model.SkillGrade;
+
+import java.time.LocalDate;
+
+/**
+ * Patchable fields per resource for the JSON Merge Patch endpoints.
+ * Field names mirror the components of the matching request records.
+ */
+public final class PatchableFieldsets {
+
+    public static final PatchableFieldset<Employee> EMPLOYEE = PatchableFieldset.of(Employee.class)
+            .required("firstName", "firstName", String.class)
+            .required("lastName", "lastName", String.class)
+            .required("email", "email", String.class)
+            .optional("department", "department", String.class)
+            .optional("position", "position", String.class)
+            .build();
+
+    public static final PatchableFieldset<SkillGrade> SKILL_GRADE = PatchableFieldset.of(SkillGrade.class)
+            .requiredReference("skillId", "skill", Skill.class)
+            .required("code", "code", String.class)
+            .optional("description", "description", String.class)
+            .required("level", "level", Integer.class)
+            .build();
+
+    public static final PatchableFieldset<EmployeeSkillGrade> EMPLOYEE_SKILL_GRADE = PatchableFieldset.of(EmployeeSkillGrade.class)
+            .requiredReference("employeeId", "employee", Employee.class)
+            .requiredReference("skillGradeId", "skillGrade", SkillGrade.class)
+            .optional("yearsOfExperience", "yearsOfExperience", Integer.class)
+            .optional("lastUsedDate", "lastUsedDate", LocalDate.class)
+            .required("certified", "certified", Boolean.class)
+            .optional("employeeComment", "employeeComment", String.class)
+            .optionalReference("reviewedByEmployeeId", "reviewedBy", Employee.class)
+            .optional("reviewerComment", "reviewerComment", String.class)
+            .build();
+
+    private PatchableFieldsets() {
+    }
+}
@@ -1,18 +1,58 @@
 package org.gga.skills.repository;
 
+import jakarta.persistence.QueryHint;
 import org.gga.skills.model.SkillGrade;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SkillGradeRepository extends JpaRepository<SkillGrade, Long> {
 
     List<SkillGrade> findBySkillId(Long skillId);
 
+    @EntityGraph(attributePaths = "skill")
+    List<SkillGrade> findBySkillIdIn(Collection<Long> skillIds);
+
+    /**
+     * Stream all skill grades with their skills as read-only entities. The caller must close the stream
+     * within the surrounding transaction.
+     */
+    @Query("SELECT sg FROM SkillGrade sg JOIN FETCH sg.skill ORDER BY sg.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    Stream<SkillGrade> streamAllWithSkill();
+
+    @Query("SELECT COALESCE(MAX(sg.level), 0) FROM SkillGrade sg WHERE sg.skill.id = :skillId")
+    int findMaxLevelBySkillId(@Param("skillId") Long skillId);
+
     Optional<SkillGrade> findBySkillIdAndCode(Long skillId, String code);
 
     boolean existsBySkillIdAndCode(Long skillId, String code);
+
+    /**
+     * Check whether patching a skill grade would duplicate another grade's skill and code.
+     *
+     * @param id the patched skill grade
+     * @param skillId the new skill ID, or {@code null} to keep the current one
+     * @param code the new code, or {@code null} to keep the current one
+     */
+    @Query("SELECT COUNT(sg) > 0 FROM SkillGrade sg, SkillGrade patched WHERE patched.id = :id AND sg.id <> :id " +
+           "AND sg.skill.id = COALESCE(:skillId, patched.skill.id) AND sg.code = COALESCE(:code, patched.code)")
+    boolean existsOtherBySkillIdAndCode(@Param("id") Long id, @Param("skillId") Long skillId,
+                                        @Param("code") String code);
+
+    @Query("SELECT sg FROM SkillGrade sg JOIN FETCH sg.skill WHERE sg.id IN :ids")
+    List<SkillGrade> findWithSkillByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,11 +1,18 @@
 package org.gga.skills.repository;
 
+import jakarta.persistence.QueryHint;
 import org.gga.skills.model.Skill;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SkillRepository extends JpaRepository<Skill, Long> {
@@ -13,4 +20,38 @@ public interface SkillRepository extends JpaRepository<Skill, Long> {
     Optional<Skill> findByName(String name);
 
     boolean existsByName(String name);
+
+    /**
+     * Stream all skills without their lazily loaded descriptions as read-only entities. The caller must
+     * close the stream within the surrounding transaction.
+     */
+    @Query("SELECT s FROM Skill s ORDER BY s.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    Stream<Skill> streamAll();
+
+    /**
+     * Find the lazily loaded descriptions of the given skills in a single query.
+     *
+     * @param ids the skill IDs
+     * @return id and description pairs
+     */
+    @Query("SELECT s.id AS id, s.description AS description FROM Skill s WHERE s.id IN :ids")
+    List<SkillDescription> findDescriptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the descriptions of all skills, for lists too long to pass their IDs as bind parameters.
+     *
+     * @return id and description pairs
+     */
+    @Query("SELECT s.id AS id, s.description AS description FROM Skill s")
+    List<SkillDescription> findAllDescriptions();
+
+    interface SkillDescription {
+        Long getId();
+
+        String getDescription();
+    }
 }
@@ -0,0 +1,100 @@
+package org.gga.skills.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs column-pruned list queries that select only the requested fields of a {@link SparseFieldset}.
+ */
+@Repository
+public class SparseFieldRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Find the selected fields of all matching rows.
+     *
+     * @param fieldset the whitelist of selectable fields
+     * @param fields the validated field names to select
+     * @param specification optional filter, may be {@code null}
+     * @param pageable paging and sorting, may be unpaged
+     * @return one ordered map per row, keyed by field name
+     */
+    public <T> List<Map<String, Object>> findAll(SparseFieldset<T> fieldset, List<String> fields,
+                                                 Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(fieldset.getEntityType());
+        SparseFieldset.Joins joins = fieldset.joins(root);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(fieldset.expression(field, cb, joins).alias(field));
+        }
+        query.multiselect(selections);
+
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return typedQuery.getResultList().stream()
+                .map(tuple -> toMap(tuple, fields))
+                .toList();
+    }
+
+    /**
+     * Find one page of the selected fields, including the total element count.
+     */
+    public <T> Page<Map<String, Object>> findPage(SparseFieldset<T> fieldset, List<String> fields,
+                                                  Specification<T> specification, Pageable pageable) {
+        List<Map<String, Object>> content = findAll(fieldset, fields, specification, pageable);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> count(fieldset.getEntityType(), specification));
+    }
+
+    private <T> long count(Class<T> entityType, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(cb.count(root));
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
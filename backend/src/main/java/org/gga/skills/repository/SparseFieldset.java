@@ -0,0 +1,176 @@
+package org.gga.skills.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Whitelist of the response fields a client may select for one entity type.
+ * <p>
+ * Each field name matches a component of the corresponding response record and maps to the
+ * JPA expression that produces it, so a selection narrows the SQL select list and only
+ * creates the joins the selected fields actually need.
+ *
+ * @param <T> the root entity type
+ */
+public final class SparseFieldset<T> {
+
+    public static final String ID_FIELD = "id";
+
+    private final Class<T> entityType;
+    private final Map<String, FieldExpression> fields;
+    private final Set<String> leftJoins;
+
+    private SparseFieldset(Class<T> entityType, Map<String, FieldExpression> fields, Set<String> leftJoins) {
+        this.entityType = entityType;
+        this.fields = Collections.unmodifiableMap(fields);
+        this.leftJoins = Collections.unmodifiableSet(leftJoins);
+    }
+
+    public static <T> Builder<T> of(Class<T> entityType) {
+        return new Builder<>(entityType);
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public Set<String> getFieldNames() {
+        return fields.keySet();
+    }
+
+    /**
+     * Parse a comma-separated {@code fields} parameter against this whitelist.
+     * The {@code id} field is always selected and always comes first.
+     *
+     * @param fieldsParam the raw parameter value, e.g. {@code "skillName,certified"}
+     * @return the validated field names in request order, without duplicates
+     * @throws IllegalArgumentException if a field is not part of the whitelist
+     */
+    public List<String> resolve(String fieldsParam) {
+        Set<String> selected = new HashSet<>();
+        List<String> result = new ArrayList<>();
+        result.add(ID_FIELD);
+        selected.add(ID_FIELD);
+        if (fieldsParam == null) {
+            return result;
+        }
+        for (String raw : fieldsParam.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!fields.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'. Allowed fields: " +
+                        String.join(", ", fields.keySet()));
+            }
+            if (selected.add(field)) {
+                result.add(field);
+            }
+        }
+        return result;
+    }
+
+    Expression<?> expression(String field, CriteriaBuilder cb, Joins joins) {
+        return fields.get(field).apply(cb, joins);
+    }
+
+    Joins joins(From<?, ?> root) {
+        return new Joins(root, leftJoins);
+    }
+
+    /**
+     * Produces the JPA expression for one selectable field.
+     */
+    @FunctionalInterface
+    public interface FieldExpression {
+        Expression<?> apply(CriteriaBuilder cb, Joins joins);
+    }
+
+    /**
+     * Lazily creates joins by dotted association path, so unselected associations are never joined.
+     */
+    public static final class Joins {
+
+        private final From<?, ?> root;
+        private final Set<String> leftJoins;
+        private final Map<String, From<?, ?>> created = new HashMap<>();
+
+        Joins(From<?, ?> root, Set<String> leftJoins) {
+            this.root = root;
+            this.leftJoins = leftJoins;
+        }
+
+        public From<?, ?> root() {
+            return root;
+        }
+
+        public From<?, ?> get(String path) {
+            From<?, ?> existing = created.get(path);
+            if (existing != null) {
+                return existing;
+            }
+            int lastDot = path.lastIndexOf('.');
+            From<?, ?> parent = lastDot < 0 ? root : get(path.substring(0, lastDot));
+            String attribute = path.substring(lastDot + 1);
+            From<?, ?> join = parent.join(attribute, leftJoins.contains(path) ? JoinType.LEFT : JoinType.INNER);
+            created.put(path, join);
+            return join;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final Class<T> entityType;
+        private final Map<String, FieldExpression> fields = new LinkedHashMap<>();
+        private final Set<String> leftJoins = new HashSet<>();
+
+        private Builder(Class<T> entityType) {
+            this.entityType = entityType;
+        }
+
+        /**
+         * Map a field to an attribute of the root entity.
+         */
+        public Builder<T> attribute(String field, String attribute) {
+            return field(field, (cb, joins) -> joins.root().get(attribute));
+        }
+
+        /**
+         * Map a field to an attribute reached through the given association path.
+         */
+        public Builder<T> attribute(String field, String joinPath, String attribute) {
+            return field(field, (cb, joins) -> joins.get(joinPath).get(attribute));
+        }
+
+        public Builder<T> field(String field, FieldExpression expression) {
+            fields.put(field, expression);
+            return this;
+        }
+
+        /**
+         * Join the given association path with an outer join because it is optional.
+         */
+        public Builder<T> leftJoin(String joinPath) {
+            leftJoins.add(joinPath);
+            return this;
+        }
+
+        public SparseFieldset<T> build() {
+            if (!fields.containsKey(ID_FIELD)) {
+                throw new IllegalStateException("Sparse fieldset must define the '" + ID_FIELD + "' field");
+            }
+            return new SparseFieldset<>(entityType, new LinkedHashMap<>(fields), new HashSet<>(leftJoins));
+        }
+    }
+}
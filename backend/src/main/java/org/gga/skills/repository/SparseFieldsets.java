@@ -0,0 +1,85 @@
+package org.gga.skills.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import org.gga.skills.model.Employee;
+import org.gga.skills.model.EmployeeSkillGrade;
+import org.gga.skills.model.JobProfile;
+import org.gga.skills.model.Skill;
+import org.gga.skills.model.SkillGrade;
+
+/**
+ * Selectable fields per resource for the {@code fields} parameter of the list endpoints.
+ * Field names mirror the components of the matching response records.
+ */
+public final class SparseFieldsets {
+
+    public static final SparseFieldset<Employee> EMPLOYEE = SparseFieldset.of(Employee.class)
+            .attribute("id", "id")
+            .attribute("firstName", "firstName")
+            .attribute("lastName", "lastName")
+            .attribute("email", "email")
+            .attribute("department", "department")
+            .attribute("position", "position")
+            .attribute("createdAt", "createdAt")
+            .attribute("updatedAt", "updatedAt")
+            .attribute("version", "version")
+            .build();
+
+    public static final SparseFieldset<Skill> SKILL = SparseFieldset.of(Skill.class)
+            .attribute("id", "id")
+            .attribute("name", "name")
+            .attribute("description", "description")
+            .attribute("createdAt", "createdAt")
+            .attribute("updatedAt", "updatedAt")
+            .build();
+
+    public static final SparseFieldset<SkillGrade> SKILL_GRADE = SparseFieldset.of(SkillGrade.class)
+            .attribute("id", "id")
+            .field("skillId", (cb, joins) -> joins.root().get("skill").get("id"))
+            .attribute("skillName", "skill", "name")
+            .attribute("code", "code")
+            .attribute("description", "description")
+            .attribute("level", "level")
+            .attribute("createdAt", "createdAt")
+            .attribute("updatedAt", "updatedAt")
+            .attribute("version", "version")
+            .build();
+
+    public static final SparseFieldset<JobProfile> JOB_PROFILE = SparseFieldset.of(JobProfile.class)
+            .attribute("id", "id")
+            .attribute("name", "name")
+            .attribute("description", "description")
+            .attribute("createdAt", "createdAt")
+            .attribute("updatedAt", "updatedAt")
+            .build();
+
+    public static final SparseFieldset<EmployeeSkillGrade> EMPLOYEE_SKILL_GRADE = SparseFieldset.of(EmployeeSkillGrade.class)
+            .attribute("id", "id")
+            .field("employeeId", (cb, joins) -> joins.root().get("employee").get("id"))
+            .field("employeeFullName", (cb, joins) -> fullName(cb, joins.get("employee")))
+            .field("skillGradeId", (cb, joins) -> joins.root().get("skillGrade").get("id"))
+            .attribute("skillGradeCode", "skillGrade", "code")
+            .field("skillId", (cb, joins) -> joins.get("skillGrade").get("skill").get("id"))
+            .attribute("skillName", "skillGrade.skill", "name")
+            .attribute("yearsOfExperience", "yearsOfExperience")
+            .attribute("lastUsedDate", "lastUsedDate")
+            .attribute("certified", "certified")
+            .attribute("employeeComment", "employeeComment")
+            .field("reviewedByEmployeeId", (cb, joins) -> joins.root().get("reviewedBy").get("id"))
+            .field("reviewedByEmployeeName", (cb, joins) -> fullName(cb, joins.get("reviewedBy")))
+            .attribute("reviewerComment", "reviewerComment")
+            .attribute("createdAt", "createdAt")
+            .attribute("updatedAt", "updatedAt")
+            .attribute("version", "version")
+            .leftJoin("reviewedBy")
+            .build();
+
+    private SparseFieldsets() {
+    }
+
+    private static Expression<String> fullName(CriteriaBuilder cb, From<?, ?> employee) {
+        return cb.concat(cb.concat(employee.<String>get("firstName"), " "), employee.<String>get("lastName"));
+    }
+}
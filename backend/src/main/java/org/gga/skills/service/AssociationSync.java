@@ -0,0 +1,67 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.AssociationSyncResponse;
+import org.gga.skills.repository.AssociationSyncRepository;
+import org.gga.skills.repository.AssociationSyncRepository.Association;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replaces the members of an association with a desired set: the current members are read once,
+ * and the difference is written with one delete and one insert, whatever its size.
+ */
+@Component
+class AssociationSync {
+
+    private final AssociationSyncRepository associationSyncRepository;
+
+    AssociationSync(AssociationSyncRepository associationSyncRepository) {
+        this.associationSyncRepository = associationSyncRepository;
+    }
+
+    /**
+     * Must run in the caller's write transaction.
+     *
+     * @param association the association table
+     * @param ownerId the owner whose members are replaced
+     * @param desiredMemberIds the complete set of members after the sync; duplicates are ignored
+     * @param ownerName owner name for error messages, e.g. {@code "Job profile"}
+     * @param memberName member name for error messages, e.g. {@code "Skill"}
+     * @throws ResourceNotFoundException if the owner or any added member doesn't exist
+     */
+    AssociationSyncResponse sync(Association association, Long ownerId, Collection<Long> desiredMemberIds,
+                                 String ownerName, String memberName) {
+        if (!associationSyncRepository.lockOwner(association, ownerId)) {
+            throw new ResourceNotFoundException(ownerName + " not found with id: " + ownerId);
+        }
+        Map<Long, Long> current = associationSyncRepository.findRowIdsByMember(association, ownerId);
+        Set<Long> desired = new LinkedHashSet<>(desiredMemberIds);
+
+        List<Long> toAdd = desired.stream().filter(id -> !current.containsKey(id)).toList();
+        List<Long> toRemove = new ArrayList<>();
+        List<Long> rowsToDelete = new ArrayList<>();
+        current.forEach((memberId, rowId) -> {
+            if (!desired.contains(memberId)) {
+                toRemove.add(memberId);
+                rowsToDelete.add(rowId);
+            }
+        });
+
+        Set<Long> existing = associationSyncRepository.findExistingMembers(association, toAdd);
+        if (existing.size() < toAdd.size()) {
+            List<Long> missing = toAdd.stream().filter(id -> !existing.contains(id)).toList();
+            throw new ResourceNotFoundException(memberName + " not found with ids: " + missing);
+        }
+
+        associationSyncRepository.deleteRows(association, rowsToDelete);
+        List<Long> added = associationSyncRepository.insertMembers(association, ownerId, toAdd);
+        toRemove.sort(null);
+        return new AssociationSyncResponse(added, toRemove, desired.size() - toAdd.size());
+    }
+}
@@ -0,0 +1,55 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.AutocompleteResponse;
+import org.gga.skills.index.AutocompleteIndex;
+import org.gga.skills.index.AutocompleteIndex.Kind;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completes skill, job profile and employee names from the {@link AutocompleteIndex}. Not transactional,
+ * since completions never touch the database.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final int MAX_COMPLETIONS = 100;
+
+    /**
+     * Kinds of names by the value of the type request parameter.
+     */
+    private static final Map<String, Kind> KINDS = Map.of(
+            "skill", Kind.SKILL,
+            "jobProfile", Kind.JOB_PROFILE,
+            "employee", Kind.EMPLOYEE);
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public AutocompleteService(AutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    /**
+     * Complete a prefix of a name.
+     *
+     * @param type skill, jobProfile or employee
+     * @param prefix the typed prefix; matching ignores case and accents and starts at any word of a name
+     * @param limit maximum number of completions
+     * @return completions by descending popularity
+     * @throws InvalidRequestException if the type is unknown or the limit out of range
+     */
+    public List<AutocompleteResponse> complete(String type, String prefix, int limit) {
+        Kind kind = KINDS.get(type);
+        if (kind == null) {
+            throw new InvalidRequestException("type must be one of skill, jobProfile, employee");
+        }
+        if (limit < 1 || limit > MAX_COMPLETIONS) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_COMPLETIONS);
+        }
+        return autocompleteIndex.complete(kind, prefix, limit).stream()
+                .map(completion -> new AutocompleteResponse(completion.id(), completion.label(), completion.weight()))
+                .toList();
+    }
+}
@@ -0,0 +1,63 @@
+package org.gga.skills.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Shared rules for multi-get endpoints: a bounded number of ids per request and results
+ * returned in request order.
+ */
+@Component
+public class BatchLookup {
+
+    private final int maxIds;
+
+    public BatchLookup(@Value("${skills.multi-get.max-ids:100}") int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Validate requested ids and remove duplicates, keeping the first occurrence.
+     *
+     * @param ids the requested ids
+     * @return distinct ids in request order
+     * @throws InvalidRequestException if no ids or more than the configured maximum are requested
+     */
+    public List<Long> distinctIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequestException("At least one id is required");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        if (distinct.size() > maxIds) {
+            throw new InvalidRequestException("At most " + maxIds + " ids can be requested at once, got " + distinct.size());
+        }
+        return distinct;
+    }
+
+    /**
+     * Order loaded entities like the requested ids. Ids without an entity are skipped.
+     */
+    public <E> List<E> inRequestOrder(List<Long> ids, Collection<E> entities, Function<E, Long> idOf) {
+        Map<Long, E> byId = new HashMap<>();
+        for (E entity : entities) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        List<E> ordered = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            E entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+}
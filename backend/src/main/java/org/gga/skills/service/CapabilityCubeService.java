@@ -0,0 +1,150 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.CapabilityCellResponse;
+import org.gga.skills.dto.CapabilityCubeStatsResponse;
+import org.gga.skills.index.CapabilityCube;
+import org.gga.skills.index.CapabilityCube.Cell;
+import org.gga.skills.index.CapabilityCube.Dimension;
+import org.gga.skills.model.JobProfile;
+import org.gga.skills.model.Skill;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Capability reports sliced by department, position, job profile, skill, grade level and certified flag.
+ * The counts come from the {@link CapabilityCube}; only skill and job profile names are read from the
+ * database.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CapabilityCubeService {
+
+    /**
+     * Dimensions by the request parameter that filters them.
+     */
+    private static final Map<String, Dimension> DIMENSIONS = Map.of(
+            "department", Dimension.DEPARTMENT,
+            "position", Dimension.POSITION,
+            "jobProfileId", Dimension.JOB_PROFILE,
+            "skillId", Dimension.SKILL,
+            "level", Dimension.LEVEL,
+            "certified", Dimension.CERTIFIED);
+
+    private final CapabilityCube capabilityCube;
+    private final SkillRepository skillRepository;
+    private final JobProfileRepository jobProfileRepository;
+
+    public CapabilityCubeService(CapabilityCube capabilityCube,
+                                 SkillRepository skillRepository,
+                                 JobProfileRepository jobProfileRepository) {
+        this.capabilityCube = capabilityCube;
+        this.skillRepository = skillRepository;
+        this.jobProfileRepository = jobProfileRepository;
+    }
+
+    /**
+     * Count employee skill grades grouped by the given dimensions. Values of one filter are alternatives,
+     * different filters must all match. To drill down, filter on a cell's values and group by a further
+     * dimension. When job profiles are grouped or filtered, a grade counts once for each matching job
+     * profile of its employee.
+     *
+     * @param groupBy names of the dimensions to group by, as the filter parameters are named
+     * @param departments optional departments
+     * @param positions optional positions
+     * @param jobProfileIds optional assigned job profiles
+     * @param skillIds optional skills
+     * @param levels optional grade levels
+     * @param certified optional certified flag
+     * @return the non-empty cells, ordered by their values
+     * @throws InvalidRequestException if a dimension name is unknown
+     * @throws ServiceUnavailableException if the cube could not hold the values at its last rebuild
+     */
+    public List<CapabilityCellResponse> query(List<String> groupBy, List<String> departments, List<String> positions,
+                                              List<Long> jobProfileIds, List<Long> skillIds, List<Integer> levels,
+                                              Boolean certified) {
+        Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+        if (groupBy != null) {
+            for (String name : groupBy) {
+                Dimension dimension = DIMENSIONS.get(name);
+                if (dimension == null) {
+                    throw new InvalidRequestException("Unknown groupBy dimension: " + name
+                            + ", expected one of " + DIMENSIONS.keySet().stream().sorted().toList());
+                }
+                dimensions.add(dimension);
+            }
+        }
+        Map<Dimension, Collection<?>> filters = new EnumMap<>(Dimension.class);
+        addFilter(filters, Dimension.DEPARTMENT, departments);
+        addFilter(filters, Dimension.POSITION, positions);
+        addFilter(filters, Dimension.JOB_PROFILE, jobProfileIds);
+        addFilter(filters, Dimension.SKILL, skillIds);
+        addFilter(filters, Dimension.LEVEL, levels);
+        addFilter(filters, Dimension.CERTIFIED, certified != null ? List.of(certified) : null);
+
+        List<Cell> cells = capabilityCube.query(dimensions, filters).orElseThrow(() ->
+                new ServiceUnavailableException("Capability cube is unavailable: there are too many distinct "
+                        + "values to index, see the server log"));
+
+        Map<Long, String> skillNames = dimensions.contains(Dimension.SKILL)
+                ? skillRepository.findAllById(ids(cells, Dimension.SKILL)).stream()
+                        .collect(Collectors.toMap(Skill::getId, Skill::getName))
+                : Map.of();
+        Map<Long, String> jobProfileNames = dimensions.contains(Dimension.JOB_PROFILE)
+                ? jobProfileRepository.findAllById(ids(cells, Dimension.JOB_PROFILE)).stream()
+                        .collect(Collectors.toMap(JobProfile::getId, JobProfile::getName))
+                : Map.of();
+        return cells.stream()
+                .map(cell -> {
+                    Map<Dimension, Object> at = cell.coordinates();
+                    Long jobProfileId = (Long) at.get(Dimension.JOB_PROFILE);
+                    Long skillId = (Long) at.get(Dimension.SKILL);
+                    return new CapabilityCellResponse(
+                            (String) at.get(Dimension.DEPARTMENT),
+                            (String) at.get(Dimension.POSITION),
+                            jobProfileId,
+                            jobProfileId != null ? jobProfileNames.get(jobProfileId) : null,
+                            skillId,
+                            skillId != null ? skillNames.get(skillId) : null,
+                            (Integer) at.get(Dimension.LEVEL),
+                            (Boolean) at.get(Dimension.CERTIFIED),
+                            cell.grades(),
+                            cell.gradesWithYears() > 0
+                                    ? (double) cell.yearsOfExperience() / cell.gradesWithYears()
+                                    : null);
+                })
+                .toList();
+    }
+
+    /**
+     * @return the size of the capability cube
+     */
+    public CapabilityCubeStatsResponse getStats() {
+        CapabilityCube.Stats stats = capabilityCube.stats();
+        return new CapabilityCubeStatsResponse(stats.employees(), stats.cuboids(), stats.cells(), stats.bytes());
+    }
+
+    private static void addFilter(Map<Dimension, Collection<?>> filters, Dimension dimension, List<?> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(dimension, Set.copyOf(values));
+        }
+    }
+
+    private static List<Long> ids(List<Cell> cells, Dimension dimension) {
+        return cells.stream()
+                .map(cell -> (Long) cell.coordinates().get(dimension))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+}
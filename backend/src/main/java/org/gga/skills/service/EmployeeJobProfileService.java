@@ -1,15 +1,20 @@
 package org.gga.skills.service;
 
+import org.gga.skills.dto.AssociationSyncResponse;
 import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.event.EmployeeChangedEvent;
 import org.gga.skills.model.Employee;
 import org.gga.skills.model.EmployeeJobProfile;
 import org.gga.skills.model.JobProfile;
+import org.gga.skills.repository.AssociationSyncRepository.Association;
 import org.gga.skills.repository.EmployeeRepository;
 import org.gga.skills.repository.EmployeeJobProfileRepository;
 import org.gga.skills.repository.JobProfileRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -19,13 +24,19 @@ public class EmployeeJobProfileService {
     private final EmployeeJobProfileRepository employeeJobProfileRepository;
     private final EmployeeRepository employeeRepository;
     private final JobProfileRepository jobProfileRepository;
+    private final AssociationSync associationSync;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EmployeeJobProfileService(EmployeeJobProfileRepository employeeJobProfileRepository,
                                        EmployeeRepository employeeRepository,
-                                       JobProfileRepository jobProfileRepository) {
+                                       JobProfileRepository jobProfileRepository,
+                                       AssociationSync associationSync,
+                                       ApplicationEventPublisher eventPublisher) {
         this.employeeJobProfileRepository = employeeJobProfileRepository;
         this.employeeRepository = employeeRepository;
         this.jobProfileRepository = jobProfileRepository;
+        this.associationSync = associationSync;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<JobProfileResponse> getJobProfilesByEmployeeId(Long employeeId) {
@@ -33,7 +44,7 @@ public class EmployeeJobProfileService {
             throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
         }
         return employeeJobProfileRepository.findByEmployeeId(employeeId).stream()
-                .map(ejp -> JobProfileResponse.fromEntity(ejp.getJobProfile()))
+                .map(ejp -> JobProfileResponse.summaryFromEntity(ejp.getJobProfile()))
                 .toList();
     }
 
@@ -51,6 +62,7 @@ public class EmployeeJobProfileService {
 
         EmployeeJobProfile ejp = new EmployeeJobProfile(employee, jobProfile);
         employeeJobProfileRepository.save(ejp);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(employeeId));
     }
 
     @Transactional
@@ -59,5 +71,26 @@ public class EmployeeJobProfileService {
             throw new ResourceNotFoundException("Employee does not have this job profile assigned");
         }
         employeeJobProfileRepository.deleteByEmployeeIdAndJobProfileId(employeeId, jobProfileId);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(employeeId));
+    }
+
+    /**
+     * Replace the employees assigned to a job profile with the given set, adding and removing only the difference.
+     *
+     * @param jobProfileId the job profile ID
+     * @param employeeIds all employees the job profile should be assigned to
+     * @return the employees that were added and removed
+     * @throws ResourceNotFoundException if the job profile or an added employee doesn't exist
+     */
+    @Transactional
+    public AssociationSyncResponse syncEmployeesOfJobProfile(Long jobProfileId, List<Long> employeeIds) {
+        AssociationSyncResponse result = associationSync.sync(Association.JOB_PROFILE_EMPLOYEES, jobProfileId,
+                employeeIds, "Job profile", "Employee");
+        List<Long> changed = new ArrayList<>(result.added());
+        changed.addAll(result.removed());
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.of(changed));
+        }
+        return result;
     }
 }
@@ -0,0 +1,171 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.EmployeeProfileResponse;
+import org.gga.skills.dto.EmployeeResponse;
+import org.gga.skills.dto.EmployeeSkillGradeResponse;
+import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.dto.JobProfileSkillResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Assembles the aggregated employee profile from independent sub-queries that run concurrently,
+ * each on its own virtual thread and in its own read-only transaction.
+ * <p>
+ * Every sub-query gets its own budget as a transaction timeout, which Hibernate and {@code JdbcTemplate}
+ * pass on as the JDBC query timeout of each statement, so PostgreSQL cancels a slow sub-query and gives
+ * its connection back instead of leaving it to an interrupt the driver ignores. The first failure or
+ * timeout cancels the others, and none of them outlives {@link #getEmployeeProfile(Long)}.
+ * <p>
+ * A profile holds one pool connection per sub-query, so only {@code max-concurrent} profiles are
+ * assembled at a time; requests that can't start within the budget are rejected.
+ */
+@Service
+public class EmployeeProfileService {
+
+    private final EmployeeService employeeService;
+    private final EmployeeJobProfileService employeeJobProfileService;
+    private final EmployeeSkillGradeService employeeSkillGradeService;
+    private final JobProfileSkillService jobProfileSkillService;
+    private final Duration subQueryTimeout;
+    private final TransactionTemplate subQueryTransaction;
+    private final Semaphore permits;
+
+    public EmployeeProfileService(EmployeeService employeeService,
+                                  EmployeeJobProfileService employeeJobProfileService,
+                                  EmployeeSkillGradeService employeeSkillGradeService,
+                                  JobProfileSkillService jobProfileSkillService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${skills.employee-profile.sub-query-timeout:2s}") Duration subQueryTimeout,
+                                  @Value("${skills.employee-profile.max-concurrent:2}") int maxConcurrent) {
+        this.employeeService = employeeService;
+        this.employeeJobProfileService = employeeJobProfileService;
+        this.employeeSkillGradeService = employeeSkillGradeService;
+        this.jobProfileSkillService = jobProfileSkillService;
+        this.subQueryTimeout = subQueryTimeout;
+        this.subQueryTransaction = new TransactionTemplate(transactionManager);
+        this.subQueryTransaction.setReadOnly(true);
+        // Hibernate gives each statement the whole seconds left, so a one second timeout leaves none
+        this.subQueryTransaction.setTimeout((int) Math.max(2, (subQueryTimeout.toMillis() + 999) / 1000));
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Get an employee together with assigned job profiles, skill grades and the skills
+     * those job profiles require that the employee does not hold.
+     *
+     * @param employeeId the employee ID
+     * @return the aggregated profile
+     * @throws ResourceNotFoundException if the employee doesn't exist
+     * @throws RequestTimeoutException if a sub-query exceeds its latency budget, or too many profiles
+     * are being assembled to start within it
+     */
+    public EmployeeProfileResponse getEmployeeProfile(Long employeeId) {
+        acquirePermit();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                Future<EmployeeResponse> employee = submit(executor,
+                        () -> employeeService.getEmployeeById(employeeId));
+                Future<List<JobProfileResponse>> jobProfiles = submit(executor,
+                        () -> employeeJobProfileService.getJobProfilesByEmployeeId(employeeId));
+                Future<List<EmployeeSkillGradeResponse>> skillGrades = submit(executor,
+                        () -> employeeSkillGradeService.getEmployeeSkillGradesByEmployeeId(employeeId));
+                Future<List<JobProfileSkillResponse>> requiredSkills = submit(executor,
+                        () -> jobProfileSkillService.getRequiredSkillsByEmployeeId(employeeId));
+
+                // The statement timeouts end every sub-query by then; the extra second covers cancelling
+                long deadline = System.nanoTime()
+                        + TimeUnit.SECONDS.toNanos(subQueryTransaction.getTimeout() + 1);
+                EmployeeResponse employeeResponse = await(employee, "employee", deadline);
+                List<JobProfileResponse> jobProfileResponses = await(jobProfiles, "job profiles", deadline);
+                List<EmployeeSkillGradeResponse> skillGradeResponses = await(skillGrades, "skill grades", deadline);
+                List<JobProfileSkillResponse> requiredSkillResponses = await(requiredSkills, "required skills", deadline);
+
+                Set<Long> heldSkillIds = skillGradeResponses.stream()
+                        .map(EmployeeSkillGradeResponse::skillId)
+                        .collect(Collectors.toSet());
+                List<JobProfileSkillResponse> skillGaps = requiredSkillResponses.stream()
+                        .filter(required -> !heldSkillIds.contains(required.skillId()))
+                        .toList();
+
+                return new EmployeeProfileResponse(employeeResponse, jobProfileResponses, skillGradeResponses, skillGaps);
+            } finally {
+                // Cancels whatever is still running after a failure or timeout
+                executor.shutdownNow();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(subQueryTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RequestTimeoutException("Too many employee profiles are being loaded");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestTimeoutException("Interrupted while waiting to load the employee profile");
+        }
+    }
+
+    /**
+     * Run a sub-query in its own read-only transaction with the sub-query timeout.
+     */
+    private <T> Future<T> submit(ExecutorService executor, Supplier<T> subQuery) {
+        return executor.submit(() -> subQueryTransaction.execute(status -> subQuery.get()));
+    }
+
+    private static <T> T await(Future<T> future, String part, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new RequestTimeoutException("Timed out loading " + part + " of the employee profile");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestTimeoutException("Interrupted while loading " + part + " of the employee profile");
+        } catch (ExecutionException ex) {
+            if (isTimeout(ex.getCause())) {
+                throw new RequestTimeoutException("Timed out loading " + part + " of the employee profile");
+            }
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to load " + part + " of the employee profile", ex.getCause());
+        }
+    }
+
+    /**
+     * Whether a sub-query failed on its transaction timeout, either cancelled by the database or
+     * refused by Hibernate once no time was left, and translated or not depending on where it failed.
+     */
+    private static boolean isTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryTimeoutException
+                    || cause instanceof TransactionTimedOutException
+                    || cause instanceof jakarta.persistence.QueryTimeoutException
+                    || cause instanceof org.hibernate.QueryTimeoutException
+                    || cause instanceof org.hibernate.TransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
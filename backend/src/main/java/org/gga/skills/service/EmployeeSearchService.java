@@ -0,0 +1,173 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.EmployeeResponse;
+import org.gga.skills.dto.EmployeeSearchResponse;
+import org.gga.skills.dto.FacetCount;
+import org.gga.skills.dto.SimilarEmployeeResponse;
+import org.gga.skills.index.FacetIndex;
+import org.gga.skills.index.FacetIndex.FacetQuery;
+import org.gga.skills.index.FacetIndex.FacetSearchResult;
+import org.gga.skills.index.SimilarityIndex;
+import org.gga.skills.model.Employee;
+import org.gga.skills.model.JobProfile;
+import org.gga.skills.model.Skill;
+import org.gga.skills.repository.EmployeeRepository;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Faceted employee search and search for employees with similar skills. Matching, facet counting and
+ * scoring happen in the {@link FacetIndex} and the {@link SimilarityIndex}; only the returned employees
+ * and the facet labels are read from the database.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EmployeeSearchService {
+
+    private static final int MAX_SIMILAR = 100;
+
+    private final FacetIndex facetIndex;
+    private final SimilarityIndex similarityIndex;
+    private final EmployeeRepository employeeRepository;
+    private final SkillRepository skillRepository;
+    private final JobProfileRepository jobProfileRepository;
+    private final BatchLookup batchLookup;
+
+    public EmployeeSearchService(FacetIndex facetIndex,
+                                 SimilarityIndex similarityIndex,
+                                 EmployeeRepository employeeRepository,
+                                 SkillRepository skillRepository,
+                                 JobProfileRepository jobProfileRepository,
+                                 BatchLookup batchLookup) {
+        this.facetIndex = facetIndex;
+        this.similarityIndex = similarityIndex;
+        this.employeeRepository = employeeRepository;
+        this.skillRepository = skillRepository;
+        this.jobProfileRepository = jobProfileRepository;
+        this.batchLookup = batchLookup;
+    }
+
+    /**
+     * Search employees by facet filters. Values of one filter are alternatives, different filters
+     * must all match. Results are ordered by employee ID.
+     *
+     * @param departments optional departments
+     * @param positions optional positions
+     * @param jobProfileIds optional assigned job profiles
+     * @param skillId optional skill the employee must hold
+     * @param minLevel optional minimum grade level for {@code skillId}
+     * @param certified optional certified flag of the matching grade
+     * @param pageable page number and size, sorting is ignored
+     * @return one page of employees with counts for every facet value
+     * @throws InvalidRequestException if {@code minLevel} is given without {@code skillId}
+     */
+    public EmployeeSearchResponse searchEmployees(List<String> departments, List<String> positions,
+                                                  List<Long> jobProfileIds, Long skillId, Integer minLevel,
+                                                  Boolean certified, Pageable pageable) {
+        if (minLevel != null && skillId == null) {
+            throw new InvalidRequestException("minLevel requires skillId");
+        }
+        FacetQuery query = new FacetQuery(toSet(departments), toSet(positions), toSet(jobProfileIds),
+                skillId, minLevel, certified);
+        FacetSearchResult result = facetIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+
+        List<Employee> employees = employeeRepository.findAllById(result.employeeIds());
+        List<EmployeeResponse> content = batchLookup.inRequestOrder(result.employeeIds(), employees, Employee::getId)
+                .stream()
+                .map(EmployeeResponse::fromEntity)
+                .toList();
+
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("department", facet(result.departments(), query.departments(), Function.identity()));
+        facets.put("position", facet(result.positions(), query.positions(), Function.identity()));
+        facets.put("jobProfileId", facet(result.jobProfiles(), query.jobProfileIds(),
+                jobProfileNames(union(result.jobProfiles().keySet(), query.jobProfileIds()))));
+        Set<Long> selectedSkill = skillId != null ? Set.of(skillId) : Set.of();
+        facets.put("skillId", facet(result.skills(), selectedSkill,
+                skillNames(union(result.skills().keySet(), selectedSkill))));
+        facets.put("level", facet(result.levels(), minLevel != null ? Set.of(minLevel) : Set.of(), String::valueOf));
+        facets.put("certified", facet(result.certified(), certified != null ? Set.of(certified) : Set.of(),
+                String::valueOf));
+
+        return new EmployeeSearchResponse(content, result.total(), pageable.getPageNumber(), pageable.getPageSize(),
+                facets);
+    }
+
+    /**
+     * Find the employees whose skills are most similar to the given employee's, by cosine similarity of
+     * skill vectors weighted by grade level, years of experience and certification.
+     *
+     * @param id the employee to compare with
+     * @param limit maximum number of employees to return
+     * @return similar employees by descending similarity, empty if the employee has no skill grades
+     * @throws ResourceNotFoundException if the employee doesn't exist
+     * @throws InvalidRequestException if {@code limit} is not between 1 and {@value #MAX_SIMILAR}
+     */
+    public List<SimilarEmployeeResponse> findSimilarEmployees(Long id, int limit) {
+        if (limit < 1 || limit > MAX_SIMILAR) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SIMILAR + ", got " + limit);
+        }
+        List<SimilarityIndex.Match> matches = similarityIndex.findSimilar(id, limit)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
+
+        List<Long> ids = matches.stream().map(SimilarityIndex.Match::employeeId).toList();
+        Map<Long, Employee> employees = employeeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> employees.containsKey(match.employeeId()))
+                .map(match -> new SimilarEmployeeResponse(
+                        EmployeeResponse.fromEntity(employees.get(match.employeeId())), match.similarity()))
+                .toList();
+    }
+
+    /**
+     * Build one facet's values ordered by count, keeping selected values even when nothing matches them.
+     */
+    private static <K> List<FacetCount> facet(Map<K, Integer> counts, Set<K> selected, Function<K, String> label) {
+        Map<K, Integer> values = new HashMap<>(counts);
+        for (K value : selected) {
+            values.putIfAbsent(value, 0);
+        }
+        return values.entrySet().stream()
+                .map(entry -> new FacetCount(String.valueOf(entry.getKey()), label.apply(entry.getKey()), entry.getValue()))
+                .sorted(Comparator.comparingLong(FacetCount::count).reversed().thenComparing(FacetCount::label,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private Function<Long, String> jobProfileNames(Collection<Long> ids) {
+        Map<Long, String> names = jobProfileRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(JobProfile::getId, JobProfile::getName));
+        return names::get;
+    }
+
+    private Function<Long, String> skillNames(Collection<Long> ids) {
+        Map<Long, String> names = skillRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Skill::getId, Skill::getName));
+        return names::get;
+    }
+
+    private static <T> Set<T> toSet(List<T> values) {
+        return values == null ? Set.of() : new LinkedHashSet<>(values);
+    }
+
+    private static <T> Collection<T> union(Collection<T> first, Collection<T> second) {
+        Set<T> all = new LinkedHashSet<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
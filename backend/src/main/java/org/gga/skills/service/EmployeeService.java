@@ -1,22 +1,46 @@
 package org.gga.skills.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.gga.skills.dto.EmployeeRequest;
 import org.gga.skills.dto.EmployeeResponse;
+import org.gga.skills.event.EmployeeChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
 import org.gga.skills.model.Employee;
 import org.gga.skills.repository.EmployeeRepository;
+import org.gga.skills.repository.PatchableFieldsets;
+import org.gga.skills.repository.SparseFieldRepository;
+import org.gga.skills.repository.SparseFieldsets;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+
 @Service
 @Transactional(readOnly = true)
 public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
-
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    private final SparseFieldRepository sparseFieldRepository;
+    private final BatchLookup batchLookup;
+    private final MergePatches mergePatches;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmployeeService(EmployeeRepository employeeRepository,
+                           SparseFieldRepository sparseFieldRepository,
+                           BatchLookup batchLookup,
+                           MergePatches mergePatches,
+                           ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.sparseFieldRepository = sparseFieldRepository;
+        this.batchLookup = batchLookup;
+        this.mergePatches = mergePatches;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<EmployeeResponse> getAllEmployees(Pageable pageable) {
@@ -30,6 +54,20 @@ public class EmployeeService {
         return EmployeeResponse.fromEntity(employee);
     }
 
+    /**
+     * Get several employees with a single query.
+     *
+     * @param ids the employee IDs, at most the configured multi-get maximum
+     * @return employees in request order; unknown IDs are skipped
+     */
+    public List<EmployeeResponse> getEmployeesByIds(List<Long> ids) {
+        List<Long> distinctIds = batchLookup.distinctIds(ids);
+        return batchLookup.inRequestOrder(distinctIds, employeeRepository.findAllById(distinctIds), Employee::getId)
+                .stream()
+                .map(EmployeeResponse::fromEntity)
+                .toList();
+    }
+
     public EmployeeResponse getEmployeeByEmail(String email) {
         Employee employee = employeeRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with email: " + email));
@@ -56,6 +94,23 @@ public class EmployeeService {
                 .map(EmployeeResponse::fromEntity);
     }
 
+    /**
+     * Get a page of employees containing only the requested fields, optionally filtered by search term.
+     *
+     * @param fields comma-separated field names, see {@link SparseFieldsets#EMPLOYEE}
+     * @param searchTerm optional search term matched like {@link #searchEmployees(String, Pageable)}
+     * @param pageable pagination information
+     * @return page of rows keyed by field name
+     */
+    public Page<Map<String, Object>> getEmployeeFields(String fields, String searchTerm, Pageable pageable) {
+        List<String> selected = SparseFields.resolve(SparseFieldsets.EMPLOYEE, fields);
+        Specification<Employee> specification = null;
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            specification = matchesSearchTerm(searchTerm.trim());
+        }
+        return sparseFieldRepository.findPage(SparseFieldsets.EMPLOYEE, selected, specification, pageable);
+    }
+
     @Transactional
     public EmployeeResponse createEmployee(EmployeeRequest request) {
         if (employeeRepository.existsByEmail(request.email())) {
@@ -71,13 +126,24 @@ public class EmployeeService {
         employee.setPosition(request.position());
 
         Employee saved = employeeRepository.save(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(saved.getId()));
         return EmployeeResponse.fromEntity(saved);
     }
 
+    /**
+     * Replace an employee's fields.
+     *
+     * @param id the employee ID
+     * @param expectedVersion the version the request is based on, or {@code null} to skip the check
+     * @param request the new field values
+     * @return the updated employee
+     * @throws PreconditionFailedException if the employee has another version than {@code expectedVersion}
+     */
     @Transactional
-    public EmployeeResponse updateEmployee(Long id, EmployeeRequest request) {
+    public EmployeeResponse updateEmployee(Long id, Long expectedVersion, EmployeeRequest request) {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
+        MergePatches.checkVersion("Employee", id, expectedVersion, employee.getVersion());
 
         if (!employee.getEmail().equals(request.email()) &&
                 employeeRepository.existsByEmail(request.email())) {
@@ -90,15 +156,52 @@ public class EmployeeService {
         employee.setDepartment(request.department());
         employee.setPosition(request.position());
 
-        Employee updated = employeeRepository.save(employee);
+        // Flushed so the response carries the incremented version
+        Employee updated = employeeRepository.saveAndFlush(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(id));
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.EMPLOYEE, id));
         return EmployeeResponse.fromEntity(updated);
     }
 
+    /**
+     * Apply a JSON Merge Patch with a single conditional update, without loading the employee first.
+     *
+     * @param id the employee ID
+     * @param expectedVersion the version the patch is based on, or {@code null} for any version
+     * @param patch the merge patch document
+     * @return the patched employee
+     * @throws PreconditionFailedException if the employee has another version than {@code expectedVersion}
+     */
+    @Transactional
+    public EmployeeResponse patchEmployee(Long id, Long expectedVersion, JsonNode patch) {
+        Map<String, Object> values = mergePatches.resolve(PatchableFieldsets.EMPLOYEE, patch);
+        if (values.get("email") instanceof String email && employeeRepository.existsByEmailAndIdNot(email, id)) {
+            throw new DuplicateResourceException("Employee with email " + email + " already exists");
+        }
+        mergePatches.apply(PatchableFieldsets.EMPLOYEE, id, expectedVersion, values, "Employee");
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(id));
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.EMPLOYEE, id));
+        return getEmployeeById(id);
+    }
+
     @Transactional
     public void deleteEmployee(Long id) {
         if (!employeeRepository.existsById(id)) {
             throw new ResourceNotFoundException("Employee not found with id: " + id);
         }
         employeeRepository.deleteById(id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(id));
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.EMPLOYEE, id));
+    }
+
+    private static Specification<Employee> matchesSearchTerm(String searchTerm) {
+        return (root, query, cb) -> {
+            String pattern = "%" + searchTerm.toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("firstName")), pattern),
+                    cb.like(cb.lower(root.get("lastName")), pattern),
+                    cb.like(cb.lower(root.get("email")), pattern)
+            );
+        };
     }
 }
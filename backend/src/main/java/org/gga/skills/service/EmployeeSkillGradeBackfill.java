@@ -0,0 +1,121 @@
+package org.gga.skills.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Copies existing {@code employee_skill_grade} rows into the hash-partitioned
+ * {@code employee_skill_grade_partitioned} while the application keeps serving.
+ * <p>
+ * Rows are copied in ID order, one short transaction per batch, and the last copied ID is stored with
+ * each batch so that a restart resumes where the previous run stopped. Writes made meanwhile reach the
+ * partitioned table through the mirror trigger; a batch share-locks the rows it copies so that a
+ * concurrent update or delete is mirrored after the copy rather than overwritten by it.
+ * <p>
+ * Once the backfill has completed, {@code SELECT cutover_employee_skill_grade_partitioned()} swaps the tables.
+ */
+@Component
+@ConditionalOnProperty(name = "skills.partitioning.employee-skill-grade.backfill.enabled", havingValue = "true")
+public class EmployeeSkillGradeBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSkillGradeBackfill.class);
+
+    private static final String TABLE = "employee_skill_grade";
+
+    private static final String COPY_BATCH = """
+            WITH batch AS (
+                SELECT * FROM employee_skill_grade
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                FOR SHARE
+            ), copied AS (
+                INSERT INTO employee_skill_grade_partitioned
+                SELECT * FROM batch
+                ON CONFLICT DO NOTHING
+            )
+            SELECT MAX(id) FROM batch
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pause;
+
+    public EmployeeSkillGradeBackfill(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${skills.partitioning.employee-skill-grade.backfill.batch-size:5000}") int batchSize,
+                                      @Value("${skills.partitioning.employee-skill-grade.backfill.pause:100ms}") Duration pause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofVirtual().name("employee-skill-grade-backfill").start(this::run);
+    }
+
+    /**
+     * Copy all remaining rows. Does nothing once the backfill has completed or the tables have been swapped.
+     */
+    public void run() {
+        try {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('employee_skill_grade_partitioned') IS NOT NULL", Boolean.class))) {
+                log.info("employee_skill_grade is already partitioned, nothing to backfill");
+                return;
+            }
+            Long lastId = jdbcTemplate.queryForObject(
+                    "SELECT last_id FROM partition_backfill_progress WHERE table_name = ? AND completed_at IS NULL",
+                    Long.class, TABLE);
+            log.info("Backfilling partitioned employee_skill_grade after id {}", lastId);
+            long batches = 0;
+            long start = System.nanoTime();
+            while (true) {
+                Long after = lastId;
+                Long batchLastId = transactionTemplate.execute(status -> copyBatch(after));
+                if (batchLastId == null) {
+                    break;
+                }
+                lastId = batchLastId;
+                if (++batches % 100 == 0) {
+                    log.info("Backfilled employee_skill_grade up to id {}", lastId);
+                }
+                Thread.sleep(pause);
+            }
+            jdbcTemplate.update("UPDATE partition_backfill_progress SET completed_at = LOCALTIMESTAMP, "
+                    + "updated_at = LOCALTIMESTAMP WHERE table_name = ?", TABLE);
+            log.info("Backfill of employee_skill_grade completed in {} s; run "
+                            + "SELECT cutover_employee_skill_grade_partitioned() to switch to the partitioned table",
+                    Duration.ofNanos(System.nanoTime() - start).toSeconds());
+        } catch (EmptyResultDataAccessException ex) {
+            log.info("Backfill of employee_skill_grade has already completed");
+        } catch (DataAccessException ex) {
+            log.error("Backfill of employee_skill_grade failed, it resumes from the last copied batch on restart", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Long copyBatch(Long after) {
+        Long batchLastId = jdbcTemplate.queryForObject(COPY_BATCH, Long.class, after, batchSize);
+        if (batchLastId != null) {
+            jdbcTemplate.update("UPDATE partition_backfill_progress SET last_id = ?, updated_at = LOCALTIMESTAMP "
+                    + "WHERE table_name = ?", batchLastId, TABLE);
+        }
+        return batchLastId;
+    }
+}
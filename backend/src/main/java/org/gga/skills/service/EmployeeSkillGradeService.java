@@ -1,19 +1,27 @@
 package org.gga.skills.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.gga.skills.dto.EmployeeSkillGradeRequest;
 import org.gga.skills.dto.EmployeeSkillGradeResponse;
+import org.gga.skills.event.EmployeeChangedEvent;
 import org.gga.skills.model.Employee;
 import org.gga.skills.model.EmployeeSkillGrade;
 import org.gga.skills.model.SkillGrade;
 import org.gga.skills.repository.EmployeeRepository;
 import org.gga.skills.repository.EmployeeSkillGradeRepository;
+import org.gga.skills.repository.PatchableFieldsets;
 import org.gga.skills.repository.SkillGradeRepository;
+import org.gga.skills.repository.SparseFieldRepository;
+import org.gga.skills.repository.SparseFieldsets;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
@@ -22,18 +30,39 @@ public class EmployeeSkillGradeService {
     private final EmployeeSkillGradeRepository employeeSkillGradeRepository;
     private final EmployeeRepository employeeRepository;
     private final SkillGradeRepository skillGradeRepository;
+    private final SparseFieldRepository sparseFieldRepository;
+    private final MergePatches mergePatches;
+    private final ListReads listReads;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EmployeeSkillGradeService(EmployeeSkillGradeRepository employeeSkillGradeRepository,
                                       EmployeeRepository employeeRepository,
-                                      SkillGradeRepository skillGradeRepository) {
+                                      SkillGradeRepository skillGradeRepository,
+                                      SparseFieldRepository sparseFieldRepository,
+                                      MergePatches mergePatches,
+                                      ListReads listReads,
+                                      ApplicationEventPublisher eventPublisher) {
         this.employeeSkillGradeRepository = employeeSkillGradeRepository;
         this.employeeRepository = employeeRepository;
         this.skillGradeRepository = skillGradeRepository;
+        this.sparseFieldRepository = sparseFieldRepository;
+        this.mergePatches = mergePatches;
+        this.listReads = listReads;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Get all employee skill grades with one streamed query, keeping only a bounded number of entities managed.
+     *
+     * @return summaries ordered by ID
+     */
+    public List<EmployeeSkillGradeResponse> getAllEmployeeSkillGrades() {
+        return listReads.map(employeeSkillGradeRepository.streamAll(), EmployeeSkillGradeResponse::summaryFromEntity);
     }
 
     public Page<EmployeeSkillGradeResponse> getAllEmployeeSkillGrades(Pageable pageable) {
         return employeeSkillGradeRepository.findAll(pageable)
-                .map(EmployeeSkillGradeResponse::fromEntity);
+                .map(EmployeeSkillGradeResponse::summaryFromEntity);
     }
 
     public EmployeeSkillGradeResponse getEmployeeSkillGradeById(Long id) {
@@ -47,7 +76,7 @@ public class EmployeeSkillGradeService {
             throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
         }
         return employeeSkillGradeRepository.findByEmployeeId(employeeId).stream()
-                .map(EmployeeSkillGradeResponse::fromEntity)
+                .map(EmployeeSkillGradeResponse::summaryFromEntity)
                 .toList();
     }
 
@@ -55,9 +84,36 @@ public class EmployeeSkillGradeService {
         if (!skillGradeRepository.existsById(skillGradeId)) {
             throw new ResourceNotFoundException("Skill grade not found with id: " + skillGradeId);
         }
-        return employeeSkillGradeRepository.findBySkillGradeId(skillGradeId).stream()
-                .map(EmployeeSkillGradeResponse::fromEntity)
-                .toList();
+        return listReads.map(employeeSkillGradeRepository.streamBySkillGradeId(skillGradeId),
+                EmployeeSkillGradeResponse::summaryFromEntity);
+    }
+
+    /**
+     * Get employee skill grades containing only the requested fields. Unselected text columns and
+     * associations are neither read nor joined.
+     *
+     * @param fields comma-separated field names, see {@link SparseFieldsets#EMPLOYEE_SKILL_GRADE}
+     * @param employeeId optional employee filter, takes precedence over {@code skillGradeId}
+     * @param skillGradeId optional skill grade filter
+     * @param pageable pagination information, may be unpaged
+     * @return rows keyed by field name
+     */
+    public List<Map<String, Object>> getEmployeeSkillGradeFields(String fields, Long employeeId, Long skillGradeId,
+                                                                 Pageable pageable) {
+        List<String> selected = SparseFields.resolve(SparseFieldsets.EMPLOYEE_SKILL_GRADE, fields);
+        Specification<EmployeeSkillGrade> specification = null;
+        if (employeeId != null) {
+            if (!employeeRepository.existsById(employeeId)) {
+                throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+            }
+            specification = (root, query, cb) -> cb.equal(root.get("employee").get("id"), employeeId);
+        } else if (skillGradeId != null) {
+            if (!skillGradeRepository.existsById(skillGradeId)) {
+                throw new ResourceNotFoundException("Skill grade not found with id: " + skillGradeId);
+            }
+            specification = (root, query, cb) -> cb.equal(root.get("skillGrade").get("id"), skillGradeId);
+        }
+        return sparseFieldRepository.findAll(SparseFieldsets.EMPLOYEE_SKILL_GRADE, selected, specification, pageable);
     }
 
     @Transactional
@@ -88,15 +144,28 @@ public class EmployeeSkillGradeService {
         esg.setReviewerComment(request.reviewerComment());
 
         EmployeeSkillGrade saved = employeeSkillGradeRepository.save(esg);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(employee.getId()));
         return EmployeeSkillGradeResponse.fromEntity(saved);
     }
 
+    /**
+     * Replace an employee skill grade's fields.
+     *
+     * @param id the employee skill grade ID
+     * @param expectedVersion the version the request is based on, or {@code null} to skip the check
+     * @param request the new field values
+     * @return the updated employee skill grade
+     * @throws PreconditionFailedException if the employee skill grade has another version than {@code expectedVersion}
+     */
     @Transactional
-    public EmployeeSkillGradeResponse updateEmployeeSkillGrade(Long id, EmployeeSkillGradeRequest request) {
+    public EmployeeSkillGradeResponse updateEmployeeSkillGrade(Long id, Long expectedVersion,
+                                                               EmployeeSkillGradeRequest request) {
         EmployeeSkillGrade esg = employeeSkillGradeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee skill grade not found with id: " + id));
+        MergePatches.checkVersion("Employee skill grade", id, expectedVersion, esg.getVersion());
 
-        boolean employeeChanged = !esg.getEmployee().getId().equals(request.employeeId());
+        Long previousEmployeeId = esg.getEmployee().getId();
+        boolean employeeChanged = !previousEmployeeId.equals(request.employeeId());
         boolean skillGradeChanged = !esg.getSkillGrade().getId().equals(request.skillGradeId());
 
         if ((employeeChanged || skillGradeChanged) &&
@@ -128,15 +197,57 @@ public class EmployeeSkillGradeService {
         }
         esg.setReviewerComment(request.reviewerComment());
 
-        EmployeeSkillGrade updated = employeeSkillGradeRepository.save(esg);
+        EmployeeSkillGrade updated = employeeSkillGradeRepository.saveAndFlush(esg);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(previousEmployeeId, employee.getId()));
         return EmployeeSkillGradeResponse.fromEntity(updated);
     }
 
+    /**
+     * Apply a JSON Merge Patch with a single conditional update, without loading the employee skill grade
+     * or the referenced employees and skill grade.
+     *
+     * @param id the employee skill grade ID
+     * @param expectedVersion the version the patch is based on, or {@code null} for any version
+     * @param patch the merge patch document
+     * @return the patched employee skill grade
+     * @throws PreconditionFailedException if the employee skill grade has another version than {@code expectedVersion}
+     */
     @Transactional
-    public void deleteEmployeeSkillGrade(Long id) {
-        if (!employeeSkillGradeRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Employee skill grade not found with id: " + id);
+    public EmployeeSkillGradeResponse patchEmployeeSkillGrade(Long id, Long expectedVersion, JsonNode patch) {
+        Map<String, Object> values = mergePatches.resolve(PatchableFieldsets.EMPLOYEE_SKILL_GRADE, patch);
+        Long employeeId = (Long) values.get("employeeId");
+        Long skillGradeId = (Long) values.get("skillGradeId");
+        Long reviewerId = (Long) values.get("reviewedByEmployeeId");
+        if (employeeId != null && !employeeRepository.existsById(employeeId)) {
+            throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+        }
+        if (skillGradeId != null && !skillGradeRepository.existsById(skillGradeId)) {
+            throw new ResourceNotFoundException("Skill grade not found with id: " + skillGradeId);
+        }
+        if (reviewerId != null && !employeeRepository.existsById(reviewerId)) {
+            throw new ResourceNotFoundException("Reviewer employee not found with id: " + reviewerId);
+        }
+        if ((employeeId != null || skillGradeId != null) &&
+                employeeSkillGradeRepository.existsOtherByEmployeeIdAndSkillGradeId(id, employeeId, skillGradeId)) {
+            throw new DuplicateResourceException("Employee skill grade already exists for this employee and skill grade");
         }
-        employeeSkillGradeRepository.deleteById(id);
+        // Only a move to another employee needs the previous one, to refresh both
+        Long previousEmployeeId = employeeId != null
+                ? employeeSkillGradeRepository.findEmployeeIdById(id).orElse(null)
+                : null;
+
+        mergePatches.apply(PatchableFieldsets.EMPLOYEE_SKILL_GRADE, id, expectedVersion, values, "Employee skill grade");
+        EmployeeSkillGradeResponse patched = getEmployeeSkillGradeById(id);
+        // Like the full update, since years of experience, certification and the grade all feed the indexes
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(previousEmployeeId, patched.employeeId()));
+        return patched;
+    }
+
+    @Transactional
+    public void deleteEmployeeSkillGrade(Long id) {
+        EmployeeSkillGrade esg = employeeSkillGradeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee skill grade not found with id: " + id));
+        employeeSkillGradeRepository.delete(esg);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(esg.getEmployee().getId()));
     }
 }
@@ -0,0 +1,221 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.EmployeeResponse;
+import org.gga.skills.dto.EmployeeSkillGradeResponse;
+import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.dto.SkillGradeResponse;
+import org.gga.skills.dto.SkillResponse;
+import org.gga.skills.model.Skill;
+import org.gga.skills.repository.EmployeeJobProfileRepository;
+import org.gga.skills.repository.EmployeeRepository;
+import org.gga.skills.repository.EmployeeSkillGradeRepository;
+import org.gga.skills.repository.EmployeeSkillGradeRepository.EmployeeSkillGradeComments;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.JobProfileRepository.JobProfileDescription;
+import org.gga.skills.repository.JobProfileSkillRepository;
+import org.gga.skills.repository.SkillGradeRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.gga.skills.repository.SkillRepository.SkillDescription;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read model behind the GraphQL API.
+ * <p>
+ * Every association is loaded for a whole batch of parent IDs with one query, so a GraphQL request
+ * issues one query per selected association level instead of one per parent object.
+ * Lazily loaded text columns are only read when the client selects them.
+ */
+@Service
+@Transactional(readOnly = true)
+public class GraphQueryService {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeSkillGradeRepository employeeSkillGradeRepository;
+    private final EmployeeJobProfileRepository employeeJobProfileRepository;
+    private final JobProfileRepository jobProfileRepository;
+    private final JobProfileSkillRepository jobProfileSkillRepository;
+    private final SkillRepository skillRepository;
+    private final SkillGradeRepository skillGradeRepository;
+
+    public GraphQueryService(EmployeeRepository employeeRepository,
+                             EmployeeSkillGradeRepository employeeSkillGradeRepository,
+                             EmployeeJobProfileRepository employeeJobProfileRepository,
+                             JobProfileRepository jobProfileRepository,
+                             JobProfileSkillRepository jobProfileSkillRepository,
+                             SkillRepository skillRepository,
+                             SkillGradeRepository skillGradeRepository) {
+        this.employeeRepository = employeeRepository;
+        this.employeeSkillGradeRepository = employeeSkillGradeRepository;
+        this.employeeJobProfileRepository = employeeJobProfileRepository;
+        this.jobProfileRepository = jobProfileRepository;
+        this.jobProfileSkillRepository = jobProfileSkillRepository;
+        this.skillRepository = skillRepository;
+        this.skillGradeRepository = skillGradeRepository;
+    }
+
+    public List<EmployeeResponse> getEmployees(int page, int size) {
+        return employeeRepository.findAll(PageRequest.of(page, size, BY_ID))
+                .map(EmployeeResponse::fromEntity)
+                .getContent();
+    }
+
+    public EmployeeResponse getEmployee(Long id) {
+        return employeeRepository.findById(id).map(EmployeeResponse::fromEntity).orElse(null);
+    }
+
+    public List<SkillResponse> getSkills(int page, int size) {
+        return skillRepository.findAll(PageRequest.of(page, size, BY_ID))
+                .map(GraphQueryService::toSkillResponse)
+                .getContent();
+    }
+
+    public SkillResponse getSkill(Long id) {
+        return skillRepository.findById(id).map(GraphQueryService::toSkillResponse).orElse(null);
+    }
+
+    public List<JobProfileResponse> getJobProfiles(int page, int size) {
+        return jobProfileRepository.findAll(PageRequest.of(page, size, BY_ID))
+                .map(JobProfileResponse::summaryFromEntity)
+                .getContent();
+    }
+
+    public JobProfileResponse getJobProfile(Long id) {
+        return jobProfileRepository.findById(id).map(JobProfileResponse::summaryFromEntity).orElse(null);
+    }
+
+    /**
+     * Get employees by ID, keyed by ID.
+     */
+    public Map<Long, EmployeeResponse> getEmployeesByIds(Collection<Long> ids) {
+        return employeeRepository.findAllById(ids).stream()
+                .map(EmployeeResponse::fromEntity)
+                .collect(Collectors.toMap(EmployeeResponse::id, Function.identity()));
+    }
+
+    /**
+     * Get skills by ID, keyed by ID. Job profiles and description are resolved separately.
+     */
+    public Map<Long, SkillResponse> getSkillsByIds(Collection<Long> ids) {
+        return skillRepository.findAllById(ids).stream()
+                .map(GraphQueryService::toSkillResponse)
+                .collect(Collectors.toMap(SkillResponse::id, Function.identity()));
+    }
+
+    /**
+     * Get skill grades by ID together with their skill, keyed by ID.
+     */
+    public Map<Long, SkillGradeResponse> getSkillGradesByIds(Collection<Long> ids) {
+        return skillGradeRepository.findWithSkillByIdIn(ids).stream()
+                .map(SkillGradeResponse::fromEntity)
+                .collect(Collectors.toMap(SkillGradeResponse::id, Function.identity()));
+    }
+
+    /**
+     * Get the first skill grades of each of the given employees, grouped by employee ID.
+     */
+    public Map<Long, List<EmployeeSkillGradeResponse>> getEmployeeSkillGradesByEmployeeIds(Collection<Long> employeeIds,
+                                                                                          int first) {
+        return employeeSkillGradeRepository.findFirstByEmployeeIdIn(employeeIds, first).stream()
+                .map(EmployeeSkillGradeResponse::summaryFromEntity)
+                .collect(Collectors.groupingBy(EmployeeSkillGradeResponse::employeeId));
+    }
+
+    /**
+     * Get the first employee skill grades by employee ID held for each of the given skills, grouped by skill ID.
+     */
+    public Map<Long, List<EmployeeSkillGradeResponse>> getEmployeeSkillGradesBySkillIds(Collection<Long> skillIds,
+                                                                                       int first) {
+        return employeeSkillGradeRepository.findFirstBySkillGradeSkillIdIn(skillIds, first).stream()
+                .map(EmployeeSkillGradeResponse::summaryFromEntity)
+                .sorted(Comparator.comparing(EmployeeSkillGradeResponse::employeeId))
+                .collect(Collectors.groupingBy(EmployeeSkillGradeResponse::skillId,
+                        Collectors.collectingAndThen(Collectors.toList(),
+                                holders -> holders.subList(0, Math.min(first, holders.size())))));
+    }
+
+    /**
+     * Get the job profiles assigned to the given employees, grouped by employee ID.
+     */
+    public Map<Long, List<JobProfileResponse>> getJobProfilesByEmployeeIds(Collection<Long> employeeIds) {
+        return employeeJobProfileRepository.findByEmployeeIdIn(employeeIds).stream()
+                .collect(Collectors.groupingBy(ejp -> ejp.getEmployee().getId(),
+                        Collectors.mapping(ejp -> JobProfileResponse.summaryFromEntity(ejp.getJobProfile()),
+                                Collectors.toList())));
+    }
+
+    /**
+     * Get the first employees assigned to each of the given job profiles, grouped by job profile ID.
+     */
+    public Map<Long, List<EmployeeResponse>> getEmployeesByJobProfileIds(Collection<Long> jobProfileIds, int first) {
+        return employeeJobProfileRepository.findFirstByJobProfileIdIn(jobProfileIds, first).stream()
+                .collect(Collectors.groupingBy(ejp -> ejp.getJobProfile().getId(),
+                        Collectors.mapping(ejp -> EmployeeResponse.fromEntity(ejp.getEmployee()),
+                                Collectors.toList())));
+    }
+
+    /**
+     * Get the skills required by the given job profiles, grouped by job profile ID.
+     */
+    public Map<Long, List<SkillResponse>> getSkillsByJobProfileIds(Collection<Long> jobProfileIds) {
+        return jobProfileSkillRepository.findByJobProfileIdIn(jobProfileIds).stream()
+                .collect(Collectors.groupingBy(jps -> jps.getJobProfile().getId(),
+                        Collectors.mapping(jps -> toSkillResponse(jps.getSkill()), Collectors.toList())));
+    }
+
+    /**
+     * Get the job profiles requiring the given skills, grouped by skill ID.
+     */
+    public Map<Long, List<JobProfileResponse>> getJobProfilesBySkillIds(Collection<Long> skillIds) {
+        return jobProfileSkillRepository.findBySkillIdIn(skillIds).stream()
+                .collect(Collectors.groupingBy(jps -> jps.getSkill().getId(),
+                        Collectors.mapping(jps -> JobProfileResponse.summaryFromEntity(jps.getJobProfile()),
+                                Collectors.toList())));
+    }
+
+    /**
+     * Get the grades of the given skills, grouped by skill ID.
+     */
+    public Map<Long, List<SkillGradeResponse>> getSkillGradesBySkillIds(Collection<Long> skillIds) {
+        return skillGradeRepository.findBySkillIdIn(skillIds).stream()
+                .map(SkillGradeResponse::fromEntity)
+                .collect(Collectors.groupingBy(SkillGradeResponse::skillId));
+    }
+
+    public Map<Long, String> getSkillDescriptions(Collection<Long> skillIds) {
+        Map<Long, String> descriptions = new HashMap<>();
+        for (SkillDescription row : skillRepository.findDescriptionsByIdIn(skillIds)) {
+            descriptions.put(row.getId(), row.getDescription());
+        }
+        return descriptions;
+    }
+
+    public Map<Long, String> getJobProfileDescriptions(Collection<Long> jobProfileIds) {
+        Map<Long, String> descriptions = new HashMap<>();
+        for (JobProfileDescription row : jobProfileRepository.findDescriptionsByIdIn(jobProfileIds)) {
+            descriptions.put(row.getId(), row.getDescription());
+        }
+        return descriptions;
+    }
+
+    public Map<Long, EmployeeSkillGradeComments> getEmployeeSkillGradeComments(Collection<Long> ids) {
+        return employeeSkillGradeRepository.findCommentsByIdIn(ids).stream()
+                .collect(Collectors.toMap(EmployeeSkillGradeComments::getId, Function.identity()));
+    }
+
+    private static SkillResponse toSkillResponse(Skill skill) {
+        return SkillResponse.fromEntity(skill, List.of(), null);
+    }
+}
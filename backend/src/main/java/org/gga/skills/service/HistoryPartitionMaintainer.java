@@ -0,0 +1,68 @@
+package org.gga.skills.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps the monthly partitions of {@code employee_skill_grade_history} ahead of the clock and detaches
+ * partitions that fall out of the retention period.
+ * <p>
+ * Versions for a month without a partition land in the default partition, which then blocks creating
+ * that month's partition, so partitions are created several months in advance. Detached partitions
+ * stay in the database as standalone tables to be archived or dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "skills.history.partition-maintenance.enabled", matchIfMissing = true)
+public class HistoryPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryPartitionMaintainer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public HistoryPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      @Value("${skills.history.partition-maintenance.months-ahead:3}") int monthsAhead,
+                                      @Value("${skills.history.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${skills.history.partition-maintenance.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                Boolean created = jdbcTemplate.queryForObject(
+                        "SELECT create_employee_skill_grade_history_partition(?)", Boolean.class, month.plusMonths(i));
+                if (Boolean.TRUE.equals(created)) {
+                    log.info("Created skill grade history partition for {}", month.plusMonths(i));
+                }
+            }
+            if (retentionMonths > 0) {
+                Integer detached = jdbcTemplate.queryForObject(
+                        "SELECT detach_employee_skill_grade_history_partitions(?)", Integer.class,
+                        month.minusMonths(retentionMonths));
+                if (detached != null && detached > 0) {
+                    log.info("Detached {} skill grade history partitions older than {} months", detached,
+                            retentionMonths);
+                }
+            }
+        } catch (DataAccessException ex) {
+            // History keeps being recorded into the default partition until the next run succeeds
+            log.error("Failed to maintain skill grade history partitions", ex);
+        }
+    }
+}
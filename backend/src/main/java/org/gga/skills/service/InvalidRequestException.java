@@ -0,0 +1,7 @@
+package org.gga.skills.service;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
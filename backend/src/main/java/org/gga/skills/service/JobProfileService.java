@@ -2,34 +2,58 @@ package org.gga.skills.service;
 
 import org.gga.skills.dto.JobProfileRequest;
 import org.gga.skills.dto.JobProfileResponse;
+import org.gga.skills.event.EmployeeChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
 import org.gga.skills.model.JobProfile;
+import org.gga.skills.repository.EmployeeJobProfileRepository;
 import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.JobProfileSkillRepository;
+import org.gga.skills.repository.SparseFieldRepository;
+import org.gga.skills.repository.SparseFieldsets;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
 public class JobProfileService {
 
     private final JobProfileRepository jobProfileRepository;
-
-    public JobProfileService(JobProfileRepository jobProfileRepository) {
+    private final SparseFieldRepository sparseFieldRepository;
+    private final BatchLookup batchLookup;
+    private final EmployeeJobProfileRepository employeeJobProfileRepository;
+    private final JobProfileSkillRepository jobProfileSkillRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public JobProfileService(JobProfileRepository jobProfileRepository,
+                             SparseFieldRepository sparseFieldRepository,
+                             BatchLookup batchLookup,
+                             EmployeeJobProfileRepository employeeJobProfileRepository,
+                             JobProfileSkillRepository jobProfileSkillRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.jobProfileRepository = jobProfileRepository;
+        this.sparseFieldRepository = sparseFieldRepository;
+        this.batchLookup = batchLookup;
+        this.employeeJobProfileRepository = employeeJobProfileRepository;
+        this.jobProfileSkillRepository = jobProfileSkillRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<JobProfileResponse> getAllJobProfiles() {
         return jobProfileRepository.findAll().stream()
-                .map(JobProfileResponse::fromEntity)
+                .map(JobProfileResponse::summaryFromEntity)
                 .toList();
     }
 
     public Page<JobProfileResponse> getAllJobProfiles(Pageable pageable) {
         return jobProfileRepository.findAll(pageable)
-                .map(JobProfileResponse::fromEntity);
+                .map(JobProfileResponse::summaryFromEntity);
     }
 
     public JobProfileResponse getJobProfileById(Long id) {
@@ -38,6 +62,25 @@ public class JobProfileService {
         return JobProfileResponse.fromEntity(jobProfile);
     }
 
+    public List<Map<String, Object>> getJobProfileFields(String fields, Pageable pageable) {
+        List<String> selected = SparseFields.resolve(SparseFieldsets.JOB_PROFILE, fields);
+        return sparseFieldRepository.findAll(SparseFieldsets.JOB_PROFILE, selected, null, pageable);
+    }
+
+    /**
+     * Get several job profiles with a single query.
+     *
+     * @param ids the job profile IDs, at most the configured multi-get maximum
+     * @return job profiles in request order without descriptions; unknown IDs are skipped
+     */
+    public List<JobProfileResponse> getJobProfilesByIds(List<Long> ids) {
+        List<Long> distinctIds = batchLookup.distinctIds(ids);
+        return batchLookup.inRequestOrder(distinctIds, jobProfileRepository.findAllById(distinctIds), JobProfile::getId)
+                .stream()
+                .map(JobProfileResponse::summaryFromEntity)
+                .toList();
+    }
+
     @Transactional
     public JobProfileResponse createJobProfile(JobProfileRequest request) {
         if (jobProfileRepository.existsByName(request.name())) {
@@ -50,6 +93,7 @@ public class JobProfileService {
         );
 
         JobProfile saved = jobProfileRepository.save(jobProfile);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.JOB_PROFILE, saved.getId()));
         return JobProfileResponse.fromEntity(saved);
     }
 
@@ -67,6 +111,10 @@ public class JobProfileService {
         jobProfile.setDescription(request.description());
 
         JobProfile updated = jobProfileRepository.save(jobProfile);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.JOB_PROFILE, id));
+        // Skills embed the summaries of their job profiles
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL,
+                jobProfileSkillRepository.findSkillIdsByJobProfileId(id)));
         return JobProfileResponse.fromEntity(updated);
     }
 
@@ -75,6 +123,11 @@ public class JobProfileService {
         if (!jobProfileRepository.existsById(id)) {
             throw new ResourceNotFoundException("Job profile not found with id: " + id);
         }
+        List<Long> assigneeIds = employeeJobProfileRepository.findEmployeeIdsByJobProfileId(id);
+        List<Long> skillIds = jobProfileSkillRepository.findSkillIdsByJobProfileId(id);
         jobProfileRepository.deleteById(id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(assigneeIds));
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL, skillIds));
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.JOB_PROFILE, id));
     }
 }
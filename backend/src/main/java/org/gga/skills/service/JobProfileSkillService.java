@@ -1,14 +1,21 @@
 package org.gga.skills.service;
 
+import org.gga.skills.dto.AssociationSyncResponse;
+import org.gga.skills.dto.JobProfileSkillResponse;
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
 import org.gga.skills.model.JobProfile;
 import org.gga.skills.model.JobProfileSkill;
 import org.gga.skills.model.Skill;
+import org.gga.skills.repository.AssociationSyncRepository.Association;
 import org.gga.skills.repository.JobProfileRepository;
 import org.gga.skills.repository.JobProfileSkillRepository;
 import org.gga.skills.repository.SkillRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -18,13 +25,19 @@ public class JobProfileSkillService {
     private final JobProfileSkillRepository jobProfileSkillRepository;
     private final JobProfileRepository jobProfileRepository;
     private final SkillRepository skillRepository;
+    private final AssociationSync associationSync;
+    private final ApplicationEventPublisher eventPublisher;
 
     public JobProfileSkillService(JobProfileSkillRepository jobProfileSkillRepository,
                                   JobProfileRepository jobProfileRepository,
-                                  SkillRepository skillRepository) {
+                                  SkillRepository skillRepository,
+                                  AssociationSync associationSync,
+                                  ApplicationEventPublisher eventPublisher) {
         this.jobProfileSkillRepository = jobProfileSkillRepository;
         this.jobProfileRepository = jobProfileRepository;
         this.skillRepository = skillRepository;
+        this.associationSync = associationSync;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -53,6 +66,19 @@ public class JobProfileSkillService {
                 .toList();
     }
 
+    /**
+     * Get the skills required by all job profiles assigned to an employee.
+     *
+     * @param employeeId the employee ID
+     * @return one entry per job profile and required skill
+     */
+    public List<JobProfileSkillResponse> getRequiredSkillsByEmployeeId(Long employeeId) {
+        return jobProfileSkillRepository.findByEmployeeAssignedJobProfiles(employeeId)
+                .stream()
+                .map(JobProfileSkillResponse::fromEntity)
+                .toList();
+    }
+
     /**
      * Associate a skill with a job profile.
      *
@@ -79,6 +105,7 @@ public class JobProfileSkillService {
         // Create and save the association
         JobProfileSkill association = new JobProfileSkill(jobProfile, skill);
         jobProfileSkillRepository.save(association);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL, skillId));
     }
 
     /**
@@ -97,5 +124,24 @@ public class JobProfileSkillService {
 
         // Delete the association
         jobProfileSkillRepository.deleteByJobProfileIdAndSkillId(jobProfileId, skillId);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL, skillId));
+    }
+
+    /**
+     * Replace the skills of a job profile with the given set, adding and removing only the difference.
+     *
+     * @param jobProfileId the job profile ID
+     * @param skillIds all skills the job profile should require
+     * @return the skills that were added and removed
+     * @throws ResourceNotFoundException if the job profile or an added skill doesn't exist
+     */
+    @Transactional
+    public AssociationSyncResponse syncSkillsOfJobProfile(Long jobProfileId, List<Long> skillIds) {
+        AssociationSyncResponse response = associationSync.sync(Association.JOB_PROFILE_SKILLS, jobProfileId, skillIds,
+                "Job profile", "Skill");
+        List<Long> changedSkillIds = new ArrayList<>(response.added());
+        changedSkillIds.addAll(response.removed());
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL, changedSkillIds));
+        return response;
     }
 }
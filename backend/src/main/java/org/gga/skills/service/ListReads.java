@@ -0,0 +1,54 @@
+package org.gga.skills.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Maps unpaged entity reads to responses without keeping every entity managed.
+ * <p>
+ * The entities come from streaming repository queries marked read-only, so Hibernate keeps no
+ * dirty-checking snapshots of them. The persistence context is cleared every {@code clear-interval}
+ * entities, so a list of any length holds at most that many entities besides the responses. Callers
+ * must run in a read-only transaction and must not use entities loaded before the call afterwards.
+ */
+@Component
+public class ListReads {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int clearInterval;
+
+    public ListReads(@Value("${skills.list-reads.clear-interval:1000}") int clearInterval) {
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * Map and close a stream of entities.
+     *
+     * @param entities a stream from a read-only repository query
+     * @param mapper maps an entity and the associations fetched with it to a response
+     * @return the responses in stream order
+     */
+    public <T, R> List<R> map(Stream<T> entities, Function<? super T, R> mapper) {
+        List<R> responses = new ArrayList<>();
+        try (entities) {
+            Iterator<T> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                responses.add(mapper.apply(iterator.next()));
+                if (responses.size() % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return responses;
+    }
+}
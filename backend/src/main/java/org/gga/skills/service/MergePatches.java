@@ -0,0 +1,136 @@
+package org.gga.skills.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.gga.skills.repository.MergePatchRepository;
+import org.gga.skills.repository.PatchableFieldset;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves JSON Merge Patch (RFC 7396) documents against a {@link PatchableFieldset}: every member is
+ * converted to the field's type and checked against the entity's bean validation constraints, and a
+ * {@code null} member clears the field.
+ */
+@Component
+class MergePatches {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MergePatchRepository mergePatchRepository;
+
+    MergePatches(ObjectMapper objectMapper, Validator validator, MergePatchRepository mergePatchRepository) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.mergePatchRepository = mergePatchRepository;
+    }
+
+    /**
+     * @param fieldset the patchable fields
+     * @param patch the merge patch document
+     * @return the field values to write, keyed by field name, in document order
+     * @throws InvalidRequestException if the document is not an object, names an unknown field,
+     *         clears a required field or contains an invalid value
+     */
+    Map<String, Object> resolve(PatchableFieldset<?> fieldset, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidRequestException("A merge patch must be a JSON object");
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            PatchableFieldset.Field field;
+            try {
+                field = fieldset.field(member.getKey());
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidRequestException(ex.getMessage());
+            }
+            if (member.getValue().isNull()) {
+                if (field.required()) {
+                    errors.add(field.name() + ": must not be null");
+                } else {
+                    values.put(field.name(), null);
+                }
+                continue;
+            }
+            Object value = convert(field, member.getValue(), errors);
+            if (value == null) {
+                continue;
+            }
+            if (!field.isReference()) {
+                validate(fieldset.getEntityType(), field, value, errors);
+            }
+            values.put(field.name(), value);
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidRequestException("Invalid merge patch: " + String.join("; ", errors));
+        }
+        return values;
+    }
+
+    /**
+     * Write resolved values with a single conditional update.
+     *
+     * @param fieldset the patchable fields
+     * @param id the entity ID
+     * @param expectedVersion the version the client based the patch on, or {@code null} for any version
+     * @param values values returned by {@link #resolve}
+     * @param resourceName resource name for error messages, e.g. {@code "Employee"}
+     * @throws ResourceNotFoundException if the entity doesn't exist
+     * @throws PreconditionFailedException if the entity has been changed since {@code expectedVersion}
+     */
+    void apply(PatchableFieldset<?> fieldset, Long id, Long expectedVersion, Map<String, Object> values,
+               String resourceName) {
+        if (mergePatchRepository.update(fieldset, id, expectedVersion, values)) {
+            return;
+        }
+        Long currentVersion = mergePatchRepository.findVersion(fieldset.getEntityType(), id)
+                .orElseThrow(() -> new ResourceNotFoundException(resourceName + " not found with id: " + id));
+        throw new PreconditionFailedException(resourceName + " " + id + " has version " + currentVersion +
+                ", not " + expectedVersion);
+    }
+
+    /**
+     * Check the version a full update was based on.
+     *
+     * @throws PreconditionFailedException if {@code expectedVersion} is given and differs from {@code currentVersion}
+     */
+    static void checkVersion(String resourceName, Long id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException(resourceName + " " + id + " has version " + currentVersion +
+                    ", not " + expectedVersion);
+        }
+    }
+
+    /**
+     * @return the converted value, or {@code null} after recording an error
+     */
+    private Object convert(PatchableFieldset.Field field, JsonNode node, List<String> errors) {
+        try {
+            Object value = node.isValueNode() ? objectMapper.treeToValue(node, field.type()) : null;
+            if (value != null) {
+                return value;
+            }
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            // Reported like any other value of the wrong type
+        }
+        errors.add(field.name() + ": is not a valid " + field.type().getSimpleName());
+        return null;
+    }
+
+    private <T> void validate(Class<T> entityType, PatchableFieldset.Field field, Object value, List<String> errors) {
+        for (ConstraintViolation<T> violation : validator.validateValue(entityType, field.attribute(), value)) {
+            errors.add(field.name() + ": " + violation.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.gga.skills.service;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.gga.skills.service;
+
+public class PreconditionRequiredException extends RuntimeException {
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.gga.skills.service;
+
+public class RequestTimeoutException extends RuntimeException {
+    public RequestTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,128 @@
+package org.gga.skills.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.gga.skills.event.AllResourcesChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON of single resources, so that a repeated GET skips the transaction, the entity load and
+ * the serialization.
+ * <p>
+ * The cache is bounded by the total size of the cached responses and evicts by Caffeine's W-TinyLFU
+ * policy, which keeps frequently read resources over recently read ones. Entries are invalidated by
+ * {@link ResourceChangedEvent}s after the writing transaction commits. A response loaded while a write
+ * commits may show the state before it, so every invalidation also counts up a generation shared by the
+ * keys of a stripe. A loaded response is only kept if the generation of its stripe didn't change during
+ * the load.
+ */
+@Component
+public class ResponseCache {
+
+    /**
+     * Approximate heap size of a cache entry besides the JSON bytes: key, entry record, array header and
+     * the cache's node.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final int STRIPES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Entry> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${skills.response-cache.max-size:32MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> ENTRY_OVERHEAD_BYTES + entry.json().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "skills.response-cache");
+    }
+
+    /**
+     * Get the serialized response of a resource, loading and caching it on a miss. Exceptions of the
+     * loader, such as {@link ResourceNotFoundException}, are thrown and nothing is cached.
+     *
+     * @param resource the kind of resource
+     * @param id the resource ID
+     * @param loader loads the response, in its own transaction
+     * @param version extracts the version of the response for its entity tag, or returns {@code null}
+     * @return the UTF-8 JSON of the response and its version
+     */
+    public <T> Entry get(Resource resource, long id, Supplier<T> loader, Function<T, Long> version) {
+        Key key = new Key(resource, id);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            return entry;
+        }
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        T response = loader.get();
+        entry = new Entry(serialize(response), version.apply(response));
+        cache.put(key, entry);
+        if (generations.get(stripe) != generation) {
+            // A write committed during the load; the next read loads again
+            cache.invalidate(key);
+        }
+        return entry;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        for (Long id : event.ids()) {
+            Key key = new Key(event.resource(), id);
+            generations.incrementAndGet(stripe(key));
+            cache.invalidate(key);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAllResourcesChanged(AllResourcesChangedEvent event) {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+        cache.invalidateAll();
+    }
+
+    private byte[] serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize " + response.getClass().getSimpleName(), ex);
+        }
+    }
+
+    private static int stripe(Key key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & (STRIPES - 1);
+    }
+
+    /**
+     * A cached response.
+     *
+     * @param json the response serialized as UTF-8 JSON
+     * @param version the version of the resource, or {@code null} if it has none
+     */
+    public record Entry(byte[] json, Long version) {
+    }
+
+    private record Key(Resource resource, long id) {
+    }
+}
@@ -0,0 +1,7 @@
+package org.gga.skills.service;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,146 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.EmployeeSkillGradeResponse;
+import org.gga.skills.dto.SkillGradeDistributionResponse;
+import org.gga.skills.repository.EmployeeRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Point-in-time reads of employee skill grades from the append-only {@code employee_skill_grade_history}.
+ * <p>
+ * The state of a grade at a point in time is its latest version recorded at or before that time, unless
+ * that version is a delete. The history is partitioned by month of {@code valid_from}, so every query
+ * bounds {@code valid_from} and only reads the partitions up to the requested time.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SkillGradeHistoryService {
+
+    // Versions of the grades the employee held at some point; the latest version decides whether they still did
+    private static final String EMPLOYEE_GRADES_AS_OF = """
+            SELECT h.employee_skill_grade_id, h.employee_id, e.first_name, e.last_name, h.skill_grade_id, sg.code,
+                   h.skill_id, s.name, h.years_of_experience, h.last_used_date, h.certified, h.employee_comment,
+                   h.reviewed_by_employee_id, r.first_name AS reviewer_first_name,
+                   r.last_name AS reviewer_last_name, h.reviewer_comment, h.created_at, h.valid_from
+            FROM (
+                SELECT DISTINCT ON (employee_skill_grade_id) *,
+                       MIN(valid_from) OVER (PARTITION BY employee_skill_grade_id) AS created_at
+                FROM employee_skill_grade_history
+                WHERE valid_from <= :asOf
+                  AND employee_skill_grade_id IN (
+                      SELECT employee_skill_grade_id FROM employee_skill_grade_history
+                      WHERE employee_id = :employeeId AND valid_from <= :asOf)
+                ORDER BY employee_skill_grade_id, valid_from DESC, id DESC
+            ) h
+            LEFT JOIN employee e ON e.id = h.employee_id
+            LEFT JOIN skill_grade sg ON sg.id = h.skill_grade_id
+            LEFT JOIN skill s ON s.id = h.skill_id
+            LEFT JOIN employee r ON r.id = h.reviewed_by_employee_id
+            WHERE h.operation <> 'D' AND h.employee_id = :employeeId
+            ORDER BY h.employee_skill_grade_id
+            """;
+
+    private static final String DISTRIBUTION_AS_OF = """
+            SELECT h.skill_id, s.name, h.skill_grade_id, sg.code, h.level,
+                   COUNT(*) AS holders, COUNT(*) FILTER (WHERE h.certified) AS certified_holders
+            FROM (
+                SELECT DISTINCT ON (employee_skill_grade_id) operation, skill_id, skill_grade_id, level, certified
+                FROM employee_skill_grade_history
+                WHERE valid_from <= :asOf
+                ORDER BY employee_skill_grade_id, valid_from DESC, id DESC
+            ) h
+            LEFT JOIN skill s ON s.id = h.skill_id
+            LEFT JOIN skill_grade sg ON sg.id = h.skill_grade_id
+            WHERE h.operation <> 'D' AND (CAST(:skillId AS BIGINT) IS NULL OR h.skill_id = :skillId)
+            GROUP BY h.skill_id, s.name, h.skill_grade_id, sg.code, h.level
+            ORDER BY s.name, h.skill_id, h.level, h.skill_grade_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EmployeeRepository employeeRepository;
+
+    public SkillGradeHistoryService(NamedParameterJdbcTemplate jdbcTemplate, EmployeeRepository employeeRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Get the skill grades an employee held at a point in time. Names and codes are the current ones.
+     *
+     * @param employeeId the employee ID
+     * @param asOf the point in time
+     * @return the grades as they were at {@code asOf}, {@code updatedAt} being the time of that version;
+     *         {@code version} is not recorded in the history and always {@code null}
+     * @throws ResourceNotFoundException if the employee neither exists nor held any grade at {@code asOf}
+     */
+    public List<EmployeeSkillGradeResponse> getEmployeeSkillGradesAsOf(Long employeeId, LocalDateTime asOf) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("employeeId", employeeId)
+                .addValue("asOf", asOf);
+        List<EmployeeSkillGradeResponse> grades = jdbcTemplate.query(EMPLOYEE_GRADES_AS_OF, params,
+                (rs, rowNum) -> toEmployeeSkillGrade(rs));
+        if (grades.isEmpty() && !employeeRepository.existsById(employeeId)) {
+            throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+        }
+        return grades;
+    }
+
+    /**
+     * Count the holders of every skill grade at a point in time.
+     *
+     * @param skillId optional skill to restrict the distribution to
+     * @param asOf the point in time
+     * @return one entry per held skill grade, ordered by skill name and grade level
+     */
+    public List<SkillGradeDistributionResponse> getSkillGradeDistributionAsOf(Long skillId, LocalDateTime asOf) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("skillId", skillId)
+                .addValue("asOf", asOf);
+        return jdbcTemplate.query(DISTRIBUTION_AS_OF, params, (rs, rowNum) -> new SkillGradeDistributionResponse(
+                rs.getLong("skill_id"),
+                rs.getString("name"),
+                rs.getLong("skill_grade_id"),
+                rs.getString("code"),
+                rs.getObject("level", Integer.class),
+                rs.getLong("holders"),
+                rs.getLong("certified_holders")
+        ));
+    }
+
+    private static EmployeeSkillGradeResponse toEmployeeSkillGrade(ResultSet rs) throws SQLException {
+        long reviewerId = rs.getLong("reviewed_by_employee_id");
+        boolean reviewed = !rs.wasNull();
+        return new EmployeeSkillGradeResponse(
+                rs.getLong("employee_skill_grade_id"),
+                rs.getLong("employee_id"),
+                fullName(rs.getString("first_name"), rs.getString("last_name")),
+                rs.getLong("skill_grade_id"),
+                rs.getString("code"),
+                rs.getObject("skill_id", Long.class),
+                rs.getString("name"),
+                rs.getObject("years_of_experience", Integer.class),
+                rs.getObject("last_used_date", LocalDate.class),
+                rs.getBoolean("certified"),
+                rs.getString("employee_comment"),
+                reviewed ? reviewerId : null,
+                reviewed ? fullName(rs.getString("reviewer_first_name"), rs.getString("reviewer_last_name")) : null,
+                rs.getString("reviewer_comment"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("valid_from", LocalDateTime.class),
+                null
+        );
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        return firstName != null ? firstName + " " + lastName : null;
+    }
+}
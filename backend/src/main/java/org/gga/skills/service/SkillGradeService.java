@@ -1,17 +1,26 @@
 package org.gga.skills.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.gga.skills.dto.SkillGradeRequest;
 import org.gga.skills.dto.SkillGradeResponse;
+import org.gga.skills.event.EmployeeChangedEvent;
 import org.gga.skills.model.Skill;
 import org.gga.skills.model.SkillGrade;
+import org.gga.skills.repository.EmployeeSkillGradeRepository;
+import org.gga.skills.repository.PatchableFieldsets;
 import org.gga.skills.repository.SkillGradeRepository;
 import org.gga.skills.repository.SkillRepository;
+import org.gga.skills.repository.SparseFieldRepository;
+import org.gga.skills.repository.SparseFieldsets;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
@@ -19,16 +28,31 @@ public class SkillGradeService {
 
     private final SkillGradeRepository skillGradeRepository;
     private final SkillRepository skillRepository;
-
-    public SkillGradeService(SkillGradeRepository skillGradeRepository, SkillRepository skillRepository) {
+    private final SparseFieldRepository sparseFieldRepository;
+    private final BatchLookup batchLookup;
+    private final EmployeeSkillGradeRepository employeeSkillGradeRepository;
+    private final MergePatches mergePatches;
+    private final ListReads listReads;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SkillGradeService(SkillGradeRepository skillGradeRepository, SkillRepository skillRepository,
+                             SparseFieldRepository sparseFieldRepository, BatchLookup batchLookup,
+                             EmployeeSkillGradeRepository employeeSkillGradeRepository,
+                             MergePatches mergePatches,
+                             ListReads listReads,
+                             ApplicationEventPublisher eventPublisher) {
         this.skillGradeRepository = skillGradeRepository;
         this.skillRepository = skillRepository;
+        this.sparseFieldRepository = sparseFieldRepository;
+        this.batchLookup = batchLookup;
+        this.employeeSkillGradeRepository = employeeSkillGradeRepository;
+        this.mergePatches = mergePatches;
+        this.listReads = listReads;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<SkillGradeResponse> getAllSkillGrades() {
-        return skillGradeRepository.findAll().stream()
-                .map(SkillGradeResponse::fromEntity)
-                .toList();
+        return listReads.map(skillGradeRepository.streamAllWithSkill(), SkillGradeResponse::fromEntity);
     }
 
     public Page<SkillGradeResponse> getAllSkillGrades(Pageable pageable) {
@@ -42,6 +66,20 @@ public class SkillGradeService {
         return SkillGradeResponse.fromEntity(skillGrade);
     }
 
+    /**
+     * Get several skill grades, including their skills, with a single query.
+     *
+     * @param ids the skill grade IDs, at most the configured multi-get maximum
+     * @return skill grades in request order; unknown IDs are skipped
+     */
+    public List<SkillGradeResponse> getSkillGradesByIds(List<Long> ids) {
+        List<Long> distinctIds = batchLookup.distinctIds(ids);
+        return batchLookup.inRequestOrder(distinctIds, skillGradeRepository.findWithSkillByIdIn(distinctIds), SkillGrade::getId)
+                .stream()
+                .map(SkillGradeResponse::fromEntity)
+                .toList();
+    }
+
     public List<SkillGradeResponse> getSkillGradesBySkillId(Long skillId) {
         if (!skillRepository.existsById(skillId)) {
             throw new ResourceNotFoundException("Skill not found with id: " + skillId);
@@ -51,6 +89,18 @@ public class SkillGradeService {
                 .toList();
     }
 
+    public List<Map<String, Object>> getSkillGradeFields(String fields, Long skillId, Pageable pageable) {
+        List<String> selected = SparseFields.resolve(SparseFieldsets.SKILL_GRADE, fields);
+        Specification<SkillGrade> specification = null;
+        if (skillId != null) {
+            if (!skillRepository.existsById(skillId)) {
+                throw new ResourceNotFoundException("Skill not found with id: " + skillId);
+            }
+            specification = (root, query, cb) -> cb.equal(root.get("skill").get("id"), skillId);
+        }
+        return sparseFieldRepository.findAll(SparseFieldsets.SKILL_GRADE, selected, specification, pageable);
+    }
+
     @Transactional
     public SkillGradeResponse createSkillGrade(SkillGradeRequest request) {
         if (skillGradeRepository.existsBySkillIdAndCode(request.skillId(), request.code())) {
@@ -61,16 +111,29 @@ public class SkillGradeService {
         Skill skill = skillRepository.findById(request.skillId())
                 .orElseThrow(() -> new ResourceNotFoundException("Skill not found with id: " + request.skillId()));
 
-        SkillGrade skillGrade = new SkillGrade(skill, request.code(), request.description());
+        // Without an explicit level a new grade ranks above the skill's existing grades
+        Integer level = request.level() != null ? request.level()
+                : skillGradeRepository.findMaxLevelBySkillId(skill.getId()) + 1;
+        SkillGrade skillGrade = new SkillGrade(skill, request.code(), request.description(), level);
 
         SkillGrade saved = skillGradeRepository.save(skillGrade);
         return SkillGradeResponse.fromEntity(saved);
     }
 
+    /**
+     * Replace a skill grade's fields; the level is kept unless given.
+     *
+     * @param id the skill grade ID
+     * @param expectedVersion the version the request is based on, or {@code null} to skip the check
+     * @param request the new field values
+     * @return the updated skill grade
+     * @throws PreconditionFailedException if the skill grade has another version than {@code expectedVersion}
+     */
     @Transactional
-    public SkillGradeResponse updateSkillGrade(Long id, SkillGradeRequest request) {
+    public SkillGradeResponse updateSkillGrade(Long id, Long expectedVersion, SkillGradeRequest request) {
         SkillGrade skillGrade = skillGradeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Skill grade not found with id: " + id));
+        MergePatches.checkVersion("Skill grade", id, expectedVersion, skillGrade.getVersion());
 
         Skill skill = skillRepository.findById(request.skillId())
                 .orElseThrow(() -> new ResourceNotFoundException("Skill not found with id: " + request.skillId()));
@@ -87,16 +150,53 @@ public class SkillGradeService {
         skillGrade.setSkill(skill);
         skillGrade.setCode(request.code());
         skillGrade.setDescription(request.description());
+        if (request.level() != null) {
+            skillGrade.setLevel(request.level());
+        }
 
-        SkillGrade updated = skillGradeRepository.save(skillGrade);
+        SkillGrade updated = skillGradeRepository.saveAndFlush(skillGrade);
+        // Holders' grades now rank differently or belong to another skill
+        List<Long> holderIds = employeeSkillGradeRepository.findEmployeeIdsBySkillGradeId(id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(holderIds));
         return SkillGradeResponse.fromEntity(updated);
     }
 
+    /**
+     * Apply a JSON Merge Patch with a single conditional update, without loading the skill grade first.
+     *
+     * @param id the skill grade ID
+     * @param expectedVersion the version the patch is based on, or {@code null} for any version
+     * @param patch the merge patch document
+     * @return the patched skill grade
+     * @throws PreconditionFailedException if the skill grade has another version than {@code expectedVersion}
+     */
+    @Transactional
+    public SkillGradeResponse patchSkillGrade(Long id, Long expectedVersion, JsonNode patch) {
+        Map<String, Object> values = mergePatches.resolve(PatchableFieldsets.SKILL_GRADE, patch);
+        Long skillId = (Long) values.get("skillId");
+        String code = (String) values.get("code");
+        if (skillId != null && !skillRepository.existsById(skillId)) {
+            throw new ResourceNotFoundException("Skill not found with id: " + skillId);
+        }
+        if ((skillId != null || code != null) && skillGradeRepository.existsOtherBySkillIdAndCode(id, skillId, code)) {
+            throw new DuplicateResourceException("Skill grade with this code already exists for the skill");
+        }
+        mergePatches.apply(PatchableFieldsets.SKILL_GRADE, id, expectedVersion, values, "Skill grade");
+        if (skillId != null || values.containsKey("level")) {
+            // Holders' grades now rank differently or belong to another skill
+            List<Long> holderIds = employeeSkillGradeRepository.findEmployeeIdsBySkillGradeId(id);
+            eventPublisher.publishEvent(EmployeeChangedEvent.of(holderIds));
+        }
+        return getSkillGradeById(id);
+    }
+
     @Transactional
     public void deleteSkillGrade(Long id) {
         if (!skillGradeRepository.existsById(id)) {
             throw new ResourceNotFoundException("Skill grade not found with id: " + id);
         }
+        List<Long> holderIds = employeeSkillGradeRepository.findEmployeeIdsBySkillGradeId(id);
         skillGradeRepository.deleteById(id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(holderIds));
     }
 }
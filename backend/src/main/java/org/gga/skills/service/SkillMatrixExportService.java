@@ -0,0 +1,184 @@
+package org.gga.skills.service;
+
+import org.gga.skills.export.ExportFormat;
+import org.gga.skills.export.SkillMatrixWriter;
+import org.gga.skills.export.XlsxSkillMatrixWriter;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports the employees × skills matrix, one row per employee and one column per skill,
+ * with the employee's skill grade code in each cell.
+ * <p>
+ * Rows are read from a single cursor ordered by employee and written as soon as an employee's last
+ * grade has been read, so memory use does not depend on the number of employees.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SkillMatrixExportService {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final List<String> EMPLOYEE_HEADERS =
+            List.of("Employee ID", "First Name", "Last Name", "Email", "Department", "Position");
+
+    private static final String SKILLS_SQL = "SELECT id, name FROM skill ORDER BY name, id";
+
+    private static final String MATRIX_SQL = """
+            SELECT e.id, e.first_name, e.last_name, e.email, e.department, e.position, sg.skill_id, sg.code
+            FROM employee e
+            LEFT JOIN employee_skill_grade esg ON esg.employee_id = e.id
+            LEFT JOIN skill_grade sg ON sg.id = esg.skill_grade_id
+            WHERE (CAST(? AS VARCHAR) IS NULL OR e.department = ?)
+              AND (CAST(? AS BIGINT) IS NULL OR EXISTS (
+                    SELECT 1 FROM employee_job_profile ejp
+                    WHERE ejp.employee_id = e.id AND ejp.job_profile_id = ?))
+            ORDER BY e.id, sg.skill_id, sg.code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobProfileRepository jobProfileRepository;
+    private final SkillRepository skillRepository;
+
+    public SkillMatrixExportService(JdbcTemplate jdbcTemplate,
+                                    JobProfileRepository jobProfileRepository,
+                                    SkillRepository skillRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobProfileRepository = jobProfileRepository;
+        this.skillRepository = skillRepository;
+    }
+
+    /**
+     * Resolve and validate export parameters before the response is committed.
+     *
+     * @param format the requested format extension, e.g. {@code csv}
+     * @param jobProfileId optional job profile filter
+     * @return the resolved format
+     * @throws InvalidRequestException if the format is unsupported or the matrix is too wide for it
+     * @throws ResourceNotFoundException if the job profile doesn't exist
+     */
+    public ExportFormat prepareExport(String format, Long jobProfileId) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromExtension(format);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(ex.getMessage());
+        }
+        if (jobProfileId != null && !jobProfileRepository.existsById(jobProfileId)) {
+            throw new ResourceNotFoundException("Job profile not found with id: " + jobProfileId);
+        }
+        if (exportFormat == ExportFormat.XLSX
+                && EMPLOYEE_HEADERS.size() + skillRepository.count() > XlsxSkillMatrixWriter.MAX_COLUMNS) {
+            throw new InvalidRequestException("Too many skills for an XLSX export, use CSV instead");
+        }
+        return exportFormat;
+    }
+
+    /**
+     * Stream the skill matrix to the given output.
+     *
+     * @param format the output format
+     * @param department optional department filter
+     * @param jobProfileId optional filter on employees assigned to this job profile
+     * @param out the target stream, left open
+     */
+    public void exportSkillMatrix(ExportFormat format, String department, Long jobProfileId, OutputStream out)
+            throws IOException {
+        List<String> headers = new ArrayList<>(EMPLOYEE_HEADERS);
+        Map<Long, Integer> skillColumns = new HashMap<>();
+        jdbcTemplate.query(SKILLS_SQL, rs -> {
+            skillColumns.put(rs.getLong("id"), headers.size());
+            headers.add(rs.getString("name"));
+        });
+
+        SkillMatrixWriter writer = format.newWriter(out);
+        writer.writeHeader(headers);
+        MatrixRowAssembler assembler = new MatrixRowAssembler(writer, headers.size(), skillColumns);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(MATRIX_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // A fetch size inside the transaction makes the driver read through a cursor instead of buffering
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setString(1, department);
+                statement.setString(2, department);
+                statement.setObject(3, jobProfileId);
+                statement.setObject(4, jobProfileId);
+                return statement;
+            }, assembler);
+            assembler.flush();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.finish();
+    }
+
+    /**
+     * Folds the ordered (employee, skill grade) rows into one matrix row per employee.
+     */
+    private static final class MatrixRowAssembler implements RowCallbackHandler {
+
+        private final SkillMatrixWriter writer;
+        private final int width;
+        private final Map<Long, Integer> skillColumns;
+        private long employeeId = -1;
+        private String[] row;
+
+        MatrixRowAssembler(SkillMatrixWriter writer, int width, Map<Long, Integer> skillColumns) {
+            this.writer = writer;
+            this.width = width;
+            this.skillColumns = skillColumns;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != employeeId) {
+                flush();
+                employeeId = id;
+                row = new String[width];
+                row[0] = Long.toString(id);
+                for (int i = 1; i < EMPLOYEE_HEADERS.size(); i++) {
+                    row[i] = rs.getString(i + 1);
+                }
+            }
+            long skillId = rs.getLong(7);
+            if (rs.wasNull()) {
+                return;
+            }
+            Integer column = skillColumns.get(skillId);
+            if (column != null) {
+                String code = rs.getString(8);
+                // An employee may hold several grades of one skill
+                row[column] = row[column] == null ? code : row[column] + "/" + code;
+            }
+        }
+
+        void flush() {
+            if (row == null) {
+                return;
+            }
+            try {
+                writer.writeRow(row);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            row = null;
+        }
+    }
+}
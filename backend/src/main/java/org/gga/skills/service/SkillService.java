@@ -2,16 +2,28 @@ package org.gga.skills.service;
 
 import org.gga.skills.dto.SkillRequest;
 import org.gga.skills.dto.SkillResponse;
+import org.gga.skills.event.EmployeeChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
 import org.gga.skills.model.JobProfile;
+import org.gga.skills.model.JobProfileSkill;
 import org.gga.skills.model.Skill;
+import org.gga.skills.repository.EmployeeSkillGradeRepository;
 import org.gga.skills.repository.JobProfileSkillRepository;
 import org.gga.skills.repository.SkillRepository;
+import org.gga.skills.repository.SparseFieldRepository;
+import org.gga.skills.repository.SparseFieldsets;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
@@ -19,34 +31,57 @@ public class SkillService {
 
     private final SkillRepository skillRepository;
     private final JobProfileSkillRepository jobProfileSkillRepository;
+    private final SparseFieldRepository sparseFieldRepository;
+    private final BatchLookup batchLookup;
+    private final EmployeeSkillGradeRepository employeeSkillGradeRepository;
+    private final ListReads listReads;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SkillService(SkillRepository skillRepository,
-                       JobProfileSkillRepository jobProfileSkillRepository) {
+                       JobProfileSkillRepository jobProfileSkillRepository,
+                       SparseFieldRepository sparseFieldRepository,
+                       BatchLookup batchLookup,
+                       EmployeeSkillGradeRepository employeeSkillGradeRepository,
+                       ListReads listReads,
+                       ApplicationEventPublisher eventPublisher) {
         this.skillRepository = skillRepository;
         this.jobProfileSkillRepository = jobProfileSkillRepository;
+        this.sparseFieldRepository = sparseFieldRepository;
+        this.batchLookup = batchLookup;
+        this.employeeSkillGradeRepository = employeeSkillGradeRepository;
+        this.listReads = listReads;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<SkillResponse> getAllSkills() {
-        return skillRepository.findAll().stream()
-                .map(skill -> {
-                    List<JobProfile> jobProfiles = jobProfileSkillRepository.findBySkillId(skill.getId())
-                            .stream()
-                            .map(jps -> jps.getJobProfile())
-                            .toList();
-                    return SkillResponse.fromEntity(skill, jobProfiles);
-                })
-                .toList();
+    /**
+     * Get all skills. Descriptions are lazily loaded columns, so they are only included on request
+     * and then read with one additional query rather than one per skill. Descriptions and job profiles
+     * are read for the whole table rather than by skill ID, which would exceed the bind parameter limit.
+     *
+     * @param includeDescription whether to include skill descriptions
+     * @return list of skills
+     */
+    public List<SkillResponse> getAllSkills(boolean includeDescription) {
+        Map<Long, String> descriptions = new HashMap<>();
+        if (includeDescription) {
+            for (SkillRepository.SkillDescription row : skillRepository.findAllDescriptions()) {
+                descriptions.put(row.getId(), row.getDescription());
+            }
+        }
+        Map<Long, List<JobProfile>> jobProfilesBySkillId =
+                groupJobProfiles(jobProfileSkillRepository.findAllWithJobProfile());
+        return listReads.map(skillRepository.streamAll(), skill -> SkillResponse.fromEntity(skill,
+                jobProfilesBySkillId.getOrDefault(skill.getId(), List.of()), descriptions.get(skill.getId())));
     }
 
-    public Page<SkillResponse> getAllSkills(Pageable pageable) {
-        return skillRepository.findAll(pageable)
-                .map(skill -> {
-                    List<JobProfile> jobProfiles = jobProfileSkillRepository.findBySkillId(skill.getId())
-                            .stream()
-                            .map(jps -> jps.getJobProfile())
-                            .toList();
-                    return SkillResponse.fromEntity(skill, jobProfiles);
-                });
+    public Page<SkillResponse> getAllSkills(Pageable pageable, boolean includeDescription) {
+        Page<Skill> skills = skillRepository.findAll(pageable);
+        Map<Long, String> descriptions = includeDescription ? findDescriptions(skills.getContent()) : Map.of();
+        Map<Long, List<JobProfile>> jobProfilesBySkillId =
+                findJobProfiles(skills.getContent().stream().map(Skill::getId).toList());
+        return skills
+                .map(skill -> SkillResponse.fromEntity(skill,
+                        jobProfilesBySkillId.getOrDefault(skill.getId(), List.of()), descriptions.get(skill.getId())));
     }
 
     public SkillResponse getSkillById(Long id) {
@@ -61,6 +96,53 @@ public class SkillService {
         return SkillResponse.fromEntity(skill, jobProfiles);
     }
 
+    /**
+     * Get several skills and their job profiles with one query for the skills and one for the job profiles.
+     *
+     * @param ids the skill IDs, at most the configured multi-get maximum
+     * @return skills in request order without descriptions; unknown IDs are skipped
+     */
+    public List<SkillResponse> getSkillsByIds(List<Long> ids) {
+        List<Long> distinctIds = batchLookup.distinctIds(ids);
+        List<Skill> skills = batchLookup.inRequestOrder(distinctIds, skillRepository.findAllById(distinctIds), Skill::getId);
+        Map<Long, List<JobProfile>> jobProfilesBySkillId = findJobProfiles(distinctIds);
+
+        return skills.stream()
+                .map(skill -> SkillResponse.fromEntity(skill,
+                        jobProfilesBySkillId.getOrDefault(skill.getId(), List.of()), null))
+                .toList();
+    }
+
+    /**
+     * Find the job profiles of the given skills with one query, instead of one per skill.
+     *
+     * @param skillIds the skill IDs of a page or multi-get, at most a few hundred
+     */
+    private Map<Long, List<JobProfile>> findJobProfiles(Collection<Long> skillIds) {
+        if (skillIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return groupJobProfiles(jobProfileSkillRepository.findBySkillIdIn(skillIds));
+    }
+
+    private static Map<Long, List<JobProfile>> groupJobProfiles(List<JobProfileSkill> associations) {
+        Map<Long, List<JobProfile>> jobProfilesBySkillId = new HashMap<>();
+        for (JobProfileSkill jps : associations) {
+            jobProfilesBySkillId.computeIfAbsent(jps.getSkill().getId(), id -> new ArrayList<>())
+                    .add(jps.getJobProfile());
+        }
+        return jobProfilesBySkillId;
+    }
+
+    /**
+     * Get skills containing only the requested scalar fields. Job profiles are not selectable here
+     * because they would require a second query per skill.
+     */
+    public List<Map<String, Object>> getSkillFields(String fields, Pageable pageable) {
+        List<String> selected = SparseFields.resolve(SparseFieldsets.SKILL, fields);
+        return sparseFieldRepository.findAll(SparseFieldsets.SKILL, selected, null, pageable);
+    }
+
     @Transactional
     public SkillResponse createSkill(SkillRequest request) {
         if (skillRepository.existsByName(request.name())) {
@@ -71,6 +153,7 @@ public class SkillService {
         skill.setDescription(request.description());
 
         Skill saved = skillRepository.save(skill);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL, saved.getId()));
 
         // Return skill with empty job profiles list
         return SkillResponse.fromEntity(saved, List.of());
@@ -90,6 +173,7 @@ public class SkillService {
         skill.setDescription(request.description());
 
         Skill updated = skillRepository.save(skill);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL, id));
 
         // Fetch associated job profiles
         List<JobProfile> jobProfiles = jobProfileSkillRepository.findBySkillId(id)
@@ -105,6 +189,22 @@ public class SkillService {
         if (!skillRepository.existsById(id)) {
             throw new ResourceNotFoundException("Skill not found with id: " + id);
         }
+        // Deleting the skill cascades to its grades and to every employee holding one
+        List<Long> holderIds = employeeSkillGradeRepository.findEmployeeIdsBySkillId(id);
         skillRepository.deleteById(id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.of(holderIds));
+        eventPublisher.publishEvent(ResourceChangedEvent.of(Resource.SKILL, id));
+    }
+
+    private Map<Long, String> findDescriptions(List<Skill> skills) {
+        if (skills.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = skills.stream().map(Skill::getId).toList();
+        Map<Long, String> descriptions = new HashMap<>();
+        for (SkillRepository.SkillDescription row : skillRepository.findDescriptionsByIdIn(ids)) {
+            descriptions.put(row.getId(), row.getDescription());
+        }
+        return descriptions;
     }
 }
@@ -0,0 +1,123 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.SkillSuggestionResponse;
+import org.gga.skills.index.CooccurrenceIndex;
+import org.gga.skills.index.EmployeeIndexMaintainer;
+import org.gga.skills.model.Skill;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.JobProfileSkillRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests skills from how often employees hold them together, as counted by the {@link CooccurrenceIndex}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SkillSuggestionService {
+
+    private static final int MAX_SUGGESTIONS = 100;
+
+    private final SkillRepository skillRepository;
+    private final JobProfileRepository jobProfileRepository;
+    private final JobProfileSkillRepository jobProfileSkillRepository;
+    private final CooccurrenceIndex cooccurrenceIndex;
+    private final EmployeeIndexMaintainer indexMaintainer;
+    private final int defaultMinCoHolders;
+
+    public SkillSuggestionService(SkillRepository skillRepository,
+                                  JobProfileRepository jobProfileRepository,
+                                  JobProfileSkillRepository jobProfileSkillRepository,
+                                  CooccurrenceIndex cooccurrenceIndex,
+                                  EmployeeIndexMaintainer indexMaintainer,
+                                  @Value("${skills.suggestions.min-co-holders:2}") int defaultMinCoHolders) {
+        this.skillRepository = skillRepository;
+        this.jobProfileRepository = jobProfileRepository;
+        this.jobProfileSkillRepository = jobProfileSkillRepository;
+        this.cooccurrenceIndex = cooccurrenceIndex;
+        this.indexMaintainer = indexMaintainer;
+        this.defaultMinCoHolders = defaultMinCoHolders;
+    }
+
+    /**
+     * Find the skills most strongly related to a skill.
+     *
+     * @param skillId the skill ID
+     * @param limit maximum number of suggestions
+     * @param minCoHolders minimum number of employees holding both skills, {@code null} for the default
+     * @return related skills by descending lift
+     * @throws ResourceNotFoundException if the skill doesn't exist
+     * @throws InvalidRequestException if limit or minCoHolders is out of range
+     */
+    public List<SkillSuggestionResponse> getRelatedSkills(Long skillId, int limit, Integer minCoHolders) {
+        validate(limit, minCoHolders);
+        if (!skillRepository.existsById(skillId)) {
+            throw new ResourceNotFoundException("Skill not found with id: " + skillId);
+        }
+        return suggest(List.of(skillId), limit, minCoHolders);
+    }
+
+    /**
+     * Suggest skills to add to a job profile: those most strongly related to any skill it already
+     * requires.
+     *
+     * @param jobProfileId the job profile ID
+     * @param limit maximum number of suggestions
+     * @param minCoHolders minimum number of employees holding both skills, {@code null} for the default
+     * @return suggested skills by descending lift, each with the required skill it relates to most
+     * @throws ResourceNotFoundException if the job profile doesn't exist
+     * @throws InvalidRequestException if limit or minCoHolders is out of range
+     */
+    public List<SkillSuggestionResponse> getJobProfileSuggestions(Long jobProfileId, int limit, Integer minCoHolders) {
+        validate(limit, minCoHolders);
+        if (!jobProfileRepository.existsById(jobProfileId)) {
+            throw new ResourceNotFoundException("Job profile not found with id: " + jobProfileId);
+        }
+        Set<Long> required = jobProfileSkillRepository.findByJobProfileId(jobProfileId).stream()
+                .map(requirement -> requirement.getSkill().getId())
+                .collect(Collectors.toSet());
+        return suggest(required, limit, minCoHolders);
+    }
+
+    /**
+     * Recount the skill pairs of all employees from the database. The index is kept current as grades
+     * change, so this is only needed after changes that bypass the application.
+     */
+    public void rebuild() {
+        indexMaintainer.rebuild(cooccurrenceIndex);
+    }
+
+    private List<SkillSuggestionResponse> suggest(Collection<Long> skillIds, int limit, Integer minCoHolders) {
+        if (skillIds.isEmpty()) {
+            return List.of();
+        }
+        List<CooccurrenceIndex.Suggestion> suggestions = cooccurrenceIndex.suggest(skillIds, limit,
+                minCoHolders != null ? minCoHolders : defaultMinCoHolders);
+        Map<Long, String> names = skillRepository.findAllById(
+                        suggestions.stream().map(CooccurrenceIndex.Suggestion::skillId).toList()).stream()
+                .collect(Collectors.toMap(Skill::getId, Skill::getName));
+        return suggestions.stream()
+                .filter(suggestion -> names.containsKey(suggestion.skillId()))
+                .map(suggestion -> new SkillSuggestionResponse(suggestion.skillId(), names.get(suggestion.skillId()),
+                        suggestion.relatedSkillId(), suggestion.holders(), suggestion.coHolders(), suggestion.lift(),
+                        Math.log(suggestion.lift()) / Math.log(2)))
+                .toList();
+    }
+
+    private static void validate(int limit, Integer minCoHolders) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (minCoHolders != null && minCoHolders < 1) {
+            throw new InvalidRequestException("minCoHolders must be at least 1");
+        }
+    }
+}
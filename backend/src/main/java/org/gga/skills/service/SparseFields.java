@@ -0,0 +1,22 @@
+package org.gga.skills.service;
+
+import org.gga.skills.repository.SparseFieldset;
+
+import java.util.List;
+
+/**
+ * Validates {@code fields} parameters of list endpoints against a {@link SparseFieldset}.
+ */
+final class SparseFields {
+
+    private SparseFields() {
+    }
+
+    static List<String> resolve(SparseFieldset<?> fieldset, String fields) {
+        try {
+            return fieldset.resolve(fields);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(ex.getMessage());
+        }
+    }
+}
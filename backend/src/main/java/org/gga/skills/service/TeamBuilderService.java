@@ -0,0 +1,155 @@
+package org.gga.skills.service;
+
+import org.gga.skills.dto.EmployeeResponse;
+import org.gga.skills.dto.TeamMemberResponse;
+import org.gga.skills.dto.TeamResponse;
+import org.gga.skills.dto.TeamSkillResponse;
+import org.gga.skills.index.FacetIndex;
+import org.gga.skills.model.Employee;
+import org.gga.skills.model.JobProfile;
+import org.gga.skills.model.JobProfileSkill;
+import org.gga.skills.repository.EmployeeRepository;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.JobProfileSkillRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Staffs a set of job profiles with the fewest employees. The holders of each required skill come from
+ * the {@link FacetIndex}; the search for the smallest cover happens in {@link TeamCover}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TeamBuilderService {
+
+    private final JobProfileRepository jobProfileRepository;
+    private final JobProfileSkillRepository jobProfileSkillRepository;
+    private final EmployeeRepository employeeRepository;
+    private final FacetIndex facetIndex;
+    private final Duration timeBudget;
+
+    public TeamBuilderService(JobProfileRepository jobProfileRepository,
+                              JobProfileSkillRepository jobProfileSkillRepository,
+                              EmployeeRepository employeeRepository,
+                              FacetIndex facetIndex,
+                              @Value("${skills.team-builder.time-budget:2s}") Duration timeBudget) {
+        this.jobProfileRepository = jobProfileRepository;
+        this.jobProfileSkillRepository = jobProfileSkillRepository;
+        this.employeeRepository = employeeRepository;
+        this.facetIndex = facetIndex;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Find the smallest team of employees that together hold every skill required by the given job
+     * profiles. Skills that no available employee holds are reported as uncovered. If the search runs out
+     * of its time budget, the smallest team found so far is returned.
+     *
+     * @param jobProfileIds the job profiles to staff
+     * @param minLevel only grades of at least this level count, {@code null} for any grade
+     * @param excludeEmployeeIds employees that are not available, may be {@code null}
+     * @return the team and which member covers which skill
+     * @throws InvalidRequestException if no job profile is given
+     * @throws ResourceNotFoundException if a job profile doesn't exist
+     */
+    public TeamResponse buildTeam(List<Long> jobProfileIds, Integer minLevel, List<Long> excludeEmployeeIds) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        if (jobProfileIds == null || jobProfileIds.isEmpty()) {
+            throw new InvalidRequestException("At least one jobProfileId is required");
+        }
+        Set<Long> profileIds = new LinkedHashSet<>(jobProfileIds);
+        Set<Long> existing = jobProfileRepository.findAllById(profileIds).stream()
+                .map(JobProfile::getId)
+                .collect(Collectors.toSet());
+        for (Long id : profileIds) {
+            if (!existing.contains(id)) {
+                throw new ResourceNotFoundException("Job profile not found with id: " + id);
+            }
+        }
+
+        // Required skills in ID order, with the job profiles requiring them
+        Map<Long, List<Long>> requiredBy = new TreeMap<>();
+        Map<Long, String> skillNames = new HashMap<>();
+        for (JobProfileSkill requirement : jobProfileSkillRepository.findByJobProfileIdIn(profileIds)) {
+            requiredBy.computeIfAbsent(requirement.getSkill().getId(), id -> new ArrayList<>())
+                    .add(requirement.getJobProfile().getId());
+            skillNames.put(requirement.getSkill().getId(), requirement.getSkill().getName());
+        }
+        List<Long> skillIds = new ArrayList<>(requiredBy.keySet());
+
+        // One bitset of required skills per available employee, in ascending ID order
+        Set<Long> excluded = excludeEmployeeIds == null ? Set.of() : new HashSet<>(excludeEmployeeIds);
+        Map<Long, RoaringBitmap> holders = facetIndex.holders(skillIds, minLevel);
+        TreeMap<Long, BitSet> coverage = new TreeMap<>();
+        for (int skill = 0; skill < skillIds.size(); skill++) {
+            RoaringBitmap skillHolders = holders.get(skillIds.get(skill));
+            if (skillHolders == null) {
+                continue;
+            }
+            int index = skill;
+            skillHolders.forEach((int employeeId) -> {
+                if (!excluded.contains((long) employeeId)) {
+                    coverage.computeIfAbsent((long) employeeId, id -> new BitSet(skillIds.size())).set(index);
+                }
+            });
+        }
+
+        // Employees with the same skills are interchangeable; keep the one with the lowest ID
+        List<Long> candidateIds = new ArrayList<>();
+        List<BitSet> candidateSkills = new ArrayList<>();
+        Set<BitSet> distinct = new HashSet<>();
+        coverage.forEach((employeeId, skills) -> {
+            if (distinct.add(skills)) {
+                candidateIds.add(employeeId);
+                candidateSkills.add(skills);
+            }
+        });
+
+        TeamCover.Solution solution = new TeamCover(candidateSkills, skillIds.size()).solve(deadline);
+
+        List<Long> memberIds = new ArrayList<>();
+        List<BitSet> memberSkills = new ArrayList<>();
+        for (int member : solution.members()) {
+            memberIds.add(candidateIds.get(member));
+            memberSkills.add(candidateSkills.get(member));
+        }
+        Map<Long, Employee> employees = employeeRepository.findAllById(memberIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        List<TeamMemberResponse> members = new ArrayList<>(memberIds.size());
+        for (int i = 0; i < memberIds.size(); i++) {
+            Employee employee = employees.get(memberIds.get(i));
+            if (employee != null) {
+                members.add(new TeamMemberResponse(EmployeeResponse.fromEntity(employee),
+                        memberSkills.get(i).stream().mapToObj(skillIds::get).toList()));
+            }
+        }
+        List<TeamSkillResponse> skills = new ArrayList<>(skillIds.size());
+        for (int skill = 0; skill < skillIds.size(); skill++) {
+            List<Long> coveredBy = new ArrayList<>();
+            for (int i = 0; i < memberIds.size(); i++) {
+                if (memberSkills.get(i).get(skill) && employees.containsKey(memberIds.get(i))) {
+                    coveredBy.add(memberIds.get(i));
+                }
+            }
+            Long skillId = skillIds.get(skill);
+            skills.add(new TeamSkillResponse(skillId, skillNames.get(skillId), requiredBy.get(skillId), coveredBy));
+        }
+        return new TeamResponse(members, skills, solution.optimal());
+    }
+}
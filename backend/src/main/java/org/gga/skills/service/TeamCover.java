@@ -0,0 +1,333 @@
+package org.gga.skills.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Smallest set of candidates whose skill bitsets together cover every coverable skill.
+ * <p>
+ * A greedy cover gives the first solution. Branch and bound then improves it. Every cover must contain a
+ * holder of the rarest uncovered skill, so the search branches over those holders, the most useful first.
+ * Once a holder's subtree is done, the later branches never pick that holder again. A subtree is pruned when
+ * even candidates as large as the largest one couldn't beat the best team. The subtrees below the rarest
+ * skill are searched concurrently by one virtual thread per processor, which share the best team found so far.
+ * <p>
+ * The search stops at the deadline. The best team found by then is returned, and it is known to be
+ * minimal only if the search finished.
+ */
+final class TeamCover {
+
+    /**
+     * Number of first members whose greedy completion seeds the best team.
+     */
+    private static final int SEEDS = 16;
+
+    private final long[][] coverage;
+    private final int[][] holders;
+    private final long[] target;
+    private final int maxCoverage;
+
+    /**
+     * @param coverage the skills of each candidate, indexed by candidate; ties go to the lower index
+     * @param skillCount the number of skills
+     */
+    TeamCover(List<BitSet> coverage, int skillCount) {
+        int words = (skillCount + Long.SIZE - 1) / Long.SIZE;
+        this.coverage = new long[coverage.size()][];
+        int[] holderCounts = new int[skillCount];
+        BitSet coverable = new BitSet(skillCount);
+        int largest = 0;
+        for (int candidate = 0; candidate < coverage.size(); candidate++) {
+            BitSet skills = coverage.get(candidate);
+            this.coverage[candidate] = Arrays.copyOf(skills.toLongArray(), words);
+            for (int skill = skills.nextSetBit(0); skill >= 0; skill = skills.nextSetBit(skill + 1)) {
+                holderCounts[skill]++;
+            }
+            coverable.or(skills);
+            largest = Math.max(largest, skills.cardinality());
+        }
+        this.holders = new int[skillCount][];
+        for (int skill = 0; skill < skillCount; skill++) {
+            holders[skill] = new int[holderCounts[skill]];
+            holderCounts[skill] = 0;
+        }
+        for (int candidate = 0; candidate < coverage.size(); candidate++) {
+            BitSet skills = coverage.get(candidate);
+            for (int skill = skills.nextSetBit(0); skill >= 0; skill = skills.nextSetBit(skill + 1)) {
+                holders[skill][holderCounts[skill]++] = candidate;
+            }
+        }
+        this.target = Arrays.copyOf(coverable.toLongArray(), words);
+        this.maxCoverage = largest;
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} after which the search stops
+     * @return the candidate indices of the best team found, in ascending order
+     */
+    Solution solve(long deadline) {
+        Best best = new Best(greedy(new int[coverage.length], new int[0], target.clone()));
+        if (cardinality(target) == 0) {
+            return best.solution(true);
+        }
+
+        int[] branches = byGain(holders[rarest(target)], target, new int[coverage.length]);
+        AtomicInteger nextBranch = new AtomicInteger();
+        int workers = Math.min(Runtime.getRuntime().availableProcessors(), branches.length);
+        boolean complete = true;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                List<Future<Boolean>> searches = new ArrayList<>(workers);
+                for (int i = 0; i < workers; i++) {
+                    searches.add(executor.submit(() -> searchBranches(branches, nextBranch, best, deadline)));
+                }
+                for (Future<Boolean> search : searches) {
+                    complete &= await(search, deadline);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return best.solution(complete);
+    }
+
+    /**
+     * Search the subtrees of the branches taken from {@code nextBranch}, in increasing order. Each branch
+     * bans the members of all earlier branches, so the banned counts only grow between branches.
+     *
+     * @return whether every branch taken was searched completely
+     */
+    private boolean searchBranches(int[] branches, AtomicInteger nextBranch, Best best, long deadline) {
+        int[] banned = new int[coverage.length];
+        int bannedUpTo = 0;
+        int branch;
+        while ((branch = nextBranch.getAndIncrement()) < branches.length) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            while (bannedUpTo < branch) {
+                banned[branches[bannedUpTo++]]++;
+            }
+            if (!new Search(best, deadline, banned).branch(branches[branch], branch < SEEDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Complete a partial team by repeatedly adding the candidate that covers the most uncovered skills.
+     *
+     * @return the completed team, or {@code null} if only banned candidates cover the rest
+     */
+    private int[] greedy(int[] banned, int[] team, long[] uncovered) {
+        List<Integer> members = new ArrayList<>(team.length + 4);
+        Arrays.stream(team).forEach(members::add);
+        long[] remaining = uncovered.clone();
+        while (cardinality(remaining) > 0) {
+            int chosen = -1;
+            int chosenGain = 0;
+            for (int candidate = 0; candidate < coverage.length; candidate++) {
+                if (banned[candidate] == 0) {
+                    int gain = andCardinality(coverage[candidate], remaining);
+                    if (gain > chosenGain) {
+                        chosen = candidate;
+                        chosenGain = gain;
+                    }
+                }
+            }
+            if (chosen < 0) {
+                return null;
+            }
+            members.add(chosen);
+            andNot(remaining, coverage[chosen]);
+        }
+        return members.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return the uncovered skill with the fewest holders
+     */
+    private int rarest(long[] uncovered) {
+        int rarest = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int word = 0; word < uncovered.length; word++) {
+            long bits = uncovered[word];
+            while (bits != 0) {
+                int skill = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (holders[skill].length < fewest) {
+                    rarest = skill;
+                    fewest = holders[skill].length;
+                }
+            }
+        }
+        return rarest;
+    }
+
+    /**
+     * @return the candidates that aren't banned, by descending number of uncovered skills they cover
+     */
+    private int[] byGain(int[] candidates, long[] uncovered, int[] banned) {
+        return Arrays.stream(candidates)
+                .filter(candidate -> banned[candidate] == 0)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer candidate) -> -andCardinality(coverage[candidate], uncovered))
+                        .thenComparingInt(Integer::intValue))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static boolean await(Future<Boolean> search, long deadline) {
+        try {
+            return search.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Team search failed", ex.getCause());
+        }
+    }
+
+    private static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static int andCardinality(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    private static void andNot(long[] bits, long[] remove) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= ~remove[i];
+        }
+    }
+
+    /**
+     * @param members candidate indices of the team, in ascending order
+     * @param optimal whether no smaller team exists
+     */
+    record Solution(int[] members, boolean optimal) {
+    }
+
+    /**
+     * Smallest team found so far, shared by the concurrent searches.
+     */
+    private static final class Best {
+
+        private int[] members;
+        private volatile int size;
+
+        Best(int[] members) {
+            this.members = members;
+            this.size = members.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        synchronized void offer(int[] team) {
+            if (team != null && team.length < size) {
+                members = team;
+                size = team.length;
+            }
+        }
+
+        synchronized Solution solution(boolean optimal) {
+            int[] sorted = members.clone();
+            Arrays.sort(sorted);
+            return new Solution(sorted, optimal);
+        }
+    }
+
+    /**
+     * Depth-first branch and bound below one first member. Banned candidates have been covered by earlier
+     * branches at the same level; the counts allow a candidate to be banned at several levels.
+     */
+    private final class Search {
+
+        private final Best best;
+        private final long deadline;
+        private final int[] banned;
+        private final int[] team = new int[holders.length + 1];
+
+        Search(Best best, long deadline, int[] banned) {
+            this.best = best;
+            this.deadline = deadline;
+            this.banned = banned;
+        }
+
+        /**
+         * @param seed whether to complete the team greedily before searching
+         * @return whether the subtree was searched completely
+         */
+        boolean branch(int first, boolean seed) {
+            long[] uncovered = target.clone();
+            andNot(uncovered, coverage[first]);
+            team[0] = first;
+            if (seed) {
+                best.offer(greedy(banned, new int[] {first}, uncovered));
+            }
+            return search(1, uncovered);
+        }
+
+        private boolean search(int depth, long[] uncovered) {
+            if (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            int remaining = cardinality(uncovered);
+            if (remaining == 0) {
+                best.offer(Arrays.copyOf(team, depth));
+                return true;
+            }
+            // Even members as large as the largest candidate need this many more
+            int needed = (remaining + maxCoverage - 1) / maxCoverage;
+            if (depth + needed >= best.size()) {
+                return true;
+            }
+            int skill = rarest(uncovered);
+            int[] candidates = byGain(holders[skill], uncovered, banned);
+            boolean complete = true;
+            int tried = 0;
+            for (int candidate : candidates) {
+                long[] next = uncovered.clone();
+                andNot(next, coverage[candidate]);
+                team[depth] = candidate;
+                complete &= search(depth + 1, next);
+                banned[candidate]++;
+                tried++;
+                if (!complete) {
+                    break;
+                }
+            }
+            for (int i = 0; i < tried; i++) {
+                banned[candidates[i]]--;
+            }
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Order grades within a skill so that "at least grade X" can be evaluated
+ALTER TABLE skill_grade ADD COLUMN level INTEGER;
+
+-- Existing grades are assumed to have been created from the lowest to the highest level
+UPDATE skill_grade sg
+SET level = ranked.level
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY skill_id ORDER BY id) AS level
+    FROM skill_grade
+) ranked
+WHERE sg.id = ranked.id;
+
+ALTER TABLE skill_grade ALTER COLUMN level SET NOT NULL;
+
+ALTER TABLE skill_grade
+    ADD CONSTRAINT chk_skill_grade_level CHECK (level >= 0);
+
+COMMENT ON COLUMN skill_grade.level IS 'Rank of the grade within its skill, higher means more proficient';
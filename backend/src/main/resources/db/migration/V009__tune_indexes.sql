@@ -0,0 +1,40 @@
+-- Align indexes with the repository access patterns.
+-- Every unique constraint already creates a B-tree index whose leading column serves
+-- single-column lookups, so plain indexes on those columns only cost write amplification.
+
+-- Duplicates of unique constraints
+DROP INDEX IF EXISTS idx_employee_email;
+DROP INDEX IF EXISTS idx_skill_name;
+DROP INDEX IF EXISTS idx_job_profile_name;
+
+-- Prefixes of composite unique constraints
+DROP INDEX IF EXISTS idx_skill_grade_skill;                  -- uk_skill_grade_skill_code (skill_id, code)
+DROP INDEX IF EXISTS idx_employee_skill_grade_employee;      -- uk_employee_skill_grade (employee_id, skill_grade_id)
+DROP INDEX IF EXISTS idx_employee_job_profile_employee;      -- uk_employee_job_profile (employee_id, job_profile_id)
+DROP INDEX IF EXISTS idx_job_profile_skill_job_profile;      -- uk_job_profile_skill (job_profile_id, skill_id)
+
+-- Grade codes are only ever looked up together with their skill
+DROP INDEX IF EXISTS idx_skill_grade_code;
+
+-- A boolean index is too unselective to be used for certified = false; certified grades are the
+-- minority, so a partial index serves certified = true and stays small
+DROP INDEX IF EXISTS idx_employee_skill_grade_certified;
+CREATE INDEX idx_employee_skill_grade_certified ON employee_skill_grade(employee_id) WHERE certified;
+
+-- Department and position listings are paged in ID order
+DROP INDEX IF EXISTS idx_employee_department;
+CREATE INDEX idx_employee_department_id ON employee(department, id);
+CREATE INDEX idx_employee_position_id ON employee(position, id);
+
+-- Highest grade level of a skill, used when a grade is created without a level
+CREATE INDEX idx_skill_grade_skill_level ON skill_grade(skill_id, level);
+
+-- Reverse lookups of the association tables, covering so that ID-only queries need no heap access
+DROP INDEX IF EXISTS idx_employee_skill_grade_skill_grade;
+CREATE INDEX idx_employee_skill_grade_skill_grade ON employee_skill_grade(skill_grade_id, employee_id);
+
+DROP INDEX IF EXISTS idx_employee_job_profile_job_profile;
+CREATE INDEX idx_employee_job_profile_job_profile ON employee_job_profile(job_profile_id, employee_id);
+
+DROP INDEX IF EXISTS idx_job_profile_skill_skill;
+CREATE INDEX idx_job_profile_skill_skill ON job_profile_skill(skill_id, job_profile_id);
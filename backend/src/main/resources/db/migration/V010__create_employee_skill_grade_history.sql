@@ -0,0 +1,126 @@
+-- Append-only history of employee_skill_grade, one row per inserted, updated or deleted version
+CREATE TABLE employee_skill_grade_history (
+    id BIGSERIAL,
+    employee_skill_grade_id BIGINT NOT NULL,
+    operation CHAR(1) NOT NULL,
+    valid_from TIMESTAMP NOT NULL,
+    employee_id BIGINT NOT NULL,
+    skill_grade_id BIGINT NOT NULL,
+    skill_id BIGINT,
+    level INTEGER,
+    years_of_experience INTEGER,
+    last_used_date DATE,
+    certified BOOLEAN NOT NULL,
+    employee_comment TEXT,
+    reviewed_by_employee_id BIGINT,
+    reviewer_comment TEXT,
+    CONSTRAINT pk_employee_skill_grade_history
+        PRIMARY KEY (id, valid_from),
+    CONSTRAINT chk_employee_skill_grade_history_operation
+        CHECK (operation IN ('I', 'U', 'D'))
+) PARTITION BY RANGE (valid_from);
+
+-- Indexes are created on every partition, so as-of scans only touch the partitions up to the requested time
+CREATE INDEX idx_employee_skill_grade_history_employee
+    ON employee_skill_grade_history(employee_id, valid_from);
+CREATE INDEX idx_employee_skill_grade_history_row
+    ON employee_skill_grade_history(employee_skill_grade_id, valid_from);
+
+-- Catches versions for months without a partition; partitions are created ahead so it normally stays empty
+CREATE TABLE employee_skill_grade_history_default
+    PARTITION OF employee_skill_grade_history DEFAULT;
+
+-- Create the partition holding the given month, named employee_skill_grade_history_yYYYYmMM
+CREATE FUNCTION create_employee_skill_grade_history_partition(p_month DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    v_from DATE := date_trunc('month', p_month)::DATE;
+    v_name TEXT := 'employee_skill_grade_history_' || to_char(v_from, '"y"YYYY"m"MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF employee_skill_grade_history FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, (v_from + INTERVAL '1 month')::DATE);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detach monthly partitions that end on or before the given date; they remain as standalone tables
+CREATE FUNCTION detach_employee_skill_grade_history_partitions(p_before DATE) RETURNS INTEGER AS $$
+DECLARE
+    v_partition RECORD;
+    v_detached INTEGER := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname, to_date(substring(c.relname FROM '(\d{4}m\d{2})$'), 'YYYY"m"MM') AS month
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'employee_skill_grade_history'::regclass
+          AND c.relname ~ '_y\d{4}m\d{2}$'
+    LOOP
+        IF (v_partition.month + INTERVAL '1 month')::DATE <= p_before THEN
+            EXECUTE format('ALTER TABLE employee_skill_grade_history DETACH PARTITION %I', v_partition.relname);
+            v_detached := v_detached + 1;
+        END IF;
+    END LOOP;
+    RETURN v_detached;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Record every change of employee_skill_grade, including deletes cascaded from employees and grades
+CREATE FUNCTION record_employee_skill_grade_history() RETURNS TRIGGER AS $$
+DECLARE
+    v_row employee_skill_grade%ROWTYPE;
+    v_skill_id BIGINT;
+    v_level INTEGER;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        v_row := OLD;
+    ELSE
+        v_row := NEW;
+    END IF;
+    SELECT sg.skill_id, sg.level INTO v_skill_id, v_level
+    FROM skill_grade sg
+    WHERE sg.id = v_row.skill_grade_id;
+
+    INSERT INTO employee_skill_grade_history (
+        employee_skill_grade_id, operation, valid_from, employee_id, skill_grade_id, skill_id, level,
+        years_of_experience, last_used_date, certified, employee_comment, reviewed_by_employee_id, reviewer_comment)
+    VALUES (
+        v_row.id, left(TG_OP, 1), LOCALTIMESTAMP, v_row.employee_id, v_row.skill_grade_id, v_skill_id, v_level,
+        v_row.years_of_experience, v_row.last_used_date, v_row.certified, v_row.employee_comment,
+        v_row.reviewed_by_employee_id, v_row.reviewer_comment);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_employee_skill_grade_history
+    AFTER INSERT OR UPDATE OR DELETE ON employee_skill_grade
+    FOR EACH ROW EXECUTE FUNCTION record_employee_skill_grade_history();
+
+-- Partitions from the oldest existing grade up to three months ahead
+DO $$
+DECLARE
+    v_month DATE := date_trunc('month', LEAST(
+            COALESCE((SELECT MIN(created_at) FROM employee_skill_grade), LOCALTIMESTAMP), LOCALTIMESTAMP))::DATE;
+BEGIN
+    WHILE v_month <= (date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_employee_skill_grade_history_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+-- Seed the current state; earlier versions of existing rows were not kept
+INSERT INTO employee_skill_grade_history (
+    employee_skill_grade_id, operation, valid_from, employee_id, skill_grade_id, skill_id, level,
+    years_of_experience, last_used_date, certified, employee_comment, reviewed_by_employee_id, reviewer_comment)
+SELECT esg.id, 'I', esg.created_at, esg.employee_id, esg.skill_grade_id, sg.skill_id, sg.level,
+       esg.years_of_experience, esg.last_used_date, esg.certified, esg.employee_comment,
+       esg.reviewed_by_employee_id, esg.reviewer_comment
+FROM employee_skill_grade esg
+JOIN skill_grade sg ON sg.id = esg.skill_grade_id;
+
+COMMENT ON TABLE employee_skill_grade_history IS 'Every version of employee_skill_grade rows, partitioned by month of valid_from';
+COMMENT ON COLUMN employee_skill_grade_history.operation IS 'I = inserted, U = updated, D = deleted at valid_from';
+COMMENT ON COLUMN employee_skill_grade_history.level IS 'Level of the skill grade when the version was recorded';
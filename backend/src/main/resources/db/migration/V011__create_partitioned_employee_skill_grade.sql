@@ -0,0 +1,138 @@
+-- Hash-partitioned replacement for employee_skill_grade. Rows are mirrored here by a trigger and
+-- existing rows are copied by the online backfill; cutover_employee_skill_grade_partitioned()
+-- then swaps the tables. The column order matches employee_skill_grade.
+CREATE TABLE employee_skill_grade_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('employee_skill_grade_id_seq'),
+    employee_id BIGINT NOT NULL,
+    skill_grade_id BIGINT NOT NULL,
+    years_of_experience INTEGER,
+    last_used_date DATE,
+    certified BOOLEAN NOT NULL DEFAULT FALSE,
+    employee_comment TEXT,
+    reviewed_by_employee_id BIGINT,
+    reviewer_comment TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Unique constraints must contain the partition key; IDs stay unique through the shared sequence
+    CONSTRAINT employee_skill_grade_partitioned_pkey
+        PRIMARY KEY (id, employee_id),
+    CONSTRAINT uk_employee_skill_grade_partitioned
+        UNIQUE (employee_id, skill_grade_id),
+    CONSTRAINT fk_employee_skill_grade_employee
+        FOREIGN KEY (employee_id) REFERENCES employee(id) ON DELETE CASCADE,
+    CONSTRAINT fk_employee_skill_grade_skill_grade
+        FOREIGN KEY (skill_grade_id) REFERENCES skill_grade(id) ON DELETE CASCADE,
+    CONSTRAINT fk_employee_skill_grade_reviewer
+        FOREIGN KEY (reviewed_by_employee_id) REFERENCES employee(id) ON DELETE SET NULL,
+    CONSTRAINT chk_years_of_experience
+        CHECK (years_of_experience >= 0)
+) PARTITION BY HASH (employee_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF employee_skill_grade_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                       'employee_skill_grade_p' || lpad(i::TEXT, 2, '0'), i);
+    END LOOP;
+END;
+$$;
+
+CREATE INDEX idx_employee_skill_grade_partitioned_skill_grade
+    ON employee_skill_grade_partitioned(skill_grade_id, employee_id);
+CREATE INDEX idx_employee_skill_grade_partitioned_reviewer
+    ON employee_skill_grade_partitioned(reviewed_by_employee_id);
+CREATE INDEX idx_employee_skill_grade_partitioned_certified
+    ON employee_skill_grade_partitioned(employee_id) WHERE certified;
+
+-- Keep the partitioned table in step with every write to employee_skill_grade
+CREATE FUNCTION mirror_employee_skill_grade() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM employee_skill_grade_partitioned
+        WHERE id = OLD.id AND employee_id = OLD.employee_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO employee_skill_grade_partitioned
+        SELECT NEW.*
+        ON CONFLICT (id, employee_id) DO UPDATE SET
+            skill_grade_id = EXCLUDED.skill_grade_id,
+            years_of_experience = EXCLUDED.years_of_experience,
+            last_used_date = EXCLUDED.last_used_date,
+            certified = EXCLUDED.certified,
+            employee_comment = EXCLUDED.employee_comment,
+            reviewed_by_employee_id = EXCLUDED.reviewed_by_employee_id,
+            reviewer_comment = EXCLUDED.reviewer_comment,
+            created_at = EXCLUDED.created_at,
+            updated_at = EXCLUDED.updated_at;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_employee_skill_grade_mirror
+    AFTER INSERT OR UPDATE OR DELETE ON employee_skill_grade
+    FOR EACH ROW EXECUTE FUNCTION mirror_employee_skill_grade();
+
+-- Position of the online backfill, so that it resumes where it stopped
+CREATE TABLE partition_backfill_progress (
+    table_name VARCHAR(100) PRIMARY KEY,
+    last_id BIGINT NOT NULL,
+    completed_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO partition_backfill_progress (table_name, last_id) VALUES ('employee_skill_grade', 0);
+
+-- Swap the partitioned table in once the backfill has completed. Runs in the caller's transaction and
+-- blocks writes to employee_skill_grade only for the final consistency check and the renames.
+-- The previous table is kept as employee_skill_grade_unpartitioned until it is dropped manually.
+CREATE FUNCTION cutover_employee_skill_grade_partitioned() RETURNS VOID AS $$
+DECLARE
+    v_missing BIGINT;
+    v_extra BIGINT;
+BEGIN
+    IF to_regclass('employee_skill_grade_partitioned') IS NULL THEN
+        RAISE EXCEPTION 'employee_skill_grade is already partitioned';
+    END IF;
+    LOCK TABLE employee_skill_grade IN EXCLUSIVE MODE;
+
+    SELECT COUNT(*) INTO v_missing
+    FROM employee_skill_grade e
+    WHERE NOT EXISTS (
+        SELECT 1 FROM employee_skill_grade_partitioned p WHERE p.id = e.id AND p.employee_id = e.employee_id);
+    SELECT COUNT(*) INTO v_extra
+    FROM employee_skill_grade_partitioned p
+    WHERE NOT EXISTS (
+        SELECT 1 FROM employee_skill_grade e WHERE e.id = p.id AND e.employee_id = p.employee_id);
+    IF v_missing > 0 OR v_extra > 0 THEN
+        RAISE EXCEPTION 'Partitioned copy is out of step: % rows missing, % rows extra', v_missing, v_extra;
+    END IF;
+
+    DROP TRIGGER trg_employee_skill_grade_mirror ON employee_skill_grade;
+    DROP TRIGGER trg_employee_skill_grade_history ON employee_skill_grade;
+
+    ALTER TABLE employee_skill_grade RENAME TO employee_skill_grade_unpartitioned;
+    ALTER INDEX employee_skill_grade_pkey RENAME TO employee_skill_grade_unpartitioned_pkey;
+    ALTER INDEX uk_employee_skill_grade RENAME TO uk_employee_skill_grade_unpartitioned;
+    ALTER INDEX idx_employee_skill_grade_skill_grade RENAME TO idx_employee_skill_grade_unpartitioned_skill_grade;
+    ALTER INDEX idx_employee_skill_grade_reviewer RENAME TO idx_employee_skill_grade_unpartitioned_reviewer;
+    ALTER INDEX idx_employee_skill_grade_certified RENAME TO idx_employee_skill_grade_unpartitioned_certified;
+
+    ALTER TABLE employee_skill_grade_partitioned RENAME TO employee_skill_grade;
+    ALTER INDEX employee_skill_grade_partitioned_pkey RENAME TO employee_skill_grade_pkey;
+    ALTER INDEX uk_employee_skill_grade_partitioned RENAME TO uk_employee_skill_grade;
+    ALTER INDEX idx_employee_skill_grade_partitioned_skill_grade RENAME TO idx_employee_skill_grade_skill_grade;
+    ALTER INDEX idx_employee_skill_grade_partitioned_reviewer RENAME TO idx_employee_skill_grade_reviewer;
+    ALTER INDEX idx_employee_skill_grade_partitioned_certified RENAME TO idx_employee_skill_grade_certified;
+
+    ALTER TABLE employee_skill_grade_unpartitioned ALTER COLUMN id DROP DEFAULT;
+    ALTER SEQUENCE employee_skill_grade_id_seq OWNED BY employee_skill_grade.id;
+
+    CREATE TRIGGER trg_employee_skill_grade_history
+        AFTER INSERT OR UPDATE OR DELETE ON employee_skill_grade
+        FOR EACH ROW EXECUTE FUNCTION record_employee_skill_grade_history();
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE employee_skill_grade_partitioned IS 'Hash partitioned by employee_id; replaces employee_skill_grade at cutover';
+COMMENT ON TABLE partition_backfill_progress IS 'Last copied ID of each online partitioning backfill';
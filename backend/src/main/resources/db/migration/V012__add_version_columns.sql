@@ -0,0 +1,42 @@
+-- Optimistic locking for the resources that support conditional updates
+ALTER TABLE employee ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE skill_grade ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employee_skill_grade ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- The mirror trigger copies rows by position, so the partitioned copy needs the column in the same place
+DO $$
+BEGIN
+    IF to_regclass('employee_skill_grade_partitioned') IS NOT NULL THEN
+        ALTER TABLE employee_skill_grade_partitioned ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+    END IF;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION mirror_employee_skill_grade() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM employee_skill_grade_partitioned
+        WHERE id = OLD.id AND employee_id = OLD.employee_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO employee_skill_grade_partitioned
+        SELECT NEW.*
+        ON CONFLICT (id, employee_id) DO UPDATE SET
+            skill_grade_id = EXCLUDED.skill_grade_id,
+            years_of_experience = EXCLUDED.years_of_experience,
+            last_used_date = EXCLUDED.last_used_date,
+            certified = EXCLUDED.certified,
+            employee_comment = EXCLUDED.employee_comment,
+            reviewed_by_employee_id = EXCLUDED.reviewed_by_employee_id,
+            reviewer_comment = EXCLUDED.reviewer_comment,
+            created_at = EXCLUDED.created_at,
+            updated_at = EXCLUDED.updated_at,
+            version = EXCLUDED.version;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON COLUMN employee.version IS 'Incremented by every update, compared by conditional updates';
+COMMENT ON COLUMN skill_grade.version IS 'Incremented by every update, compared by conditional updates';
+COMMENT ON COLUMN employee_skill_grade.version IS 'Incremented by every update, compared by conditional updates';
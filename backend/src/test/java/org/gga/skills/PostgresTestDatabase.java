@@ -0,0 +1,105 @@
+package org.gga.skills;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fresh PostgreSQL database for integration tests.
+ * <p>
+ * Databases are created on the server at {@value #URL_VARIABLE} when it is set, a JDBC URL of a database
+ * to connect to for creating them, with the credentials in {@value #USERNAME_VARIABLE} and
+ * {@value #PASSWORD_VARIABLE}. Otherwise an embedded server is started once per JVM; it refuses to run
+ * as root, so root users need a server of their own. The databases are dropped when the JVM exits.
+ *
+ * @param url the JDBC URL of the database
+ * @param username the user name
+ * @param password the password
+ */
+public record PostgresTestDatabase(String url, String username, String password) {
+
+    public static final String URL_VARIABLE = "SKILLS_TEST_POSTGRES_URL";
+    public static final String USERNAME_VARIABLE = "SKILLS_TEST_POSTGRES_USERNAME";
+    public static final String PASSWORD_VARIABLE = "SKILLS_TEST_POSTGRES_PASSWORD";
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+    private static final List<String> created = new ArrayList<>();
+    private static PostgresTestDatabase server;
+
+    /**
+     * Create an empty database.
+     *
+     * @param prefix the start of the database name
+     */
+    public static PostgresTestDatabase create(String prefix) {
+        PostgresTestDatabase admin = server();
+        String name = prefix + "_" + ProcessHandle.current().pid() + "_" + sequence.incrementAndGet();
+        admin.execute("CREATE DATABASE " + name);
+        synchronized (created) {
+            created.add(name);
+        }
+        return new PostgresTestDatabase(admin.url.replaceFirst("(//[^/]+/)[^?]*", "$1" + name),
+                admin.username, admin.password);
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    /**
+     * Run SQL statements outside a transaction.
+     */
+    public void execute(String... statements) {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to execute " + String.join("; ", statements), ex);
+        }
+    }
+
+    private static synchronized PostgresTestDatabase server() {
+        if (server != null) {
+            return server;
+        }
+        String url = System.getenv(URL_VARIABLE);
+        if (url != null && !url.isBlank()) {
+            server = new PostgresTestDatabase(url, System.getenv().getOrDefault(USERNAME_VARIABLE, "postgres"),
+                    System.getenv().getOrDefault(PASSWORD_VARIABLE, ""));
+            Runtime.getRuntime().addShutdownHook(new Thread(PostgresTestDatabase::dropCreated));
+            return server;
+        }
+        try {
+            EmbeddedPostgres embedded = EmbeddedPostgres.builder().start();
+            server = new PostgresTestDatabase(embedded.getJdbcUrl("postgres", "postgres"), "postgres", "");
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    embedded.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to start embedded PostgreSQL; set " + URL_VARIABLE
+                    + " to use another server", ex);
+        }
+    }
+
+    private static void dropCreated() {
+        synchronized (created) {
+            for (String name : created) {
+                server.execute("DROP DATABASE IF EXISTS " + name + " WITH (FORCE)");
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.gga.skills.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointClassTest {
+
+    @Test
+    void graphQlQueriesAreBulk() {
+        assertThat(EndpointClass.of(new MockHttpServletRequest("POST", "/graphql"))).isEqualTo(EndpointClass.BULK);
+    }
+
+    @Test
+    void classifiesReadsByPathAndParameters() {
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/api/exports/skill-matrix")))
+                .isEqualTo(EndpointClass.EXPORT);
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/api/skills")))
+                .isEqualTo(EndpointClass.BULK);
+
+        MockHttpServletRequest paginated = new MockHttpServletRequest("GET", "/api/skills");
+        paginated.setParameter("paginated", "true");
+        assertThat(EndpointClass.of(paginated)).isNull();
+    }
+
+    @Test
+    void pagesAndFilteredReadsAreNotLimited() {
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/api/employees"))).isNull();
+
+        MockHttpServletRequest page = new MockHttpServletRequest("GET", "/api/job-profiles");
+        page.setParameter("page", "2");
+        assertThat(EndpointClass.of(page)).isNull();
+
+        MockHttpServletRequest size = new MockHttpServletRequest("GET", "/api/skills");
+        size.setParameter("size", "50");
+        assertThat(EndpointClass.of(size)).isNull();
+
+        MockHttpServletRequest skillGrades = new MockHttpServletRequest("GET", "/api/skill-grades");
+        skillGrades.setParameter("skillId", "7");
+        assertThat(EndpointClass.of(skillGrades)).isNull();
+    }
+
+    @Test
+    void writesAreNotLimited() {
+        assertThat(EndpointClass.of(new MockHttpServletRequest("POST", "/api/employees"))).isNull();
+        assertThat(EndpointClass.of(new MockHttpServletRequest("DELETE", "/api/exports/skill-matrix"))).isNull();
+    }
+}
@@ -0,0 +1,156 @@
+package org.gga.skills.cluster;
+
+import org.gga.skills.PostgresTestDatabase;
+import org.gga.skills.SkillsApplication;
+import org.gga.skills.dto.EmployeeRequest;
+import org.gga.skills.event.AllResourcesChangedEvent;
+import org.gga.skills.event.EmployeeChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+import org.gga.skills.index.FacetIndex;
+import org.gga.skills.index.FacetIndex.FacetQuery;
+import org.gga.skills.service.EmployeeService;
+import org.gga.skills.service.ResponseCache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two application instances sharing one PostgreSQL database, as in a deployment with several replicas.
+ * Writes go through instance A, and instance B must drop what it cached or indexed about them.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClusterInvalidationIntegrationTest {
+
+    private static final String CHANNEL = "skills_invalidation";
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    private final PostgresTestDatabase database = PostgresTestDatabase.create("skills_cluster");
+    private final AtomicInteger allChangedOnB = new AtomicInteger();
+    private ConfigurableApplicationContext a;
+    private ConfigurableApplicationContext b;
+
+    @BeforeAll
+    void start() {
+        a = start("skills-a");
+        b = start("skills-b");
+        b.addApplicationListener(event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof AllResourcesChangedEvent) {
+                allChangedOnB.incrementAndGet();
+            }
+        });
+    }
+
+    @AfterAll
+    void stop() {
+        if (b != null) {
+            b.close();
+        }
+        if (a != null) {
+            a.close();
+        }
+    }
+
+    @Test
+    void writeOnOneInstanceInvalidatesTheResponseCacheAndFacetIndexOfTheOther() {
+        EmployeeService employeesOnA = a.getBean(EmployeeService.class);
+        long id = employeesOnA.createEmployee(
+                new EmployeeRequest("Ada", "Lovelace", "ada@example.org", "Engineering", "Analyst")).id();
+        FacetIndex facetsOnB = b.getBean(FacetIndex.class);
+        await().atMost(TIMEOUT).until(() -> departmentOf(facetsOnB, "Engineering").contains(id));
+
+        ResponseCache cacheOnB = b.getBean(ResponseCache.class);
+        AtomicInteger loads = new AtomicInteger();
+        cacheOnB.get(Resource.EMPLOYEE, id, loads::incrementAndGet, response -> null);
+        cacheOnB.get(Resource.EMPLOYEE, id, loads::incrementAndGet, response -> null);
+        assertThat(loads).hasValue(1);
+
+        employeesOnA.updateEmployee(id, null,
+                new EmployeeRequest("Ada", "Lovelace", "ada@example.org", "Research", "Analyst"));
+
+        await().atMost(TIMEOUT).untilAsserted(() -> {
+            assertThat(departmentOf(facetsOnB, "Research")).contains(id);
+            assertThat(departmentOf(facetsOnB, "Engineering")).doesNotContain(id);
+        });
+        await().atMost(TIMEOUT).until(() -> {
+            cacheOnB.get(Resource.EMPLOYEE, id, loads::incrementAndGet, response -> null);
+            return loads.get() == 2;
+        });
+    }
+
+    @Test
+    void changesTooLargeForOneNotificationInvalidateEverything() throws Exception {
+        Set<Long> employeeIds = LongStream.rangeClosed(1_000_000, 1_003_000).boxed().collect(Collectors.toSet());
+        String changes = new InvalidationMessage("a", employeeIds, Map.of(), false).encode();
+        assertThat(changes.getBytes(StandardCharsets.UTF_8).length).isGreaterThan(7999);
+        int before = allChangedOnB.get();
+
+        try (Connection listening = database.connect()) {
+            try (Statement statement = listening.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+            }
+            new TransactionTemplate(a.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+                    a.publishEvent(EmployeeChangedEvent.of(employeeIds)));
+
+            PGNotification[] notifications = listening.unwrap(PGConnection.class)
+                    .getNotifications((int) TIMEOUT.toMillis());
+            assertThat(notifications).hasSize(1);
+            assertThat(InvalidationMessage.decode(notifications[0].getParameter()).all()).isTrue();
+        }
+        await().atMost(TIMEOUT).until(() -> allChangedOnB.get() > before);
+    }
+
+    @Test
+    void droppedListeningConnectionInvalidatesEverythingAfterReconnecting() {
+        int before = allChangedOnB.get();
+
+        List<Boolean> terminated = new JdbcTemplate(a.getBean(DataSource.class)).queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                        + "WHERE application_name = 'skills-b' AND query LIKE 'LISTEN %'", Boolean.class);
+
+        assertThat(terminated).containsExactly(true);
+        await().atMost(TIMEOUT).until(() -> allChangedOnB.get() > before);
+    }
+
+    private ConfigurableApplicationContext start(String name) {
+        String url = database.url() + (database.url().contains("?") ? "&" : "?") + "ApplicationName=" + name;
+        // Arguments rather than default properties, which application.yml would override
+        return new SpringApplicationBuilder(SkillsApplication.class).run(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + database.username(),
+                "--spring.datasource.password=" + database.password(),
+                "--server.port=0",
+                // The listening connection's last statement stays LISTEN, which identifies it
+                "--skills.cluster-invalidation.poll-timeout=60s",
+                "--skills.cluster-invalidation.reconnect-delay=100ms",
+                "--logging.level.org.hibernate.SQL=INFO");
+    }
+
+    private static List<Long> departmentOf(FacetIndex facets, String department) {
+        return facets.search(new FacetQuery(Set.of(department), null, null, null, null, null), 0, 100).employeeIds();
+    }
+}
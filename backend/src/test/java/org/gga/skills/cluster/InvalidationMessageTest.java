@@ -0,0 +1,63 @@
+package org.gga.skills.cluster;
+
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationMessageTest {
+
+    @Test
+    void encodesEmployeesAndResourcesBySection() {
+        InvalidationMessage message = new InvalidationMessage("a", Set.of(1L), Map.of(Resource.SKILL, Set.of(3L)), false);
+
+        assertThat(message.encode()).isEqualTo("a;employees:1;SKILL:3");
+    }
+
+    @Test
+    void leavesOutEmptySections() {
+        InvalidationMessage message = new InvalidationMessage("a", Set.of(),
+                Map.of(Resource.SKILL, Set.of(), Resource.EMPLOYEE, Set.of(5L)), false);
+
+        assertThat(message.encode()).isEqualTo("a;EMPLOYEE:5");
+        assertThat(message.isEmpty()).isFalse();
+        assertThat(new InvalidationMessage("a", Set.of(), Map.of(Resource.SKILL, Set.of()), false).isEmpty()).isTrue();
+    }
+
+    @Test
+    void decodesWhatItEncodes() {
+        InvalidationMessage message = new InvalidationMessage("origin", Set.of(1L, 2L, 300L),
+                Map.of(Resource.SKILL, Set.of(3L, 4L), Resource.JOB_PROFILE, Set.of(7L)), false);
+
+        assertThat(InvalidationMessage.decode(message.encode())).isEqualTo(message);
+    }
+
+    @Test
+    void encodesAndDecodesInvalidatingEverything() {
+        assertThat(InvalidationMessage.all("a").encode()).isEqualTo("a;*");
+
+        InvalidationMessage decoded = InvalidationMessage.decode("a;*");
+        assertThat(decoded.all()).isTrue();
+        assertThat(decoded.origin()).isEqualTo("a");
+    }
+
+    @Test
+    void decodesAnOriginAloneAsNoChanges() {
+        InvalidationMessage decoded = InvalidationMessage.decode("a");
+
+        assertThat(decoded.all()).isFalse();
+        assertThat(decoded.isEmpty()).isTrue();
+    }
+
+    @Test
+    void decodesPayloadsItDoesNotUnderstandAsInvalidatingEverything() {
+        for (String payload : new String[] {"a;DEPARTMENT:1", "a;employees:x", "a;employees", "a;SKILL:1,,2"}) {
+            InvalidationMessage decoded = InvalidationMessage.decode(payload);
+            assertThat(decoded.all()).as(payload).isTrue();
+            assertThat(decoded.origin()).as(payload).isEqualTo("a");
+        }
+    }
+}
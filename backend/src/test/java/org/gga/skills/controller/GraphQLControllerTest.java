@@ -0,0 +1,150 @@
+package org.gga.skills.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.gga.skills.model.Employee;
+import org.gga.skills.model.EmployeeJobProfile;
+import org.gga.skills.model.EmployeeSkillGrade;
+import org.gga.skills.model.JobProfile;
+import org.gga.skills.model.JobProfileSkill;
+import org.gga.skills.model.Skill;
+import org.gga.skills.model.SkillGrade;
+import org.gga.skills.repository.EmployeeJobProfileRepository;
+import org.gga.skills.repository.EmployeeRepository;
+import org.gga.skills.repository.EmployeeSkillGradeRepository;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.JobProfileSkillRepository;
+import org.gga.skills.repository.SkillGradeRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that nesting levels cost a fixed number of SQL queries however many parents they resolve,
+ * and that nested lists are bounded.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureGraphQlTester
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GraphQLControllerTest {
+
+    private static final int EMPLOYEES = 40;
+    private static final int SKILLS = 6;
+    private static final int GRADES_PER_SKILL = 3;
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void seed(@Autowired EmployeeRepository employeeRepository,
+              @Autowired SkillRepository skillRepository,
+              @Autowired SkillGradeRepository skillGradeRepository,
+              @Autowired EmployeeSkillGradeRepository employeeSkillGradeRepository,
+              @Autowired JobProfileRepository jobProfileRepository,
+              @Autowired JobProfileSkillRepository jobProfileSkillRepository,
+              @Autowired EmployeeJobProfileRepository employeeJobProfileRepository) {
+        List<SkillGrade> grades = new ArrayList<>();
+        List<Skill> skills = new ArrayList<>();
+        for (int s = 0; s < SKILLS; s++) {
+            Skill skill = skillRepository.save(new Skill("Skill " + s));
+            skills.add(skill);
+            for (int g = 0; g < GRADES_PER_SKILL; g++) {
+                grades.add(skillGradeRepository.save(new SkillGrade(skill, "G" + g, null, g + 1)));
+            }
+        }
+        List<JobProfile> jobProfiles = List.of(
+                jobProfileRepository.save(new JobProfile("Backend", null)),
+                jobProfileRepository.save(new JobProfile("Frontend", null)));
+        for (Skill skill : skills) {
+            jobProfileSkillRepository.save(new JobProfileSkill(jobProfiles.get(skill.getId().intValue() % 2), skill));
+        }
+        List<EmployeeSkillGrade> employeeSkillGrades = new ArrayList<>();
+        for (int e = 0; e < EMPLOYEES; e++) {
+            Employee employee = employeeRepository.save(new Employee("First" + e, "Last" + e, "e" + e + "@example.org"));
+            for (int s = 0; s < SKILLS; s++) {
+                employeeSkillGrades.add(new EmployeeSkillGrade(employee, grades.get(s * GRADES_PER_SKILL + e % GRADES_PER_SKILL)));
+            }
+            employeeJobProfileRepository.save(new EmployeeJobProfile(employee, jobProfiles.get(e % 2)));
+        }
+        employeeSkillGradeRepository.saveAll(employeeSkillGrades);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void queriesPerNestingLevelDoNotGrowWithPageSize() {
+        List<String> documents = List.of(
+                "{ employees(size: %d) { id } }",
+                "{ employees(size: %d) { id skillGrades(first: 3) { id } } }",
+                "{ employees(size: %d) { id skillGrades(first: 3) { id skillGrade { id } } } }",
+                "{ employees(size: %d) { id skillGrades(first: 3) { id skillGrade { id skill { id name } } } } }",
+                "{ employees(size: %d) { id skillGrades(first: 3) { id skillGrade { id skill { id holders(first: 3) { id } } } } } }");
+        for (int depth = 0; depth < documents.size(); depth++) {
+            long small = queryCount(documents.get(depth).formatted(5));
+            long large = queryCount(documents.get(depth).formatted(EMPLOYEES));
+            assertThat(large).as("queries at depth %d", depth + 1).isEqualTo(small);
+            // One query per level, plus the page's count query
+            assertThat(large).as("queries at depth %d", depth + 1).isEqualTo(depth + 2);
+        }
+    }
+
+    @Test
+    void nestedListsReturnTheFirstEntriesOfEachParent() {
+        List<Map<String, Object>> skills = graphQlTester.document("{ skills { holders(first: 4) { id } } }")
+                .execute()
+                .path("skills")
+                .entityList(Object.class)
+                .get()
+                .stream()
+                .map(skill -> (Map<String, Object>) skill)
+                .toList();
+
+        assertThat(skills).hasSize(SKILLS);
+        assertThat(skills).allSatisfy(skill -> assertThat((List<?>) skill.get("holders")).hasSize(4));
+    }
+
+    @Test
+    void complexityCountsPageSizesOfNestedLists() {
+        String wide = "{ employees(size: 100) { id skillGrades(first: 100) { id certified } } }";
+        graphQlTester.document(wide)
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).anySatisfy(error ->
+                        assertThat(error.getMessage()).contains("maximum query complexity")));
+
+        graphQlTester.document("{ employees(size: 100) { id skillGrades(first: 10) { id certified } } }")
+                .execute()
+                .errors()
+                .verify();
+    }
+
+    private long queryCount(String document) {
+        statistics.clear();
+        graphQlTester.document(document).execute().errors().verify();
+        return statistics.getPrepareStatementCount();
+    }
+}
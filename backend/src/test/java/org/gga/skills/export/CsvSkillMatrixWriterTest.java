@@ -0,0 +1,32 @@
+package org.gga.skills.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvSkillMatrixWriterTest {
+
+    @Test
+    void quotesAndPrefixesFieldsStartingLikeFormulas() throws IOException {
+        assertThat(row("=HYPERLINK(\"x\")", "+1", "-1", "@SUM(A1)", "\tx", "\rx"))
+                .isEqualTo("\"'=HYPERLINK(\"\"x\"\")\",\"'+1\",\"'-1\",\"'@SUM(A1)\",\"'\tx\",\"'\rx\"\r\n");
+    }
+
+    @Test
+    void quotesOnlyFieldsThatNeedIt() throws IOException {
+        assertThat(row("Java", "a,b", "say \"hi\"", "a-b", "", null))
+                .isEqualTo("Java,\"a,b\",\"say \"\"hi\"\"\",a-b,,\r\n");
+    }
+
+    private static String row(String... cells) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvSkillMatrixWriter writer = new CsvSkillMatrixWriter(out);
+        writer.writeRow(cells);
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
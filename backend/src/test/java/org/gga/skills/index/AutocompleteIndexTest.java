@@ -0,0 +1,60 @@
+package org.gga.skills.index;
+
+import org.gga.skills.event.ResourceChangedEvent;
+import org.gga.skills.event.ResourceChangedEvent.Resource;
+import org.gga.skills.index.AutocompleteIndex.Completion;
+import org.gga.skills.index.AutocompleteIndex.Kind;
+import org.gga.skills.model.Skill;
+import org.gga.skills.repository.JobProfileRepository;
+import org.gga.skills.repository.SkillRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AutocompleteIndexTest {
+
+    private final SkillRepository skillRepository = mock(SkillRepository.class);
+    private final JobProfileRepository jobProfileRepository = mock(JobProfileRepository.class);
+    private final AutocompleteIndex index = new AutocompleteIndex(skillRepository, jobProfileRepository);
+
+    @Test
+    void keepsARenameAppliedWhileTheRebuildLoadsNames() {
+        when(skillRepository.findAllById(Set.of(1L))).thenReturn(List.of(skill(1, "Kotlin")));
+        when(skillRepository.findAll()).thenAnswer(invocation -> {
+            // The rename commits after the rebuild read the old name
+            index.onResourceChanged(ResourceChangedEvent.of(Resource.SKILL, 1L));
+            return List.of(skill(1, "Java"));
+        });
+
+        EmployeeIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(new EmployeeFacts(10, "Ada", "Lovelace", null, null,
+                List.of(new EmployeeFacts.Grade(1, 100, 3, false, null)), List.of()));
+        rebuild.commit();
+
+        assertThat(index.complete(Kind.SKILL, "kot", 10)).containsExactly(new Completion(1, "Kotlin", 1));
+        assertThat(index.complete(Kind.SKILL, "jav", 10)).isEmpty();
+    }
+
+    @Test
+    void completesFromAnyWordIgnoringCaseAndAccents() {
+        when(skillRepository.findAll()).thenReturn(List.of(skill(1, "Spring Boot"), skill(2, "Éclair Design")));
+
+        EmployeeIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.commit();
+
+        assertThat(index.complete(Kind.SKILL, "BOOT", 10)).extracting(Completion::id).containsExactly(1L);
+        assertThat(index.complete(Kind.SKILL, "ecl", 10)).extracting(Completion::id).containsExactly(2L);
+        assertThat(index.complete(Kind.SKILL, "des", 10)).extracting(Completion::label).containsExactly("Éclair Design");
+    }
+
+    private static Skill skill(long id, String name) {
+        Skill skill = new Skill(name);
+        skill.setId(id);
+        return skill;
+    }
+}
@@ -0,0 +1,211 @@
+package org.gga.skills.index;
+
+import org.gga.skills.index.CapabilityCube.Cell;
+import org.gga.skills.index.CapabilityCube.Dimension;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CapabilityCubeTest {
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+
+    @Test
+    void everyGroupingMatchesBruteForceAggregationAfterRebuildAndUpdates() {
+        Random random = new Random(42);
+        for (double rollupRatio : new double[] {0, 0.25, 1}) {
+            CapabilityCube cube = new CapabilityCube(rollupRatio);
+            Map<Long, EmployeeFacts> employees = new HashMap<>();
+            for (long id = 1; id <= 200; id++) {
+                employees.put(id, randomFacts(random, id));
+            }
+            rebuild(cube, employees.values());
+            assertMatchesBruteForce(cube, employees, random);
+
+            for (int i = 0; i < 100; i++) {
+                long id = 1 + random.nextInt(220);
+                EmployeeFacts facts = random.nextInt(5) == 0 ? null : randomFacts(random, id);
+                cube.update(id, facts);
+                if (facts == null) {
+                    employees.remove(id);
+                } else {
+                    employees.put(id, facts);
+                }
+            }
+            assertMatchesBruteForce(cube, employees, random);
+        }
+    }
+
+    @Test
+    void rebuildSizesTheKeyForManyValuesOfOneDimension() {
+        CapabilityCube cube = new CapabilityCube(0.25);
+        List<EmployeeFacts> employees = LongStream.rangeClosed(1, 70_000)
+                .mapToObj(id -> new EmployeeFacts(id, "F", "L", "D", "P",
+                        List.of(new EmployeeFacts.Grade(id, id, 1, false, 1)), List.of()))
+                .toList();
+
+        rebuild(cube, employees);
+
+        assertThat(cube.query(EnumSet.of(Dimension.SKILL), Map.of()).orElseThrow()).hasSize(70_000);
+    }
+
+    @Test
+    void updateWithMoreValuesThanTheKeyHoldsFailsWithoutChangingTheCube() {
+        CapabilityCube cube = new CapabilityCube(0.25);
+        EmployeeFacts first = new EmployeeFacts(1, "F", "L", "D", "P",
+                List.of(new EmployeeFacts.Grade(1, 1, 1, false, 1)), List.of());
+        rebuild(cube, List.of(first));
+        // Far more skills than the spare bits of a one-employee cube leave room for
+        List<EmployeeFacts.Grade> grades = LongStream.rangeClosed(1, 1 << 16)
+                .mapToObj(skillId -> new EmployeeFacts.Grade(skillId, skillId, 1, false, 1))
+                .toList();
+
+        assertThatThrownBy(() -> cube.update(1, new EmployeeFacts(1, "F", "L", "D", "P", grades, List.of())))
+                .isInstanceOf(IllegalStateException.class);
+
+        List<Cell> total = cube.query(Set.of(), Map.of()).orElseThrow();
+        assertThat(total).singleElement().extracting(Cell::grades).isEqualTo(1L);
+    }
+
+    @Test
+    void valuesThatDoNotFitEvenWhenRebuiltMakeTheCubeUnavailable() {
+        CapabilityCube cube = new CapabilityCube(0.25);
+        // 2^13 values in each of five dimensions need 65 bits
+        List<EmployeeFacts> employees = IntStream.range(0, 1 << 13)
+                .mapToObj(i -> new EmployeeFacts(i, "F", "L", "D" + i, "P" + i,
+                        List.of(new EmployeeFacts.Grade(i, i, i, false, 1)), List.of((long) i)))
+                .toList();
+
+        rebuild(cube, employees);
+        cube.update(1, employees.get(0));
+
+        assertThat(cube.query(Set.of(), Map.of())).isEmpty();
+        assertThat(cube.stats().cuboids()).isZero();
+    }
+
+    private static void rebuild(CapabilityCube cube, Collection<EmployeeFacts> employees) {
+        EmployeeIndex.Rebuild rebuild = cube.startRebuild();
+        employees.forEach(rebuild::add);
+        rebuild.commit();
+    }
+
+    private static void assertMatchesBruteForce(CapabilityCube cube, Map<Long, EmployeeFacts> employees, Random random) {
+        for (int grouping = 0; grouping < 1 << DIMENSIONS.length; grouping++) {
+            Set<Dimension> groupBy = EnumSet.noneOf(Dimension.class);
+            for (Dimension dimension : DIMENSIONS) {
+                if ((grouping & 1 << dimension.ordinal()) != 0) {
+                    groupBy.add(dimension);
+                }
+            }
+            Map<Dimension, Collection<?>> filters = new EnumMap<>(Dimension.class);
+            assertGrouping(cube, employees, groupBy, filters);
+
+            Dimension filtered = DIMENSIONS[random.nextInt(DIMENSIONS.length)];
+            filters.put(filtered, randomValues(random, filtered));
+            assertGrouping(cube, employees, groupBy, filters);
+        }
+    }
+
+    private static void assertGrouping(CapabilityCube cube, Map<Long, EmployeeFacts> employees, Set<Dimension> groupBy,
+                                       Map<Dimension, Collection<?>> filters) {
+        Map<Map<Dimension, Object>, List<Long>> actual = cube.query(groupBy, filters).orElseThrow().stream()
+                .collect(Collectors.toMap(Cell::coordinates,
+                        cell -> List.of(cell.grades(), cell.yearsOfExperience(), cell.gradesWithYears())));
+
+        assertThat(actual).as("group by %s, filter %s", groupBy, filters)
+                .isEqualTo(bruteForce(employees, groupBy, filters));
+    }
+
+    /**
+     * Aggregate every grade directly, counting it once per job profile when job profiles are grouped or
+     * filtered.
+     */
+    private static Map<Map<Dimension, Object>, List<Long>> bruteForce(Map<Long, EmployeeFacts> employees,
+                                                                      Set<Dimension> groupBy,
+                                                                      Map<Dimension, Collection<?>> filters) {
+        boolean byJobProfile = groupBy.contains(Dimension.JOB_PROFILE) || filters.containsKey(Dimension.JOB_PROFILE);
+        Map<Map<Dimension, Object>, long[]> sums = new HashMap<>();
+        for (EmployeeFacts employee : employees.values()) {
+            List<Long> jobProfiles = byJobProfile ? employee.jobProfileIds() : Collections.singletonList(null);
+            for (EmployeeFacts.Grade grade : employee.grades()) {
+                for (Long jobProfileId : jobProfiles) {
+                    Map<Dimension, Object> values = new EnumMap<>(Dimension.class);
+                    values.put(Dimension.DEPARTMENT, employee.department());
+                    values.put(Dimension.POSITION, employee.position());
+                    values.put(Dimension.JOB_PROFILE, jobProfileId);
+                    values.put(Dimension.SKILL, grade.skillId());
+                    values.put(Dimension.LEVEL, grade.level());
+                    values.put(Dimension.CERTIFIED, grade.certified());
+                    if (!filters.entrySet().stream()
+                            .allMatch(filter -> filter.getValue().contains(values.get(filter.getKey())))) {
+                        continue;
+                    }
+                    Map<Dimension, Object> coordinates = new EnumMap<>(Dimension.class);
+                    groupBy.forEach(dimension -> coordinates.put(dimension, values.get(dimension)));
+                    long[] sum = sums.computeIfAbsent(coordinates, key -> new long[3]);
+                    sum[0]++;
+                    if (grade.yearsOfExperience() != null) {
+                        sum[1] += grade.yearsOfExperience();
+                        sum[2]++;
+                    }
+                }
+            }
+        }
+        Map<Map<Dimension, Object>, List<Long>> cells = new HashMap<>();
+        sums.forEach((coordinates, sum) -> cells.put(coordinates, List.of(sum[0], sum[1], sum[2])));
+        return cells;
+    }
+
+    private static EmployeeFacts randomFacts(Random random, long id) {
+        List<EmployeeFacts.Grade> grades = new ArrayList<>();
+        for (int i = random.nextInt(5); i > 0; i--) {
+            long skillId = 1 + random.nextInt(8);
+            grades.add(new EmployeeFacts.Grade(skillId, skillId * 10, 1 + random.nextInt(4), random.nextBoolean(),
+                    random.nextInt(4) == 0 ? null : random.nextInt(15)));
+        }
+        List<Long> jobProfileIds = new ArrayList<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            jobProfileIds.add(1L + random.nextInt(4));
+        }
+        return new EmployeeFacts(id, "First" + id, "Last" + id, randomDepartment(random), randomPosition(random),
+                grades, jobProfileIds.stream().distinct().toList());
+    }
+
+    private static Collection<?> randomValues(Random random, Dimension dimension) {
+        return new HashSet<>(switch (dimension) {
+            case DEPARTMENT -> Arrays.asList(randomDepartment(random), "Unknown");
+            case POSITION -> Arrays.asList(randomPosition(random));
+            case JOB_PROFILE -> Arrays.asList(1L + random.nextInt(4), 1L + random.nextInt(4) + 10);
+            case SKILL -> Arrays.asList(1L + random.nextInt(8), 9L + random.nextInt(8));
+            case LEVEL -> Arrays.asList(1 + random.nextInt(4));
+            case CERTIFIED -> Arrays.asList(random.nextBoolean());
+        });
+    }
+
+    private static String randomDepartment(Random random) {
+        int department = random.nextInt(4);
+        return department == 0 ? null : "Department " + department;
+    }
+
+    private static String randomPosition(Random random) {
+        int position = random.nextInt(3);
+        return position == 0 ? null : "Position " + position;
+    }
+}
@@ -0,0 +1,121 @@
+package org.gga.skills.index;
+
+import org.gga.skills.index.CooccurrenceIndex.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CooccurrenceIndexTest {
+
+    private static final int SKILLS = 12;
+
+    @Test
+    void suggestsLikeARebuildAfterGradeChanges() {
+        Random random = new Random(5);
+        Map<Long, EmployeeFacts> employees = new HashMap<>();
+        for (long id = 1; id <= 40; id++) {
+            employees.put(id, randomEmployee(random, id));
+        }
+        CooccurrenceIndex incremental = rebuilt(employees);
+
+        for (int step = 0; step < 500; step++) {
+            long id = 1 + random.nextInt(60);
+            EmployeeFacts facts = switch (random.nextInt(3)) {
+                case 0 -> null;
+                case 1 -> randomEmployee(random, id);
+                default -> changedGrade(random, employees.getOrDefault(id, randomEmployee(random, id)));
+            };
+            if (facts == null) {
+                employees.remove(id);
+            } else {
+                employees.put(id, facts);
+            }
+            incremental.update(id, facts);
+
+            if (step % 25 == 0) {
+                assertSuggestsAlike(incremental, rebuilt(employees), random, step);
+            }
+        }
+        assertSuggestsAlike(incremental, rebuilt(employees), random, 500);
+    }
+
+    @Test
+    void ranksByLiftThenCoHolders() {
+        Map<Long, EmployeeFacts> employees = new HashMap<>();
+        employees.put(1L, employee(1, 1, 2));
+        employees.put(2L, employee(2, 1, 2, 3));
+        employees.put(3L, employee(3, 3, 4));
+        employees.put(4L, employee(4, 4));
+
+        List<Suggestion> suggestions = rebuilt(employees).suggest(List.of(1L), 10, 1);
+
+        // Every holder of skill 2 also holds skill 1, while skill 3 is held without it too
+        assertThat(suggestions).extracting(Suggestion::skillId).containsExactly(2L, 3L);
+        assertThat(suggestions.get(0).coHolders()).isEqualTo(2);
+        assertThat(suggestions.get(0).lift()).isEqualTo(2.0);
+        assertThat(rebuilt(employees).suggest(List.of(1L), 10, 2)).extracting(Suggestion::skillId).containsExactly(2L);
+    }
+
+    private static void assertSuggestsAlike(CooccurrenceIndex incremental, CooccurrenceIndex rebuilt, Random random,
+                                            int step) {
+        for (long skill = 1; skill <= SKILLS; skill++) {
+            assertThat(incremental.suggest(List.of(skill), SKILLS, 1)).as("step %d, skill %d", step, skill)
+                    .isEqualTo(rebuilt.suggest(List.of(skill), SKILLS, 1));
+        }
+        List<Long> seeds = List.of(1L + random.nextInt(SKILLS), 1L + random.nextInt(SKILLS));
+        int minCoHolders = 1 + random.nextInt(3);
+        assertThat(incremental.suggest(seeds, 5, minCoHolders)).as("step %d, skills %s", step, seeds)
+                .isEqualTo(rebuilt.suggest(seeds, 5, minCoHolders));
+    }
+
+    private static CooccurrenceIndex rebuilt(Map<Long, EmployeeFacts> employees) {
+        CooccurrenceIndex index = new CooccurrenceIndex();
+        EmployeeIndex.Rebuild rebuild = index.startRebuild();
+        employees.values().forEach(rebuild::add);
+        rebuild.commit();
+        return index;
+    }
+
+    private static EmployeeFacts randomEmployee(Random random, long id) {
+        long[] skills = new long[random.nextInt(5)];
+        for (int i = 0; i < skills.length; i++) {
+            skills[i] = 1 + random.nextInt(SKILLS);
+        }
+        return employee(id, skills);
+    }
+
+    /**
+     * The employee with one grade added, dropped or moved to another skill.
+     */
+    private static EmployeeFacts changedGrade(Random random, EmployeeFacts facts) {
+        List<EmployeeFacts.Grade> grades = new ArrayList<>(facts.grades());
+        int change = grades.isEmpty() ? 0 : random.nextInt(3);
+        if (change == 0) {
+            grades.add(grade(1 + random.nextInt(SKILLS)));
+        } else {
+            EmployeeFacts.Grade removed = grades.remove(random.nextInt(grades.size()));
+            if (change == 2) {
+                grades.add(grade(removed.skillId() % SKILLS + 1));
+            }
+        }
+        return new EmployeeFacts(facts.id(), facts.firstName(), facts.lastName(), null, null, grades, List.of());
+    }
+
+    private static EmployeeFacts employee(long id, long... skillIds) {
+        List<EmployeeFacts.Grade> grades = new ArrayList<>();
+        for (long skillId : skillIds) {
+            grades.add(grade(skillId));
+        }
+        return new EmployeeFacts(id, "First " + id, "Last " + id, null, null, grades, List.of());
+    }
+
+    private static EmployeeFacts.Grade grade(long skillId) {
+        return new EmployeeFacts.Grade(skillId, skillId * 10, 1, false, null);
+    }
+}
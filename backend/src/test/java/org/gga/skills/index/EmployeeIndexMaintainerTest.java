@@ -0,0 +1,79 @@
+package org.gga.skills.index;
+
+import org.gga.skills.event.EmployeeChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeIndexMaintainerTest {
+
+    private final EmployeeFactsLoader factsLoader = mock(EmployeeFactsLoader.class);
+    private final EmployeeSnapshotStore snapshots = mock(EmployeeSnapshotStore.class);
+    private final EmployeeIndex index = mock(EmployeeIndex.class);
+    private EmployeeIndexMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        when(index.startRebuild()).thenReturn(mock(EmployeeIndex.Rebuild.class));
+        maintainer = new EmployeeIndexMaintainer(factsLoader, snapshots, List.of(index), Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        maintainer.stop();
+    }
+
+    @Test
+    void appliesChangesOnTheApplierThreadCoalescingThoseReceivedWhileBusy() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EmployeeFacts first = facts(1);
+        when(factsLoader.load(List.of(1L))).thenAnswer(invocation -> {
+            assertThat(Thread.currentThread().getName()).isEqualTo("employee-index-applier");
+            loading.countDown();
+            release.await();
+            return Map.of(1L, first);
+        });
+        when(factsLoader.load(List.of(2L, 3L))).thenReturn(Map.of(2L, facts(2)));
+
+        maintainer.onEmployeeChanged(EmployeeChangedEvent.of(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        maintainer.onEmployeeChanged(EmployeeChangedEvent.of(2L));
+        maintainer.onEmployeeChanged(EmployeeChangedEvent.of(3L));
+        release.countDown();
+
+        verify(index, timeout(5000)).update(1L, first);
+        verify(index, timeout(5000)).update(eq(2L), any(EmployeeFacts.class));
+        verify(index, timeout(5000)).update(3L, null);
+    }
+
+    @Test
+    void rebuildsAfterALoadFails() {
+        when(factsLoader.load(anyCollection())).thenThrow(new IllegalStateException("connection refused"));
+
+        maintainer.onEmployeeChanged(EmployeeChangedEvent.of(1L));
+
+        verify(factsLoader, timeout(5000)).forEachBatch(anyInt(), any());
+        verify(index, timeout(5000)).startRebuild();
+    }
+
+    private static EmployeeFacts facts(long id) {
+        return new EmployeeFacts(id, "First", "Last", null, null, List.of(), List.of());
+    }
+}
@@ -0,0 +1,145 @@
+package org.gga.skills.index;
+
+import org.gga.skills.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmployeeSnapshotStoreTest {
+
+    private static final PostgresTestDatabase database = PostgresTestDatabase.create("skills_snapshot_store");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", database::url);
+        registry.add("spring.datasource.username", database::username);
+        registry.add("spring.datasource.password", database::password);
+    }
+
+    @Autowired
+    private EmployeeFactsLoader factsLoader;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeAll
+    void seed() {
+        // More employees than one write batch, with and without departments, grades and job profiles
+        jdbcTemplate.execute("""
+                INSERT INTO skill (name, description)
+                SELECT 'Skill ' || s, 'Skill ' || s FROM generate_series(1, 20) s;
+                INSERT INTO skill_grade (skill_id, code, description, level)
+                SELECT s.id, 'G' || l, 'Grade ' || l, l FROM skill s CROSS JOIN generate_series(1, 3) l;
+                INSERT INTO job_profile (name, description)
+                SELECT 'Profile ' || p, 'Profile ' || p FROM generate_series(1, 5) p;
+                INSERT INTO employee (first_name, last_name, email, department, position)
+                SELECT 'First ' || e, 'Läst ' || e, 'e' || e || '@example.org',
+                       CASE WHEN e % 4 = 0 THEN NULL ELSE 'Department ' || e % 7 END,
+                       CASE WHEN e % 5 = 0 THEN NULL ELSE 'Position ' || e % 3 END
+                FROM generate_series(1, 2500) e;
+                INSERT INTO employee_skill_grade (employee_id, skill_grade_id, years_of_experience, certified)
+                SELECT e.id, sg.id, CASE WHEN (e.id + sg.id) % 3 = 0 THEN NULL ELSE (e.id + sg.id) % 11 END,
+                       (e.id * sg.id) % 5 = 0
+                FROM employee e JOIN skill_grade sg ON (e.id + sg.skill_id) % 6 = 0 AND sg.level = 1 + e.id % 3
+                WHERE e.id % 10 <> 7;
+                INSERT INTO employee_job_profile (employee_id, job_profile_id)
+                SELECT e.id, p.id FROM employee e JOIN job_profile p ON (e.id + p.id) % 4 = 0;
+                """);
+    }
+
+    @Test
+    void readsBackWhatTheLoaderLoads() throws IOException {
+        EmployeeSnapshotStore store = store(directory.resolve("round-trip.snapshot"));
+        LocalDateTime before = factsLoader.currentTimestamp();
+
+        store.write();
+
+        EmployeeSnapshot snapshot = store.read(factsLoader.currentTimestamp()).orElseThrow();
+        assertThat(snapshot.watermark()).isAfterOrEqualTo(before);
+        List<Long> ids = snapshot.employees().stream().map(EmployeeFacts::id).toList();
+        assertThat(ids).hasSize(2500).isSorted();
+        Map<Long, EmployeeFacts> loaded = factsLoader.load(ids);
+        assertThat(snapshot.employees()).allSatisfy(facts ->
+                assertThat(normalized(facts)).isEqualTo(normalized(loaded.get(facts.id()))));
+        assertThat(snapshot.employees()).anySatisfy(facts -> assertThat(facts.department()).isNull());
+        assertThat(snapshot.employees()).anySatisfy(facts -> assertThat(facts.grades()).isEmpty());
+        assertThat(snapshot.employees()).flatMap(EmployeeFacts::grades)
+                .anySatisfy(grade -> assertThat(grade.yearsOfExperience()).isNull())
+                .anySatisfy(grade -> assertThat(grade.certified()).isTrue());
+    }
+
+    @Test
+    void rejectsATruncatedSnapshot() throws IOException {
+        Path path = directory.resolve("truncated.snapshot");
+        EmployeeSnapshotStore store = store(path);
+        store.write();
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertThatThrownBy(() -> EmployeeSnapshot.read(path)).isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+        assertThat(store.read(factsLoader.currentTimestamp())).isEmpty();
+    }
+
+    @Test
+    void rejectsASnapshotOfAnotherVersion() throws IOException {
+        Path path = directory.resolve("stale.snapshot");
+        EmployeeSnapshotStore store = store(path);
+        store.write();
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, 1);
+        Files.write(path, bytes);
+
+        assertThatThrownBy(() -> EmployeeSnapshot.read(path)).isInstanceOf(IOException.class)
+                .hasMessageContaining("version 1");
+        assertThat(store.read(factsLoader.currentTimestamp())).isEmpty();
+    }
+
+    @Test
+    void ignoresASnapshotOlderThanTheMaximumAge() {
+        EmployeeSnapshotStore store = store(directory.resolve("old.snapshot"));
+        store.write();
+
+        assertThat(store.read(factsLoader.currentTimestamp())).isPresent();
+        assertThat(store.read(factsLoader.currentTimestamp().plusDays(8))).isEmpty();
+    }
+
+    private EmployeeSnapshotStore store(Path path) {
+        return new EmployeeSnapshotStore(factsLoader, path.toString(), Duration.ofMinutes(10), Duration.ofDays(7));
+    }
+
+    /**
+     * The facts with grades and job profiles sorted, since the snapshot groups grades by skill grade.
+     */
+    private static EmployeeFacts normalized(EmployeeFacts facts) {
+        return new EmployeeFacts(facts.id(), facts.firstName(), facts.lastName(), facts.department(),
+                facts.position(),
+                facts.grades().stream().sorted(Comparator.comparingLong(EmployeeFacts.Grade::skillGradeId)).toList(),
+                facts.jobProfileIds().stream().sorted().toList());
+    }
+}
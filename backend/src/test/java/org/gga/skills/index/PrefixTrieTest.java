@@ -0,0 +1,123 @@
+package org.gga.skills.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    @Test
+    void findsTheIdsUnderKeysStartingWithThePrefix() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("java", 1, 5);
+        trie.add("javascript", 2, 3);
+        trie.add("jakarta ee", 3, 7);
+        trie.add("kotlin", 4, 9);
+
+        assertThat(trie.top("ja", 10)).containsExactly(3, 1, 2);
+        assertThat(trie.top("jav", 10)).containsExactly(1, 2);
+        assertThat(trie.top("javas", 10)).containsExactly(2);
+        assertThat(trie.top("java", 10)).containsExactly(1, 2);
+        assertThat(trie.top("javax", 10)).isEmpty();
+        assertThat(trie.top("x", 10)).isEmpty();
+        assertThat(trie.top("", 10)).containsExactly(4, 3, 1, 2);
+    }
+
+    @Test
+    void ranksByWeightWithTiesToTheLowerIdAndReturnsEachIdOnce() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("spring boot", 7, 2);
+        trie.add("boot", 7, 2);
+        trie.add("bootstrap", 6, 2);
+        trie.add("boot camp", 8, 4);
+
+        assertThat(trie.top("boot", 10)).containsExactly(8, 6, 7);
+        assertThat(trie.top("", 10)).containsExactly(8, 6, 7);
+        assertThat(trie.top("", 2)).containsExactly(8, 6);
+    }
+
+    @Test
+    void removesIdsAndRenamesKeepingTheOthers() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("java", 1, 5);
+        trie.add("javascript", 2, 3);
+        trie.add("jakarta", 3, 7);
+
+        trie.remove("java", 1);
+        assertThat(trie.top("ja", 10)).containsExactly(3, 2);
+        assertThat(trie.top("javascript", 10)).containsExactly(2);
+
+        // A rename removes the ID under its old key and adds it under the new one
+        trie.remove("jakarta", 3);
+        trie.add("jakarta ee", 3, 7);
+        assertThat(trie.top("jakarta", 10)).containsExactly(3);
+        assertThat(trie.top("jakarta e", 10)).containsExactly(3);
+
+        trie.remove("kotlin", 4);
+        trie.remove("java", 2);
+        assertThat(trie.top("ja", 10)).containsExactly(3, 2);
+
+        trie.remove("javascript", 2);
+        trie.remove("jakarta ee", 3);
+        assertThat(trie.top("", 10)).isEmpty();
+    }
+
+    @Test
+    void matchesAScanOfAllKeysAfterRandomAddsAndRemoves() {
+        Random random = new Random(3);
+        PrefixTrie trie = new PrefixTrie();
+        // Weight by key and ID
+        Map<String, Map<Long, Integer>> entries = new HashMap<>();
+        for (int step = 0; step < 3000; step++) {
+            String key = randomKey(random);
+            long id = random.nextInt(20);
+            Map<Long, Integer> ids = entries.computeIfAbsent(key, k -> new HashMap<>());
+            if (ids.containsKey(id)) {
+                trie.remove(key, id);
+                ids.remove(id);
+            } else {
+                int weight = random.nextInt(5);
+                trie.add(key, id, weight);
+                ids.put(id, weight);
+            }
+            if (step % 10 == 0) {
+                String prefix = randomKey(random).substring(0, random.nextInt(3));
+                int limit = 1 + random.nextInt(6);
+                assertThat(trie.top(prefix, limit)).as("step %d, prefix '%s'", step, prefix)
+                        .containsExactly(scan(entries, prefix, limit));
+            }
+        }
+    }
+
+    private static String randomKey(Random random) {
+        StringBuilder key = new StringBuilder();
+        for (int length = 2 + random.nextInt(4); length > 0; length--) {
+            key.append("ab c".charAt(random.nextInt(4)));
+        }
+        return key.toString();
+    }
+
+    /**
+     * The best weight of each ID under keys with the prefix, ranked like the trie ranks them.
+     */
+    private static long[] scan(Map<String, Map<Long, Integer>> entries, String prefix, int limit) {
+        Map<Long, Integer> best = new HashMap<>();
+        entries.forEach((key, ids) -> {
+            if (key.startsWith(prefix)) {
+                ids.forEach((id, weight) -> best.merge(id, weight, Math::max));
+            }
+        });
+        List<Map.Entry<Long, Integer>> ranked = best.entrySet().stream()
+                .sorted(Comparator.comparing(Map.Entry<Long, Integer>::getValue).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .toList();
+        return ranked.stream().mapToLong(Map.Entry::getKey).toArray();
+    }
+}
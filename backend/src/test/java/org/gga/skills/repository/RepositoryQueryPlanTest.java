@@ -0,0 +1,586 @@
+package org.gga.skills.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.gga.skills.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query method declared by the Spring Data repositories against PostgreSQL with the
+ * Flyway schema and data at scale, and checks the plans PostgreSQL chooses for the SQL they issue.
+ * <p>
+ * Each statement is replayed with its parameters as {@code EXPLAIN (ANALYZE, BUFFERS)} on the same
+ * connection. A statement fails its check if it scans a seeded table sequentially or touches more
+ * buffers than its budget, unless the method reads a whole table by design. Where V009 tuned an index
+ * for a method, the check also requires the plan to use it.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final int EMPLOYEES = 100_000;
+    private static final int GRADES_PER_EMPLOYEE = 10;
+    private static final int SKILLS = 2_000;
+    private static final int JOB_PROFILES = 500;
+
+    /**
+     * Sequential scans are only accepted on tables of up to this many 8 kB pages, where reading the
+     * whole table is as cheap as a few index lookups.
+     */
+    private static final int SMALL_TABLE_PAGES = 128;
+
+    /**
+     * Buffers a statement may touch before returning anything, and per row returned: enough to find each
+     * row and its joined entities through indexes, far too few to scan a large table.
+     */
+    private static final int BASE_BUFFERS = 100;
+    private static final int BUFFERS_PER_ROW = 20;
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            EmployeeRepository.class, EmployeeJobProfileRepository.class, EmployeeSkillGradeRepository.class,
+            JobProfileRepository.class, JobProfileSkillRepository.class, SkillGradeRepository.class,
+            SkillRepository.class);
+
+    private static final PostgresTestDatabase database = PostgresTestDatabase.create("skills_query_plans");
+    private static final StatementRecorder recorder = new StatementRecorder();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", database::url);
+        registry.add("spring.datasource.username", database::username);
+        registry.add("spring.datasource.password", database::password);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EmployeeJobProfileRepository employeeJobProfileRepository;
+    @Autowired
+    private EmployeeSkillGradeRepository employeeSkillGradeRepository;
+    @Autowired
+    private JobProfileRepository jobProfileRepository;
+    @Autowired
+    private JobProfileSkillRepository jobProfileSkillRepository;
+    @Autowired
+    private SkillGradeRepository skillGradeRepository;
+    @Autowired
+    private SkillRepository skillRepository;
+
+    private final Set<String> largeTables = new HashSet<>();
+    private long employeeId;
+    private long jobProfileId;
+    private long skillId;
+    private long skillGradeId;
+    private long employeeSkillGradeId;
+    private long reviewerId;
+
+    @BeforeAll
+    void seed() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                -- Bulk load without the mirror and history triggers
+                SET session_replication_role = replica;
+                INSERT INTO skill (name, description)
+                SELECT 'Skill ' || i, 'Description of skill ' || i FROM generate_series(1, %1$d) i;
+                INSERT INTO skill_grade (skill_id, code, description, level)
+                SELECT s.id, 'G' || g, 'Grade ' || g, g FROM skill s CROSS JOIN generate_series(1, 4) g;
+                INSERT INTO job_profile (name, description)
+                SELECT 'Profile ' || i, 'Description of profile ' || i FROM generate_series(1, %2$d) i;
+                INSERT INTO job_profile_skill (job_profile_id, skill_id)
+                SELECT p.id, s.id
+                FROM job_profile p CROSS JOIN generate_series(0, 9) k
+                JOIN skill s ON s.name = 'Skill ' || (1 + (p.id * 7 + k * 131) %% %1$d);
+                INSERT INTO employee (first_name, last_name, email, department, position)
+                SELECT 'First' || i, 'Last' || i, 'e' || i || '@example.org', 'Department ' || i %% 20,
+                       'Position ' || i %% 50
+                FROM generate_series(1, %3$d) i;
+                INSERT INTO employee_job_profile (employee_id, job_profile_id)
+                SELECT e.id, p.id
+                FROM employee e CROSS JOIN generate_series(0, 1) k
+                JOIN job_profile p ON p.name = 'Profile ' || (1 + (e.id + k * 250) %% %2$d);
+                -- Distinct skills per employee; one grade in a hundred certified, one in twenty reviewed
+                INSERT INTO employee_skill_grade (employee_id, skill_grade_id, years_of_experience, certified,
+                                                  employee_comment, reviewed_by_employee_id)
+                SELECT e.id, sg.id, (e.id + k) %% 15, (e.id + k) %% 100 = 0, 'Comment ' || e.id,
+                       CASE WHEN (e.id + k) %% 20 = 0 THEN 1 + (e.id * 13) %% %3$d END
+                FROM employee e CROSS JOIN generate_series(1, %4$d) k
+                JOIN skill s ON s.name = 'Skill ' || (1 + (e.id * 37 + k * 97) %% %1$d)
+                JOIN skill_grade sg ON sg.skill_id = s.id AND sg.level = 1 + (e.id / %1$d + k) %% 4;
+                RESET session_replication_role;
+                """.formatted(SKILLS, JOB_PROFILES, EMPLOYEES, GRADES_PER_EMPLOYEE));
+        jdbc.execute("VACUUM ANALYZE");
+        largeTables.addAll(jdbc.queryForList(
+                "SELECT relname FROM pg_class WHERE relkind = 'r' AND relpages > ?", String.class, SMALL_TABLE_PAGES));
+        employeeId = jdbc.queryForObject("SELECT id FROM employee WHERE email = 'e100@example.org'", Long.class);
+        jobProfileId = jdbc.queryForObject(
+                "SELECT MIN(job_profile_id) FROM employee_job_profile WHERE employee_id = ?", Long.class, employeeId);
+        skillId = jdbc.queryForObject("SELECT id FROM skill WHERE name = 'Skill 7'", Long.class);
+        skillGradeId = jdbc.queryForObject(
+                "SELECT MIN(skill_grade_id) FROM employee_skill_grade WHERE employee_id = ?", Long.class, employeeId);
+        employeeSkillGradeId = jdbc.queryForObject(
+                "SELECT id FROM employee_skill_grade WHERE employee_id = ? AND skill_grade_id = ?",
+                Long.class, employeeId, skillGradeId);
+        reviewerId = jdbc.queryForObject(
+                "SELECT MIN(reviewed_by_employee_id) FROM employee_skill_grade", Long.class);
+    }
+
+    @Test
+    void seedsTheTablesTheQueriesAreCheckedAgainst() {
+        assertThat(largeTables).contains("employee", "employee_skill_grade", "employee_job_profile");
+    }
+
+    @Test
+    void tunedIndexesReplaceTheRedundantOnes() {
+        List<String> indexes = new JdbcTemplate(dataSource).queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = 'public'", String.class);
+        assertThat(indexes).contains("idx_employee_department_id", "idx_employee_position_id",
+                "idx_skill_grade_skill_level", "idx_employee_skill_grade_skill_grade",
+                "idx_employee_job_profile_job_profile", "idx_job_profile_skill_skill",
+                "idx_employee_skill_grade_certified");
+        assertThat(indexes).doesNotContain("idx_employee_email", "idx_skill_name", "idx_job_profile_name",
+                "idx_skill_grade_skill", "idx_employee_skill_grade_employee", "idx_employee_job_profile_employee",
+                "idx_job_profile_skill_job_profile", "idx_skill_grade_code", "idx_employee_department");
+    }
+
+    @Test
+    void everyDeclaredQueryMethodIsChecked() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+                    declared.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        Set<String> checked = new TreeSet<>();
+        checks().forEach(check -> checked.add(check.name()));
+        assertThat(checked).isEqualTo(declared);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> queryPlans() {
+        return checks().stream().map(check -> DynamicTest.dynamicTest(check.name(), () -> verify(check)));
+    }
+
+    private List<PlanCheck> checks() {
+        List<Long> employeeIds = LongStream.rangeClosed(employeeId, employeeId + 49).boxed().toList();
+        List<Long> skillIds = LongStream.rangeClosed(skillId, skillId + 4).boxed().toList();
+        List<Long> jobProfileIds = LongStream.rangeClosed(jobProfileId, jobProfileId + 9).boxed().toList();
+        PageRequest byId = PageRequest.of(2, 20, Sort.by("id"));
+        return List.of(
+                check(EmployeeRepository.class, "findByEmail",
+                        () -> employeeRepository.findByEmail("e100@example.org"))
+                        .usesIndex("employee_email_key"),
+                check(EmployeeRepository.class, "existsByEmail",
+                        () -> employeeRepository.existsByEmail("e100@example.org"))
+                        .usesIndex("employee_email_key"),
+                check(EmployeeRepository.class, "existsByEmailAndIdNot",
+                        () -> employeeRepository.existsByEmailAndIdNot("e100@example.org", employeeId))
+                        .usesIndex("employee_email_key"),
+                check(EmployeeRepository.class, "findByDepartment",
+                        () -> employeeRepository.findByDepartment("Department 3", byId))
+                        .usesIndex("idx_employee_department_id"),
+                check(EmployeeRepository.class, "findByPosition",
+                        () -> employeeRepository.findByPosition("Position 7", byId))
+                        .usesIndex("idx_employee_position_id"),
+                check(EmployeeRepository.class, "searchEmployees",
+                        () -> employeeRepository.searchEmployees("irst123", PageRequest.of(0, 20)))
+                        .readsWholeTable("substring search in three columns has no index to use"),
+
+                check(EmployeeJobProfileRepository.class, "findByEmployeeId",
+                        () -> employeeJobProfileRepository.findByEmployeeId(employeeId))
+                        .usesIndex("uk_employee_job_profile"),
+                check(EmployeeJobProfileRepository.class, "findByJobProfileId",
+                        () -> employeeJobProfileRepository.findByJobProfileId(jobProfileId))
+                        .usesIndex("idx_employee_job_profile_job_profile"),
+                check(EmployeeJobProfileRepository.class, "findEmployeeIdsByJobProfileId",
+                        () -> employeeJobProfileRepository.findEmployeeIdsByJobProfileId(jobProfileId))
+                        .usesIndex("idx_employee_job_profile_job_profile"),
+                check(EmployeeJobProfileRepository.class, "findByEmployeeIdIn",
+                        () -> employeeJobProfileRepository.findByEmployeeIdIn(employeeIds))
+                        .usesIndex("uk_employee_job_profile"),
+                check(EmployeeJobProfileRepository.class, "findFirstByJobProfileIdIn",
+                        () -> employeeJobProfileRepository.findFirstByJobProfileIdIn(jobProfileIds, 20))
+                        .usesIndex("idx_employee_job_profile_job_profile"),
+                check(EmployeeJobProfileRepository.class, "findByEmployeeIdAndJobProfileId",
+                        () -> employeeJobProfileRepository.findByEmployeeIdAndJobProfileId(employeeId, jobProfileId))
+                        .usesIndex("idx_employee_job_profile_job_profile"),
+                check(EmployeeJobProfileRepository.class, "existsByEmployeeIdAndJobProfileId",
+                        () -> employeeJobProfileRepository.existsByEmployeeIdAndJobProfileId(employeeId, jobProfileId))
+                        .usesIndex("idx_employee_job_profile_job_profile"),
+                check(EmployeeJobProfileRepository.class, "deleteByEmployeeIdAndJobProfileId", () -> {
+                    employeeJobProfileRepository.deleteByEmployeeIdAndJobProfileId(employeeId, jobProfileId);
+                    entityManager.flush();
+                }).usesIndex("idx_employee_job_profile_job_profile"),
+
+                check(EmployeeSkillGradeRepository.class, "findByEmployeeId",
+                        () -> employeeSkillGradeRepository.findByEmployeeId(employeeId))
+                        .usesIndex("uk_employee_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findBySkillGradeId",
+                        () -> employeeSkillGradeRepository.findBySkillGradeId(skillGradeId))
+                        .usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "streamAll", () -> {
+                    try (Stream<?> all = employeeSkillGradeRepository.streamAll()) {
+                        all.limit(10).forEach(grade -> { });
+                    }
+                }).readsWholeTable("streams every employee skill grade for unpaged lists and exports"),
+                check(EmployeeSkillGradeRepository.class, "streamBySkillGradeId", () -> {
+                    try (Stream<?> grades = employeeSkillGradeRepository.streamBySkillGradeId(skillGradeId)) {
+                        grades.forEach(grade -> { });
+                    }
+                }).usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findFirstByEmployeeIdIn",
+                        () -> employeeSkillGradeRepository.findFirstByEmployeeIdIn(employeeIds, 20))
+                        .usesIndex("uk_employee_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findFirstBySkillGradeSkillIdIn",
+                        () -> employeeSkillGradeRepository.findFirstBySkillGradeSkillIdIn(skillIds, 20))
+                        .usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findByEmployeeIdAndSkillGradeId",
+                        () -> employeeSkillGradeRepository.findByEmployeeIdAndSkillGradeId(employeeId, skillGradeId))
+                        .usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "existsByEmployeeIdAndSkillGradeId",
+                        () -> employeeSkillGradeRepository.existsByEmployeeIdAndSkillGradeId(employeeId, skillGradeId))
+                        .usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "existsOtherByEmployeeIdAndSkillGradeId",
+                        () -> employeeSkillGradeRepository.existsOtherByEmployeeIdAndSkillGradeId(
+                                employeeSkillGradeId, null, skillGradeId + 1))
+                        .usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findEmployeeIdById",
+                        () -> employeeSkillGradeRepository.findEmployeeIdById(employeeSkillGradeId))
+                        .usesIndex("employee_skill_grade_pkey"),
+                check(EmployeeSkillGradeRepository.class, "deleteByEmployeeIdAndSkillGradeId", () -> {
+                    employeeSkillGradeRepository.deleteByEmployeeIdAndSkillGradeId(employeeId, skillGradeId);
+                    entityManager.flush();
+                }).usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findByCertified",
+                        () -> employeeSkillGradeRepository.findByCertified(true))
+                        .usesIndex("idx_employee_skill_grade_certified"),
+                check(EmployeeSkillGradeRepository.class, "findByReviewerId",
+                        () -> employeeSkillGradeRepository.findByReviewerId(reviewerId))
+                        .usesIndex("idx_employee_skill_grade_reviewer"),
+                check(EmployeeSkillGradeRepository.class, "findEmployeeIdsBySkillGradeId",
+                        () -> employeeSkillGradeRepository.findEmployeeIdsBySkillGradeId(skillGradeId))
+                        .usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findEmployeeIdsBySkillId",
+                        () -> employeeSkillGradeRepository.findEmployeeIdsBySkillId(skillId))
+                        .usesIndex("idx_employee_skill_grade_skill_grade"),
+                check(EmployeeSkillGradeRepository.class, "findCommentsByIdIn",
+                        () -> employeeSkillGradeRepository.findCommentsByIdIn(
+                                LongStream.rangeClosed(employeeSkillGradeId, employeeSkillGradeId + 99).boxed().toList()))
+                        .usesIndex("employee_skill_grade_pkey"),
+
+                check(JobProfileRepository.class, "findByName",
+                        () -> jobProfileRepository.findByName("Profile 7")),
+                check(JobProfileRepository.class, "existsByName",
+                        () -> jobProfileRepository.existsByName("Profile 7")),
+                check(JobProfileRepository.class, "findDescriptionsByIdIn",
+                        () -> jobProfileRepository.findDescriptionsByIdIn(jobProfileIds)),
+
+                check(JobProfileSkillRepository.class, "findByJobProfileId",
+                        () -> jobProfileSkillRepository.findByJobProfileId(jobProfileId))
+                        .usesIndex("uk_job_profile_skill"),
+                check(JobProfileSkillRepository.class, "findSkillIdsByJobProfileId",
+                        () -> jobProfileSkillRepository.findSkillIdsByJobProfileId(jobProfileId))
+                        .usesIndex("uk_job_profile_skill"),
+                check(JobProfileSkillRepository.class, "findBySkillId",
+                        () -> jobProfileSkillRepository.findBySkillId(skillId))
+                        .usesIndex("idx_job_profile_skill_skill"),
+                check(JobProfileSkillRepository.class, "findByJobProfileIdIn",
+                        () -> jobProfileSkillRepository.findByJobProfileIdIn(jobProfileIds))
+                        .usesIndex("uk_job_profile_skill"),
+                check(JobProfileSkillRepository.class, "findBySkillIdIn",
+                        () -> jobProfileSkillRepository.findBySkillIdIn(skillIds))
+                        .usesIndex("idx_job_profile_skill_skill"),
+                check(JobProfileSkillRepository.class, "findAllWithJobProfile",
+                        () -> jobProfileSkillRepository.findAllWithJobProfile())
+                        .readsWholeTable("job profiles of every skill for unpaged skill lists"),
+                check(JobProfileSkillRepository.class, "findByEmployeeAssignedJobProfiles",
+                        () -> jobProfileSkillRepository.findByEmployeeAssignedJobProfiles(employeeId))
+                        .usesIndex("uk_employee_job_profile"),
+                check(JobProfileSkillRepository.class, "existsByJobProfileIdAndSkillId",
+                        () -> jobProfileSkillRepository.existsByJobProfileIdAndSkillId(jobProfileId, skillId))
+                        .usesIndex("idx_job_profile_skill_skill"),
+                check(JobProfileSkillRepository.class, "deleteByJobProfileIdAndSkillId", () -> {
+                    jobProfileSkillRepository.deleteByJobProfileIdAndSkillId(jobProfileId, skillId);
+                    entityManager.flush();
+                }).usesIndex("idx_job_profile_skill_skill"),
+
+                check(SkillGradeRepository.class, "findBySkillId",
+                        () -> skillGradeRepository.findBySkillId(skillId))
+                        .usesIndex("idx_skill_grade_skill_level"),
+                check(SkillGradeRepository.class, "findBySkillIdIn",
+                        () -> skillGradeRepository.findBySkillIdIn(skillIds))
+                        .usesIndex("idx_skill_grade_skill_level"),
+                check(SkillGradeRepository.class, "streamAllWithSkill", () -> {
+                    try (Stream<?> all = skillGradeRepository.streamAllWithSkill()) {
+                        all.forEach(grade -> { });
+                    }
+                }).readsWholeTable("streams every skill grade for unpaged lists"),
+                check(SkillGradeRepository.class, "findMaxLevelBySkillId",
+                        () -> skillGradeRepository.findMaxLevelBySkillId(skillId))
+                        .usesIndex("idx_skill_grade_skill_level"),
+                check(SkillGradeRepository.class, "findBySkillIdAndCode",
+                        () -> skillGradeRepository.findBySkillIdAndCode(skillId, "G2"))
+                        .usesIndex("uk_skill_grade_skill_code"),
+                check(SkillGradeRepository.class, "existsBySkillIdAndCode",
+                        () -> skillGradeRepository.existsBySkillIdAndCode(skillId, "G2"))
+                        .usesIndex("uk_skill_grade_skill_code"),
+                check(SkillGradeRepository.class, "existsOtherBySkillIdAndCode",
+                        () -> skillGradeRepository.existsOtherBySkillIdAndCode(skillGradeId, null, "G3"))
+                        .usesIndex("uk_skill_grade_skill_code"),
+                check(SkillGradeRepository.class, "findWithSkillByIdIn",
+                        () -> skillGradeRepository.findWithSkillByIdIn(
+                                LongStream.rangeClosed(skillGradeId, skillGradeId + 19).boxed().toList()))
+                        .usesIndex("skill_grade_pkey"),
+
+                check(SkillRepository.class, "findByName",
+                        () -> skillRepository.findByName("Skill 7"))
+                        .usesIndex("skill_name_key"),
+                check(SkillRepository.class, "existsByName",
+                        () -> skillRepository.existsByName("Skill 7"))
+                        .usesIndex("skill_name_key"),
+                check(SkillRepository.class, "streamAll", () -> {
+                    try (Stream<?> all = skillRepository.streamAll()) {
+                        all.forEach(skill -> { });
+                    }
+                }).readsWholeTable("streams every skill for unpaged lists"),
+                check(SkillRepository.class, "findDescriptionsByIdIn",
+                        () -> skillRepository.findDescriptionsByIdIn(skillIds))
+                        .usesIndex("skill_pkey"),
+                check(SkillRepository.class, "findAllDescriptions",
+                        () -> skillRepository.findAllDescriptions())
+                        .readsWholeTable("descriptions of every skill for unpaged lists"));
+    }
+
+    private void verify(PlanCheck check) throws SQLException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<RecordedStatement> statements = new ArrayList<>();
+        List<JsonNode> plans = new ArrayList<>();
+        transaction.executeWithoutResult(status -> {
+            // Writes are explained, which runs them, and rolled back with the transaction
+            status.setRollbackOnly();
+            statements.addAll(recorder.record(check.invocation()));
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            for (RecordedStatement statement : statements) {
+                plans.add(recorder.paused(() -> explain(connection, statement)));
+            }
+        });
+
+        assertThat(statements).as("statements of %s", check.name()).isNotEmpty();
+        Set<String> indexes = new HashSet<>();
+        for (int i = 0; i < plans.size(); i++) {
+            JsonNode plan = plans.get(i);
+            String sql = statements.get(i).sql();
+            List<JsonNode> nodes = new ArrayList<>();
+            collectNodes(plan, nodes);
+            nodes.stream().map(node -> node.path("Index Name").asText(null)).filter(name -> name != null)
+                    .forEach(indexes::add);
+            if (check.wholeTableReason() != null) {
+                continue;
+            }
+            for (JsonNode node : nodes) {
+                if ("Seq Scan".equals(node.path("Node Type").asText())) {
+                    assertThat(largeTables)
+                            .as("%s scans %s sequentially in %s%n%s", check.name(), node.path("Relation Name").asText(),
+                                    sql, outline(plan, ""))
+                            .doesNotContain(node.path("Relation Name").asText());
+                }
+            }
+            long buffers = plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+            long budget = BASE_BUFFERS + BUFFERS_PER_ROW * plan.path("Actual Rows").asLong();
+            assertThat(buffers).as("buffers of %s in %s%n%s", check.name(), sql, outline(plan, ""))
+                    .isLessThanOrEqualTo(budget);
+        }
+        if (check.index() != null) {
+            assertThat(indexes).as("indexes used by %s", check.name()).contains(check.index());
+        }
+    }
+
+    private static JsonNode explain(Connection connection, RecordedStatement statement) {
+        try (PreparedStatement explain = connection.prepareStatement(
+                "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql())) {
+            for (ParameterSetOperation parameter : statement.parameters()) {
+                parameter.getMethod().invoke(explain, parameter.getArgs());
+            }
+            try (ResultSet result = explain.executeQuery()) {
+                result.next();
+                return objectMapper.readTree(result.getString(1)).get(0).get("Plan");
+            }
+        } catch (SQLException | IllegalAccessException | InvocationTargetException
+                 | com.fasterxml.jackson.core.JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to explain " + statement.sql(), ex);
+        }
+    }
+
+    /**
+     * @return the node types, relations, indexes and buffers of a plan, one node per line
+     */
+    private static String outline(JsonNode node, String indent) {
+        StringBuilder outline = new StringBuilder(indent).append(node.path("Node Type").asText());
+        if (node.has("Relation Name")) {
+            outline.append(" on ").append(node.path("Relation Name").asText());
+        }
+        if (node.has("Index Name")) {
+            outline.append(" using ").append(node.path("Index Name").asText());
+        }
+        outline.append(" (rows=").append(node.path("Actual Rows").asLong())
+                .append(" loops=").append(node.path("Actual Loops").asLong())
+                .append(" buffers=").append(node.path("Shared Hit Blocks").asLong() + node.path("Shared Read Blocks").asLong())
+                .append(")\n");
+        for (JsonNode child : node.path("Plans")) {
+            outline.append(outline(child, indent + "  "));
+        }
+        return outline.toString();
+    }
+
+    private static void collectNodes(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        for (JsonNode child : node.path("Plans")) {
+            collectNodes(child, nodes);
+        }
+    }
+
+    private static PlanCheck check(Class<?> repository, String method, Runnable invocation) {
+        return new PlanCheck(repository.getSimpleName() + "." + method, invocation, null, null);
+    }
+
+    /**
+     * @param name the repository and method
+     * @param invocation calls the method
+     * @param index an index the plan must use, or {@code null}
+     * @param wholeTableReason why the method reads whole tables, exempting it from the scan and buffer checks
+     */
+    private record PlanCheck(String name, Runnable invocation, String index, String wholeTableReason) {
+
+        PlanCheck usesIndex(String index) {
+            return new PlanCheck(name, invocation, index, wholeTableReason);
+        }
+
+        PlanCheck readsWholeTable(String reason) {
+            return new PlanCheck(name, invocation, index, reason);
+        }
+    }
+
+    private record RecordedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    /**
+     * Records the statements executed through the data source while recording is on.
+     */
+    private static class StatementRecorder implements QueryExecutionListener {
+
+        private final ThreadLocal<List<RecordedStatement>> recording = new ThreadLocal<>();
+
+        List<RecordedStatement> record(Runnable invocation) {
+            List<RecordedStatement> statements = new ArrayList<>();
+            recording.set(statements);
+            try {
+                invocation.run();
+            } finally {
+                recording.remove();
+            }
+            return statements;
+        }
+
+        <T> T paused(java.util.function.Supplier<T> action) {
+            List<RecordedStatement> statements = recording.get();
+            recording.remove();
+            try {
+                return action.get();
+            } finally {
+                if (statements != null) {
+                    recording.set(statements);
+                }
+            }
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+            List<RecordedStatement> statements = recording.get();
+            if (statements == null) {
+                return;
+            }
+            for (QueryInfo query : queries) {
+                List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                        ? List.of()
+                        : query.getParametersList().get(0);
+                statements.add(new RecordedStatement(query.getQuery(), parameters));
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingDataSource {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource source) {
+                        return ProxyDataSourceBuilder.create(source).listener(recorder).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.gga.skills.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gga.skills.PostgresTestDatabase;
+import org.gga.skills.event.AllResourcesChangedEvent;
+import org.gga.skills.index.CapabilityCube;
+import org.gga.skills.index.CapabilityCube.Cell;
+import org.gga.skills.index.SimilarityIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmployeeSkillGradeServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+    private static final PostgresTestDatabase database = PostgresTestDatabase.create("skills_grade_service");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", database::url);
+        registry.add("spring.datasource.username", database::username);
+        registry.add("spring.datasource.password", database::password);
+    }
+
+    @Autowired
+    private EmployeeSkillGradeService employeeSkillGradeService;
+    @Autowired
+    private CapabilityCube capabilityCube;
+    @Autowired
+    private SimilarityIndex similarityIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long ada;
+    private long grace;
+    private long adaSecondGrade;
+
+    @BeforeAll
+    void seed() {
+        long first = insertGrade(insertSkill("Java"));
+        long second = insertGrade(insertSkill("SQL"));
+        ada = insertEmployee("ada");
+        grace = insertEmployee("grace");
+        insertEmployeeGrade(ada, first);
+        adaSecondGrade = insertEmployeeGrade(ada, second);
+        insertEmployeeGrade(grace, first);
+
+        eventPublisher.publishEvent(new AllResourcesChangedEvent());
+        await().atMost(TIMEOUT).until(() -> totalYears() == 3);
+    }
+
+    @Test
+    void patchingOnlyYearsOfExperienceUpdatesTheIndexes() throws Exception {
+        double similarity = similarityIndex.findSimilar(grace, 1).orElseThrow().get(0).similarity();
+
+        employeeSkillGradeService.patchEmployeeSkillGrade(adaSecondGrade, null,
+                objectMapper.readTree("{\"yearsOfExperience\": 20}"));
+
+        await().atMost(TIMEOUT).until(() -> totalYears() == 22);
+        // Ada's second skill now weighs more, so she is less like Grace, who only has the first
+        assertThat(similarityIndex.findSimilar(grace, 1).orElseThrow().get(0).similarity()).isLessThan(similarity);
+    }
+
+    private long totalYears() {
+        List<Cell> cells = capabilityCube.query(Set.of(), Map.of()).orElseThrow();
+        return cells.isEmpty() ? 0 : cells.get(0).yearsOfExperience();
+    }
+
+    private long insertSkill(String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO skill (name, description) VALUES (?, ?) RETURNING id", Long.class, name, name);
+    }
+
+    private long insertGrade(long skillId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO skill_grade (skill_id, code, description, level) VALUES (?, 'G2', 'Grade 2', 2) RETURNING id",
+                Long.class, skillId);
+    }
+
+    private long insertEmployee(String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO employee (first_name, last_name, email) VALUES (?, ?, ?) RETURNING id",
+                Long.class, name, name, name + "@example.org");
+    }
+
+    private long insertEmployeeGrade(long employeeId, long skillGradeId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO employee_skill_grade (employee_id, skill_grade_id, years_of_experience, certified) "
+                        + "VALUES (?, ?, 1, false) RETURNING id",
+                Long.class, employeeId, skillGradeId);
+    }
+}
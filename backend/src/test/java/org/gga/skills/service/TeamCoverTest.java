@@ -0,0 +1,103 @@
+package org.gga.skills.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamCoverTest {
+
+    @Test
+    void findsTheSmallestCoverOfExhaustiveSearchOnSmallRandomInstances() {
+        Random random = new Random(7);
+        for (int instance = 0; instance < 300; instance++) {
+            int skillCount = 1 + random.nextInt(10);
+            List<BitSet> coverage = randomCoverage(random, 1 + random.nextInt(12), skillCount);
+
+            TeamCover.Solution solution = new TeamCover(coverage, skillCount).solve(deadlineIn(10_000));
+
+            assertThat(solution.optimal()).as("instance %d", instance).isTrue();
+            assertCovers(coverage, solution.members());
+            assertThat(solution.members()).as("instance %d: %s", instance, coverage)
+                    .hasSize(smallestCoverSize(coverage));
+        }
+    }
+
+    @Test
+    void returnsAValidCoverWhenTheTimeBudgetRunsOut() {
+        Random random = new Random(11);
+        int skillCount = 120;
+        List<BitSet> coverage = randomCoverage(random, 400, skillCount);
+
+        TeamCover.Solution solution = new TeamCover(coverage, skillCount).solve(System.nanoTime());
+
+        assertThat(solution.optimal()).isFalse();
+        assertCovers(coverage, solution.members());
+    }
+
+    @Test
+    void coversNothingWhenNoCandidateHoldsASkill() {
+        TeamCover.Solution solution = new TeamCover(List.of(new BitSet(), new BitSet()), 3).solve(deadlineIn(10_000));
+
+        assertThat(solution.members()).isEmpty();
+        assertThat(solution.optimal()).isTrue();
+    }
+
+    private static List<BitSet> randomCoverage(Random random, int candidates, int skillCount) {
+        double density = 0.1 + random.nextDouble() * 0.4;
+        List<BitSet> coverage = new ArrayList<>(candidates);
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            BitSet skills = new BitSet(skillCount);
+            for (int skill = 0; skill < skillCount; skill++) {
+                if (random.nextDouble() < density) {
+                    skills.set(skill);
+                }
+            }
+            coverage.add(skills);
+        }
+        return coverage;
+    }
+
+    /**
+     * Checks that the members are distinct, ascending and hold every skill that any candidate holds.
+     */
+    private static void assertCovers(List<BitSet> coverage, int[] members) {
+        BitSet coverable = new BitSet();
+        coverage.forEach(coverable::or);
+        BitSet covered = new BitSet();
+        for (int i = 0; i < members.length; i++) {
+            if (i > 0) {
+                assertThat(members[i]).isGreaterThan(members[i - 1]);
+            }
+            covered.or(coverage.get(members[i]));
+        }
+        assertThat(covered).isEqualTo(coverable);
+    }
+
+    private static int smallestCoverSize(List<BitSet> coverage) {
+        BitSet coverable = new BitSet();
+        coverage.forEach(coverable::or);
+        int smallest = Integer.MAX_VALUE;
+        for (int team = 0; team < 1 << coverage.size(); team++) {
+            BitSet covered = new BitSet();
+            for (int candidate = 0; candidate < coverage.size(); candidate++) {
+                if ((team & 1 << candidate) != 0) {
+                    covered.or(coverage.get(candidate));
+                }
+            }
+            if (covered.equals(coverable)) {
+                smallest = Math.min(smallest, Integer.bitCount(team));
+            }
+        }
+        return smallest;
+    }
+
+    private static long deadlineIn(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,66 @@
+package org.gga.skills.index;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Uses gather and scatter over the posting slots, which the JIT compiles to single instructions on
+ * AVX-512. Compiled by the {@code vector} Maven profile and only loaded by {@link SimilarityKernel#create()}
+ * when the incubator module is present.
+ */
+final class VectorSimilarityKernel implements SimilarityKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void accumulate(float[] scores, int[] slots, float[] weights, int length, float weight) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        FloatVector factor = FloatVector.broadcast(SPECIES, weight);
+        for (; i < bound; i += SPECIES.length()) {
+            // Slots are distinct, so no lane of the scatter overwrites another
+            FloatVector current = FloatVector.fromArray(SPECIES, scores, 0, slots, i);
+            FloatVector.fromArray(SPECIES, weights, i)
+                    .fma(factor, current)
+                    .intoArray(scores, 0, slots, i);
+        }
+        for (; i < length; i++) {
+            scores[slots[i]] += weight * weights[i];
+        }
+    }
+
+    @Override
+    public void scale(float[] scores, float[] factors, int length) {
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, scores, i)
+                    .mul(FloatVector.fromArray(SPECIES, factors, i))
+                    .intoArray(scores, i);
+        }
+        for (; i < length; i++) {
+            scores[i] *= factors[i];
+        }
+    }
+
+    @Override
+    public int nextAtLeast(float[] scores, int from, int length, float threshold) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(length - from);
+        for (; i < bound; i += SPECIES.length()) {
+            VectorMask<Float> above = FloatVector.fromArray(SPECIES, scores, i)
+                    .compare(VectorOperators.GE, threshold);
+            if (above.anyTrue()) {
+                return i + above.firstTrue();
+            }
+        }
+        for (; i < length; i++) {
+            if (scores[i] >= threshold) {
+                return i;
+            }
+        }
+        return length;
+    }
+}
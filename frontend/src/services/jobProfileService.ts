@@ -3,7 +3,10 @@ import { JobProfile, JobProfileRequest } from '../types';
 
 export const jobProfileService = {
   getAll: async (): Promise<JobProfile[]> => {
-    const response = await api.get<JobProfile[]>('/job-profiles');
+    // List responses omit descriptions unless selected explicitly
+    const response = await api.get<JobProfile[]>('/job-profiles', {
+      params: { fields: 'name,description,createdAt,updatedAt' },
+    });
     return response.data;
   },
 
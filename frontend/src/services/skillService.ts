@@ -3,7 +3,8 @@ import { JobProfile, Skill, SkillRequest } from '../types';
 
 export const skillService = {
   getAll: async (): Promise<Skill[]> => {
-    const response = await api.get<Skill[]>('/skills');
+    // List responses omit descriptions unless requested explicitly
+    const response = await api.get<Skill[]>('/skills', { params: { includeDescription: true } });
     return response.data;
   },
 
@@ -7,6 +7,7 @@ export interface Employee {
   position?: string;
   createdAt: string;
   updatedAt: string;
+  version: number;
 }
 
 export interface EmployeeRequest {
@@ -50,14 +51,17 @@ export interface SkillGrade {
   skillName: string;
   code: string;
   description?: string;
+  level: number;
   createdAt: string;
   updatedAt: string;
+  version: number;
 }
 
 export interface SkillGradeRequest {
   skillId: number;
   code: string;
   description?: string;
+  level?: number;
 }
 
 export interface EmployeeSkillGrade {
@@ -77,6 +81,7 @@ export interface EmployeeSkillGrade {
   reviewerComment?: string;
   createdAt: string;
   updatedAt: string;
+  version: number;
 }
 
 export interface EmployeeSkillGradeRequest {